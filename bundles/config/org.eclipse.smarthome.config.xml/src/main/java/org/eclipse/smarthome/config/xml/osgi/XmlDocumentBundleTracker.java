@@ -26,6 +26,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -105,6 +108,11 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
     private final String readyMarkerKey;
 
     private final ReadWriteLock lockOpenState = new ReentrantReadWriteLock();
+
+    // startup metrics, reported once the initially relevant bundles have been loaded
+    private volatile long openTime;
+    private final AtomicInteger totalParsedXmlDocuments = new AtomicInteger();
+    private final AtomicBoolean initialLoadingReported = new AtomicBoolean();
     private OpenState openState = OpenState.CREATED;
 
     @SuppressWarnings("rawtypes")
@@ -179,6 +187,7 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
             logger.warn("Open XML document bundle tracker forbidden (state: {})", openState);
             return;
         }
+        openTime = System.nanoTime();
 
         relevantBundlesTracker = new BundleTracker(context,
                 Bundle.RESOLVED | Bundle.STARTING | Bundle.STOPPING | Bundle.ACTIVE, null) {
@@ -390,14 +399,19 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
         if (isNotFragment(bundle)) {
             Enumeration<URL> xmlDocumentPaths = bundle.findEntries(xmlDirectory, "*.xml", true);
             if (xmlDocumentPaths != null) {
+                long start = System.nanoTime();
                 Collection<URL> filteredPaths = filterPatches(xmlDocumentPaths, bundle);
-                parseDocuments(bundle, filteredPaths);
+                int numberOfParsedXmlDocuments = parseDocuments(bundle, filteredPaths);
+                totalParsedXmlDocuments.addAndGet(numberOfParsedXmlDocuments);
+                logger.debug("Parsed {} of {} XML documents in {} of module '{}' in {} ms.", numberOfParsedXmlDocuments,
+                        filteredPaths.size(), xmlDirectory, bundle.getSymbolicName(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
             }
         }
         finishBundle(bundle);
     }
 
-    private void parseDocuments(Bundle bundle, Collection<URL> filteredPaths) {
+    private int parseDocuments(Bundle bundle, Collection<URL> filteredPaths) {
         int numberOfParsedXmlDocuments = 0;
         for (URL xmlDocumentURL : filteredPaths) {
             String moduleName = bundle.getSymbolicName();
@@ -410,7 +424,7 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
             } catch (Exception ex) {
                 // If we are not open, we can stop here.
                 if (withLock(lockOpenState.readLock(), () -> openState != OpenState.OPENED)) {
-                    return;
+                    return numberOfParsedXmlDocuments;
                 }
                 logger.warn("The XML document '{}' in module '{}' could not be parsed: {}", xmlDocumentFile, moduleName,
                         ex.getLocalizedMessage(), ex);
@@ -419,6 +433,7 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
         if (numberOfParsedXmlDocuments > 0) {
             addingFinished(bundle);
         }
+        return numberOfParsedXmlDocuments;
     }
 
     private void registerReadyMarker(Bundle bundle) {
@@ -446,6 +461,10 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
     }
 
     private void loadingCompleted() {
+        if (initialLoadingReported.compareAndSet(false, true)) {
+            logger.debug("Loaded {} XML documents in {} of {} modules in {} ms.", totalParsedXmlDocuments.get(),
+                    xmlDirectory, finishedBundles.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openTime));
+        }
     }
 
     @Override
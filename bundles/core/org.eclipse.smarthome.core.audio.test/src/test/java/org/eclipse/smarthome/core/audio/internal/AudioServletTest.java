@@ -15,7 +15,12 @@ package org.eclipse.smarthome.core.audio.internal;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.assertThat;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jetty.client.api.ContentResponse;
 import org.eclipse.jetty.client.api.Request;
@@ -24,6 +29,7 @@ import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
 import org.eclipse.smarthome.core.audio.FileAudioStream;
+import org.eclipse.smarthome.core.audio.FixedLengthAudioStream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -156,4 +162,64 @@ public class AudioServletTest extends AbstractAudioServeltTest {
         assertThat("The response status was not as expected", response.getStatus(), is(HttpStatus.NOT_FOUND_404));
     }
 
+    @Test
+    public void multitimeStreamsSupportRangeRequests() throws Exception {
+        AudioStream audioStream = getByteArrayAudioStream(testByteArray, AudioFormat.CONTAINER_NONE,
+                AudioFormat.CODEC_MP3);
+
+        String url = serveStream(audioStream, 10);
+
+        ContentResponse response = getHttpRequest(url).header("Range", "bytes=1-").send();
+        assertThat("The response status was not as expected", response.getStatus(),
+                is(HttpStatus.PARTIAL_CONTENT_206));
+        assertThat("The response content was not as expected", response.getContent(), is(new byte[] { 1, 2 }));
+        assertThat("The content range was not as expected", response.getHeaders().get("Content-Range"),
+                is("bytes 1-2/3"));
+
+        response = getHttpRequest(url).header("Range", "bytes=5-").send();
+        assertThat("The response status was not as expected", response.getStatus(),
+                is(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE));
+
+        response = getHttpRequest(url).send();
+        assertThat("The response status was not as expected", response.getStatus(), is(HttpStatus.OK_200));
+        assertThat("The response content was not as expected", response.getContent(), is(testByteArray));
+    }
+
+    @Test
+    public void contentOfMultitimeStreamIsReadOnce() throws Exception {
+        AtomicInteger clones = new AtomicInteger();
+        FixedLengthAudioStream audioStream = new FixedLengthAudioStream() {
+            private final InputStream in = new ByteArrayInputStream(testByteArray);
+
+            @Override
+            public AudioFormat getFormat() {
+                return AudioFormat.MP3;
+            }
+
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public long length() {
+                return testByteArray.length;
+            }
+
+            @Override
+            public InputStream getClonedStream() {
+                clones.incrementAndGet();
+                return new ByteArrayInputStream(testByteArray);
+            }
+        };
+
+        String url = serveStream(audioStream, 10);
+
+        ContentResponse response = getHttpRequest(url).send();
+        assertThat("The response content was not as expected", response.getContent(), is(testByteArray));
+        response = getHttpRequest(url).header("Range", "bytes=1-").send();
+        assertThat("The response content was not as expected", response.getContent(), is(new byte[] { 1, 2 }));
+        assertThat("The stream was not read only once", clones.get(), is(1));
+    }
+
 }
@@ -44,6 +44,11 @@ public class ByteArrayAudioStream extends FixedLengthAudioStream {
         return stream.read();
     }
 
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return stream.read(b, off, len);
+    }
+
     @Override
     public void close() throws IOException {
         stream.close();
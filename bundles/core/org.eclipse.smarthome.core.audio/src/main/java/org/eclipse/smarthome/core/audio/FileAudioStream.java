@@ -88,6 +88,11 @@ public class FileAudioStream extends FixedLengthAudioStream {
         return inputStream.read();
     }
 
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return inputStream.read(b, off, len);
+    }
+
     @Override
     public void close() throws IOException {
         inputStream.close();
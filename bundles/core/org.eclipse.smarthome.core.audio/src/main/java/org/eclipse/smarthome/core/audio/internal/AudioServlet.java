@@ -12,12 +12,19 @@
  */
 package org.eclipse.smarthome.core.audio.internal;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import javax.servlet.ServletException;
@@ -30,6 +37,7 @@ import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioHTTPServer;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
 import org.eclipse.smarthome.core.audio.FixedLengthAudioStream;
 import org.eclipse.smarthome.io.http.servlet.SmartHomeServlet;
 import org.osgi.service.component.annotations.Activate;
@@ -41,6 +49,11 @@ import org.osgi.service.http.HttpService;
 /**
  * A servlet that serves audio streams via HTTP.
  *
+ * Streams which can be fetched multiple times support single byte range requests. File based streams are transferred
+ * through their file channel. The content of any other multi-time stream is read only once and then shared by all
+ * requests, so that several sinks fetching the same stream do not each read it from its source again. Requests which
+ * arrive while the content is still being read wait for it instead of reading the stream themselves.
+ *
  * @author Kai Kreuzer - Initial contribution and API
  *
  */
@@ -51,11 +64,19 @@ public class AudioServlet extends SmartHomeServlet implements AudioHTTPServer {
 
     private static final String SERVLET_NAME = "/audio";
 
+    // multi-time streams up to this size are buffered in memory, larger ones are read for every request
+    private static final long MAX_BUFFERED_STREAM_SIZE = 10 * 1024 * 1024;
+
+    private static final String RANGE_PREFIX = "bytes=";
+
     private final Map<String, AudioStream> oneTimeStreams = new ConcurrentHashMap<>();
     private final Map<String, FixedLengthAudioStream> multiTimeStreams = new ConcurrentHashMap<>();
 
     private final Map<String, Long> streamTimeouts = new ConcurrentHashMap<>();
 
+    /* content of multi-time streams, only present while the stream itself is served */
+    private final Map<String, CompletableFuture<byte[]>> multiTimeStreamContents = new ConcurrentHashMap<>();
+
     @Activate
     protected void activate() {
         super.activate(SERVLET_NAME);
@@ -77,22 +98,7 @@ public class AudioServlet extends SmartHomeServlet implements AudioHTTPServer {
         super.unsetHttpService(httpService);
     }
 
-    private InputStream prepareInputStream(final String streamId, final HttpServletResponse resp)
-            throws AudioException {
-        final AudioStream stream;
-        final boolean multiAccess;
-        if (oneTimeStreams.containsKey(streamId)) {
-            stream = oneTimeStreams.remove(streamId);
-            multiAccess = false;
-        } else if (multiTimeStreams.containsKey(streamId)) {
-            stream = multiTimeStreams.get(streamId);
-            multiAccess = true;
-        } else {
-            return null;
-        }
-
-        logger.debug("Stream to serve is {}", streamId);
-
+    private void setContentType(AudioStream stream, HttpServletResponse resp) {
         // try to set the content-type, if possible
         final String mimeType;
         if (stream.getFormat().getCodec() == AudioFormat.CODEC_MP3) {
@@ -107,19 +113,6 @@ public class AudioServlet extends SmartHomeServlet implements AudioHTTPServer {
         if (mimeType != null) {
             resp.setContentType(mimeType);
         }
-
-        // try to set the content-length, if possible
-        if (stream instanceof FixedLengthAudioStream) {
-            final Long size = ((FixedLengthAudioStream) stream).length();
-            resp.setContentLength(size.intValue());
-        }
-
-        if (multiAccess) {
-            // we need to care about concurrent access and have a separate stream for each thread
-            return ((FixedLengthAudioStream) stream).getClonedStream();
-        } else {
-            return stream;
-        }
     }
 
     @Override
@@ -129,25 +122,194 @@ public class AudioServlet extends SmartHomeServlet implements AudioHTTPServer {
         final String streamId = StringUtils.substringBefore(StringUtils.substringAfterLast(req.getRequestURI(), "/"),
                 ".");
 
-        try (final InputStream stream = prepareInputStream(streamId, resp)) {
-            if (stream == null) {
-                logger.debug("Received request for invalid stream id at {}", req.getRequestURI());
-                resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+        AudioStream oneTimeStream = oneTimeStreams.remove(streamId);
+        FixedLengthAudioStream multiTimeStream = oneTimeStream == null ? multiTimeStreams.get(streamId) : null;
+        if (oneTimeStream == null && multiTimeStream == null) {
+            logger.debug("Received request for invalid stream id at {}", req.getRequestURI());
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        logger.debug("Stream to serve is {}", streamId);
+
+        try {
+            if (oneTimeStream != null) {
+                serveOneTimeStream(oneTimeStream, resp);
             } else {
-                IOUtils.copy(stream, resp.getOutputStream());
-                resp.flushBuffer();
+                serveMultiTimeStream(streamId, multiTimeStream, req, resp);
             }
+            resp.flushBuffer();
         } catch (final AudioException ex) {
             resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.getMessage());
         }
     }
 
+    private void serveOneTimeStream(AudioStream stream, HttpServletResponse resp) throws IOException {
+        try (InputStream in = stream) {
+            setContentType(stream, resp);
+            // try to set the content-length, if possible
+            if (stream instanceof FixedLengthAudioStream) {
+                resp.setContentLength((int) ((FixedLengthAudioStream) stream).length());
+            }
+            IOUtils.copy(in, resp.getOutputStream());
+        }
+    }
+
+    private void serveMultiTimeStream(String streamId, FixedLengthAudioStream stream, HttpServletRequest req,
+            HttpServletResponse resp) throws IOException, AudioException {
+        setContentType(stream, resp);
+        resp.setHeader("Accept-Ranges", "bytes");
+
+        final long length = stream.length();
+        long start = 0;
+        long end = length - 1;
+        final String range = req.getHeader("Range");
+        if (range != null && range.startsWith(RANGE_PREFIX) && range.indexOf(',') < 0) {
+            long[] bounds = parseRange(range.substring(RANGE_PREFIX.length()).trim(), length);
+            if (bounds == null) {
+                resp.setHeader("Content-Range", "bytes */" + length);
+                resp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            resp.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        }
+        final long count = end - start + 1;
+        resp.setContentLength((int) count);
+
+        CompletableFuture<byte[]> content = multiTimeStreamContents.get(streamId);
+        if (content != null) {
+            resp.getOutputStream().write(getContent(content), (int) start, (int) count);
+            return;
+        }
+
+        // we need to care about concurrent access and have a separate stream for each request
+        try (InputStream in = stream.getClonedStream()) {
+            if (in instanceof FileInputStream) {
+                transfer(((FileInputStream) in).getChannel(), start, count, resp.getOutputStream());
+                return;
+            }
+            if (!(stream instanceof ByteArrayAudioStream) && length <= MAX_BUFFERED_STREAM_SIZE) {
+                // read the content once and share it with all further requests
+                CompletableFuture<byte[]> loading = new CompletableFuture<>();
+                content = shareContent(streamId, stream, loading);
+                if (content == loading) {
+                    try {
+                        loading.complete(IOUtils.toByteArray(in, length));
+                    } catch (IOException | RuntimeException e) {
+                        multiTimeStreamContents.remove(streamId, loading);
+                        loading.completeExceptionally(e);
+                        throw e;
+                    }
+                }
+                if (content != null) {
+                    resp.getOutputStream().write(getContent(content), (int) start, (int) count);
+                    return;
+                }
+            }
+            IOUtils.skipFully(in, start);
+            copy(in, resp.getOutputStream(), count);
+        }
+    }
+
+    /**
+     * Registers the content of a multi-time stream, unless the content of the stream is already being read by another
+     * request. This is done under the same lock as the removal of timed out streams, so that no content is registered
+     * for a stream that is no longer served.
+     *
+     * @param streamId the id of the stream
+     * @param stream the stream that has been looked up for the request
+     * @param loading the content to register
+     * @return the registered content or null, if the stream is not served anymore
+     */
+    private synchronized CompletableFuture<byte[]> shareContent(String streamId, FixedLengthAudioStream stream,
+            CompletableFuture<byte[]> loading) {
+        if (multiTimeStreams.get(streamId) != stream) {
+            return null;
+        }
+        return multiTimeStreamContents.computeIfAbsent(streamId, id -> loading);
+    }
+
+    private byte[] getContent(CompletableFuture<byte[]> content) throws IOException {
+        try {
+            return content.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the content of the stream", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed reading the content of the stream", e.getCause());
+        }
+    }
+
+    /**
+     * Parses the value of a single byte range.
+     *
+     * @param range the range without the unit, e.g. "0-499", "500-" or "-500"
+     * @param length the length of the content
+     * @return the first and the last byte position or null, if the range cannot be satisfied
+     */
+    private long[] parseRange(String range, long length) {
+        int dash = range.indexOf('-');
+        if (dash < 0 || length == 0) {
+            return null;
+        }
+        try {
+            String first = range.substring(0, dash).trim();
+            String last = range.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // suffix range, i.e. the last n bytes
+                long suffixLength = Long.parseLong(last);
+                start = Math.max(0, length - suffixLength);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start < 0 || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void transfer(FileChannel channel, long position, long count, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long transferred = 0;
+        while (transferred < count) {
+            long n = channel.transferTo(position + transferred, count - transferred, target);
+            if (n <= 0) {
+                break;
+            }
+            transferred += n;
+        }
+    }
+
+    private void copy(InputStream in, OutputStream out, long count) throws IOException {
+        byte[] buffer = new byte[8192];
+        long remaining = count;
+        while (remaining > 0) {
+            int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (n < 0) {
+                break;
+            }
+            out.write(buffer, 0, n);
+            remaining -= n;
+        }
+    }
+
     private synchronized void removeTimedOutStreams() {
         for (String streamId : multiTimeStreams.keySet()) {
             if (streamTimeouts.get(streamId) < System.nanoTime()) {
                 // the stream has expired, we need to remove it!
                 FixedLengthAudioStream stream = multiTimeStreams.remove(streamId);
                 streamTimeouts.remove(streamId);
+                multiTimeStreamContents.remove(streamId);
                 IOUtils.closeQuietly(stream);
                 stream = null;
                 logger.debug("Removed timed out stream {}", streamId);
@@ -280,4 +280,22 @@ public class QuantityTypeTest {
         assertEquals("1.013 bar", pressure.toUnit("bar").toString());
         assertEquals("101300 Pa", pressure.toUnit("Pa").toString());
     }
+
+    @Test
+    public void testRepeatedConversionsGiveSameResult() {
+        QuantityType<Energy> energy = new QuantityType<>("28800 J");
+        for (int i = 0; i < 3; i++) {
+            assertEquals("0.008 kWh", energy.toUnit("kWh").toString());
+            assertEquals(new QuantityType<Energy>("8 Wh"), energy.toUnit(SmartHomeUnits.WATT_HOUR));
+        }
+    }
+
+    @Test
+    public void testCompareTo() {
+        QuantityType<Energy> joules = new QuantityType<>("3600 J");
+        assertEquals(0, joules.compareTo(new QuantityType<>("1 Wh")));
+        assertTrue(joules.compareTo(new QuantityType<>("3601 J")) < 0);
+        assertTrue(joules.compareTo(new QuantityType<>("0.9 Wh")) > 0);
+        assertEquals(new BigDecimal("3600"), joules.toBigDecimal());
+    }
 }
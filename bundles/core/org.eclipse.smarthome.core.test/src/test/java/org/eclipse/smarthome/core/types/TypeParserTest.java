@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.types;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.IncreaseDecreaseType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.junit.Test;
+
+/**
+ * Test the {@link TypeParser}.
+ *
+ * @author agent - Initial contribution
+ */
+public class TypeParserTest {
+
+    private final List<Class<? extends State>> stateTypes = Arrays.asList(UnDefType.class, HSBType.class,
+            PercentType.class, DecimalType.class, OnOffType.class, StringType.class);
+
+    private final List<Class<? extends Command>> commandTypes = Arrays.asList(OnOffType.class,
+            IncreaseDecreaseType.class, PercentType.class, RefreshType.class);
+
+    @Test
+    public void testParseStateRespectsOrder() {
+        assertThat(TypeParser.parseState(stateTypes, "NULL"), is(UnDefType.NULL));
+        assertThat(TypeParser.parseState(stateTypes, "10,20,30"), is(new HSBType("10,20,30")));
+        assertThat(TypeParser.parseState(stateTypes, "50"), is(new PercentType(50)));
+        assertThat(TypeParser.parseState(stateTypes, "150"), is(new DecimalType(150)));
+        assertThat(TypeParser.parseState(stateTypes, "-1.5E2"), is(new DecimalType(-150)));
+        assertThat(TypeParser.parseState(stateTypes, "ON"), is(OnOffType.ON));
+        assertThat(TypeParser.parseState(stateTypes, "on"), is(new StringType("on")));
+        assertThat(TypeParser.parseState(stateTypes, "1e"), is(new StringType("1e")));
+    }
+
+    @Test
+    public void testParseCommand() {
+        assertThat(TypeParser.parseCommand(commandTypes, "OFF"), is(OnOffType.OFF));
+        assertThat(TypeParser.parseCommand(commandTypes, "INCREASE"), is(IncreaseDecreaseType.INCREASE));
+        assertThat(TypeParser.parseCommand(commandTypes, "REFRESH"), is(RefreshType.REFRESH));
+        assertThat(TypeParser.parseCommand(commandTypes, "42"), is(new PercentType(42)));
+        assertThat(TypeParser.parseCommand(commandTypes, "foo"), is(nullValue()));
+        assertThat(TypeParser.parseCommand(commandTypes, "142"), is(nullValue()));
+    }
+
+    @Test
+    public void testParseType() {
+        assertThat(TypeParser.parseType("OnOffType", "ON"), is(OnOffType.ON));
+        assertThat(TypeParser.parseType("DecimalType", "12.5"), is(new DecimalType("12.5")));
+        assertThat(TypeParser.parseType("DecimalType", "abc"), is(nullValue()));
+        assertThat(TypeParser.parseType("UnknownType", "ON"), is(nullValue()));
+    }
+
+    @Test
+    public void testParsePoint() {
+        assertThat(TypeParser.parseType("PointType", "52.5,13.4"), is(new PointType("52.5,13.4")));
+        assertThat(TypeParser.parseType("PointType", ""), is(nullValue()));
+        assertThat(TypeParser.parseType("PointType", "52.5"), is(nullValue()));
+    }
+
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.thing.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.binding.builder.ChannelBuilder;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link StateUpdateFilter}.
+ *
+ * @author agent - Initial contribution
+ */
+public class StateUpdateFilterTest extends JavaTest {
+
+    private static final ChannelUID CHANNEL_UID = new ChannelUID("test:thing:1:channel");
+
+    private ScheduledExecutorService scheduler;
+    private StateUpdateFilter filter;
+    private final List<State> forwarded = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        filter = new StateUpdateFilter(scheduler);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testUnconfiguredChannelIsNotFiltered() {
+        Channel channel = createChannel(new HashMap<>());
+
+        update(channel, OnOffType.ON);
+        update(channel, OnOffType.ON);
+
+        assertThat(forwarded.size(), is(2));
+        assertThat(filter.getSuppressedUpdates(CHANNEL_UID), is(0L));
+    }
+
+    @Test
+    public void testUnchangedStatesAreDropped() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StateUpdateFilter.CONFIG_FILTER_UNCHANGED, true);
+        Channel channel = createChannel(config);
+
+        update(channel, OnOffType.ON);
+        update(channel, OnOffType.ON);
+        update(channel, OnOffType.OFF);
+
+        assertThat(forwarded.size(), is(2));
+        assertThat(filter.getSuppressedUpdates(CHANNEL_UID), is(1L));
+    }
+
+    @Test
+    public void testUnchangedStateIsForwardedAfterTheItemStateChanged() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StateUpdateFilter.CONFIG_FILTER_UNCHANGED, true);
+        Channel channel = createChannel(config);
+
+        update(channel, OnOffType.ON);
+        // e.g. a command which the device did not carry out
+        filter.itemStateChanged(CHANNEL_UID);
+        update(channel, OnOffType.ON);
+        update(channel, OnOffType.ON);
+
+        assertThat(forwarded.size(), is(2));
+        assertThat(filter.getSuppressedUpdates(), is(Collections.singletonMap(CHANNEL_UID, 1L)));
+    }
+
+    @Test
+    public void testDeadband() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StateUpdateFilter.CONFIG_DEADBAND, "0.5");
+        Channel channel = createChannel(config);
+
+        update(channel, new QuantityType<>("20.0 °C"));
+        update(channel, new QuantityType<>("20.3 °C"));
+        update(channel, new QuantityType<>("293.45 K"));
+        update(channel, new QuantityType<>("20.6 °C"));
+
+        assertThat(forwarded.size(), is(2));
+        assertThat(forwarded.get(1), is(new QuantityType<>("20.6 °C")));
+        assertThat(filter.getSuppressedUpdates(CHANNEL_UID), is(2L));
+    }
+
+    @Test
+    public void testMinIntervalWithCoalescing() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StateUpdateFilter.CONFIG_MIN_INTERVAL, 200);
+        config.put(StateUpdateFilter.CONFIG_COALESCE, true);
+        Channel channel = createChannel(config);
+
+        update(channel, new DecimalType(1));
+        update(channel, new DecimalType(2));
+        update(channel, new DecimalType(3));
+
+        assertThat(forwarded.size(), is(1));
+        waitForAssert(() -> assertThat(forwarded.size(), is(2)));
+        assertThat(forwarded.get(1), is(new DecimalType(3)));
+        assertThat(filter.getSuppressedUpdates(CHANNEL_UID), is(1L));
+    }
+
+    @Test
+    public void testPendingUpdateIsDiscardedOnReconfiguration() throws InterruptedException {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StateUpdateFilter.CONFIG_MIN_INTERVAL, 200);
+        config.put(StateUpdateFilter.CONFIG_COALESCE, true);
+        Channel channel = createChannel(config);
+
+        update(channel, new DecimalType(1));
+        update(channel, new DecimalType(2));
+
+        Map<String, Object> newConfig = new HashMap<>(config);
+        newConfig.put(StateUpdateFilter.CONFIG_MIN_INTERVAL, 10000);
+        Channel reconfigured = createChannel(newConfig);
+        update(reconfigured, new DecimalType(3));
+
+        Thread.sleep(400);
+        assertThat(forwarded.size(), is(2));
+        assertThat(forwarded.get(1), is(new DecimalType(3)));
+    }
+
+    @Test
+    public void testRemovedChannelIsForgotten() throws InterruptedException {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StateUpdateFilter.CONFIG_MIN_INTERVAL, 200);
+        config.put(StateUpdateFilter.CONFIG_COALESCE, true);
+        Channel channel = createChannel(config);
+
+        update(channel, new DecimalType(1));
+        update(channel, new DecimalType(2));
+        update(channel, new DecimalType(3));
+        assertThat(filter.getSuppressedUpdates(CHANNEL_UID), is(1L));
+
+        filter.removeThing(CHANNEL_UID.getThingUID());
+
+        Thread.sleep(400);
+        assertThat(forwarded.size(), is(1));
+        assertThat(filter.getSuppressedUpdates(CHANNEL_UID), is(0L));
+    }
+
+    private void update(Channel channel, State state) {
+        filter.stateUpdated(channel, state, forwarded::add);
+    }
+
+    private Channel createChannel(Map<String, Object> config) {
+        return ChannelBuilder.create(CHANNEL_UID, "Number").withConfiguration(new Configuration(config)).build();
+    }
+
+}
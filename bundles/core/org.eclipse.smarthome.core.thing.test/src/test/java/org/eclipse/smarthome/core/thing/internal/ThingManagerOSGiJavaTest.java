@@ -255,6 +255,17 @@ public class ThingManagerOSGiJavaTest extends JavaOSGiTest {
         assertTrue(thc.get().isChannelLinked(CHANNEL_UID));
     }
 
+    @Test
+    public void testInitializationTimeIsRecorded() throws Exception {
+        assertNull(thingManager.getInitializationTime(THING_UID));
+
+        initializeThingHandlerCallback();
+
+        waitForAssert(() -> {
+            assertNotNull(thingManager.getInitializationTime(THING_UID));
+        });
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testCreateChannelBuilderThrowsIllegalArgumentException() throws Exception {
         AtomicReference<ThingHandlerCallback> thc = initializeThingHandlerCallback();
@@ -12,7 +12,8 @@
  */
 package org.eclipse.smarthome.core.thing.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
@@ -22,12 +23,29 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.core.events.EventPublisher;
+import org.eclipse.smarthome.core.service.ReadyMarker;
 import org.eclipse.smarthome.core.service.ReadyService;
 import org.eclipse.smarthome.core.storage.Storage;
 import org.eclipse.smarthome.core.storage.StorageService;
+import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandlerFactory;
+import org.eclipse.smarthome.core.thing.binding.builder.BridgeBuilder;
+import org.eclipse.smarthome.core.thing.binding.builder.ChannelBuilder;
+import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
+import org.eclipse.smarthome.core.thing.i18n.ThingStatusInfoI18nLocalizationService;
+import org.eclipse.smarthome.core.thing.link.ItemChannelLinkRegistry;
 import org.eclipse.smarthome.core.util.BundleResolver;
 import org.junit.Before;
 import org.junit.Test;
@@ -38,6 +56,7 @@ import org.osgi.service.component.ComponentContext;
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
+ * @author agent - Added tests of the parallel initialization
  *
  */
 public class ThingManagerTest {
@@ -123,4 +142,93 @@ public class ThingManagerTest {
         thingManager.setStorageService(mockStorageService);
         assertEquals(thingManager.isEnabled(unknownUID), false);
     }
+
+    @Test
+    public void testThingsOfABindingAreInitializedByPriority() {
+        ThingTypeUID thingTypeUID = new ThingTypeUID("test", "type");
+        Thing other = ThingBuilder.create(thingTypeUID, "other").build();
+        ChannelUID linkedChannelUID = new ChannelUID(new ThingUID(thingTypeUID, "linked"), "channel");
+        Thing linked = ThingBuilder.create(thingTypeUID, "linked")
+                .withChannel(ChannelBuilder.create(linkedChannelUID, "Switch").build()).build();
+        Thing bridge = BridgeBuilder.create(thingTypeUID, "bridge").build();
+
+        List<ThingUID> registered = new CopyOnWriteArrayList<>();
+        ThingManagerImpl thingManager = createThingManager(linkedChannelUID, registered, new AtomicInteger(),
+                new AtomicInteger(), other, linked, bridge);
+        Map<String, Object> config = new HashMap<>();
+        config.put("initializationConcurrency", 1);
+        thingManager.modified(config);
+
+        thingManager.onReadyMarkerAdded(new ReadyMarker(ThingManagerImpl.XML_THING_TYPE, "test"));
+
+        assertThat(registered, is(Arrays.asList(bridge.getUID(), linked.getUID(), other.getUID())));
+    }
+
+    @Test
+    public void testInitializationConcurrencyIsLimited() {
+        ThingTypeUID thingTypeUID = new ThingTypeUID("test", "type");
+        Thing[] things = new Thing[6];
+        for (int i = 0; i < things.length; i++) {
+            things[i] = ThingBuilder.create(thingTypeUID, "thing" + i).build();
+        }
+
+        List<ThingUID> registered = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ThingManagerImpl thingManager = createThingManager(null, registered, running, maxRunning, things);
+        Map<String, Object> config = new HashMap<>();
+        config.put("initializationConcurrency", 1);
+        config.put("initializationConcurrency.test", 2);
+        thingManager.modified(config);
+
+        thingManager.onReadyMarkerAdded(new ReadyMarker(ThingManagerImpl.XML_THING_TYPE, "test"));
+
+        // the calling thread returns once all things have been processed
+        assertThat(registered.size(), is(things.length));
+        assertThat(maxRunning.get(), is(2));
+    }
+
+    private ThingManagerImpl createThingManager(ChannelUID linkedChannelUID, List<ThingUID> registered,
+            AtomicInteger running, AtomicInteger maxRunning, Thing... things) {
+        ItemChannelLinkRegistry mockItemChannelLinkRegistry = mock(ItemChannelLinkRegistry.class);
+        when(mockItemChannelLinkRegistry.isLinked(any(ChannelUID.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0).equals(linkedChannelUID));
+
+        // the things are marked as disabled, so that only the registration of their handlers is exercised
+        when(mockStorage.containsKey(any())).thenReturn(true);
+        when(mockStorageService.getStorage(eq("thing_status_storage"), any(ClassLoader.class))).thenReturn(mockStorage);
+
+        ThingHandlerFactory mockFactory = mock(ThingHandlerFactory.class);
+        when(mockFactory.supportsThingType(any())).thenReturn(true);
+        when(mockFactory.registerHandler(any())).thenAnswer(invocation -> {
+            Thing thing = invocation.getArgument(0);
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(100);
+            } finally {
+                running.decrementAndGet();
+            }
+            registered.add(thing.getUID());
+            ThingHandler mockHandler = mock(ThingHandler.class);
+            when(mockHandler.getThing()).thenReturn(thing);
+            return mockHandler;
+        });
+
+        ThingManagerImpl thingManager = new ThingManagerImpl();
+        thingManager.setBundleResolver(mockBundleResolver);
+        thingManager.setThingRegistry(thingRegistry);
+        thingManager.setReadyService(mockReadyService);
+        thingManager.setItemChannelLinkRegistry(mockItemChannelLinkRegistry);
+        thingManager.setStorageService(mockStorageService);
+        thingManager.setEventPublisher(mock(EventPublisher.class));
+        thingManager.setThingStatusInfoI18nLocalizationService(new ThingStatusInfoI18nLocalizationService());
+        thingManager.addThingHandlerFactory(mockFactory);
+        thingManager.activate(mockComponentContext);
+        for (Thing thing : things) {
+            thingManager.thingAdded(thing, null);
+        }
+        assertTrue(registered.isEmpty());
+        return thingManager;
+    }
 }
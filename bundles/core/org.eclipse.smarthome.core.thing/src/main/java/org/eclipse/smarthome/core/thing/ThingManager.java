@@ -40,4 +40,15 @@ public interface ThingManager {
      */
     public void setEnabled(ThingUID thingUID, boolean isEnabled);
 
+    /**
+     * Returns the time it took the handler of a {@link Thing} to return from its last initialization.
+     *
+     * @param thingUID UID of the {@link Thing}.
+     * @return the duration in milliseconds or {@code null} if the handler of the {@link Thing} has not been initialized
+     *         or the implementation does not measure it
+     */
+    public default Long getInitializationTime(ThingUID thingUID) {
+        return null;
+    }
+
 }
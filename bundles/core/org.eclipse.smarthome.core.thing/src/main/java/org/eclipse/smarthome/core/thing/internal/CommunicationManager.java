@@ -32,6 +32,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.AbstractUID;
 import org.eclipse.smarthome.core.common.SafeCaller;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.common.registry.RegistryChangeListener;
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventFilter;
@@ -86,6 +87,7 @@ import org.slf4j.LoggerFactory;
  * It mainly mediates commands, state updates and triggers from ThingHandlers to the framework and vice versa.
  *
  * @author Simon Kaufmann - initial contribution and API, factored out of ThingManger
+ * @author agent - added filtering of state updates
  *
  */
 @NonNullByDefault
@@ -98,6 +100,8 @@ public class CommunicationManager implements EventSubscriber, RegistryChangeList
     private static final Set<String> SUBSCRIBED_EVENT_TYPES = Collections.unmodifiableSet(
             new HashSet<>(Arrays.asList(ItemStateEvent.TYPE, ItemCommandEvent.TYPE, ChannelTriggeredEvent.TYPE)));
 
+    private static final String THREADPOOL_NAME = "thingHandler";
+
     private final Logger logger = LoggerFactory.getLogger(CommunicationManager.class);
 
     @NonNullByDefault({})
@@ -129,6 +133,30 @@ public class CommunicationManager implements EventSubscriber, RegistryChangeList
 
     private final Set<ProfileAdvisor> profileAdvisors = new CopyOnWriteArraySet<>();
 
+    private final StateUpdateFilter stateUpdateFilter = new StateUpdateFilter(
+            ThreadPoolManager.getScheduledPool(THREADPOOL_NAME));
+
+    private final RegistryChangeListener<Thing> thingRegistryChangeListener = new RegistryChangeListener<Thing>() {
+        @Override
+        public void added(Thing element) {
+            // nothing to do
+        }
+
+        @Override
+        public void removed(Thing element) {
+            stateUpdateFilter.removeThing(element.getUID());
+        }
+
+        @Override
+        public void updated(Thing oldElement, Thing element) {
+            for (Channel channel : oldElement.getChannels()) {
+                if (element.getChannel(channel.getUID().getId()) == null) {
+                    stateUpdateFilter.removeChannel(channel.getUID());
+                }
+            }
+        }
+    };
+
     private final Map<String, @Nullable List<Class<? extends Command>>> acceptedCommandTypeMap = new ConcurrentHashMap<>();
     private final Map<String, @Nullable List<Class<? extends State>>> acceptedStateTypeMap = new ConcurrentHashMap<>();
 
@@ -315,6 +343,8 @@ public class CommunicationManager implements EventSubscriber, RegistryChangeList
             return !link.getLinkedUID().toString().equals(source);
         }).forEach(link -> {
             ChannelUID channelUID = link.getLinkedUID();
+            // the item state no longer necessarily matches the last state the channel forwarded
+            stateUpdateFilter.itemStateChanged(channelUID);
             Thing thing = getThing(channelUID.getThingUID());
             if (thing != null) {
                 Channel channel = thing.getChannel(channelUID.getId());
@@ -469,9 +499,28 @@ public class CommunicationManager implements EventSubscriber, RegistryChangeList
         });
     }
 
+    /**
+     * Returns the number of state updates which have been suppressed for the channels with a state update filter.
+     *
+     * @return the number of suppressed state updates by channel
+     */
+    public Map<ChannelUID, Long> getSuppressedStateUpdates() {
+        return stateUpdateFilter.getSuppressedUpdates();
+    }
+
     public void stateUpdated(ChannelUID channelUID, State state) {
         final Thing thing = getThing(channelUID.getThingUID());
+        final Channel channel = thing != null ? thing.getChannel(channelUID.getId()) : null;
+
+        if (channel == null) {
+            forwardStateUpdate(channelUID, thing, state);
+        } else {
+            stateUpdateFilter.stateUpdated(channel, state,
+                    filteredState -> forwardStateUpdate(channelUID, thing, filteredState));
+        }
+    }
 
+    private void forwardStateUpdate(ChannelUID channelUID, @Nullable Thing thing, State state) {
         handleCallFromHandler(channelUID, thing, profile -> {
             if (profile instanceof StateProfile) {
                 ((StateProfile) profile).onStateUpdateFromHandler(state);
@@ -538,9 +587,11 @@ public class CommunicationManager implements EventSubscriber, RegistryChangeList
     @Reference
     protected void setThingRegistry(ThingRegistry thingRegistry) {
         this.thingRegistry = thingRegistry;
+        thingRegistry.addRegistryChangeListener(thingRegistryChangeListener);
     }
 
     protected void unsetThingRegistry(ThingRegistry thingRegistry) {
+        thingRegistry.removeRegistryChangeListener(thingRegistryChangeListener);
         this.thingRegistry = null;
     }
 
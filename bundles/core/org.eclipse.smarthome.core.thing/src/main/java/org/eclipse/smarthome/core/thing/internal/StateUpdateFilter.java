@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.thing.internal;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Filters the state updates which thing handlers send for their channels, before they are passed to the profiles and
+ * turned into events. The filtering is configured per channel through the following channel configuration parameters:
+ * <ul>
+ * <li>{@value #CONFIG_FILTER_UNCHANGED}: drops updates that are equal to the last forwarded state</li>
+ * <li>{@value #CONFIG_DEADBAND}: drops numeric updates which differ less than the given value from the last forwarded
+ * state (in the unit of the last forwarded state)</li>
+ * <li>{@value #CONFIG_MIN_INTERVAL}: drops updates which arrive less than the given number of milliseconds after the
+ * last forwarded one</li>
+ * <li>{@value #CONFIG_COALESCE}: instead of dropping updates within the minimum interval, the last one of them is
+ * forwarded at the end of the interval</li>
+ * </ul>
+ * Channels without any of these parameters are not filtered at all. If the configuration of a channel changes, a
+ * coalesced update which is still pending is discarded and the filtering starts over with the new configuration. The
+ * parameters are declared in the config description
+ * {@value StateUpdateFilterConfigDescriptionAliasProvider#STATE_FILTER_URI}.
+ *
+ * The last forwarded state is forgotten whenever a linked item receives a command or a state update from another
+ * source, so that the next update of the channel is forwarded even if it equals the last forwarded state.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class StateUpdateFilter {
+
+    static final String CONFIG_FILTER_UNCHANGED = "stateFilterUnchanged";
+    static final String CONFIG_DEADBAND = "stateDeadband";
+    static final String CONFIG_MIN_INTERVAL = "stateMinInterval";
+    static final String CONFIG_COALESCE = "stateCoalesce";
+
+    private final Logger logger = LoggerFactory.getLogger(StateUpdateFilter.class);
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<ChannelUID, ChannelState> channelStates = new ConcurrentHashMap<>();
+
+    public StateUpdateFilter(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Passes the given state to the consumer, unless it is filtered according to the configuration of the channel.
+     * The consumer might be called later from another thread, if updates are coalesced.
+     *
+     * @param channel the channel which the state was updated for
+     * @param state the new state
+     * @param forward the consumer which processes the state
+     */
+    public void stateUpdated(Channel channel, State state, Consumer<State> forward) {
+        Configuration configuration = channel.getConfiguration();
+        ChannelState channelState = channelStates.get(channel.getUID());
+        if (channelState == null || channelState.configuration != configuration) {
+            if (channelState != null) {
+                // never forward a coalesced update according to the outdated configuration
+                channelState.cancelPending();
+            }
+            Policy policy = Policy.of(configuration);
+            if (policy == null) {
+                channelStates.remove(channel.getUID());
+                forward.accept(state);
+                return;
+            }
+            channelState = new ChannelState(configuration, policy);
+            channelStates.put(channel.getUID(), channelState);
+        }
+        channelState.stateUpdated(channel.getUID(), state, forward);
+    }
+
+    /**
+     * Forgets the last forwarded state of the given channel, as the state of a linked item has been changed by a
+     * command or a state update which did not come from the channel.
+     *
+     * @param channelUID the UID of the channel
+     */
+    public void itemStateChanged(ChannelUID channelUID) {
+        ChannelState channelState = channelStates.get(channelUID);
+        if (channelState != null) {
+            channelState.resetLastState();
+        }
+    }
+
+    /**
+     * Returns the number of suppressed updates of the given channel.
+     */
+    public long getSuppressedUpdates(ChannelUID channelUID) {
+        ChannelState channelState = channelStates.get(channelUID);
+        return channelState != null ? channelState.getSuppressedUpdates() : 0;
+    }
+
+    /**
+     * Returns the number of suppressed updates of all filtered channels.
+     */
+    public Map<ChannelUID, Long> getSuppressedUpdates() {
+        Map<ChannelUID, Long> suppressedUpdates = new HashMap<>();
+        channelStates.forEach((channelUID, channelState) -> suppressedUpdates.put(channelUID,
+                channelState.getSuppressedUpdates()));
+        return suppressedUpdates;
+    }
+
+    /**
+     * Forgets the filter state of the given channel and discards a pending update of it.
+     *
+     * @param channelUID the UID of the channel which has been removed
+     */
+    public void removeChannel(ChannelUID channelUID) {
+        ChannelState channelState = channelStates.remove(channelUID);
+        if (channelState != null) {
+            channelState.cancelPending();
+        }
+    }
+
+    /**
+     * Forgets the filter state of all channels of the given thing and discards their pending updates.
+     *
+     * @param thingUID the UID of the thing which has been removed
+     */
+    public void removeThing(ThingUID thingUID) {
+        channelStates.keySet().stream().filter(channelUID -> thingUID.equals(channelUID.getThingUID()))
+                .forEach(this::removeChannel);
+    }
+
+    private static class Policy {
+        final boolean filterUnchanged;
+        final @Nullable BigDecimal deadband;
+        final long minInterval;
+        final boolean coalesce;
+
+        private Policy(boolean filterUnchanged, @Nullable BigDecimal deadband, long minInterval, boolean coalesce) {
+            this.filterUnchanged = filterUnchanged;
+            this.deadband = deadband;
+            this.minInterval = minInterval;
+            this.coalesce = coalesce;
+        }
+
+        static @Nullable Policy of(Configuration configuration) {
+            boolean filterUnchanged = Boolean.parseBoolean(String.valueOf(configuration.get(CONFIG_FILTER_UNCHANGED)));
+            BigDecimal deadband = toBigDecimal(configuration.get(CONFIG_DEADBAND));
+            BigDecimal minInterval = toBigDecimal(configuration.get(CONFIG_MIN_INTERVAL));
+            boolean coalesce = Boolean.parseBoolean(String.valueOf(configuration.get(CONFIG_COALESCE)));
+            if (deadband != null && deadband.signum() <= 0) {
+                deadband = null;
+            }
+            long interval = minInterval != null ? Math.max(0, minInterval.longValue()) : 0;
+            if (!filterUnchanged && deadband == null && interval == 0) {
+                return null;
+            }
+            return new Policy(filterUnchanged, deadband, interval, coalesce && interval > 0);
+        }
+
+        private static @Nullable BigDecimal toBigDecimal(@Nullable Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof BigDecimal) {
+                return (BigDecimal) value;
+            }
+            try {
+                return new BigDecimal(value.toString());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private class ChannelState {
+        final Configuration configuration;
+        final Policy policy;
+
+        private @Nullable State lastState;
+        private long lastForwarded;
+        private long suppressedUpdates;
+
+        private @Nullable State pendingState;
+        private @Nullable Consumer<State> pendingForward;
+        private @Nullable ScheduledFuture<?> pendingJob;
+
+        ChannelState(Configuration configuration, Policy policy) {
+            this.configuration = configuration;
+            this.policy = policy;
+        }
+
+        synchronized void stateUpdated(ChannelUID channelUID, State state, Consumer<State> forward) {
+            State last = lastState;
+            if (last != null) {
+                if ((policy.filterUnchanged && state.equals(last)) || isWithinDeadband(last, state)) {
+                    // a pending update is superseded by a value which needs no update at all
+                    if (pendingState != null) {
+                        cancelPending();
+                        suppressed();
+                    }
+                    suppressed();
+                    logger.trace("Suppressed state update '{}' of channel '{}'", state, channelUID);
+                    return;
+                }
+                long delay = lastForwarded + policy.minInterval - System.currentTimeMillis();
+                if (delay > 0) {
+                    if (policy.coalesce) {
+                        if (pendingState != null) {
+                            suppressed();
+                        }
+                        pendingState = state;
+                        pendingForward = forward;
+                        if (pendingJob == null) {
+                            pendingJob = scheduler.schedule(this::forwardPending, delay, TimeUnit.MILLISECONDS);
+                        }
+                    } else {
+                        suppressed();
+                        logger.trace("Suppressed state update '{}' of channel '{}'", state, channelUID);
+                    }
+                    return;
+                }
+            }
+            cancelPending();
+            forward(state, forward);
+        }
+
+        synchronized void resetLastState() {
+            lastState = null;
+        }
+
+        synchronized long getSuppressedUpdates() {
+            return suppressedUpdates;
+        }
+
+        synchronized void cancelPending() {
+            ScheduledFuture<?> job = pendingJob;
+            if (job != null) {
+                job.cancel(false);
+            }
+            pendingJob = null;
+            pendingState = null;
+            pendingForward = null;
+        }
+
+        private synchronized void forwardPending() {
+            State state = pendingState;
+            Consumer<State> forward = pendingForward;
+            pendingJob = null;
+            pendingState = null;
+            pendingForward = null;
+            if (state != null && forward != null) {
+                forward(state, forward);
+            }
+        }
+
+        private void forward(State state, Consumer<State> forward) {
+            lastState = state;
+            lastForwarded = System.currentTimeMillis();
+            forward.accept(state);
+        }
+
+        private void suppressed() {
+            suppressedUpdates++;
+        }
+
+        private boolean isWithinDeadband(State last, State state) {
+            BigDecimal deadband = policy.deadband;
+            if (deadband == null) {
+                return false;
+            }
+            BigDecimal lastValue;
+            BigDecimal value;
+            if (last instanceof QuantityType && state instanceof QuantityType) {
+                QuantityType<?> lastQuantity = (QuantityType<?>) last;
+                QuantityType<?> converted = ((QuantityType<?>) state).toUnit(lastQuantity.getUnit());
+                if (converted == null) {
+                    return false;
+                }
+                lastValue = lastQuantity.toBigDecimal();
+                value = converted.toBigDecimal();
+            } else if (last instanceof DecimalType && state instanceof DecimalType) {
+                lastValue = ((DecimalType) last).toBigDecimal();
+                value = ((DecimalType) state).toBigDecimal();
+            } else {
+                return false;
+            }
+            return value.subtract(lastValue).abs().compareTo(deadband) < 0;
+        }
+    }
+
+}
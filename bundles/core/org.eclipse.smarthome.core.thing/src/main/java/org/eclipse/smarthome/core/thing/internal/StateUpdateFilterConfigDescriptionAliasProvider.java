@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.thing.internal;
+
+import java.net.URI;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.ConfigDescriptionAliasProvider;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingRegistry;
+import org.eclipse.smarthome.core.thing.type.ChannelKind;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Adds the parameters of the {@link StateUpdateFilter} to the configuration description of every state channel.
+ *
+ * The parameters are declared in the config description {@value #STATE_FILTER_URI}, which is returned as an alias for
+ * the URIs of state channels. The config description registry merges it with the config description of the channel
+ * type.
+ *
+ * @author agent - Initial contribution
+ */
+@Component
+@NonNullByDefault
+public class StateUpdateFilterConfigDescriptionAliasProvider implements ConfigDescriptionAliasProvider {
+
+    static final String STATE_FILTER_URI = "system:state-filter";
+
+    private @NonNullByDefault({}) ThingRegistry thingRegistry;
+
+    @Reference
+    protected void setThingRegistry(ThingRegistry thingRegistry) {
+        this.thingRegistry = thingRegistry;
+    }
+
+    protected void unsetThingRegistry(ThingRegistry thingRegistry) {
+        this.thingRegistry = null;
+    }
+
+    @Override
+    public @Nullable URI getAlias(@NonNull URI uri) {
+        if (!"channel".equals(uri.getScheme())) {
+            return null;
+        }
+
+        String stringUID = uri.getSchemeSpecificPart();
+        if (uri.getFragment() != null) {
+            stringUID = stringUID + "#" + uri.getFragment();
+        }
+        ChannelUID channelUID = new ChannelUID(stringUID);
+
+        Thing thing = thingRegistry.get(channelUID.getThingUID());
+        if (thing == null) {
+            return null;
+        }
+        Channel channel = thing.getChannel(channelUID.getId());
+        if (channel == null || channel.getKind() != ChannelKind.STATE) {
+            return null;
+        }
+        return URI.create(STATE_FILTER_URI);
+    }
+
+}
@@ -18,6 +18,8 @@ import java.security.PrivilegedAction;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -26,13 +28,16 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.smarthome.config.core.ConfigDescription;
 import org.eclipse.smarthome.config.core.ConfigDescriptionParameter;
@@ -90,6 +95,7 @@ import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
@@ -117,9 +123,11 @@ import org.slf4j.LoggerFactory;
  * @author Henning Sudbrock - Consider thing type properties when migrating to new thing type
  * @author Christoph Weitkamp - Added preconfigured ChannelGroupBuilder
  * @author Yordan Zhelev - Added thing disabling mechanism
+ * @author agent - Added parallel and prioritized initialization of the things of a binding
  */
 
-@Component(immediate = true, service = { ThingTypeMigrationService.class, ThingManager.class })
+@Component(immediate = true, service = { ThingTypeMigrationService.class,
+        ThingManager.class }, configurationPid = "org.eclipse.smarthome.thingmanager")
 public class ThingManagerImpl
         implements ThingManager, ThingTracker, ThingTypeMigrationService, ReadyService.ReadyTracker {
 
@@ -129,6 +137,9 @@ public class ThingManagerImpl
     private static final String FORCEREMOVE_THREADPOOL_NAME = "forceRemove";
     private static final String THING_MANAGER_THREADPOOL_NAME = "thingManager";
 
+    private static final String CONFIG_INITIALIZATION_CONCURRENCY = "initializationConcurrency";
+    private static final int DEFAULT_INITIALIZATION_CONCURRENCY = 4;
+
     private final Logger logger = LoggerFactory.getLogger(ThingManagerImpl.class);
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
@@ -153,7 +164,14 @@ public class ThingManagerImpl
 
     private ThingStatusInfoI18nLocalizationService thingStatusInfoI18nLocalizationService;
 
-    private final Map<ThingUID, Lock> thingLocks = new HashMap<>();
+    private final Map<ThingUID, Lock> thingLocks = new ConcurrentHashMap<>();
+
+    // thing UID -> duration of the last initialize() call of its handler in milliseconds
+    private final Map<ThingUID, Long> initializationTimes = new ConcurrentHashMap<>();
+
+    // the number of things of a binding which are initialized in parallel, "initializationConcurrency.<bsn>" keys
+    // override the default for single bindings
+    private volatile Map<String, Object> configuration = new HashMap<>();
     private final Set<String> loadedXmlThingTypes = new CopyOnWriteArraySet<>();
     private SafeCaller safeCaller;
     private volatile boolean active = false;
@@ -485,6 +503,7 @@ public class ThingManagerImpl
         }
 
         this.things.remove(thing);
+        initializationTimes.remove(thing.getUID());
     }
 
     @Override
@@ -757,7 +776,17 @@ public class ThingManagerImpl
     private void doInitializeHandler(final ThingHandler thingHandler) {
         logger.debug("Calling initialize handler for thing '{}' at '{}'.", thingHandler.getThing().getUID(),
                 thingHandler);
-        safeCaller.create(thingHandler, ThingHandler.class).onTimeout(() -> {
+        final ThingUID thingUID = thingHandler.getThing().getUID();
+        safeCaller.create(() -> {
+            long start = System.nanoTime();
+            try {
+                thingHandler.initialize();
+            } finally {
+                long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                initializationTimes.put(thingUID, duration);
+                logger.debug("Initializing handler for thing '{}' took {}ms.", thingUID, duration);
+            }
+        }, Runnable.class).withIdentifier(thingHandler).onTimeout(() -> {
             logger.warn("Initializing handler for thing '{}' takes more than {}ms.", thingHandler.getThing().getUID(),
                     SafeCaller.DEFAULT_TIMEOUT);
         }).onException(e -> {
@@ -766,7 +795,7 @@ public class ThingManagerImpl
             setThingStatus(thingHandler.getThing(), statusInfo);
             logger.error("Exception occurred while initializing handler of thing '{}': {}",
                     thingHandler.getThing().getUID(), e.getMessage(), e);
-        }).build().initialize();
+        }).build().run();
     }
 
     private boolean isInitializing(Thing thing) {
@@ -1006,6 +1035,7 @@ public class ThingManagerImpl
 
     @Activate
     protected synchronized void activate(ComponentContext componentContext) {
+        modified(toMap(componentContext));
         readyService.registerTracker(this, new ReadyMarkerFilter().withType(XML_THING_TYPE));
         for (ThingHandlerFactory factory : thingHandlerFactories) {
             handleThingHandlerFactoryAddition(getBundleName(factory));
@@ -1014,6 +1044,21 @@ public class ThingManagerImpl
         active = true;
     }
 
+    @Modified
+    protected void modified(Map<String, Object> configuration) {
+        this.configuration = configuration;
+    }
+
+    private Map<String, Object> toMap(ComponentContext componentContext) {
+        Map<String, Object> map = new HashMap<>();
+        if (componentContext != null && componentContext.getProperties() != null) {
+            for (String key : Collections.list(componentContext.getProperties().keys())) {
+                map.put(key, componentContext.getProperties().get(key));
+            }
+        }
+        return map;
+    }
+
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
     protected synchronized void addThingHandlerFactory(ThingHandlerFactory thingHandlerFactory) {
         logger.debug("Thing handler factory '{}' added", thingHandlerFactory.getClass().getSimpleName());
@@ -1049,18 +1094,90 @@ public class ThingManagerImpl
         thingHandlerFactories.stream().filter(it -> {
             return getBundleName(it).equals(bsn);
         }).forEach(thingHandlerFactory -> {
-            things.forEach(thing -> {
-                if (thingHandlerFactory.supportsThingType(thing.getThingTypeUID())) {
-                    if (!isHandlerRegistered(thing)) {
-                        registerAndInitializeHandler(thing, thingHandlerFactory);
-                    } else {
-                        logger.debug("Thing handler for thing '{}' already registered", thing.getUID());
-                    }
-                }
-            });
+            List<Thing> thingsToInitialize = things.stream()
+                    .filter(thing -> thingHandlerFactory.supportsThingType(thing.getThingTypeUID()))
+                    .filter(thing -> {
+                        if (isHandlerRegistered(thing)) {
+                            logger.debug("Thing handler for thing '{}' already registered", thing.getUID());
+                            return false;
+                        }
+                        return true;
+                    }).sorted(Comparator.comparingInt(this::getInitializationPriority))
+                    .collect(Collectors.toList());
+            registerAndInitializeHandlers(thingsToInitialize, thingHandlerFactory, getInitializationConcurrency(bsn));
         });
     }
 
+    /**
+     * Registers and initializes the handlers of the given things, using up to the given number of threads in
+     * parallel. The things are processed in the order of the list. The calling thread takes part in the processing
+     * and returns once all things have been processed.
+     */
+    private void registerAndInitializeHandlers(List<Thing> thingsToInitialize,
+            ThingHandlerFactory thingHandlerFactory, int concurrency) {
+        if (thingsToInitialize.isEmpty()) {
+            return;
+        }
+        final ConcurrentLinkedQueue<Thing> queue = new ConcurrentLinkedQueue<>(thingsToInitialize);
+        final CountDownLatch processed = new CountDownLatch(thingsToInitialize.size());
+        final Runnable worker = () -> {
+            Thing thing;
+            while ((thing = queue.poll()) != null) {
+                try {
+                    registerAndInitializeHandler(thing, thingHandlerFactory);
+                } catch (Exception ex) {
+                    logger.error("Registration resp. initialization of thing '{}' has been failed: {}",
+                            thing.getUID(), ex.getMessage(), ex);
+                } finally {
+                    processed.countDown();
+                }
+            }
+        };
+        int workers = Math.min(concurrency, thingsToInitialize.size());
+        for (int i = 1; i < workers; i++) {
+            ThreadPoolManager.getPool(THING_MANAGER_THREADPOOL_NAME).execute(worker);
+        }
+        worker.run();
+        try {
+            // the remaining things are already being processed by other threads
+            processed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Bridges come first, as their children cannot be initialized before them. Things with linked channels come
+     * next, as they are used by items, and all other things last.
+     */
+    private int getInitializationPriority(Thing thing) {
+        if (isBridge(thing)) {
+            return 0;
+        }
+        for (Channel channel : thing.getChannels()) {
+            if (itemChannelLinkRegistry.isLinked(channel.getUID())) {
+                return 1;
+            }
+        }
+        return 2;
+    }
+
+    private int getInitializationConcurrency(String bsn) {
+        Map<String, Object> config = configuration;
+        Object value = config.get(CONFIG_INITIALIZATION_CONCURRENCY + "." + bsn);
+        if (value == null) {
+            value = config.get(CONFIG_INITIALIZATION_CONCURRENCY);
+        }
+        if (value != null) {
+            try {
+                return Math.max(1, Integer.parseInt(value.toString()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for the initialization concurrency of '{}'", value, bsn);
+            }
+        }
+        return DEFAULT_INITIALIZATION_CONCURRENCY;
+    }
+
     private String getBundleName(ThingHandlerFactory thingHandlerFactory) {
         return bundleResolver.resolveBundle(thingHandlerFactory.getClass()).getSymbolicName();
     }
@@ -1125,12 +1242,8 @@ public class ThingManagerImpl
         }
     }
 
-    private synchronized Lock getLockForThing(ThingUID thingUID) {
-        if (thingLocks.get(thingUID) == null) {
-            Lock lock = new ReentrantLock();
-            thingLocks.put(thingUID, lock);
-        }
-        return thingLocks.get(thingUID);
+    private Lock getLockForThing(ThingUID thingUID) {
+        return thingLocks.computeIfAbsent(thingUID, uid -> new ReentrantLock());
     }
 
     @Reference
@@ -1280,6 +1393,11 @@ public class ThingManagerImpl
         }
     }
 
+    @Override
+    public Long getInitializationTime(ThingUID thingUID) {
+        return initializationTimes.get(thingUID);
+    }
+
     @Override
     public boolean isEnabled(ThingUID thingUID) {
         Thing thing = getThing(thingUID);
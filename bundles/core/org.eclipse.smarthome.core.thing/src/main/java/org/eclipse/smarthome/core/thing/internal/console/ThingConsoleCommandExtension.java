@@ -17,6 +17,7 @@ import static java.util.Arrays.asList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +34,7 @@ import org.eclipse.smarthome.core.thing.ThingStatusInfo;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.events.ThingEventFactory;
 import org.eclipse.smarthome.core.thing.i18n.ThingStatusInfoI18nLocalizationService;
+import org.eclipse.smarthome.core.thing.internal.CommunicationManager;
 import org.eclipse.smarthome.io.console.Console;
 import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
 import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
@@ -46,6 +48,8 @@ import org.osgi.service.component.annotations.Reference;
  * @author Thomas Höfer - Added localization of thing status
  * @author Stefan Triller - Added trigger channel command
  * @author Henning Sudbrock - Added show command
+ * @author agent - Added timings command
+ * @author agent - Added filtered command
  */
 @Component(immediate = true, service = ConsoleCommandExtension.class)
 public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtension {
@@ -58,12 +62,15 @@ public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtensio
     private static final String SUBCMD_TRIGGER = "trigger";
     private static final String SUBCMD_DISABLE = "disable";
     private static final String SUBCMD_ENABLE = "enable";
+    private static final String SUBCMD_TIMINGS = "timings";
+    private static final String SUBCMD_FILTERED = "filtered";
 
     private ManagedThingProvider managedThingProvider;
     private ThingRegistry thingRegistry;
     private ThingStatusInfoI18nLocalizationService thingStatusInfoI18nLocalizationService;
     private EventPublisher eventPublisher;
     private ThingManager thingManager;
+    private CommunicationManager communicationManager;
 
     public ThingConsoleCommandExtension() {
         super(CMD_THINGS, "Access your thing registry.");
@@ -111,6 +118,12 @@ public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtensio
                                 "Command '" + subCommand + "' needs argument <thingUID> (e.g. \"hue:light:1\")");
                     }
                     return;
+                case SUBCMD_TIMINGS:
+                    printInitializationTimes(console, things);
+                    return;
+                case SUBCMD_FILTERED:
+                    printSuppressedStateUpdates(console);
+                    return;
                 default:
                     break;
             }
@@ -160,7 +173,11 @@ public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtensio
                 buildCommandUsage(SUBCMD_TRIGGER + " <channelUID> [<event>]",
                         "triggers the <channelUID> with <event> (if given)"),
                 buildCommandUsage(SUBCMD_DISABLE + " <thingUID>", "disables a thing"),
-                buildCommandUsage(SUBCMD_ENABLE + " <thingUID>", "enables a thing") });
+                buildCommandUsage(SUBCMD_ENABLE + " <thingUID>", "enables a thing"),
+                buildCommandUsage(SUBCMD_TIMINGS,
+                        "lists the time the thing handlers took to initialize, the slowest first"),
+                buildCommandUsage(SUBCMD_FILTERED,
+                        "lists the number of suppressed state updates of the channels with a state filter") });
     }
 
     private void printThings(Console console, Collection<Thing> things) {
@@ -180,6 +197,40 @@ public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtensio
         }
     }
 
+    private void printInitializationTimes(Console console, Collection<Thing> things) {
+        // take a snapshot, the times of things which are removed meanwhile disappear
+        Map<Thing, Long> initializationTimes = new HashMap<>();
+        for (Thing thing : things) {
+            Long initializationTime = thingManager.getInitializationTime(thing.getUID());
+            if (initializationTime != null) {
+                initializationTimes.put(thing, initializationTime);
+            }
+        }
+        if (initializationTimes.isEmpty()) {
+            console.println("No initialized things found.");
+        }
+
+        List<Map.Entry<Thing, Long>> sortedTimes = new ArrayList<>(initializationTimes.entrySet());
+        sortedTimes.sort((entry1, entry2) -> Long.compare(entry2.getValue(), entry1.getValue()));
+        for (Map.Entry<Thing, Long> entry : sortedTimes) {
+            console.println(String.format("%s: %dms (Status=%s)", entry.getKey().getUID(), entry.getValue(),
+                    entry.getKey().getStatus()));
+        }
+    }
+
+    private void printSuppressedStateUpdates(Console console) {
+        Map<ChannelUID, Long> suppressedStateUpdates = communicationManager.getSuppressedStateUpdates();
+        if (suppressedStateUpdates.isEmpty()) {
+            console.println("No filtered channels found.");
+        }
+
+        List<Map.Entry<ChannelUID, Long>> sortedUpdates = new ArrayList<>(suppressedStateUpdates.entrySet());
+        sortedUpdates.sort((entry1, entry2) -> Long.compare(entry2.getValue(), entry1.getValue()));
+        for (Map.Entry<ChannelUID, Long> entry : sortedUpdates) {
+            console.println(String.format("%s: %d suppressed updates", entry.getKey(), entry.getValue()));
+        }
+    }
+
     private void printThingsDetails(Console console, List<String> thingUIDStrings) {
         Collection<Thing> things;
 
@@ -315,4 +366,13 @@ public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtensio
         this.thingManager = null;
     }
 
+    @Reference
+    protected void setCommunicationManager(CommunicationManager communicationManager) {
+        this.communicationManager = communicationManager;
+    }
+
+    protected void unsetCommunicationManager(CommunicationManager communicationManager) {
+        this.communicationManager = null;
+    }
+
 }
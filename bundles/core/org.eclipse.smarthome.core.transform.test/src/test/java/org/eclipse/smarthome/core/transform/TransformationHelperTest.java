@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class TransformationHelperTest {
+
+    @Test
+    public void testIsTransform() {
+        assertTrue(TransformationHelper.isTransform("MAP(en.map):%s"));
+        assertTrue(TransformationHelper.isTransform("JS(format.js):%.1f °C"));
+        assertFalse(TransformationHelper.isTransform("%.1f °C"));
+        assertFalse(TransformationHelper.isTransform("%s"));
+
+        // repeated evaluation must give the same (cached) result
+        assertTrue(TransformationHelper.isTransform("MAP(en.map):%s"));
+        assertFalse(TransformationHelper.isTransform("%s"));
+    }
+
+    @Test
+    public void testTransformWithoutTransformationReturnsState() throws TransformationException {
+        assertEquals("ON", TransformationHelper.transform(null, "%s", "ON"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformWithUnknownServiceThrowsException() throws TransformationException {
+        TransformationHelper.transform(null, "UNKNOWN(foo.map):%s", "ON");
+    }
+
+}
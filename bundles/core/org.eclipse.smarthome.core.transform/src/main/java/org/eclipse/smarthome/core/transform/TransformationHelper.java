@@ -14,11 +14,15 @@ package org.eclipse.smarthome.core.transform;
 
 import java.util.Collection;
 import java.util.IllegalFormatException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.internal.TransformationActivator;
+import org.eclipse.smarthome.core.transform.internal.TransformationServiceTracker;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
@@ -40,6 +44,17 @@ public class TransformationHelper {
     protected static final Pattern EXTRACT_TRANSFORMFUNCTION_PATTERN = Pattern
             .compile("(.*?)\\((.*)\\)" + FUNCTION_VALUE_DELIMITER + "(.*)");
 
+    /*
+     * Patterns normally come from a fixed set of state descriptions, but items (and thus patterns) can be created at
+     * runtime through the REST API. Dropping the whole cache once this limit is hit is cheap, as a pattern is parsed
+     * again on its next use.
+     */
+    private static final int MAX_CACHED_PATTERNS = 1000;
+
+    private static final ParsedPattern NO_TRANSFORMATION = new ParsedPattern("", "", "", false);
+
+    private static final Map<String, ParsedPattern> PARSED_PATTERNS = new ConcurrentHashMap<>();
+
     /**
      * determines whether a pattern refers to a transformation service
      *
@@ -47,7 +62,7 @@ public class TransformationHelper {
      * @return true, if the pattern contains a transformation
      */
     public static boolean isTransform(String pattern) {
-        return EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(pattern).matches();
+        return parse(pattern).matchesEntirely;
     }
 
     /**
@@ -60,6 +75,13 @@ public class TransformationHelper {
      */
     public static @Nullable TransformationService getTransformationService(@Nullable BundleContext context,
             String transformationType) {
+        TransformationServiceTracker tracker = TransformationActivator.getTransformationServiceTracker();
+        if (tracker != null) {
+            TransformationService service = tracker.getService(transformationType);
+            if (service != null) {
+                return service;
+            }
+        }
         if (context != null) {
             String filter = "(smarthome.transform=" + transformationType + ")";
             try {
@@ -90,11 +112,11 @@ public class TransformationHelper {
      */
     public static @Nullable String transform(BundleContext context, String stateDescPattern, String state)
             throws TransformationException {
-        Matcher matcher = EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(stateDescPattern);
-        if (matcher.find()) {
-            String type = matcher.group(1);
-            String pattern = matcher.group(2);
-            String value = matcher.group(3);
+        ParsedPattern parsed = parse(stateDescPattern);
+        if (parsed != NO_TRANSFORMATION) {
+            String type = parsed.type;
+            String pattern = parsed.function;
+            String value = parsed.format;
             TransformationService transformation = TransformationHelper.getTransformationService(context, type);
             if (transformation != null) {
                 return transform(transformation, pattern, value, state);
@@ -128,4 +150,43 @@ public class TransformationHelper {
         }
     }
 
+    /**
+     * Splits a pattern into transformation type, function and format. The result is cached, since the same
+     * patterns are evaluated over and over again when rendering states.
+     *
+     * @param stateDescPattern the pattern to parse
+     * @return the parsed pattern or {@link #NO_TRANSFORMATION}, if the pattern does not contain a transformation
+     */
+    private static ParsedPattern parse(String stateDescPattern) {
+        ParsedPattern parsed = PARSED_PATTERNS.get(stateDescPattern);
+        if (parsed == null) {
+            Matcher matcher = EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(stateDescPattern);
+            if (matcher.find()) {
+                parsed = new ParsedPattern(matcher.group(1), matcher.group(2), matcher.group(3),
+                        matcher.start() == 0 && matcher.end() == stateDescPattern.length());
+            } else {
+                parsed = NO_TRANSFORMATION;
+            }
+            if (PARSED_PATTERNS.size() >= MAX_CACHED_PATTERNS) {
+                PARSED_PATTERNS.clear();
+            }
+            PARSED_PATTERNS.put(stateDescPattern, parsed);
+        }
+        return parsed;
+    }
+
+    private static final class ParsedPattern {
+        private final String type;
+        private final String function;
+        private final String format;
+        private final boolean matchesEntirely;
+
+        private ParsedPattern(String type, String function, String format, boolean matchesEntirely) {
+            this.type = type;
+            this.function = function;
+            this.format = format;
+            this.matchesEntirely = matchesEntirely;
+        }
+    }
+
 }
@@ -30,12 +30,16 @@ public final class TransformationActivator implements BundleActivator {
 
     private static BundleContext context;
 
+    private static TransformationServiceTracker transformationServiceTracker;
+
     /**
      * Called whenever the OSGi framework starts our bundle
      */
     @Override
     public void start(BundleContext bc) throws Exception {
         context = bc;
+        transformationServiceTracker = new TransformationServiceTracker(bc);
+        transformationServiceTracker.open();
         logger.debug("Transformation Service has been started.");
     }
 
@@ -44,6 +48,10 @@ public final class TransformationActivator implements BundleActivator {
      */
     @Override
     public void stop(BundleContext bc) throws Exception {
+        if (transformationServiceTracker != null) {
+            transformationServiceTracker.close();
+            transformationServiceTracker = null;
+        }
         context = null;
         logger.debug("Transformation Service has been stopped.");
     }
@@ -57,4 +65,13 @@ public final class TransformationActivator implements BundleActivator {
         return context;
     }
 
+    /**
+     * Returns the tracker of the registered transformation services
+     *
+     * @return the tracker or null, if the bundle is not active
+     */
+    public static TransformationServiceTracker getTransformationServiceTracker() {
+        return transformationServiceTracker;
+    }
+
 }
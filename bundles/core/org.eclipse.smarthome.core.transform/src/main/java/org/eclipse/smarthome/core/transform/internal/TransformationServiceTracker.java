@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.util.tracker.ServiceTracker;
+
+/**
+ * The {@link TransformationServiceTracker} keeps track of all registered {@link TransformationService}s and maintains
+ * a lookup table keyed by their transformation type (the value of the {@code smarthome.transform} service property),
+ * so that resolving a transformation service does not require a service registry query.
+ *
+ * If several services are registered for the same type, the one with the highest service ranking wins, just like
+ * it would for a registry lookup.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TransformationServiceTracker extends ServiceTracker<TransformationService, TransformationService> {
+
+    public static final String SERVICE_PROPERTY_TYPE = "smarthome.transform";
+
+    private final Map<ServiceReference<TransformationService>, TransformationService> services = new ConcurrentHashMap<>();
+
+    private volatile Map<String, TransformationService> servicesByType = Collections.emptyMap();
+
+    public TransformationServiceTracker(BundleContext context) {
+        super(context, TransformationService.class, null);
+    }
+
+    /**
+     * Returns the transformation service which is registered for the given transformation type.
+     *
+     * @param transformationType the desired transformation type (e.g. MAP, REGEX)
+     * @return the service or null, if there is no service registered for this type
+     */
+    public @Nullable TransformationService getService(String transformationType) {
+        return servicesByType.get(transformationType);
+    }
+
+    @Override
+    public @Nullable TransformationService addingService(@Nullable ServiceReference<TransformationService> reference) {
+        if (reference == null) {
+            return null;
+        }
+        TransformationService service = context.getService(reference);
+        if (service != null) {
+            services.put(reference, service);
+            rebuildIndex();
+        }
+        return service;
+    }
+
+    @Override
+    public void modifiedService(@Nullable ServiceReference<TransformationService> reference,
+            @Nullable TransformationService service) {
+        // the transformation type property might have changed
+        rebuildIndex();
+    }
+
+    @Override
+    public void removedService(@Nullable ServiceReference<TransformationService> reference,
+            @Nullable TransformationService service) {
+        if (reference == null) {
+            return;
+        }
+        services.remove(reference);
+        rebuildIndex();
+        context.ungetService(reference);
+    }
+
+    private synchronized void rebuildIndex() {
+        List<ServiceReference<TransformationService>> references = new ArrayList<>(services.keySet());
+        // ServiceReference ordering is ascending by ranking, so the preferred service comes last
+        Collections.sort(references, Collections.reverseOrder());
+
+        Map<String, TransformationService> index = new HashMap<>();
+        for (ServiceReference<TransformationService> reference : references) {
+            Object type = reference.getProperty(SERVICE_PROPERTY_TYPE);
+            TransformationService service = services.get(reference);
+            if (type != null && service != null) {
+                index.putIfAbsent(type.toString(), service);
+            }
+        }
+        servicesByType = Collections.unmodifiableMap(index);
+    }
+
+}
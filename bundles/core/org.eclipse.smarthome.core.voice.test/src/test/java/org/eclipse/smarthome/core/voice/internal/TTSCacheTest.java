@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.voice.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
+import org.eclipse.smarthome.core.audio.FixedLengthAudioStream;
+import org.eclipse.smarthome.core.voice.TTSException;
+import org.eclipse.smarthome.core.voice.TTSService;
+import org.eclipse.smarthome.core.voice.Voice;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the {@link TTSCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class TTSCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Voice voice = new VoiceStub();
+    private CountingTTSService tts;
+
+    @Before
+    public void setUp() {
+        tts = new CountingTTSService();
+    }
+
+    @Test
+    public void testRepeatedPhraseIsSynthesizedOnce() throws Exception {
+        TTSCache cache = new TTSCache(folder.getRoot(), 1024);
+
+        assertThat(read(cache.get(tts, "Front door opened", voice, AudioFormat.MP3)), is("Front door opened"));
+        AudioStream cached = cache.get(tts, "Front door opened", voice, AudioFormat.MP3);
+
+        assertThat(cached, is(instanceOf(FixedLengthAudioStream.class)));
+        assertThat(read(cached), is("Front door opened"));
+        assertThat(tts.count, is(1));
+        assertThat(cache.contains(tts, "Front door opened", voice, AudioFormat.MP3), is(true));
+        assertThat(cache.contains(tts, "Front door opened", voice, AudioFormat.WAV), is(false));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPhraseIsEvicted() throws Exception {
+        TTSCache cache = new TTSCache(folder.getRoot(), 20);
+
+        read(cache.get(tts, "first phrase", voice, AudioFormat.MP3));
+        read(cache.get(tts, "second phrase", voice, AudioFormat.MP3));
+
+        assertThat(cache.contains(tts, "first phrase", voice, AudioFormat.MP3), is(false));
+        assertThat(cache.contains(tts, "second phrase", voice, AudioFormat.MP3), is(true));
+        assertThat(audioFiles(), is(1));
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysSynthesizes() throws Exception {
+        TTSCache cache = new TTSCache(folder.getRoot(), 0);
+
+        read(cache.get(tts, "hello", voice, AudioFormat.MP3));
+        read(cache.get(tts, "hello", voice, AudioFormat.MP3));
+
+        assertThat(tts.count, is(2));
+        assertThat(audioFiles(), is(0));
+    }
+
+    @Test
+    public void testEvictedFileIsKeptWhileStreamIsOpen() throws Exception {
+        TTSCache cache = new TTSCache(folder.getRoot(), 1024);
+        read(cache.get(tts, "Front door opened", voice, AudioFormat.MP3));
+        FixedLengthAudioStream stream = (FixedLengthAudioStream) cache.get(tts, "Front door opened", voice,
+                AudioFormat.MP3);
+
+        cache.setMaxSize(0);
+
+        // the audio servlet reopens the file for every request of a multi-time stream
+        try (InputStream clone = stream.getClonedStream()) {
+            assertThat(new String(IOUtils.toByteArray(clone), StandardCharsets.UTF_8), is("Front door opened"));
+        }
+        assertThat(audioFiles(), is(1));
+
+        stream.close();
+        assertThat(audioFiles(), is(0));
+    }
+
+    @Test
+    public void testFilesOfAPreviousRunAreRestored() throws Exception {
+        TTSCache previous = new TTSCache(folder.getRoot(), 1024);
+        read(previous.get(tts, "first phrase", voice, AudioFormat.WAV));
+        read(previous.get(tts, "second phrase", voice, AudioFormat.WAV));
+
+        TTSCache cache = new TTSCache(folder.getRoot(), 1024);
+        AudioStream cached = cache.get(tts, "first phrase", voice, AudioFormat.WAV);
+
+        assertThat(read(cached), is("first phrase"));
+        assertThat(cached.getFormat(), is(AudioFormat.WAV));
+        assertThat(cache.contains(tts, "second phrase", voice, AudioFormat.WAV), is(true));
+        assertThat(tts.count, is(2));
+    }
+
+    @Test
+    public void testIncompleteFilesOfAPreviousRunAreDeleted() throws Exception {
+        TTSCache previous = new TTSCache(folder.getRoot(), 1024);
+        read(previous.get(tts, "hello", voice, AudioFormat.MP3));
+        for (File file : folder.getRoot().listFiles()) {
+            if (file.getName().endsWith(".properties")) {
+                file.delete();
+            }
+        }
+        folder.newFile("partial.tmp");
+
+        TTSCache cache = new TTSCache(folder.getRoot(), 1024);
+
+        assertThat(cache.contains(tts, "hello", voice, AudioFormat.MP3), is(false));
+        assertThat(folder.getRoot().listFiles().length, is(0));
+    }
+
+    @Test
+    public void testConcurrentMissesForTheSamePhrase() throws Exception {
+        CountDownLatch bothSynthesizing = new CountDownLatch(2);
+        TTSService blockingTts = new CountingTTSService() {
+            @Override
+            public AudioStream synthesize(String text, Voice voice, AudioFormat requestedFormat) throws TTSException {
+                bothSynthesizing.countDown();
+                try {
+                    bothSynthesizing.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.synthesize(text, voice, requestedFormat);
+            }
+        };
+        TTSCache cache = new TTSCache(folder.getRoot(), 1024);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> read(cache.get(blockingTts, "hello", voice, AudioFormat.MP3)));
+            Future<String> second = executor
+                    .submit(() -> read(cache.get(blockingTts, "hello", voice, AudioFormat.MP3)));
+
+            assertThat(first.get(5, TimeUnit.SECONDS), is("hello"));
+            assertThat(second.get(5, TimeUnit.SECONDS), is("hello"));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(cache.contains(tts, "hello", voice, AudioFormat.MP3), is(true));
+        assertThat(audioFiles(), is(1));
+    }
+
+    private int audioFiles() {
+        return folder.getRoot().listFiles((dir, name) -> !name.endsWith(".properties")).length;
+    }
+
+    private String read(AudioStream stream) throws IOException {
+        try (AudioStream in = stream) {
+            return new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class CountingTTSService implements TTSService {
+
+        int count;
+
+        @Override
+        public String getId() {
+            return "counting";
+        }
+
+        @Override
+        public String getLabel(Locale locale) {
+            return "Counting TTS";
+        }
+
+        @Override
+        public Set<Voice> getAvailableVoices() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Set<AudioFormat> getSupportedFormats() {
+            return Collections.singleton(AudioFormat.MP3);
+        }
+
+        @Override
+        public AudioStream synthesize(String text, Voice voice, AudioFormat requestedFormat) throws TTSException {
+            count++;
+            return new ByteArrayAudioStream(text.getBytes(StandardCharsets.UTF_8), requestedFormat);
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.voice.text;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.smarthome.core.common.registry.RegistryChangeListener;
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests the matching of items by the label fragments of a voice command in {@link AbstractRuleBasedInterpreter}.
+ *
+ * @author agent - Initial contribution
+ */
+public class AbstractRuleBasedInterpreterTest {
+
+    private final Map<String, Item> items = new ConcurrentHashMap<>();
+
+    private final ResourceBundle language = new ListResourceBundle() {
+        @Override
+        protected Object[][] getContents() {
+            return new Object[0][];
+        }
+
+        @Override
+        public Locale getLocale() {
+            return Locale.ENGLISH;
+        }
+    };
+
+    private TestInterpreter interpreter;
+    private ItemRegistry itemRegistry;
+    private RegistryChangeListener<Item> registryChangeListener;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        itemRegistry = mock(ItemRegistry.class);
+        when(itemRegistry.getAll()).thenAnswer(invocation -> new ArrayList<>(items.values()));
+        when(itemRegistry.getItems()).thenAnswer(invocation -> new ArrayList<>(items.values()));
+        when(itemRegistry.get(anyString())).thenAnswer(invocation -> items.get(invocation.getArgument(0)));
+
+        interpreter = new TestInterpreter();
+        interpreter.setItemRegistry(itemRegistry);
+
+        ArgumentCaptor<RegistryChangeListener<Item>> captor = ArgumentCaptor.forClass(RegistryChangeListener.class);
+        verify(itemRegistry).addRegistryChangeListener(captor.capture());
+        registryChangeListener = captor.getValue();
+
+        addItem(new SwitchItem("KitchenLight"), "Kitchen Light");
+        addItem(new SwitchItem("BedroomLight"), "Bedroom Light");
+    }
+
+    @Test
+    public void singleMatch() {
+        assertThat(names(match("kitchen", "light")), is(names("KitchenLight")));
+    }
+
+    @Test
+    public void multipleMatches() {
+        assertThat(names(match("light")), is(names("KitchenLight", "BedroomLight")));
+    }
+
+    @Test
+    public void fragmentsAreMatchedCaseInsensitive() {
+        assertThat(names(match("Kitchen", "LIGHT")), is(names("KitchenLight")));
+    }
+
+    @Test
+    public void partialTokensDoNotMatch() {
+        assertTrue(match("kitch").isEmpty());
+        assertTrue(match("kitchen", "lig").isEmpty());
+    }
+
+    @Test
+    public void labelsOfParentGroupsAreMatched() {
+        GroupItem livingRoom = new GroupItem("LivingRoom");
+        SwitchItem lamp = new SwitchItem("LivingRoomLamp");
+        lamp.addGroupName(livingRoom.getName());
+        livingRoom.addMember(lamp);
+        addItem(livingRoom, "Living Room");
+        addItem(lamp, "Lamp");
+
+        assertThat(names(match("living", "room", "lamp")), is(names("LivingRoomLamp")));
+        assertThat(names(match("lamp")), is(names("LivingRoomLamp")));
+    }
+
+    @Test
+    public void addedItemIsIndexed() {
+        match("light"); // builds the index
+
+        addItem(new SwitchItem("GarageLight"), "Garage Light");
+
+        assertThat(names(match("garage")), is(names("GarageLight")));
+        assertThat(interpreter.getAllItemTokens(Locale.ENGLISH).contains("garage"), is(true));
+    }
+
+    @Test
+    public void removedItemIsNoLongerMatched() {
+        match("light"); // builds the index
+
+        registryChangeListener.removed(items.remove("KitchenLight"));
+
+        assertThat(names(match("light")), is(names("BedroomLight")));
+        assertTrue(match("kitchen").isEmpty());
+        assertThat(interpreter.getAllItemTokens(Locale.ENGLISH).contains("kitchen"), is(false));
+    }
+
+    @Test
+    public void relabelledItemIsMatchedByItsNewLabel() {
+        match("light"); // builds the index
+
+        SwitchItem oldItem = (SwitchItem) items.get("KitchenLight");
+        SwitchItem newItem = new SwitchItem("KitchenLight");
+        newItem.setLabel("Pantry Light");
+        items.put(newItem.getName(), newItem);
+        registryChangeListener.updated(oldItem, newItem);
+
+        assertTrue(match("kitchen").isEmpty());
+        assertThat(names(match("pantry", "light")), is(names("KitchenLight")));
+    }
+
+    @Test
+    public void indexIsRebuiltForANewItemRegistry() {
+        match("light"); // builds the index
+
+        interpreter.unsetItemRegistry(itemRegistry);
+        items.clear();
+        SwitchItem garageLight = new SwitchItem("GarageLight");
+        garageLight.setLabel("Garage Light");
+        items.put(garageLight.getName(), garageLight);
+        ItemRegistry newItemRegistry = mock(ItemRegistry.class);
+        when(newItemRegistry.getAll()).thenAnswer(invocation -> new ArrayList<>(items.values()));
+        when(newItemRegistry.getItems()).thenAnswer(invocation -> new ArrayList<>(items.values()));
+        when(newItemRegistry.get(anyString())).thenAnswer(invocation -> items.get(invocation.getArgument(0)));
+        interpreter.setItemRegistry(newItemRegistry);
+
+        assertThat(names(match("light")), is(names("GarageLight")));
+        assertThat(interpreter.getAllItemTokens(Locale.ENGLISH).contains("kitchen"), is(false));
+    }
+
+    private void addItem(GenericItem item, String label) {
+        item.setLabel(label);
+        items.put(item.getName(), item);
+        registryChangeListener.added(item);
+    }
+
+    private List<Item> match(String... labelFragments) {
+        return interpreter.getMatchingItems(language, labelFragments, OnOffType.class);
+    }
+
+    private static HashSet<String> names(List<Item> items) {
+        HashSet<String> names = new HashSet<>();
+        for (Item item : items) {
+            names.add(item.getName());
+        }
+        return names;
+    }
+
+    private static HashSet<String> names(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+
+    private static class TestInterpreter extends AbstractRuleBasedInterpreter {
+
+        @Override
+        protected void createRules() {
+        }
+
+        @Override
+        public String getId() {
+            return "test";
+        }
+
+        @Override
+        public String getLabel(Locale locale) {
+            return "Test";
+        }
+    }
+}
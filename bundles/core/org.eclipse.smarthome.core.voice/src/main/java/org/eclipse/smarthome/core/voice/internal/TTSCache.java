@@ -0,0 +1,451 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.voice.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.audio.AudioException;
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.audio.FileAudioStream;
+import org.eclipse.smarthome.core.audio.FixedLengthAudioStream;
+import org.eclipse.smarthome.core.voice.TTSException;
+import org.eclipse.smarthome.core.voice.TTSService;
+import org.eclipse.smarthome.core.voice.Voice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A size limited cache for synthesized speech. The audio is stored in files named after a hash of the TTS service,
+ * the voice, the audio format and the text, so that a phrase which is said again can be played from disk instead of
+ * being synthesized again. The least recently used files are deleted if the total size exceeds the limit.
+ *
+ * Only {@link FixedLengthAudioStream}s are cached, as they are served as {@link FileAudioStream}s from the cache. Any
+ * other stream is passed through unchanged, so that audio sinks see the same stream types as without the cache.
+ *
+ * Every synthesis is written to a file of its own, so concurrent misses for the same phrase do not interfere. A file
+ * that is evicted or replaced while streams served from it are still open (e.g. multi-time streams of the audio
+ * servlet, which reopen the file for every request) is only deleted once the last of these streams is closed. Until
+ * then it no longer counts towards the size of the cache.
+ *
+ * The audio format of every file is stored in a properties file next to it, so that the cache can be restored from
+ * the files of a previous run. The modification time of the audio files records the order of their last use.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TTSCache {
+
+    private static final String TMP_EXTENSION = ".tmp";
+    private static final String FORMAT_EXTENSION = ".properties";
+
+    private static final String CONTAINER = "container";
+    private static final String CODEC = "codec";
+    private static final String BIG_ENDIAN = "bigEndian";
+    private static final String BIT_DEPTH = "bitDepth";
+    private static final String BIT_RATE = "bitRate";
+    private static final String FREQUENCY = "frequency";
+
+    private final Logger logger = LoggerFactory.getLogger(TTSCache.class);
+
+    private final File cacheFolder;
+
+    /* cache key -> cached entry, in access order */
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long maxSize;
+    private long size;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a new cache. The audio files which are left over in the cache folder from a previous run are put into
+     * the cache again, incomplete files are deleted.
+     *
+     * @param cacheFolder the folder in which the audio files are stored
+     * @param maxSize the maximum total size of the audio files in bytes, 0 disables the cache
+     */
+    public TTSCache(File cacheFolder, long maxSize) {
+        this.cacheFolder = cacheFolder;
+        this.maxSize = maxSize;
+        restore();
+    }
+
+    /**
+     * Returns the audio for the given text, either from the cache or by synthesizing it with the given service.
+     *
+     * @param tts the TTS service to use
+     * @param text the text to say
+     * @param voice the voice to use
+     * @param requestedFormat the requested audio format
+     * @return the audio stream
+     * @throws TTSException if the text cannot be synthesized
+     */
+    public AudioStream get(TTSService tts, String text, Voice voice, AudioFormat requestedFormat) throws TTSException {
+        String key = getKey(tts, text, voice, requestedFormat);
+        if (key != null) {
+            AudioStream cached = getCached(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        AudioStream audioStream = tts.synthesize(text, voice, requestedFormat);
+        if (key == null || !(audioStream instanceof FixedLengthAudioStream)) {
+            return audioStream;
+        }
+        try {
+            return store(key, audioStream);
+        } catch (IOException | AudioException e) {
+            logger.debug("Failed caching the audio for '{}': {}", text, e.getMessage());
+            // the stream might have been consumed partially, so get a fresh one
+            return tts.synthesize(text, voice, requestedFormat);
+        }
+    }
+
+    /**
+     * Checks whether the audio for the given text is in the cache.
+     */
+    public boolean contains(TTSService tts, String text, Voice voice, AudioFormat requestedFormat) {
+        String key = getKey(tts, text, voice, requestedFormat);
+        synchronized (this) {
+            return key != null && entries.containsKey(key);
+        }
+    }
+
+    /**
+     * Sets the maximum total size of the audio files. Files are deleted right away if the cache is too large.
+     *
+     * @param maxSize the maximum size in bytes, 0 disables the cache
+     */
+    public synchronized void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TTSCache [entries=" + entries.size() + ", size=" + size + ", maxSize=" + maxSize + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+    private @Nullable AudioStream getCached(String key) {
+        CacheEntry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            entry.openStreams++;
+        }
+        if (!entry.file.setLastModified(System.currentTimeMillis())) {
+            logger.trace("Failed updating the modification time of cache file '{}'", entry.file.getName());
+        }
+        try {
+            return new CachedAudioStream(entry);
+        } catch (AudioException e) {
+            logger.debug("Cached audio file '{}' cannot be read: {}", entry.file, e.getMessage());
+            release(entry);
+            remove(key, entry);
+            return null;
+        }
+    }
+
+    private AudioStream store(String key, AudioStream audioStream) throws IOException, AudioException {
+        if (!cacheFolder.exists() && !cacheFolder.mkdirs()) {
+            throw new IOException("Cannot create cache folder " + cacheFolder.getAbsolutePath());
+        }
+        File tmpFile = File.createTempFile(key + '-', TMP_EXTENSION, cacheFolder);
+        File file = new File(cacheFolder,
+                tmpFile.getName().substring(0, tmpFile.getName().length() - TMP_EXTENSION.length()));
+        try {
+            try (InputStream in = audioStream) {
+                Files.copy(in, tmpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            // the format is written first, so that an audio file without a format file is known to be incomplete
+            writeFormat(file, audioStream.getFormat());
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            if (tmpFile.exists()) {
+                delete(tmpFile);
+                if (getFormatFile(file).exists()) {
+                    delete(getFormatFile(file));
+                }
+            }
+        }
+
+        // the stream returned to the caller keeps the file from being deleted, even if it gets evicted right away
+        CacheEntry entry = new CacheEntry(file, audioStream.getFormat(), file.length());
+        entry.openStreams++;
+        AudioStream result;
+        try {
+            result = new CachedAudioStream(entry);
+        } catch (AudioException e) {
+            deleteFiles(file);
+            throw e;
+        }
+        synchronized (this) {
+            CacheEntry old = entries.put(key, entry);
+            if (old != null) {
+                size -= old.length;
+                discard(old);
+            }
+            size += entry.length;
+            evict();
+        }
+        return result;
+    }
+
+    private synchronized void remove(String key, CacheEntry entry) {
+        if (entries.remove(key, entry)) {
+            size -= entry.length;
+            discard(entry);
+        }
+    }
+
+    private synchronized void evict() {
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            CacheEntry entry = iterator.next().getValue();
+            iterator.remove();
+            size -= entry.length;
+            evictions++;
+            discard(entry);
+            logger.trace("Evicted '{}' from the TTS cache", entry.file.getName());
+        }
+    }
+
+    /**
+     * Deletes the file of an entry that is no longer in the cache, or marks it for deletion if it is still in use.
+     */
+    private synchronized void discard(CacheEntry entry) {
+        entry.discarded = true;
+        if (entry.openStreams == 0) {
+            deleteFiles(entry.file);
+        }
+    }
+
+    /**
+     * Called when a stream served from the file of the given entry is closed.
+     */
+    private synchronized void release(CacheEntry entry) {
+        entry.openStreams--;
+        if (entry.openStreams == 0 && entry.discarded) {
+            deleteFiles(entry.file);
+        }
+    }
+
+    /**
+     * Puts the audio files of a previous run into the cache, in the order of their last use.
+     */
+    private void restore() {
+        File[] files = cacheFolder.listFiles();
+        if (files == null) {
+            return;
+        }
+        Map<String, CacheEntry> restored = new HashMap<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(TMP_EXTENSION)) {
+                delete(file);
+            } else if (name.endsWith(FORMAT_EXTENSION)) {
+                if (!new File(cacheFolder, name.substring(0, name.length() - FORMAT_EXTENSION.length())).exists()) {
+                    delete(file);
+                }
+            } else if (name.lastIndexOf('-') <= 0) {
+                delete(file);
+            } else {
+                AudioFormat format = readFormat(file);
+                if (format == null) {
+                    deleteFiles(file);
+                    continue;
+                }
+                // concurrent misses for the same phrase may have left several files, keep the latest one
+                String key = name.substring(0, name.lastIndexOf('-'));
+                CacheEntry other = restored.get(key);
+                if (other == null || other.file.lastModified() < file.lastModified()) {
+                    restored.put(key, new CacheEntry(file, format, file.length()));
+                    if (other != null) {
+                        deleteFiles(other.file);
+                    }
+                } else {
+                    deleteFiles(file);
+                }
+            }
+        }
+        List<Map.Entry<String, CacheEntry>> sorted = new ArrayList<>(restored.entrySet());
+        sorted.sort(Comparator.comparingLong(restoredEntry -> restoredEntry.getValue().file.lastModified()));
+        synchronized (this) {
+            for (Map.Entry<String, CacheEntry> restoredEntry : sorted) {
+                entries.put(restoredEntry.getKey(), restoredEntry.getValue());
+                size += restoredEntry.getValue().length;
+            }
+            evict();
+        }
+        logger.debug("Restored {} files with {} bytes into the TTS cache", entries.size(), size);
+    }
+
+    private File getFormatFile(File file) {
+        return new File(file.getParentFile(), file.getName() + FORMAT_EXTENSION);
+    }
+
+    private void writeFormat(File file, AudioFormat format) throws IOException {
+        Properties properties = new Properties();
+        setProperty(properties, CONTAINER, format.getContainer());
+        setProperty(properties, CODEC, format.getCodec());
+        setProperty(properties, BIG_ENDIAN, format.isBigEndian());
+        setProperty(properties, BIT_DEPTH, format.getBitDepth());
+        setProperty(properties, BIT_RATE, format.getBitRate());
+        setProperty(properties, FREQUENCY, format.getFrequency());
+        try (OutputStream out = new FileOutputStream(getFormatFile(file))) {
+            properties.store(out, null);
+        }
+    }
+
+    private void setProperty(Properties properties, String key, @Nullable Object value) {
+        if (value != null) {
+            properties.setProperty(key, value.toString());
+        }
+    }
+
+    private @Nullable AudioFormat readFormat(File file) {
+        File formatFile = getFormatFile(file);
+        if (!formatFile.exists()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(formatFile)) {
+            properties.load(in);
+            String bigEndian = properties.getProperty(BIG_ENDIAN);
+            String bitDepth = properties.getProperty(BIT_DEPTH);
+            String bitRate = properties.getProperty(BIT_RATE);
+            String frequency = properties.getProperty(FREQUENCY);
+            return new AudioFormat(properties.getProperty(CONTAINER), properties.getProperty(CODEC),
+                    bigEndian == null ? null : Boolean.valueOf(bigEndian),
+                    bitDepth == null ? null : Integer.valueOf(bitDepth),
+                    bitRate == null ? null : Integer.valueOf(bitRate),
+                    frequency == null ? null : Long.valueOf(frequency));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Failed reading the audio format of cache file '{}': {}", file.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Deletes an audio file together with its format file.
+     */
+    private void deleteFiles(File file) {
+        delete(file);
+        File formatFile = getFormatFile(file);
+        if (formatFile.exists()) {
+            delete(formatFile);
+        }
+    }
+
+    private void delete(File file) {
+        if (!file.delete()) {
+            logger.debug("Failed deleting cache file '{}'", file.getAbsolutePath());
+        }
+    }
+
+    private @Nullable String getKey(TTSService tts, String text, Voice voice, AudioFormat format) {
+        synchronized (this) {
+            if (maxSize <= 0) {
+                return null;
+            }
+        }
+        String id = tts.getId() + '\n' + voice.getUID() + '\n' + format.getContainer() + '\n' + format.getCodec()
+                + '\n' + format.isBigEndian() + '\n' + format.getBitDepth() + '\n' + format.getBitRate() + '\n'
+                + format.getFrequency() + '\n' + text;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(id.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            return null;
+        }
+    }
+
+    private static class CacheEntry {
+        final File file;
+        final AudioFormat format;
+        final long length;
+
+        /* number of streams that have been handed out for the file and are not closed yet */
+        int openStreams;
+
+        /* whether the entry has been removed from the cache, so that the file is deleted with the last stream */
+        boolean discarded;
+
+        CacheEntry(File file, AudioFormat format, long length) {
+            this.file = file;
+            this.format = format;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A stream of a cached file, which releases the file when it is closed. Clones of the stream read the same file
+     * and are covered by the original stream, as they are only requested while it is open.
+     */
+    private class CachedAudioStream extends FileAudioStream {
+        private final CacheEntry entry;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        CachedAudioStream(CacheEntry entry) throws AudioException {
+            super(entry.file, entry.format);
+            this.entry = entry;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    release(entry);
+                }
+            }
+        }
+    }
+
+}
@@ -14,6 +14,7 @@ package org.eclipse.smarthome.core.voice.internal;
 
 import static java.util.stream.Collectors.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
@@ -30,6 +31,7 @@ import java.util.Objects;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.config.core.ConfigOptionProvider;
 import org.eclipse.smarthome.config.core.ConfigurableService;
 import org.eclipse.smarthome.config.core.ParameterOption;
@@ -40,6 +42,7 @@ import org.eclipse.smarthome.core.audio.AudioSource;
 import org.eclipse.smarthome.core.audio.AudioStream;
 import org.eclipse.smarthome.core.audio.UnsupportedAudioFormatException;
 import org.eclipse.smarthome.core.audio.UnsupportedAudioStreamException;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.i18n.LocaleProvider;
 import org.eclipse.smarthome.core.library.types.PercentType;
@@ -92,6 +95,14 @@ public class VoiceManagerImpl implements VoiceManager, ConfigOptionProvider {
     private static final String CONFIG_DEFAULT_TTS = "defaultTTS";
     private static final String CONFIG_DEFAULT_VOICE = "defaultVoice";
     private static final String CONFIG_PREFIX_DEFAULT_VOICE = "defaultVoice.";
+    private static final String CONFIG_CACHE_SIZE = "cacheSize";
+    private static final String CONFIG_CACHE_PHRASES = "cachePhrases";
+
+    // the default size of the TTS cache in kB
+    private static final long DEFAULT_CACHE_SIZE = 10240;
+
+    private static final String CACHE_FOLDER_NAME = "cache";
+    private static final String SERVICE_PID = "org.eclipse.smarthome.voice";
 
     private final Logger logger = LoggerFactory.getLogger(VoiceManagerImpl.class);
 
@@ -114,16 +125,24 @@ public class VoiceManagerImpl implements VoiceManager, ConfigOptionProvider {
     private String defaultHLI = null;
     private String defaultVoice = null;
     private final Map<String, String> defaultVoices = new HashMap<>();
+    private List<String> cachePhrases = Collections.emptyList();
+    private TTSCache ttsCache = null;
     private AudioManager audioManager;
     private EventPublisher eventPublisher;
 
     @Activate
     protected void activate(Map<String, Object> config) {
+        File cacheFolder = new File(new File(new File(ConfigConstants.getUserDataFolder()), CACHE_FOLDER_NAME),
+                SERVICE_PID);
+        // the cache is created with its configured size, so that no restored files are evicted needlessly
+        ttsCache = new TTSCache(cacheFolder, getCacheSize(config) * 1024);
         modified(config);
     }
 
     @Deactivate
     protected void deactivate() {
+        logger.debug("Deactivating with {}", ttsCache);
+        ttsCache = null;
     }
 
     @Modified
@@ -146,7 +165,82 @@ public class VoiceManagerImpl implements VoiceManager, ConfigOptionProvider {
                     defaultVoices.put(tts, config.get(key).toString());
                 }
             }
+
+            if (ttsCache != null) {
+                ttsCache.setMaxSize(getCacheSize(config) * 1024);
+            }
+            this.cachePhrases = parsePhrases(config.get(CONFIG_CACHE_PHRASES));
+            ThreadPoolManager.getPool("voice").submit(this::prewarmCache);
+        }
+    }
+
+    private long getCacheSize(@Nullable Map<String, Object> config) {
+        if (config != null && config.containsKey(CONFIG_CACHE_SIZE)) {
+            try {
+                return Long.parseLong(config.get(CONFIG_CACHE_SIZE).toString());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid TTS cache size '{}', using the default.", config.get(CONFIG_CACHE_SIZE));
+            }
+        }
+        return DEFAULT_CACHE_SIZE;
+    }
+
+    private List<String> parsePhrases(@Nullable Object value) {
+        List<String> phrases = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object phrase : (Collection<?>) value) {
+                phrases.add(phrase.toString());
+            }
+        } else if (value != null) {
+            for (String phrase : value.toString().split("\\R")) {
+                phrases.add(phrase);
+            }
+        }
+        phrases.removeIf(phrase -> phrase.trim().isEmpty());
+        return phrases;
+    }
+
+    /**
+     * Synthesizes the configured phrases with the default voice for the default sink, so that they are already in the
+     * cache when they are said for the first time.
+     */
+    private void prewarmCache() {
+        TTSCache cache = ttsCache;
+        List<String> phrases = cachePhrases;
+        if (cache == null || phrases.isEmpty() || audioManager == null) {
+            return;
+        }
+        TTSService tts = null;
+        Voice voice = null;
+        if (defaultVoice == null) {
+            tts = getTTS();
+            if (tts != null) {
+                voice = getPreferredVoice(tts.getAvailableVoices());
+            }
+        } else {
+            voice = getVoice(defaultVoice);
+            if (voice != null) {
+                tts = getTTS(voice);
+            }
+        }
+        AudioSink sink = audioManager.getSink();
+        if (tts == null || voice == null || sink == null) {
+            return;
+        }
+        AudioFormat audioFormat = getBestMatch(tts.getSupportedFormats(), sink.getSupportedFormats());
+        if (audioFormat == null) {
+            return;
+        }
+        for (String phrase : phrases) {
+            if (!cache.contains(tts, phrase, voice, audioFormat)) {
+                try {
+                    cache.get(tts, phrase, voice, audioFormat).close();
+                } catch (TTSException | IOException e) {
+                    logger.debug("Failed to pre-cache '{}': {}", phrase, e.getMessage());
+                }
+            }
         }
+        logger.debug("Pre-cached {} phrases: {}", phrases.size(), cache);
     }
 
     @Override
@@ -210,7 +304,9 @@ public class VoiceManagerImpl implements VoiceManager, ConfigOptionProvider {
             if (sink != null) {
                 AudioFormat audioFormat = getBestMatch(audioFormats, sink.getSupportedFormats());
                 if (audioFormat != null) {
-                    AudioStream audioStream = tts.synthesize(text, voice, audioFormat);
+                    TTSCache cache = ttsCache;
+                    AudioStream audioStream = cache != null ? cache.get(tts, text, voice, audioFormat)
+                            : tts.synthesize(text, voice, audioFormat);
 
                     if (sink.getSupportedStreams().stream().anyMatch(clazz -> clazz.isInstance(audioStream))) {
                         PercentType oldVolume = null;
@@ -514,6 +610,9 @@ public class VoiceManagerImpl implements VoiceManager, ConfigOptionProvider {
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
     protected void addTTSService(TTSService ttsService) {
         this.ttsServices.put(ttsService.getId(), ttsService);
+        if (!cachePhrases.isEmpty()) {
+            ThreadPoolManager.getPool("voice").submit(this::prewarmCache);
+        }
     }
 
     protected void removeTTSService(TTSService ttsService) {
@@ -18,8 +18,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.common.registry.RegistryChangeListener;
 import org.eclipse.smarthome.core.events.EventPublisher;
@@ -64,8 +67,7 @@ public abstract class AbstractRuleBasedInterpreter implements HumanLanguageInter
     private Logger logger = LoggerFactory.getLogger(AbstractRuleBasedInterpreter.class);
 
     private HashMap<Locale, ArrayList<Rule>> languageRules;
-    private HashMap<Locale, HashSet<String>> allItemTokens = null;
-    private HashMap<Locale, HashMap<Item, ArrayList<HashSet<String>>>> itemTokens = null;
+    private final Map<Locale, ItemTokenIndex> itemTokenIndexes = new ConcurrentHashMap<>();
 
     private ItemRegistry itemRegistry;
     private EventPublisher eventPublisher;
@@ -73,16 +75,29 @@ public abstract class AbstractRuleBasedInterpreter implements HumanLanguageInter
     private RegistryChangeListener<Item> registryChangeListener = new RegistryChangeListener<Item>() {
         @Override
         public void added(Item element) {
+            for (ItemTokenIndex index : itemTokenIndexes.values()) {
+                index.add(element);
+            }
             invalidate();
         }
 
         @Override
         public void removed(Item element) {
+            for (ItemTokenIndex index : itemTokenIndexes.values()) {
+                index.remove(element.getName());
+            }
             invalidate();
         }
 
         @Override
         public void updated(Item oldElement, Item element) {
+            // group memberships are resolved through the registry at match time, only the label needs re-indexing
+            if (!Objects.equals(oldElement.getLabel(), element.getLabel())) {
+                for (ItemTokenIndex index : itemTokenIndexes.values()) {
+                    index.remove(oldElement.getName());
+                    index.add(element);
+                }
+            }
             invalidate();
         }
     };
@@ -124,8 +139,6 @@ public abstract class AbstractRuleBasedInterpreter implements HumanLanguageInter
     }
 
     private void invalidate() {
-        allItemTokens = null;
-        itemTokens = null;
         languageRules = null;
     }
 
@@ -136,56 +149,52 @@ public abstract class AbstractRuleBasedInterpreter implements HumanLanguageInter
      * @return the identifier tokens
      */
     HashSet<String> getAllItemTokens(Locale locale) {
-        if (allItemTokens == null) {
-            allItemTokens = new HashMap<Locale, HashSet<String>>();
-        }
-        HashSet<String> localeTokens = allItemTokens.get(locale);
-        if (localeTokens == null) {
-            allItemTokens.put(locale, localeTokens = new HashSet<String>());
+        return getItemTokenIndex(locale).getAllTokens();
+    }
+
+    private ItemTokenIndex getItemTokenIndex(Locale locale) {
+        return itemTokenIndexes.computeIfAbsent(locale, l -> {
+            ItemTokenIndex index = new ItemTokenIndex(l);
             for (Item item : itemRegistry.getAll()) {
-                localeTokens.addAll(tokenize(locale, item.getLabel()));
+                index.add(item);
             }
-        }
-        return localeTokens;
+            return index;
+        });
     }
 
     /**
-     * Retrieves the list of identifier token sets per item currently contained in the {@link ItemRegistry}.
-     * Each item entry in the resulting hash map will feature a list of different token sets. Each token set
-     * represents one possible way "through" a chain of parent groups, where each groups tokenized name is
-     * part of the set.
+     * Checks whether one of the chains of parent groups, which lead from a top level item to the given item, contains
+     * all given tokens in the labels of its items.
      *
-     * @param locale The locale that is to be used for preparing the tokens.
-     * @return the list of identifier token sets per item
+     * @param index the token index to use
+     * @param item the item to check
+     * @param tokens the tokens which have not yet been found further down the chain
+     * @param visited the items of the current chain, in order to not run into cyclic group memberships
+     * @return true, if there is such a chain
      */
-    HashMap<Item, ArrayList<HashSet<String>>> getItemTokens(Locale locale) {
-        if (itemTokens == null) {
-            itemTokens = new HashMap<Locale, HashMap<Item, ArrayList<HashSet<String>>>>();
-        }
-        HashMap<Item, ArrayList<HashSet<String>>> localeTokens = itemTokens.get(locale);
-        if (localeTokens == null) {
-            itemTokens.put(locale, localeTokens = new HashMap<Item, ArrayList<HashSet<String>>>());
-            for (Item item : itemRegistry.getItems()) {
-                if (item.getGroupNames().isEmpty()) {
-                    addItem(locale, localeTokens, new HashSet<String>(), item);
-                }
+    private boolean isMatchingPath(ItemTokenIndex index, Item item, Set<String> tokens, Set<String> visited) {
+        Set<String> remaining = new HashSet<String>(tokens);
+        remaining.removeAll(index.getTokens(item));
+        if (item.getGroupNames().isEmpty()) {
+            return remaining.isEmpty();
+        }
+        if (!visited.add(item.getName())) {
+            return false;
+        }
+        for (String groupName : item.getGroupNames()) {
+            Item group = itemRegistry.get(groupName);
+            if (group instanceof GroupItem && isMatchingPath(index, group, remaining, visited)) {
+                return true;
             }
         }
-        return localeTokens;
+        visited.remove(item.getName());
+        return false;
     }
 
-    private void addItem(Locale locale, HashMap<Item, ArrayList<HashSet<String>>> target, HashSet<String> tokens,
-            Item item) {
-        HashSet<String> nt = new HashSet<String>(tokens);
-        nt.addAll(tokenize(locale, item.getLabel()));
-        ArrayList<HashSet<String>> list = target.get(item);
-        if (list == null) {
-            target.put(item, list = new ArrayList<HashSet<String>>());
-        }
-        list.add(nt);
-        if (item instanceof GroupItem) {
+    private void addWithMembers(Item item, Set<Item> target) {
+        if (target.add(item) && item instanceof GroupItem) {
             for (Item member : ((GroupItem) item).getMembers()) {
-                addItem(locale, target, nt, member);
+                addWithMembers(member, target);
             }
         }
     }
@@ -541,35 +550,46 @@ public abstract class AbstractRuleBasedInterpreter implements HumanLanguageInter
      */
     protected ArrayList<Item> getMatchingItems(ResourceBundle language, String[] labelFragments, Class<?> commandType) {
         ArrayList<Item> items = new ArrayList<Item>();
-        HashMap<Item, ArrayList<HashSet<String>>> map = getItemTokens(language.getLocale());
-        for (Item item : map.keySet()) {
-            for (HashSet<String> parts : map.get(item)) {
-                boolean allMatch = true;
-                for (String fragment : labelFragments) {
-                    if (!parts.contains(fragment.toLowerCase(language.getLocale()))) {
-                        allMatch = false;
-                        break;
-                    }
+        Locale locale = language.getLocale();
+        ItemTokenIndex index = getItemTokenIndex(locale);
+        Set<String> fragments = new HashSet<String>();
+        for (String fragment : labelFragments) {
+            fragments.add(fragment.toLowerCase(locale));
+        }
+
+        // only items whose own label or one of whose parent groups' labels contains the rarest fragment can match
+        Set<Item> candidates = new HashSet<Item>();
+        String rarest = index.getRarestToken(fragments);
+        if (rarest != null) {
+            for (String itemName : index.getItemNames(rarest)) {
+                Item item = itemRegistry.get(itemName);
+                if (item != null) {
+                    addWithMembers(item, candidates);
                 }
-                if (allMatch) {
-                    if (commandType == null || item.getAcceptedCommandTypes().contains(commandType)) {
-                        String name = item.getName();
-                        boolean insert = true;
-                        for (Item si : items) {
-                            if (name.startsWith(si.getName())) {
-                                insert = false;
-                            }
+            }
+        } else if (fragments.isEmpty()) {
+            candidates.addAll(itemRegistry.getItems());
+        }
+
+        for (Item item : candidates) {
+            if (isMatchingPath(index, item, fragments, new HashSet<String>())) {
+                if (commandType == null || item.getAcceptedCommandTypes().contains(commandType)) {
+                    String name = item.getName();
+                    boolean insert = true;
+                    for (Item si : items) {
+                        if (name.startsWith(si.getName())) {
+                            insert = false;
                         }
-                        if (insert) {
-                            for (int i = 0; i < items.size(); i++) {
-                                Item si = items.get(i);
-                                if (si.getName().startsWith(name)) {
-                                    items.remove(i);
-                                    i--;
-                                }
+                    }
+                    if (insert) {
+                        for (int i = 0; i < items.size(); i++) {
+                            Item si = items.get(i);
+                            if (si.getName().startsWith(name)) {
+                                items.remove(i);
+                                i--;
                             }
-                            items.add(item);
                         }
+                        items.add(item);
                     }
                 }
             }
@@ -615,6 +635,81 @@ public abstract class AbstractRuleBasedInterpreter implements HumanLanguageInter
         return SUPPORTED_GRAMMERS;
     }
 
+    /**
+     * An inverted index from the label tokens of all items to the names of the items, for a single locale. It is
+     * updated incrementally on item registry changes, so that a label change does not require the labels of all
+     * items to be tokenized again.
+     */
+    private class ItemTokenIndex {
+
+        private final Locale locale;
+
+        /* item name -> tokens of the item's label */
+        private final Map<String, Set<String>> tokensByItem = new HashMap<>();
+
+        /* token -> names of the items with this token in their label */
+        private final Map<String, Set<String>> itemsByToken = new HashMap<>();
+
+        ItemTokenIndex(Locale locale) {
+            this.locale = locale;
+        }
+
+        synchronized void add(Item item) {
+            Set<String> tokens = new HashSet<String>(tokenize(locale, item.getLabel()));
+            tokensByItem.put(item.getName(), tokens);
+            for (String token : tokens) {
+                itemsByToken.computeIfAbsent(token, t -> new HashSet<>()).add(item.getName());
+            }
+        }
+
+        synchronized void remove(String itemName) {
+            Set<String> tokens = tokensByItem.remove(itemName);
+            if (tokens == null) {
+                return;
+            }
+            for (String token : tokens) {
+                Set<String> itemNames = itemsByToken.get(token);
+                if (itemNames != null) {
+                    itemNames.remove(itemName);
+                    if (itemNames.isEmpty()) {
+                        itemsByToken.remove(token);
+                    }
+                }
+            }
+        }
+
+        synchronized Set<String> getTokens(Item item) {
+            Set<String> tokens = tokensByItem.get(item.getName());
+            return tokens != null ? tokens : new HashSet<String>(tokenize(locale, item.getLabel()));
+        }
+
+        synchronized Set<String> getItemNames(String token) {
+            Set<String> itemNames = itemsByToken.get(token);
+            return itemNames != null ? new HashSet<String>(itemNames) : Collections.emptySet();
+        }
+
+        synchronized HashSet<String> getAllTokens() {
+            return new HashSet<String>(itemsByToken.keySet());
+        }
+
+        /**
+         * Returns the given token which occurs in the fewest item labels, or null if there are no tokens given.
+         */
+        synchronized String getRarestToken(Set<String> tokens) {
+            String rarest = null;
+            int count = Integer.MAX_VALUE;
+            for (String token : tokens) {
+                Set<String> itemNames = itemsByToken.get(token);
+                int size = itemNames != null ? itemNames.size() : 0;
+                if (size < count) {
+                    rarest = token;
+                    count = size;
+                }
+            }
+            return rarest;
+        }
+    }
+
     /**
      * Helper class to generate a JSGF grammar from the rules of the interpreter.
      *
@@ -853,6 +948,8 @@ public abstract class AbstractRuleBasedInterpreter implements HumanLanguageInter
         if (this.itemRegistry == null) {
             this.itemRegistry = itemRegistry;
             this.itemRegistry.addRegistryChangeListener(registryChangeListener);
+            itemTokenIndexes.clear();
+            invalidate();
         }
     }
 
@@ -860,6 +957,8 @@ public abstract class AbstractRuleBasedInterpreter implements HumanLanguageInter
         if (itemRegistry == this.itemRegistry) {
             this.itemRegistry.removeRegistryChangeListener(registryChangeListener);
             this.itemRegistry = null;
+            itemTokenIndexes.clear();
+            invalidate();
         }
     }
 
@@ -62,7 +62,8 @@ public final class ExpressionIdentifier extends Expression {
 
     @Override
     boolean collectFirsts(ResourceBundle language, HashSet<String> firsts) {
-        HashSet<String> f = new HashSet<String>(interpreter.getAllItemTokens(language.getLocale()));
+        // a fresh copy, so it can be modified
+        HashSet<String> f = interpreter.getAllItemTokens(language.getLocale());
         if (stopper != null) {
             f.removeAll(stopper.getFirsts(language));
         }
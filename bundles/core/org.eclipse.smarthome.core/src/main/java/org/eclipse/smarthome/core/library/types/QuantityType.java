@@ -17,6 +17,8 @@ import static org.eclipse.jdt.annotation.DefaultLocation.*;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.IllegalFormatConversionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.measure.Dimension;
 import javax.measure.IncommensurableException;
@@ -57,6 +59,18 @@ public class QuantityType<T extends Quantity<T>> extends Number
     private static final long serialVersionUID = 8828949721938234629L;
     private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
 
+    /*
+     * Limits both the unit symbols and the converters per source unit. Symbols passed to toUnit(String) may be built
+     * from user input, so neither map must grow without bound; a cleared map is simply filled again.
+     */
+    private static final int MAX_CACHED_UNITS = 1000;
+
+    /* unit symbol -> parsed unit */
+    private static final Map<String, Unit<?>> PARSED_UNITS = new ConcurrentHashMap<>();
+
+    /* source unit -> target unit -> converter */
+    private static final Map<Unit<?>, Map<Unit<?>, UnitConverter>> CONVERTERS = new ConcurrentHashMap<>();
+
     public static final QuantityType<Dimensionless> ZERO = new QuantityType<>(0, AbstractUnit.ONE);
     public static final QuantityType<Dimensionless> ONE = new QuantityType<>(1, AbstractUnit.ONE);
 
@@ -163,12 +177,16 @@ public class QuantityType<T extends Quantity<T>> extends Number
 
     @Override
     public int compareTo(QuantityType<T> o) {
-        if (quantity.getUnit().isCompatible(o.quantity.getUnit())) {
-            QuantityType<T> v1 = this.toUnit(getUnit().getSystemUnit());
-            QuantityType<?> v2 = o.toUnit(o.getUnit().getSystemUnit());
-            if (v1 != null && v2 != null) {
-                return Double.compare(v1.doubleValue(), v2.doubleValue());
-            } else {
+        if (getUnit().equals(o.getUnit())) {
+            return Double.compare(doubleValue(), o.doubleValue());
+        } else if (quantity.getUnit().isCompatible(o.quantity.getUnit())) {
+            try {
+                double v1 = getConverter(getUnit(), getUnit().getSystemUnit()).convert(quantity.getValue())
+                        .doubleValue();
+                double v2 = getConverter(o.getUnit(), o.getUnit().getSystemUnit()).convert(o.quantity.getValue())
+                        .doubleValue();
+                return Double.compare(v1, v2);
+            } catch (UnconvertibleException | IncommensurableException e) {
                 throw new IllegalArgumentException("Unable to convert to system unit during compare.");
             }
         } else {
@@ -194,7 +212,7 @@ public class QuantityType<T extends Quantity<T>> extends Number
     public @Nullable QuantityType<T> toUnit(Unit<?> targetUnit) {
         if (!targetUnit.equals(getUnit())) {
             try {
-                UnitConverter uc = getUnit().getConverterToAny(targetUnit);
+                UnitConverter uc = getConverter(getUnit(), targetUnit);
                 Quantity<?> result = Quantities.getQuantity(uc.convert(quantity.getValue()), targetUnit);
 
                 return new QuantityType<T>(result.getValue(), (Unit<T>) targetUnit);
@@ -208,16 +226,55 @@ public class QuantityType<T extends Quantity<T>> extends Number
 
     @SuppressWarnings("unchecked")
     public @Nullable QuantityType<T> toUnit(String targetUnit) {
-        Unit<T> unit = (Unit<T>) AbstractUnit.parse(targetUnit);
-        if (unit != null) {
-            return toUnit(unit);
+        Unit<T> unit = (Unit<T>) PARSED_UNITS.get(targetUnit);
+        if (unit == null) {
+            unit = (Unit<T>) AbstractUnit.parse(targetUnit);
+            if (unit == null) {
+                return null;
+            }
+            if (PARSED_UNITS.size() >= MAX_CACHED_UNITS) {
+                PARSED_UNITS.clear();
+            }
+            PARSED_UNITS.put(targetUnit, unit);
         }
-
-        return null;
+        return toUnit(unit);
     }
 
     public BigDecimal toBigDecimal() {
-        return new BigDecimal(quantity.getValue().toString());
+        Number value = quantity.getValue();
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof Integer || value instanceof Long) {
+            return BigDecimal.valueOf(value.longValue());
+        } else if (value instanceof Double) {
+            // same result as parsing Double.toString(), but without the intermediate string
+            return BigDecimal.valueOf(value.doubleValue());
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    /**
+     * Returns the converter between two units. Converters are cached, as creating them involves walking through the
+     * definitions of both units.
+     */
+    private static UnitConverter getConverter(Unit<?> sourceUnit, Unit<?> targetUnit)
+            throws UnconvertibleException, IncommensurableException {
+        Map<Unit<?>, UnitConverter> converters = CONVERTERS.get(sourceUnit);
+        if (converters == null) {
+            if (CONVERTERS.size() >= MAX_CACHED_UNITS) {
+                CONVERTERS.clear();
+            }
+            converters = CONVERTERS.computeIfAbsent(sourceUnit, unit -> new ConcurrentHashMap<>());
+        }
+        UnitConverter converter = converters.get(targetUnit);
+        if (converter == null) {
+            converter = sourceUnit.getConverterToAny(targetUnit);
+            if (converters.size() >= MAX_CACHED_UNITS) {
+                converters.clear();
+            }
+            converters.put(targetUnit, converter);
+        }
+        return converter;
     }
 
     @Override
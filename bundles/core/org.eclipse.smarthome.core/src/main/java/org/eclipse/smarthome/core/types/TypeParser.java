@@ -12,13 +12,34 @@
  */
 package org.eclipse.smarthome.core.types;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.RawType;
+import org.eclipse.smarthome.core.library.types.StringListType;
+import org.eclipse.smarthome.core.library.types.StringType;
 
 /**
  * This is a helper class that helps parsing a string into an Eclipse SmartHome type (state or command).
  *
+ * The {@code valueOf(String)} method of every type is resolved only once. The core library types are parsed through
+ * direct method references and enum types through a lookup of their constants, so that neither reflection nor
+ * exceptions are needed to find out that a string is not a valid value of a type in the common cases.
+ *
  * @author Kai Kreuzer - Initial contribution and API
  *
  */
@@ -32,6 +53,41 @@ public final class TypeParser {
 
     private static final String CORE_LIBRARY_PACKAGE = "org.eclipse.smarthome.core.library.types.";
 
+    private static final ValueParser NO_PARSER = new ValueParser(input -> false, input -> null);
+
+    /* parsers of the core library types, which belong to this bundle and thus are never unloaded before it */
+    private static final Map<Class<?>, ValueParser> CORE_LIBRARY_PARSERS = new HashMap<>();
+
+    /*
+     * parsers of all other types; a ClassValue does not keep the types of other bundles from being garbage collected
+     * once these bundles are uninstalled
+     */
+    private static final ClassValue<ValueParser> PARSERS = new ClassValue<ValueParser>() {
+        @Override
+        protected ValueParser computeValue(Class<?> type) {
+            ValueParser parser = CORE_LIBRARY_PARSERS.get(type);
+            return parser != null ? parser : createParser(type);
+        }
+    };
+
+    private static final Map<String, Class<?>> CORE_LIBRARY_TYPES = new ConcurrentHashMap<>();
+
+    static {
+        CORE_LIBRARY_PARSERS.put(DecimalType.class, new ValueParser(TypeParser::isNumber, DecimalType::valueOf));
+        CORE_LIBRARY_PARSERS.put(PercentType.class, new ValueParser(TypeParser::isNumber, PercentType::valueOf));
+        CORE_LIBRARY_PARSERS.put(QuantityType.class,
+                new ValueParser(input -> !input.isEmpty(), QuantityType::valueOf));
+        CORE_LIBRARY_PARSERS.put(HSBType.class, new ValueParser(input -> input.indexOf(',') >= 0, HSBType::valueOf));
+        // a point needs at least a latitude and a longitude, PointType rejects blank strings
+        CORE_LIBRARY_PARSERS.put(PointType.class,
+                new ValueParser(input -> input.indexOf(',') >= 0, PointType::valueOf));
+        CORE_LIBRARY_PARSERS.put(DateTimeType.class, new ValueParser(
+                input -> !input.isEmpty() && Character.isDigit(input.charAt(0)), DateTimeType::valueOf));
+        CORE_LIBRARY_PARSERS.put(StringType.class, new ValueParser(input -> true, StringType::valueOf));
+        CORE_LIBRARY_PARSERS.put(StringListType.class, new ValueParser(input -> true, StringListType::valueOf));
+        CORE_LIBRARY_PARSERS.put(RawType.class, new ValueParser(input -> true, RawType::valueOf));
+    }
+
     /**
      * Parses a string into a type.
      *
@@ -40,16 +96,16 @@ public final class TypeParser {
      * @return Parsed type or null, if the type couldn't be parsed.
      */
     public static Type parseType(String typeName, String input) {
-        try {
-            Class<?> stateClass = Class.forName(CORE_LIBRARY_PACKAGE + typeName);
-            Method valueOfMethod = stateClass.getMethod("valueOf", String.class);
-            return (Type) valueOfMethod.invoke(stateClass, input);
-        } catch (ClassNotFoundException e) {
-        } catch (NoSuchMethodException e) {
-        } catch (IllegalAccessException e) {
-        } catch (InvocationTargetException e) {
+        Class<?> typeClass = CORE_LIBRARY_TYPES.get(typeName);
+        if (typeClass == null) {
+            try {
+                typeClass = Class.forName(CORE_LIBRARY_PACKAGE + typeName);
+            } catch (ClassNotFoundException e) {
+                return null;
+            }
+            CORE_LIBRARY_TYPES.put(typeName, typeClass);
         }
-        return null;
+        return (Type) getParser(typeClass).parse(input);
     }
 
     /**
@@ -67,16 +123,9 @@ public final class TypeParser {
      */
     public static State parseState(List<Class<? extends State>> types, String s) {
         for (Class<? extends Type> type : types) {
-            try {
-                Method valueOf = type.getMethod("valueOf", String.class);
-                State state = (State) valueOf.invoke(type, s);
-                if (state != null) {
-                    return state;
-                }
-            } catch (NoSuchMethodException e) {
-            } catch (IllegalArgumentException e) {
-            } catch (IllegalAccessException e) {
-            } catch (InvocationTargetException e) {
+            State state = (State) getParser(type).parse(s);
+            if (state != null) {
+                return state;
             }
         }
         return null;
@@ -97,18 +146,85 @@ public final class TypeParser {
      */
     public static Command parseCommand(List<Class<? extends Command>> types, String s) {
         for (Class<? extends Command> type : types) {
-            try {
-                Method valueOf = type.getMethod("valueOf", String.class);
-                Command value = (Command) valueOf.invoke(type, s);
-                if (value != null) {
-                    return value;
-                }
-            } catch (NoSuchMethodException e) {
-            } catch (IllegalArgumentException e) {
-            } catch (IllegalAccessException e) {
-            } catch (InvocationTargetException e) {
+            Command value = (Command) getParser(type).parse(s);
+            if (value != null) {
+                return value;
             }
         }
         return null;
     }
+
+    private static ValueParser getParser(Class<?> type) {
+        return PARSERS.get(type);
+    }
+
+    private static ValueParser createParser(Class<?> type) {
+        if (type.isEnum()) {
+            // Enum.valueOf only accepts the exact constant names
+            Map<String, Object> constants = new HashMap<>();
+            for (Object constant : type.getEnumConstants()) {
+                constants.put(((Enum<?>) constant).name(), constant);
+            }
+            return new ValueParser(constants::containsKey, constants::get);
+        }
+        try {
+            Method valueOf = type.getMethod("valueOf", String.class);
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(valueOf);
+            return new ValueParser(input -> true, input -> {
+                try {
+                    return handle.invoke(input);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalArgumentException(e);
+                }
+            });
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return NO_PARSER;
+        }
+    }
+
+    /**
+     * Checks whether the string only consists of characters which can be part of a {@link java.math.BigDecimal}
+     * representation.
+     */
+    private static boolean isNumber(String input) {
+        if (input.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (!(c >= '0' && c <= '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses strings into values of a single type. A cheap syntactic check is done before parsing, so that most
+     * invalid values are rejected without an exception being thrown.
+     */
+    private static final class ValueParser {
+
+        private final Predicate<String> check;
+        private final Function<String, ?> valueOf;
+
+        ValueParser(Predicate<String> check, Function<String, ?> valueOf) {
+            this.check = check;
+            this.valueOf = valueOf;
+        }
+
+        @Nullable
+        Object parse(String input) {
+            if (!check.test(input)) {
+                return null;
+            }
+            try {
+                return valueOf.apply(input);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+    }
 }
@@ -20,7 +20,9 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
@@ -62,6 +64,12 @@ public class UnitUtils {
     private static final Collection<Class<? extends SystemOfUnits>> ALL_SYSTEM_OF_UNITS = Arrays.asList(SIUnits.class,
             ImperialUnits.class, SmartHomeUnits.class, Units.class);
 
+    /* unit symbols are taken from the last token of state description patterns, which may be any text */
+    private static final int MAX_CACHED_UNITS = 1000;
+
+    /* unit symbol -> unit, as the same few symbols are parsed again for every state update */
+    private static final Map<String, Unit<?>> PARSED_UNITS = new ConcurrentHashMap<>();
+
     static {
         UnitInitializer.init();
     }
@@ -160,9 +168,18 @@ public class UnitUtils {
             if (UNIT_PERCENT_FORMAT_STRING.equals(unitSymbol)) {
                 return SmartHomeUnits.PERCENT;
             }
+            Unit<?> unit = PARSED_UNITS.get(unitSymbol);
+            if (unit != null) {
+                return unit;
+            }
             try {
                 Quantity<?> quantity = Quantities.getQuantity("1 " + unitSymbol);
-                return quantity.getUnit();
+                unit = quantity.getUnit();
+                if (PARSED_UNITS.size() >= MAX_CACHED_UNITS) {
+                    PARSED_UNITS.clear();
+                }
+                PARSED_UNITS.put(unitSymbol, unit);
+                return unit;
             } catch (IllegalArgumentException e) {
                 // we expect this exception in case the extracted string does not match any known unit
                 LOGGER.debug("Unknown unit from pattern: {}", unitSymbol);
@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
@@ -41,6 +42,10 @@ import org.eclipse.smarthome.core.items.dto.GroupItemDTO;
 import org.eclipse.smarthome.core.items.dto.MetadataDTO;
 import org.eclipse.smarthome.core.library.items.DimmerItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.link.ItemChannelLink;
+import org.eclipse.smarthome.core.thing.link.ManagedItemChannelLinkProvider;
 import org.eclipse.smarthome.io.rest.RESTResource;
 import org.eclipse.smarthome.test.java.JavaOSGiTest;
 import org.junit.Before;
@@ -145,6 +150,44 @@ public class ItemResourceOSGiTest extends JavaOSGiTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void shouldIncludeStateOfRequestedFields() throws Exception {
+        JsonParser parser = new JsonParser();
+        item1.addTag("StateTag");
+        item1.setState(OnOffType.ON);
+        Response response = itemResource.getItems(null, null, "StateTag", null, false, "name,state");
+
+        JsonElement result = parser.parse(IOUtils.toString((InputStream) response.getEntity()));
+        JsonElement expected = parser.parse("[{editable: false, name: \"Item1\", state: \"ON\"}]");
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void shouldProvideEntityTagWhichChangesWithTheItems() throws Exception {
+        EntityTag entityTag = itemResource.getItems(null, null, null, null, false, null).getEntityTag();
+        assertNotNull(entityTag);
+        assertEquals(entityTag, itemResource.getItems(null, null, null, null, false, null).getEntityTag());
+        assertNotEquals(entityTag, itemResource.getItems(null, null, null, null, false, "name").getEntityTag());
+
+        managedItemProvider.add(new SwitchItem("Switch"));
+
+        waitForAssert(() -> assertNotEquals(entityTag,
+                itemResource.getItems(null, null, null, null, false, null).getEntityTag()));
+    }
+
+    @Test
+    public void shouldChangeEntityTagWhenALinkIsAdded() throws Exception {
+        EntityTag entityTag = itemResource.getItems(null, null, null, null, false, null).getEntityTag();
+        assertNotNull(entityTag);
+
+        ManagedItemChannelLinkProvider linkProvider = getService(ManagedItemChannelLinkProvider.class);
+        assertNotNull(linkProvider);
+        linkProvider.add(new ItemChannelLink(ITEM_NAME1, new ChannelUID("binding:type:thing:channel")));
+
+        waitForAssert(() -> assertNotEquals(entityTag,
+                itemResource.getItems(null, null, null, null, false, null).getEntityTag()));
+    }
+
     @Test
     public void shouldProvideReturnCodesForTagHandling() {
         Response response = itemResource.addTag("Switch", "MyTag");
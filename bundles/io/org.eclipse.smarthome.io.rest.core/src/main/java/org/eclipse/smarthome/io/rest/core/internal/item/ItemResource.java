@@ -12,14 +12,22 @@
  */
 package org.eclipse.smarthome.io.rest.core.internal.item;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.annotation.security.RolesAllowed;
@@ -36,8 +44,10 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
@@ -111,6 +121,7 @@ import io.swagger.annotations.ApiResponses;
  * @author Jörg Plewe - refactoring, error handling
  * @author Franck Dechavanne - Added DTOs to ApiResponses
  * @author Stefan Triller - Added bulk item add method
+ * @author agent - Added ETag support and a lightweight field projection for the item list
  */
 @NonNullByDefault
 @Path(ItemResource.PATH_ITEMS)
@@ -123,10 +134,18 @@ public class ItemResource implements RESTResource {
     /** The URI path to this resource */
     public static final String PATH_ITEMS = "items";
 
+    /** The fields of the item list which can be provided without mapping the items to DTOs */
+    private static final Set<String> SIMPLE_FIELDS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("name", "label", "type", "category", "tags", "groupNames", "link", "state", "editable")));
+
     @NonNullByDefault({})
     @Context
     UriInfo uriInfo;
 
+    @Context
+    @Nullable
+    Request request;
+
     @NonNullByDefault({})
     private ItemRegistry itemRegistry;
     @NonNullByDefault({})
@@ -145,6 +164,8 @@ public class ItemResource implements RESTResource {
     @NonNullByDefault({})
     private LocaleService localeService;
 
+    private @Nullable ItemRevisionTracker itemRevisionTracker;
+
     @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
     protected void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
@@ -208,6 +229,15 @@ public class ItemResource implements RESTResource {
         this.metadataSelectorMatcher = null;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setItemRevisionTracker(ItemRevisionTracker itemRevisionTracker) {
+        this.itemRevisionTracker = itemRevisionTracker;
+    }
+
+    protected void unsetItemRevisionTracker(ItemRevisionTracker itemRevisionTracker) {
+        this.itemRevisionTracker = null;
+    }
+
     @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
     public void setItemBuilderFactory(ItemBuilderFactory itemBuilderFactory) {
         this.itemBuilderFactory = itemBuilderFactory;
@@ -222,7 +252,8 @@ public class ItemResource implements RESTResource {
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Get all available items.", response = EnrichedItemDTO.class, responseContainer = "List")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "OK", response = EnrichedItemDTO.class, responseContainer = "List") })
+            @ApiResponse(code = 200, message = "OK", response = EnrichedItemDTO.class, responseContainer = "List"),
+            @ApiResponse(code = 304, message = "Not Modified") })
     public Response getItems(
             @HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) @ApiParam(value = "language") @Nullable String language,
             @QueryParam("type") @ApiParam(value = "item type filter", required = false) @Nullable String type,
@@ -234,12 +265,101 @@ public class ItemResource implements RESTResource {
         final Set<String> namespaces = splitAndFilterNamespaces(namespaceSelector, locale);
         logger.debug("Received HTTP GET request at '{}'", uriInfo.getPath());
 
-        Stream<EnrichedItemDTO> itemStream = getItems(type, tags).stream() //
-                .map(item -> EnrichedItemDTOMapper.map(item, recursive, null, uriInfo.getBaseUri(), locale)) //
-                .peek(dto -> addMetadata(dto, namespaces, null)) //
-                .peek(dto -> dto.editable = isEditable(dto.name));
-        itemStream = dtoMapper.limitToFields(itemStream, fields);
-        return Response.ok(new Stream2JSONInputStream(itemStream)).build();
+        EntityTag entityTag = getEntityTag(locale, type, tags, namespaceSelector, recursive, fields);
+        if (entityTag != null && request != null) {
+            ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+            if (notModified != null) {
+                return notModified.build();
+            }
+        }
+
+        Set<String> fieldSet = splitFields(fields);
+        Stream<?> itemStream;
+        if (fieldSet != null && SIMPLE_FIELDS.containsAll(fieldSet)) {
+            itemStream = getItems(type, tags).stream().map(item -> mapFields(item, fieldSet));
+        } else {
+            Stream<EnrichedItemDTO> dtoStream = getItems(type, tags).stream() //
+                    .map(item -> EnrichedItemDTOMapper.map(item, recursive, null, uriInfo.getBaseUri(), locale)) //
+                    .peek(dto -> addMetadata(dto, namespaces, null)) //
+                    .peek(dto -> dto.editable = isEditable(dto.name));
+            itemStream = dtoMapper.limitToFields(dtoStream, fields);
+        }
+        ResponseBuilder responseBuilder = Response.ok(new Stream2JSONInputStream(itemStream));
+        if (entityTag != null) {
+            responseBuilder.tag(entityTag);
+        }
+        return responseBuilder.build();
+    }
+
+    /**
+     * Creates the entity tag of an item list. It changes whenever the items, their states, their metadata or the
+     * channels they are linked to change. The request parameters are part of the tag as they are, so that different
+     * requests never share a tag.
+     */
+    private @Nullable EntityTag getEntityTag(Locale locale, @Nullable String type, @Nullable String tags,
+            @Nullable String namespaceSelector, boolean recursive, @Nullable String fields) {
+        ItemRevisionTracker tracker = itemRevisionTracker;
+        if (tracker == null) {
+            return null;
+        }
+        String parameters = "locale=" + encode(locale.toLanguageTag()) + "&type=" + encode(type) + "&tags="
+                + encode(tags) + "&metadata=" + encode(namespaceSelector) + "&recursive=" + recursive + "&fields="
+                + encode(fields);
+        return new EntityTag(tracker.getRevision() + "?" + parameters);
+    }
+
+    private String encode(@Nullable String value) {
+        if (value == null) {
+            return "";
+        }
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private @Nullable Set<String> splitFields(@Nullable String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return null;
+        }
+        return Stream.of(fields.split(",")).map(String::trim).collect(Collectors.toSet());
+    }
+
+    /**
+     * Maps the given item to a JSON object which only contains the requested simple fields, without the expensive
+     * creation of an {@link EnrichedItemDTO} with state formatting, state and command descriptions and metadata. The
+     * 'editable' field is always included, just like for the DTOs.
+     */
+    private Map<String, Object> mapFields(Item item, Set<String> fieldSet) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (fieldSet.contains("link")) {
+            map.put("link", uriInfo.getBaseUri().toASCIIString() + PATH_ITEMS + "/" + item.getName());
+        }
+        if (fieldSet.contains("state")) {
+            map.put("state", item.getState().toFullString());
+        }
+        map.put("editable", isEditable(item.getName()));
+        if (fieldSet.contains("type")) {
+            map.put("type", item.getType());
+        }
+        if (fieldSet.contains("name")) {
+            map.put("name", item.getName());
+        }
+        if (fieldSet.contains("label") && item.getLabel() != null) {
+            map.put("label", item.getLabel());
+        }
+        if (fieldSet.contains("category") && item.getCategory() != null) {
+            map.put("category", item.getCategory());
+        }
+        if (fieldSet.contains("tags")) {
+            map.put("tags", item.getTags());
+        }
+        if (fieldSet.contains("groupNames")) {
+            map.put("groupNames", item.getGroupNames());
+        }
+        return map;
     }
 
     @GET
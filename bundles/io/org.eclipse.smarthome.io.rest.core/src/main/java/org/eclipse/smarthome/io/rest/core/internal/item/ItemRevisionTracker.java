@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.core.internal.item;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.registry.RegistryChangeListener;
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventFilter;
+import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.items.Metadata;
+import org.eclipse.smarthome.core.items.MetadataRegistry;
+import org.eclipse.smarthome.core.items.events.GroupItemStateChangedEvent;
+import org.eclipse.smarthome.core.items.events.ItemAddedEvent;
+import org.eclipse.smarthome.core.items.events.ItemRemovedEvent;
+import org.eclipse.smarthome.core.items.events.ItemStateChangedEvent;
+import org.eclipse.smarthome.core.items.events.ItemUpdatedEvent;
+import org.eclipse.smarthome.core.service.ReadyMarker;
+import org.eclipse.smarthome.core.service.ReadyMarkerFilter;
+import org.eclipse.smarthome.core.service.ReadyService;
+import org.eclipse.smarthome.core.thing.events.ThingAddedEvent;
+import org.eclipse.smarthome.core.thing.events.ThingRemovedEvent;
+import org.eclipse.smarthome.core.thing.events.ThingUpdatedEvent;
+import org.eclipse.smarthome.core.thing.link.events.ItemChannelLinkAddedEvent;
+import org.eclipse.smarthome.core.thing.link.events.ItemChannelLinkRemovedEvent;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+
+/**
+ * The {@link ItemRevisionTracker} counts the changes of items, their states and their metadata. The revision is used
+ * by the {@link ItemResource} to tell clients whether the item list they already have is still up to date.
+ *
+ * The state and command descriptions of an item are taken from the channel types of its linked channels, so changes
+ * of the links, of the things and of the loaded thing and channel types of a binding change the revision as well.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = { ItemRevisionTracker.class, EventSubscriber.class })
+public class ItemRevisionTracker
+        implements EventSubscriber, RegistryChangeListener<Metadata>, ReadyService.ReadyTracker {
+
+    private static final Set<String> SUBSCRIBED_EVENT_TYPES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList(ItemStateChangedEvent.TYPE, GroupItemStateChangedEvent.TYPE, ItemAddedEvent.TYPE,
+                    ItemRemovedEvent.TYPE, ItemUpdatedEvent.TYPE, ItemChannelLinkAddedEvent.TYPE,
+                    ItemChannelLinkRemovedEvent.TYPE, ThingAddedEvent.TYPE, ThingRemovedEvent.TYPE,
+                    ThingUpdatedEvent.TYPE)));
+
+    // the ready marker of the thing and channel types which a binding provides by XML
+    private static final String XML_THING_TYPE = "esh.xmlThingTypes";
+
+    // distinguishes the revisions from the ones before a restart
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+
+    private final AtomicLong revision = new AtomicLong();
+
+    /**
+     * Returns an identifier of the current revision, which changes whenever an item, its state, its metadata or its
+     * linked channels change.
+     *
+     * @return the current revision
+     */
+    public String getRevision() {
+        return epoch + "-" + revision.get();
+    }
+
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return SUBSCRIBED_EVENT_TYPES;
+    }
+
+    @Override
+    public @Nullable EventFilter getEventFilter() {
+        return null;
+    }
+
+    @Override
+    public void receive(Event event) {
+        revision.incrementAndGet();
+    }
+
+    @Override
+    public void added(Metadata element) {
+        revision.incrementAndGet();
+    }
+
+    @Override
+    public void removed(Metadata element) {
+        revision.incrementAndGet();
+    }
+
+    @Override
+    public void updated(Metadata oldElement, Metadata element) {
+        revision.incrementAndGet();
+    }
+
+    @Override
+    public void onReadyMarkerAdded(ReadyMarker readyMarker) {
+        revision.incrementAndGet();
+    }
+
+    @Override
+    public void onReadyMarkerRemoved(ReadyMarker readyMarker) {
+        revision.incrementAndGet();
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setReadyService(ReadyService readyService) {
+        readyService.registerTracker(this, new ReadyMarkerFilter().withType(XML_THING_TYPE));
+    }
+
+    protected void unsetReadyService(ReadyService readyService) {
+        readyService.unregisterTracker(this);
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setMetadataRegistry(MetadataRegistry metadataRegistry) {
+        metadataRegistry.addRegistryChangeListener(this);
+        revision.incrementAndGet();
+    }
+
+    protected void unsetMetadataRegistry(MetadataRegistry metadataRegistry) {
+        metadataRegistry.removeRegistryChangeListener(this);
+        revision.incrementAndGet();
+    }
+
+}
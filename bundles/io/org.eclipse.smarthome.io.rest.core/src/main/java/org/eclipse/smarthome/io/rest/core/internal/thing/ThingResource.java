@@ -502,6 +502,32 @@ public class ThingResource implements RESTResource {
         return getThingResponse(Status.OK, thing, locale, null);
     }
 
+    @GET
+    @RolesAllowed({ Role.USER, Role.ADMIN })
+    @Path("/{thingUID}/initialization")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Gets the time in milliseconds the thing's handler took to initialize.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK", response = Long.class),
+            @ApiResponse(code = 204, message = "The thing's handler has not been initialized."),
+            @ApiResponse(code = 404, message = "Thing not found.") })
+    public Response getInitializationTime(@PathParam("thingUID") @ApiParam(value = "thing") String thingUID) {
+        ThingUID thingUIDObject = new ThingUID(thingUID);
+
+        // Check if the Thing exists, 404 if not
+        Thing thing = thingRegistry.get(thingUIDObject);
+        if (null == thing) {
+            logger.info("Received HTTP GET request for thing initialization time at '{}' for the unknown thing '{}'.",
+                    uriInfo.getPath(), thingUID);
+            return getThingNotFoundResponse(thingUID);
+        }
+
+        Long initializationTime = thingManager.getInitializationTime(thingUIDObject);
+        if (initializationTime == null) {
+            return Response.noContent().build();
+        }
+        return Response.ok().entity(initializationTime).build();
+    }
+
     @GET
     @RolesAllowed({ Role.USER, Role.ADMIN })
     @Path("/{thingUID}/config/status")
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sitemap;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.events.ItemEventFactory;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.io.rest.sitemap.SitemapSubscriptionService.SitemapSubscriptionCallback;
+import org.eclipse.smarthome.io.rest.sitemap.internal.SitemapEvent;
+import org.eclipse.smarthome.io.rest.sitemap.internal.SitemapWidgetEvent;
+import org.eclipse.smarthome.model.core.EventType;
+import org.eclipse.smarthome.model.sitemap.Frame;
+import org.eclipse.smarthome.model.sitemap.Sitemap;
+import org.eclipse.smarthome.model.sitemap.SitemapProvider;
+import org.eclipse.smarthome.model.sitemap.Widget;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.eclipse.smarthome.ui.items.ItemUIRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * Tests the dispatching of state changes by the {@link SitemapSubscriptionService}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SitemapSubscriptionServiceTest extends JavaTest {
+
+    private static final String SITEMAP_NAME = "demo";
+    private static final String ITEM1_NAME = "item1";
+    private static final String ITEM2_NAME = "item2";
+    private static final String FRAME_ITEM_NAME = "frameItem";
+    private static final String WIDGET1_ID = "00";
+    private static final String WIDGET2_ID = "01";
+    private static final String FRAME_WIDGET_ID = "0200";
+
+    private SitemapSubscriptionService service;
+
+    @Mock
+    private ItemUIRegistry itemUIRegistry;
+
+    @Mock
+    private SitemapProvider sitemapProvider;
+
+    @Mock
+    private Sitemap sitemap;
+
+    private TestItem item1;
+    private TestItem item2;
+    private TestItem frameItem;
+
+    private final List<SitemapEvent> events = new CopyOnWriteArrayList<>();
+
+    private final SitemapSubscriptionCallback callback = new SitemapSubscriptionCallback() {
+        @Override
+        public void onEvent(SitemapEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onRelease(String subscriptionId) {
+        }
+    };
+
+    @Before
+    public void setup() throws Exception {
+        initMocks(this);
+
+        item1 = new TestItem(ITEM1_NAME);
+        item2 = new TestItem(ITEM2_NAME);
+        frameItem = new TestItem(FRAME_ITEM_NAME);
+        registerItem(item1);
+        registerItem(item2);
+        registerItem(frameItem);
+
+        Widget w1 = mockWidget(ITEM1_NAME, WIDGET1_ID);
+        Widget w2 = mockWidget(ITEM2_NAME, WIDGET2_ID);
+        Widget frameChild = mockWidget(FRAME_ITEM_NAME, FRAME_WIDGET_ID);
+        Frame frame = mock(Frame.class);
+        when(frame.getVisibility()).thenReturn(new BasicEList<>());
+        when(frame.getLabelColor()).thenReturn(new BasicEList<>());
+        when(frame.getValueColor()).thenReturn(new BasicEList<>());
+        when(frame.getChildren()).thenReturn(widgets(frameChild));
+        when(itemUIRegistry.getChildren(frame)).thenReturn(widgets(frameChild));
+        when(itemUIRegistry.getChildren(sitemap)).thenReturn(widgets(w1, w2, frame));
+        when(itemUIRegistry.convertState(any(), any(), any())).thenAnswer(i -> i.getArgument(2));
+
+        when(sitemap.getName()).thenReturn(SITEMAP_NAME);
+        when(sitemapProvider.getSitemap(SITEMAP_NAME)).thenReturn(sitemap);
+
+        service = new SitemapSubscriptionService();
+        service.setItemUIRegistry(itemUIRegistry);
+        service.addSitemapProvider(sitemapProvider);
+        service.activate(Collections.emptyMap());
+
+        String subscriptionId = service.createSubscription(callback);
+        service.setPageId(subscriptionId, SITEMAP_NAME, SITEMAP_NAME);
+    }
+
+    @Test
+    public void stateChangeIsOnlySentForWidgetsOfTheItem() {
+        item1.setState(new DecimalType(1));
+
+        waitForAssert(() -> assertEquals(1, events.size()));
+        assertThat(((SitemapWidgetEvent) events.get(0)).widgetId, is(WIDGET1_ID));
+    }
+
+    @Test
+    public void stateChangeIsSentForFrameChildren() {
+        frameItem.setState(new DecimalType(1));
+
+        waitForAssert(() -> assertEquals(1, events.size()));
+        assertThat(((SitemapWidgetEvent) events.get(0)).widgetId, is(FRAME_WIDGET_ID));
+    }
+
+    @Test
+    public void listenerMovesToReplacedItem() throws Exception {
+        TestItem newItem1 = new TestItem(ITEM1_NAME);
+        registerItem(newItem1);
+        service.receive(ItemEventFactory.createUpdateEvent(newItem1, item1));
+
+        assertFalse(item1.hasListeners());
+        assertTrue(newItem1.hasListeners());
+
+        newItem1.setState(new DecimalType(1));
+        waitForAssert(() -> assertEquals(1, events.size()));
+        assertThat(((SitemapWidgetEvent) events.get(0)).widgetId, is(WIDGET1_ID));
+    }
+
+    @Test
+    public void itemsRemovedFromTheSitemapAreNoLongerListenedTo() {
+        Widget w1 = mockWidget(ITEM1_NAME, WIDGET1_ID);
+        when(itemUIRegistry.getChildren(sitemap)).thenReturn(widgets(w1));
+
+        service.modelChanged(SITEMAP_NAME + ".sitemap", EventType.MODIFIED);
+
+        assertTrue(item1.hasListeners());
+        assertFalse(item2.hasListeners());
+        assertFalse(frameItem.hasListeners());
+    }
+
+    private void registerItem(Item item) throws Exception {
+        when(itemUIRegistry.getItem(item.getName())).thenReturn(item);
+        when(itemUIRegistry.get(item.getName())).thenReturn(item);
+    }
+
+    private EList<Widget> widgets(Widget... widgets) {
+        return new BasicEList<>(Arrays.asList(widgets));
+    }
+
+    private Widget mockWidget(String itemName, String widgetId) {
+        Widget widget = mock(Widget.class);
+        EClass eClass = mock(EClass.class);
+        when(eClass.getInstanceTypeName()).thenReturn("org.eclipse.smarthome.model.sitemap.Text");
+        when(widget.eClass()).thenReturn(eClass);
+        when(widget.getItem()).thenReturn(itemName);
+        when(widget.getVisibility()).thenReturn(new BasicEList<>());
+        when(widget.getLabelColor()).thenReturn(new BasicEList<>());
+        when(widget.getValueColor()).thenReturn(new BasicEList<>());
+        when(itemUIRegistry.getWidgetId(widget)).thenReturn(widgetId);
+        return widget;
+    }
+
+    private static class TestItem extends GenericItem {
+
+        public TestItem(String name) {
+            super("Number", name);
+        }
+
+        public boolean hasListeners() {
+            return !listeners.isEmpty();
+        }
+
+        @Override
+        public List<Class<? extends State>> getAcceptedDataTypes() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Class<? extends Command>> getAcceptedCommandTypes() {
+            return Collections.emptyList();
+        }
+    }
+}
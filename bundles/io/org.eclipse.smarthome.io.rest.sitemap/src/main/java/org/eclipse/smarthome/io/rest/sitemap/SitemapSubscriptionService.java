@@ -13,7 +13,10 @@
 package org.eclipse.smarthome.io.rest.sitemap;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -21,17 +24,26 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventFilter;
 import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.StateChangeListener;
 import org.eclipse.smarthome.core.items.events.ItemStatePredictedEvent;
+import org.eclipse.smarthome.core.items.events.ItemUpdatedEvent;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.io.rest.sitemap.internal.EnrichedItemDTOCache;
 import org.eclipse.smarthome.io.rest.sitemap.internal.PageChangeListener;
 import org.eclipse.smarthome.io.rest.sitemap.internal.SitemapEvent;
 import org.eclipse.smarthome.model.core.EventType;
@@ -68,9 +80,13 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
     private static final String SITEMAP_PAGE_SEPARATOR = "#";
     private static final String SITEMAP_SUFFIX = ".sitemap";
     private static final int DEFAULT_MAX_SUBSCRIPTIONS = 50;
+    private static final int REVERT_INTERVAL = 300;
 
     private final Logger logger = LoggerFactory.getLogger(SitemapSubscriptionService.class);
 
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+
     public interface SitemapSubscriptionCallback {
 
         void onEvent(SitemapEvent event);
@@ -93,6 +109,15 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
     /* sitemap+page -> listener */
     private final Map<String, PageChangeListener> pageChangeListeners = new ConcurrentHashMap<>();
 
+    /* item name -> listeners of all pages that show the item */
+    private final Map<String, Set<PageChangeListener>> pageChangeListenersOfItem = new ConcurrentHashMap<>();
+
+    /* item name -> the item instance that the state change listener is registered on, guarded by the index above */
+    private final Map<String, Item> listenedItems = new HashMap<>();
+
+    /* the single state change listener that is registered on all items of all active pages */
+    private final StateChangeListener itemStateChangeListener = new ItemStateChangeListener();
+
     /* Max number of subscriptions at the same time */
     private int maxSubscriptions = DEFAULT_MAX_SUBSCRIPTIONS;
 
@@ -109,7 +134,7 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
         pageOfSubscription.clear();
         callbacks.clear();
         for (PageChangeListener listener : pageChangeListeners.values()) {
-            listener.dispose();
+            disposePageChangeListener(listener);
         }
         pageChangeListeners.clear();
     }
@@ -185,7 +210,7 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
             // this was the only subscription listening on this page, so we can dispose the listener
             PageChangeListener listener = pageChangeListeners.remove(sitemapPage);
             if (listener != null) {
-                listener.dispose();
+                disposePageChangeListener(listener);
             }
         }
         logger.debug("Removed subscription with id {} ({} active subscriptions)", subscriptionId, callbacks.size());
@@ -261,6 +286,7 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
             // there is no listener for this page yet, so let's try to create one
             listener = new PageChangeListener(sitemapName, pageId, itemUIRegistry, collectWidgets(sitemapName, pageId));
             pageChangeListeners.put(getValue(sitemapName, pageId), listener);
+            registerItems(listener);
         }
         if (listener != null) {
             listener.addCallback(callback);
@@ -292,12 +318,107 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
             oldListener.removeCallback(callback);
             if (!pageOfSubscription.values().contains(sitemapPage)) {
                 // no other callbacks are left here, so we can safely dispose the listener
-                oldListener.dispose();
+                disposePageChangeListener(oldListener);
                 pageChangeListeners.remove(sitemapPage);
             }
         }
     }
 
+    private void disposePageChangeListener(PageChangeListener listener) {
+        unregisterItems(listener);
+        listener.dispose();
+    }
+
+    /**
+     * Adds the items of a page to the item index and makes sure that we listen to their state changes.
+     *
+     * @param listener the listener of the page
+     */
+    private void registerItems(PageChangeListener listener) {
+        synchronized (pageChangeListenersOfItem) {
+            for (Item item : listener.getItems()) {
+                pageChangeListenersOfItem.computeIfAbsent(item.getName(), name -> new CopyOnWriteArraySet<>())
+                        .add(listener);
+                listenTo(item);
+            }
+        }
+    }
+
+    /**
+     * Removes the given items of a page from the item index and stops listening to items that are not shown on any
+     * other active page.
+     *
+     * @param listener the listener of the page
+     * @param itemNames the names of the items to remove
+     */
+    private void unregisterItems(PageChangeListener listener, Collection<String> itemNames) {
+        synchronized (pageChangeListenersOfItem) {
+            for (String itemName : itemNames) {
+                Set<PageChangeListener> listeners = pageChangeListenersOfItem.get(itemName);
+                if (listeners != null) {
+                    listeners.remove(listener);
+                    if (listeners.isEmpty()) {
+                        pageChangeListenersOfItem.remove(itemName);
+                        Item item = listenedItems.remove(itemName);
+                        if (item instanceof GenericItem) {
+                            ((GenericItem) item).removeStateChangeListener(itemStateChangeListener);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void unregisterItems(PageChangeListener listener) {
+        unregisterItems(listener, getItemNames(listener.getItems()));
+    }
+
+    /**
+     * Registers the state change listener on the given item instance and removes it from the instance that was used
+     * for an item of the same name before, e.g. when the item has been replaced in the registry. Must be called while
+     * holding the lock of the item index.
+     *
+     * @param item the item to listen to
+     */
+    private void listenTo(Item item) {
+        Item oldItem = listenedItems.put(item.getName(), item);
+        if (oldItem == item) {
+            return;
+        }
+        if (item instanceof GenericItem) {
+            ((GenericItem) item).addStateChangeListener(itemStateChangeListener);
+        }
+        if (oldItem instanceof GenericItem) {
+            ((GenericItem) oldItem).removeStateChangeListener(itemStateChangeListener);
+        }
+    }
+
+    private Set<String> getItemNames(Collection<Item> items) {
+        Set<String> itemNames = new HashSet<>();
+        for (Item item : items) {
+            itemNames.add(item.getName());
+        }
+        return itemNames;
+    }
+
+    /**
+     * Sends the events for a state change of an item to all pages that show the item. The enriched item data is
+     * computed only once and shared between all these pages.
+     *
+     * @param item the item whose state has changed
+     * @param state the new state
+     */
+    private void dispatchStateChange(Item item, State state) {
+        Set<PageChangeListener> listeners = pageChangeListenersOfItem.get(item.getName());
+        if (listeners == null || listeners.isEmpty()) {
+            return;
+        }
+        EnrichedItemDTOCache itemDTOs = new EnrichedItemDTOCache(item);
+        for (PageChangeListener listener : listeners) {
+            listener.constructAndSendEvents(item, state, itemDTOs);
+        }
+    }
+
     private String getValue(String sitemapName, String pageId) {
         return sitemapName + SITEMAP_PAGE_SEPARATOR + pageId;
     }
@@ -326,8 +447,15 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
             String pageId = extractPageId(sitemapWithPage);
 
             if (sitemapName.equals(changedSitemapName)) {
+                PageChangeListener listener = listenerEntry.getValue();
                 EList<Widget> widgets = collectWidgets(sitemapName, pageId);
-                listenerEntry.getValue().sitemapContentChanged(widgets);
+                // register the new items before unregistering the old ones, so that the items that are still shown
+                // are listened to all the time
+                Set<String> oldItemNames = getItemNames(listener.getItems());
+                listener.sitemapContentChanged(widgets);
+                registerItems(listener);
+                oldItemNames.removeAll(getItemNames(listener.getItems()));
+                unregisterItems(listener, oldItemNames);
             }
         }
     }
@@ -352,7 +480,7 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
 
     @Override
     public Set<String> getSubscribedEventTypes() {
-        return Collections.singleton(ItemStatePredictedEvent.TYPE);
+        return new HashSet<>(Arrays.asList(ItemStatePredictedEvent.TYPE, ItemUpdatedEvent.TYPE));
     }
 
     @Override
@@ -362,21 +490,58 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
 
     @Override
     public void receive(Event event) {
-        if (event instanceof ItemStatePredictedEvent) {
+        if (event instanceof ItemUpdatedEvent) {
+            // the registry holds a new instance of the item now, so we have to move our state change listener to it
+            String itemName = ((ItemUpdatedEvent) event).getItem().name;
+            synchronized (pageChangeListenersOfItem) {
+                if (listenedItems.containsKey(itemName)) {
+                    Item item = itemUIRegistry.get(itemName);
+                    if (item != null) {
+                        listenTo(item);
+                    }
+                }
+            }
+        } else if (event instanceof ItemStatePredictedEvent) {
             ItemStatePredictedEvent prediction = (ItemStatePredictedEvent) event;
             Item item = itemUIRegistry.get(prediction.getItemName());
+            if (item == null) {
+                return;
+            }
             if (item instanceof GroupItem) {
                 // don't send out auto-update events for group items as those will calculate their state based on their
                 // members and predictions aren't really possible in that case (or at least would be highly complex).
                 return;
             }
-            for (PageChangeListener pageChangeListener : pageChangeListeners.values()) {
-                if (prediction.isConfirmation()) {
-                    pageChangeListener.keepCurrentState(item);
-                } else {
-                    pageChangeListener.changeStateTo(item, prediction.getPredictedState());
-                }
+            if (prediction.isConfirmation()) {
+                scheduler.schedule(() -> {
+                    dispatchStateChange(item, item.getState());
+                }, REVERT_INTERVAL, TimeUnit.MILLISECONDS);
+            } else {
+                dispatchStateChange(item, prediction.getPredictedState());
+            }
+        }
+    }
+
+    private class ItemStateChangeListener implements StateChangeListener {
+
+        @Override
+        public void stateChanged(Item item, State oldState, State newState) {
+            // For all items except group, send an event only when the event state is changed.
+            if (item instanceof GroupItem) {
+                return;
+            }
+            dispatchStateChange(item, newState);
+        }
+
+        @Override
+        public void stateUpdated(Item item, State state) {
+            // For group item only, send an event each time the event state is updated.
+            // It allows updating the group label while the group state is unchanged,
+            // for example the count in label for Group:Switch:OR
+            if (!(item instanceof GroupItem)) {
+                return;
             }
+            dispatchStateChange(item, state);
         }
     }
 }
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sitemap.internal;
+
+import java.util.function.Predicate;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.library.CoreItemFactory;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTO;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTOMapper;
+
+/**
+ * Holds the {@link EnrichedItemDTO}s of a single item for the duration of one state change, so that the item is
+ * mapped only once, no matter on how many sitemap pages and in how many widgets it is shown.
+ *
+ * @author agent - Initial contribution
+ */
+public class EnrichedItemDTOCache {
+
+    private static final Predicate<Item> LOCATION_FILTER = (i -> i.getType().equals(CoreItemFactory.LOCATION));
+
+    private final Item item;
+
+    private EnrichedItemDTO itemDTO;
+    private EnrichedItemDTO drillDownItemDTO;
+
+    public EnrichedItemDTOCache(Item item) {
+        this.item = item;
+    }
+
+    /**
+     * Returns the enriched DTO of the item, mapping it on first access.
+     *
+     * @param drillDown whether group members (restricted to location items) should be included
+     * @return the enriched DTO
+     */
+    public synchronized EnrichedItemDTO get(boolean drillDown) {
+        if (drillDown) {
+            if (drillDownItemDTO == null) {
+                drillDownItemDTO = EnrichedItemDTOMapper.map(item, true, LOCATION_FILTER, null, null);
+            }
+            return drillDownItemDTO;
+        } else {
+            if (itemDTO == null) {
+                itemDTO = EnrichedItemDTOMapper.map(item, false, LOCATION_FILTER, null, null);
+            }
+            return itemDTO;
+        }
+    }
+
+}
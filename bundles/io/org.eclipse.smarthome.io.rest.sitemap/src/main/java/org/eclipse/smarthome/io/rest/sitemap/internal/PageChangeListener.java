@@ -14,23 +14,17 @@ package org.eclipse.smarthome.io.rest.sitemap.internal;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
 
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.smarthome.core.common.ThreadPoolManager;
-import org.eclipse.smarthome.core.items.GenericItem;
-import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
-import org.eclipse.smarthome.core.items.StateChangeListener;
-import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.types.State;
-import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTOMapper;
+import org.eclipse.smarthome.io.rest.sitemap.SitemapSubscriptionService;
 import org.eclipse.smarthome.io.rest.sitemap.SitemapSubscriptionService.SitemapSubscriptionCallback;
 import org.eclipse.smarthome.model.sitemap.Chart;
 import org.eclipse.smarthome.model.sitemap.ColorArray;
@@ -40,21 +34,23 @@ import org.eclipse.smarthome.model.sitemap.Widget;
 import org.eclipse.smarthome.ui.items.ItemUIRegistry;
 
 /**
- * This is a class that listens on item state change events and creates sitemap events for a dedicated sitemap page.
+ * This is a class that creates sitemap events for a dedicated sitemap page whenever the state of one of its items
+ * changes.
+ *
+ * The widgets of the page (including the children of frames) are indexed by the names of the items they depend on,
+ * so a state change only touches the affected widgets. The {@link SitemapSubscriptionService} takes care of listening
+ * to the items and dispatches state changes to all pages showing an item.
  *
  * @author Kai Kreuzer - Initial contribution and API
  *
  */
-public class PageChangeListener implements StateChangeListener {
+public class PageChangeListener {
 
-    private static final int REVERT_INTERVAL = 300;
-    private final ScheduledExecutorService scheduler = ThreadPoolManager
-            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
     private final String sitemapName;
     private final String pageId;
     private final ItemUIRegistry itemUIRegistry;
-    private EList<Widget> widgets;
-    private Set<Item> items;
+    private Set<Item> items = Collections.emptySet();
+    private volatile Map<String, List<Widget>> widgetsByItemName = Collections.emptyMap();
     private final List<SitemapSubscriptionCallback> callbacks = Collections
             .synchronizedList(new ArrayList<SitemapSubscriptionCallback>());
     private Set<SitemapSubscriptionCallback> distinctCallbacks = Collections.emptySet();
@@ -76,23 +72,11 @@ public class PageChangeListener implements StateChangeListener {
     }
 
     private void updateItemsAndWidgets(EList<Widget> widgets) {
-        if (this.widgets != null) {
-            // cleanup statechange listeners in case widgets were removed
-            items = getAllItems(this.widgets);
-            for (Item item : items) {
-                if (item instanceof GenericItem) {
-                    ((GenericItem) item).removeStateChangeListener(this);
-                }
-            }
-        }
-
-        this.widgets = widgets;
         items = getAllItems(widgets);
-        for (Item item : items) {
-            if (item instanceof GenericItem) {
-                ((GenericItem) item).addStateChangeListener(this);
-            }
-        }
+
+        Map<String, List<Widget>> index = new HashMap<>();
+        indexWidgets(index, widgets);
+        widgetsByItemName = index;
     }
 
     public String getSitemapName() {
@@ -103,6 +87,15 @@ public class PageChangeListener implements StateChangeListener {
         return pageId;
     }
 
+    /**
+     * Returns all items that are represented by the widgets of this page.
+     *
+     * @return the items of this page
+     */
+    public Set<Item> getItems() {
+        return items;
+    }
+
     public void addCallback(SitemapSubscriptionCallback callback) {
         callbacks.add(callback);
         // we transform the list of callbacks to a set in order to remove duplicates
@@ -118,13 +111,8 @@ public class PageChangeListener implements StateChangeListener {
      * Disposes this instance and releases all resources.
      */
     public void dispose() {
-        for (Item item : items) {
-            if (item instanceof GenericItem) {
-                ((GenericItem) item).removeStateChangeListener(this);
-            } else if (item instanceof GroupItem) {
-                ((GroupItem) item).removeStateChangeListener(this);
-            }
-        }
+        items = Collections.emptySet();
+        widgetsByItemName = Collections.emptyMap();
     }
 
     /**
@@ -170,104 +158,93 @@ public class PageChangeListener implements StateChangeListener {
         }
     }
 
-    private void constructAndSendEvents(Item item, State newState) {
-        Set<SitemapEvent> events = constructSitemapEvents(item, newState, widgets);
-        for (SitemapEvent event : events) {
-            for (SitemapSubscriptionCallback callback : distinctCallbacks) {
-                callback.onEvent(event);
-            }
-        }
-    }
-
-    @Override
-    public void stateChanged(Item item, State oldState, State newState) {
-        // For all items except group, send an event only when the event state is changed.
-        if (item instanceof GroupItem) {
-            return;
-        }
-        constructAndSendEvents(item, newState);
-    }
-
-    @Override
-    public void stateUpdated(Item item, State state) {
-        // For group item only, send an event each time the event state is updated.
-        // It allows updating the group label while the group state is unchanged,
-        // for example the count in label for Group:Switch:OR
-        if (!(item instanceof GroupItem)) {
+    /**
+     * Indexes the given widgets (and the children of frames) by the names of the items whose state changes require
+     * an update of the widget.
+     */
+    private void indexWidgets(Map<String, List<Widget>> index, List<Widget> widgets) {
+        if (itemUIRegistry == null) {
             return;
         }
-        constructAndSendEvents(item, state);
-    }
-
-    public void keepCurrentState(Item item) {
-        scheduler.schedule(() -> {
-            constructAndSendEvents(item, item.getState());
-        }, REVERT_INTERVAL, TimeUnit.MILLISECONDS);
-    }
-
-    public void changeStateTo(Item item, State state) {
-        constructAndSendEvents(item, state);
-    }
-
-    private Set<SitemapEvent> constructSitemapEvents(Item item, State state, List<Widget> widgets) {
-        Set<SitemapEvent> events = new HashSet<>();
         for (Widget w : widgets) {
             if (w instanceof Frame) {
-                events.addAll(constructSitemapEvents(item, state, itemUIRegistry.getChildren((Frame) w)));
+                indexWidgets(index, itemUIRegistry.getChildren((Frame) w));
             }
 
-            boolean skipWidget = (w.getItem() == null) || !w.getItem().equals(item.getName());
             // We skip the chart widgets having a refresh argument
-            if (!skipWidget && w instanceof Chart) {
-                Chart chartWidget = (Chart) w;
-                skipWidget = chartWidget.getRefresh() > 0;
+            boolean skipWidget = w instanceof Chart && ((Chart) w).getRefresh() > 0;
+            if (!skipWidget) {
+                addToIndex(index, w.getItem(), w);
             }
-            if (!skipWidget || definesVisibilityOrColor(w, item.getName())) {
-                SitemapWidgetEvent event = new SitemapWidgetEvent();
-                event.sitemapName = sitemapName;
-                event.pageId = pageId;
-                event.label = itemUIRegistry.getLabel(w);
-                event.labelcolor = itemUIRegistry.getLabelColor(w);
-                event.valuecolor = itemUIRegistry.getValueColor(w);
-                event.widgetId = itemUIRegistry.getWidgetId(w);
-                event.visibility = itemUIRegistry.getVisiblity(w);
-                // event.item contains data from the item including its state (in event.item.state)
-                String widgetTypeName = w.eClass().getInstanceTypeName()
-                        .substring(w.eClass().getInstanceTypeName().lastIndexOf(".") + 1);
-                boolean drillDown = "mapview".equalsIgnoreCase(widgetTypeName);
-                Predicate<Item> itemFilter = (i -> i.getType().equals(CoreItemFactory.LOCATION));
-                event.item = EnrichedItemDTOMapper.map(item, drillDown, itemFilter, null, null);
-
-                // event.state is an adjustment of the item state to the widget type.
-                event.state = itemUIRegistry.convertState(w, item, state).toFullString();
-                // In case this state is identical to the item state, its value is set to null.
-                if (event.state != null && event.state.equals(event.item.state)) {
-                    event.state = null;
-                }
-
-                events.add(event);
+            for (VisibilityRule rule : w.getVisibility()) {
+                addToIndex(index, rule.getItem(), w);
+            }
+            for (ColorArray rule : w.getLabelColor()) {
+                addToIndex(index, rule.getItem(), w);
+            }
+            for (ColorArray rule : w.getValueColor()) {
+                addToIndex(index, rule.getItem(), w);
             }
         }
-        return events;
     }
 
-    private boolean definesVisibilityOrColor(Widget w, String name) {
-        for (VisibilityRule rule : w.getVisibility()) {
-            if (name.equals(rule.getItem())) {
-                return true;
+    private void addToIndex(Map<String, List<Widget>> index, String itemName, Widget widget) {
+        if (itemName != null) {
+            List<Widget> widgetsOfItem = index.computeIfAbsent(itemName, name -> new ArrayList<>());
+            if (!widgetsOfItem.contains(widget)) {
+                widgetsOfItem.add(widget);
             }
         }
-        for (ColorArray rule : w.getLabelColor()) {
-            if (name.equals(rule.getItem())) {
-                return true;
+    }
+
+    /**
+     * Creates the sitemap events for all widgets of this page that depend on the given item and sends them to the
+     * subscribed callbacks.
+     *
+     * @param item the item whose state has changed
+     * @param state the new state
+     * @param itemDTOs the enriched DTOs of the item, which are shared between all pages showing the item
+     */
+    public void constructAndSendEvents(Item item, State state, EnrichedItemDTOCache itemDTOs) {
+        List<SitemapEvent> events = constructSitemapEvents(item, state, itemDTOs);
+        for (SitemapEvent event : events) {
+            for (SitemapSubscriptionCallback callback : distinctCallbacks) {
+                callback.onEvent(event);
             }
         }
-        for (ColorArray rule : w.getValueColor()) {
-            if (name.equals(rule.getItem())) {
-                return true;
+    }
+
+    private List<SitemapEvent> constructSitemapEvents(Item item, State state, EnrichedItemDTOCache itemDTOs) {
+        List<Widget> affectedWidgets = widgetsByItemName.get(item.getName());
+        if (affectedWidgets == null) {
+            return Collections.emptyList();
+        }
+        List<SitemapEvent> events = new ArrayList<>(affectedWidgets.size());
+        for (Widget w : affectedWidgets) {
+            SitemapWidgetEvent event = new SitemapWidgetEvent();
+            event.sitemapName = sitemapName;
+            event.pageId = pageId;
+            event.label = itemUIRegistry.getLabel(w);
+            event.labelcolor = itemUIRegistry.getLabelColor(w);
+            event.valuecolor = itemUIRegistry.getValueColor(w);
+            event.widgetId = itemUIRegistry.getWidgetId(w);
+            event.visibility = itemUIRegistry.getVisiblity(w);
+            // event.item contains data from the item including its state (in event.item.state)
+            String widgetTypeName = w.eClass().getInstanceTypeName()
+                    .substring(w.eClass().getInstanceTypeName().lastIndexOf(".") + 1);
+            boolean drillDown = "mapview".equalsIgnoreCase(widgetTypeName);
+            event.item = itemDTOs.get(drillDown);
+
+            // event.state is an adjustment of the item state to the widget type.
+            event.state = itemUIRegistry.convertState(w, item, state).toFullString();
+            // In case this state is identical to the item state, its value is set to null.
+            if (event.state != null && event.state.equals(event.item.state)) {
+                event.state = null;
             }
+
+            events.add(event);
         }
-        return false;
+        return events;
     }
 
     public void sitemapContentChanged(EList<Widget> widgets) {
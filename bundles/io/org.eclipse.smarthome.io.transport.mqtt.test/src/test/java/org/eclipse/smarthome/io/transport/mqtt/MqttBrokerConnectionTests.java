@@ -18,7 +18,9 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -359,4 +361,96 @@ public class MqttBrokerConnectionTests {
         assertThat(connection.hasSubscribers(), is(false));
     }
 
+    @Test
+    public void publishIsLimitedByInflightWindow() throws InterruptedException, ExecutionException, TimeoutException,
+            org.eclipse.paho.client.mqttv3.MqttException, ConfigurationException {
+        MqttBrokerConnectionEx connection = new MqttBrokerConnectionEx("123.123.123.123", null, false,
+                "MqttBrokerConnectionTests");
+        connection.setMaxInflight(2);
+        // The paho client has a larger window, so that it never rejects a message that is sent by our window
+        assertTrue(connection.createMqttOptions().getMaxInflight() > 2);
+        assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
+
+        // Keep the published messages unacknowledged
+        List<CompletableFuture<Boolean>> inflight = new ArrayList<>();
+        doAnswer(invocation -> {
+            inflight.add(invocation.getArgument(4));
+            return null;
+        }).when(connection.client).publish(anyString(), any(), anyInt(), anyBoolean(), any(), any());
+
+        CompletableFuture<Boolean> first = connection.publish("topic/1", "1".getBytes());
+        connection.publish("topic/2", "2".getBytes());
+        CompletableFuture<Boolean> third = connection.publish("topic/3", "3".getBytes());
+        assertThat(inflight.size(), is(2));
+
+        // An acknowledged message frees the window for the queued one
+        inflight.get(0).complete(true);
+        assertTrue(first.get(200, TimeUnit.MILLISECONDS));
+        assertThat(inflight.size(), is(3));
+        verify(connection.client).publish(eq("topic/3"), eq("3".getBytes()), anyInt(), anyBoolean(), any(), any());
+
+        inflight.get(2).complete(true);
+        assertTrue(third.get(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void offlineMessagesAreCoalesced() throws InterruptedException, ExecutionException, TimeoutException,
+            org.eclipse.paho.client.mqttv3.MqttException {
+        MqttBrokerConnectionEx connection = new MqttBrokerConnectionEx("123.123.123.123", null, false,
+                "MqttBrokerConnectionTests");
+        connection.setOfflineBufferTime(60);
+        assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
+
+        // Lose the connection
+        connection.connectionStateOverwrite = MqttConnectionState.DISCONNECTED;
+        MqttActionCallback replacedCallback = mock(MqttActionCallback.class);
+        connection.publish("topic/a", "1".getBytes(), 0, false, replacedCallback);
+        CompletableFuture<Boolean> latest = connection.publish("topic/a", "2".getBytes());
+        CompletableFuture<Boolean> other = connection.publish("topic/b", "3".getBytes());
+        assertFalse(latest.isDone());
+
+        // The replaced message is not published
+        verify(replacedCallback).onFailure(eq("topic/a"), any());
+
+        // Reconnect, only the latest message per topic is published
+        assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
+        assertTrue(latest.get(200, TimeUnit.MILLISECONDS));
+        assertTrue(other.get(200, TimeUnit.MILLISECONDS));
+
+        verify(connection.client).publish(eq("topic/a"), eq("2".getBytes()), anyInt(), anyBoolean(), any(), any());
+        verify(connection.client).publish(eq("topic/b"), eq("3".getBytes()), anyInt(), anyBoolean(), any(), any());
+        verify(connection.client, never()).publish(eq("topic/a"), eq("1".getBytes()), anyInt(), anyBoolean(), any(),
+                any());
+    }
+
+    @Test
+    public void offlineMessagesExpire() throws InterruptedException, ExecutionException, TimeoutException,
+            org.eclipse.paho.client.mqttv3.MqttException {
+        MqttBrokerConnectionEx connection = new MqttBrokerConnectionEx("123.123.123.123", null, false,
+                "MqttBrokerConnectionTests");
+        connection.setOfflineBufferTime(1);
+        assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
+
+        connection.connectionStateOverwrite = MqttConnectionState.DISCONNECTED;
+        CompletableFuture<Boolean> expired = connection.publish("topic/a", "1".getBytes());
+        Thread.sleep(1100);
+
+        assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
+        assertFalse(expired.get(200, TimeUnit.MILLISECONDS));
+        verify(connection.client, never()).publish(eq("topic/a"), any(), anyInt(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void offlineMessagesAreNotBufferedByDefault() throws InterruptedException, ExecutionException,
+            TimeoutException, org.eclipse.paho.client.mqttv3.MqttException {
+        MqttBrokerConnectionEx connection = new MqttBrokerConnectionEx("123.123.123.123", null, false,
+                "MqttBrokerConnectionTests");
+        assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
+
+        // The message is handed to the client right away, which fails it while not connected
+        connection.connectionStateOverwrite = MqttConnectionState.DISCONNECTED;
+        connection.publish("topic/a", "1".getBytes());
+        verify(connection.client).publish(eq("topic/a"), eq("1".getBytes()), anyInt(), anyBoolean(), any(), any());
+    }
+
 }
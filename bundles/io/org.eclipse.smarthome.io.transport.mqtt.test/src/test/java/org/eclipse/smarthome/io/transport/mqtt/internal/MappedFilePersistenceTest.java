@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.eclipse.paho.client.mqttv3.MqttPersistable;
+import org.eclipse.paho.client.mqttv3.MqttPersistenceException;
+import org.eclipse.paho.client.mqttv3.persist.MqttPersistentData;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the {@link MappedFilePersistence}.
+ *
+ * @author agent - Initial contribution
+ */
+public class MappedFilePersistenceTest {
+
+    private static final String CLIENT_ID = "client";
+    private static final String SERVER_URI = "tcp://localhost:1883";
+
+    public @Rule TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath();
+    }
+
+    private static MqttPersistable message(String key, String header, String payload) {
+        return new MqttPersistentData(key, header.getBytes(), 0, header.length(),
+                payload != null ? payload.getBytes() : null, 0, payload != null ? payload.length() : 0);
+    }
+
+    /**
+     * Returns the log file that contains the given text.
+     */
+    private Path logContaining(String text) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).filter(file -> {
+                try {
+                    return new String(Files.readAllBytes(file), "ISO-8859-1").contains(text);
+                } catch (IOException e) {
+                    return false;
+                }
+            }).findFirst().get();
+        }
+    }
+
+    private static String payloadOf(MqttPersistable persistable) throws MqttPersistenceException {
+        return new String(persistable.getPayloadBytes(), persistable.getPayloadOffset(),
+                persistable.getPayloadLength());
+    }
+
+    @Test
+    public void putGetRemove() throws MqttPersistenceException {
+        MappedFilePersistence persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+
+        persistence.put("s-1", message("s-1", "header", "payload"));
+        persistence.put("s-2", message("s-2", "header", null));
+
+        assertTrue(persistence.containsKey("s-1"));
+        assertThat(payloadOf(persistence.get("s-1")), is("payload"));
+        assertThat(persistence.get("s-2").getPayloadLength(), is(0));
+        assertThat(Collections.list(persistence.keys()), hasItems("s-1", "s-2"));
+
+        persistence.remove("s-1");
+        assertFalse(persistence.containsKey("s-1"));
+        assertNull(persistence.get("s-1"));
+
+        persistence.close();
+    }
+
+    @Test
+    public void messagesAreRestoredAfterReopening() throws MqttPersistenceException {
+        MappedFilePersistence persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+        persistence.put("s-1", message("s-1", "header1", "payload1"));
+        persistence.put("s-2", message("s-2", "header2", "payload2"));
+        persistence.put("s-3", message("s-3", "header3", "payload3"));
+        persistence.remove("s-2");
+        persistence.close();
+
+        persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+        assertThat(Collections.list(persistence.keys()), is(Arrays.asList("s-1", "s-3")));
+        assertThat(payloadOf(persistence.get("s-3")), is("payload3"));
+        persistence.close();
+    }
+
+    @Test
+    public void logIsCompactedAndEnlarged() throws MqttPersistenceException {
+        MappedFilePersistence persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+
+        String largePayload = String.join("", Collections.nCopies(1000, "x"));
+        // far more messages than fit into the initial log, but only a few are kept
+        for (int i = 0; i < 1000; i++) {
+            persistence.put("s-" + i, message("s-" + i, "header", largePayload + i));
+            if (i >= 10) {
+                persistence.remove("s-" + (i - 10));
+            }
+        }
+        // more messages than fit into the initial log are kept
+        for (int i = 1000; i < 1200; i++) {
+            persistence.put("s-" + i, message("s-" + i, "header", largePayload + i));
+        }
+        persistence.close();
+
+        persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+        assertThat(Collections.list(persistence.keys()).size(), is(210));
+        assertThat(payloadOf(persistence.get("s-995")), is(largePayload + 995));
+        assertThat(payloadOf(persistence.get("s-1199")), is(largePayload + 1199));
+        persistence.close();
+    }
+
+    @Test
+    public void incompleteRecordIsIgnored() throws MqttPersistenceException, IOException {
+        MappedFilePersistence persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+        persistence.put("s-1", message("s-1", "header1", "payload1"));
+        persistence.put("s-2", message("s-2", "header2", "payload2"));
+        persistence.close();
+
+        // corrupt the payload of the last record
+        Path file = logContaining("payload2");
+        byte[] content = Files.readAllBytes(file);
+        int index = new String(content, "ISO-8859-1").lastIndexOf("payload2");
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(index);
+            raf.write('X');
+        }
+
+        persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+        assertTrue(persistence.containsKey("s-1"));
+        assertFalse(persistence.containsKey("s-2"));
+        persistence.close();
+    }
+
+    @Test
+    public void previousLogIsReadAfterAnInterruptedCompaction() throws MqttPersistenceException, IOException {
+        MappedFilePersistence persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+        persistence.put("s-1", message("s-1", "header1", "payload1"));
+        persistence.put("s-2", message("s-2", "header2", "payload2"));
+        persistence.close();
+
+        // the other log was being written, but its header does not match its generation
+        Path log = logContaining("payload2");
+        Path otherLog = log.resolveSibling(log.getFileName().toString().replace(".0.log", ".1.log"));
+        byte[] content = Files.readAllBytes(log);
+        ByteBuffer.wrap(content).putLong(0, Long.MAX_VALUE);
+        Files.write(otherLog, content);
+
+        persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+        assertThat(Collections.list(persistence.keys()), is(Arrays.asList("s-1", "s-2")));
+        persistence.close();
+    }
+
+    @Test
+    public void persistenceCannotBeOpenedTwice() throws MqttPersistenceException {
+        MappedFilePersistence persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+
+        try {
+            new MappedFilePersistence(directory).open(CLIENT_ID, SERVER_URI);
+            fail("The persistence is locked");
+        } catch (MqttPersistenceException e) {
+            assertThat(e.getReasonCode(), is((int) MqttPersistenceException.REASON_CODE_PERSISTENCE_IN_USE));
+        }
+
+        // the lock is released when the persistence is closed
+        persistence.close();
+        persistence = new MappedFilePersistence(directory);
+        persistence.open(CLIENT_ID, SERVER_URI);
+        persistence.close();
+    }
+}
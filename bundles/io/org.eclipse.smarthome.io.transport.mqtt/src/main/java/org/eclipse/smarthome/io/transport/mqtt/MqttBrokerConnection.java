@@ -18,30 +18,34 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.paho.client.mqttv3.IMqttActionListener;
-import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
 import org.eclipse.paho.client.mqttv3.IMqttToken;
 import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
 import org.eclipse.paho.client.mqttv3.MqttClient;
 import org.eclipse.paho.client.mqttv3.MqttClientPersistence;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
-import org.eclipse.paho.client.mqttv3.persist.MqttDefaultFilePersistence;
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.io.transport.mqtt.internal.ClientCallback;
+import org.eclipse.smarthome.io.transport.mqtt.internal.MappedFilePersistence;
 import org.eclipse.smarthome.io.transport.mqtt.internal.MqttActionAdapterCallback;
 import org.eclipse.smarthome.io.transport.mqtt.internal.TopicSubscribers;
 import org.eclipse.smarthome.io.transport.mqtt.reconnect.AbstractReconnectStrategy;
@@ -55,17 +59,31 @@ import org.slf4j.LoggerFactory;
 /**
  * An MQTTBrokerConnection represents a single client connection to a MQTT broker.
  *
- * When a connection to an MQTT broker is lost, it will try to reconnect every 60 seconds.
+ * When a connection to an MQTT broker is lost, it will try to reconnect every 60 seconds. Messages that are published
+ * in the meantime fail, unless an offline buffer time is set with {@link #setOfflineBufferTime(int)}. Then they are
+ * buffered for that time and sent as soon as the connection is established again.
  *
  * @author David Graeff - All operations are async now. More flexible sslContextProvider and reconnectStrategy added.
  * @author Davy Vanherbergen
  * @author Markus Rathgeb - added connection state callback
+ * @author agent - added inflight window, offline buffer and memory-mapped persistence
  */
 @NonNullByDefault
 public class MqttBrokerConnection {
     final Logger logger = LoggerFactory.getLogger(MqttBrokerConnection.class);
     public static final int DEFAULT_KEEPALIVE_INTERVAL = 60;
     public static final int DEFAULT_QOS = 0;
+    public static final int DEFAULT_MAX_INFLIGHT = 100;
+    public static final int DEFAULT_OFFLINE_BUFFER_TIME = 0;
+
+    /** The maximum number of topics for which a message is buffered while the connection is lost */
+    private static final int MAX_OFFLINE_MESSAGES = 1000;
+
+    /**
+     * The additional inflight window of the paho client. Paho frees the slot of a message only after our completion
+     * callback returned, so a message that is sent from that callback would otherwise be rejected.
+     */
+    private static final int INFLIGHT_HEADROOM = 10;
 
     /**
      * MQTT transport protocols
@@ -92,6 +110,8 @@ public class MqttBrokerConnection {
     protected @Nullable AbstractReconnectStrategy reconnectStrategy;
     private SSLContextProvider sslContextProvider = new AcceptAllCertificatesSSLContext();
     private int keepAliveInterval = DEFAULT_KEEPALIVE_INTERVAL;
+    private int maxInflight = DEFAULT_MAX_INFLIGHT;
+    private int offlineBufferTime = DEFAULT_OFFLINE_BUFFER_TIME;
 
     /// Runtime variables
     protected @Nullable MqttAsyncClient client;
@@ -101,6 +121,12 @@ public class MqttBrokerConnection {
 
     protected final Map<String, TopicSubscribers> subscribers = new HashMap<>();
 
+    // Publish flow control
+    private final Queue<PublishRequest> pendingPublishes = new ConcurrentLinkedQueue<>();
+    private final Map<String, PublishRequest> offlinePublishes = new LinkedHashMap<>();
+    private final AtomicInteger inflightPublishes = new AtomicInteger();
+    private final AtomicBoolean sendingPublishes = new AtomicBoolean();
+
     // Connection timeout handling
     protected final AtomicReference<@Nullable ScheduledFuture<?>> timeoutFuture = new AtomicReference<>(null);
     protected @Nullable ScheduledExecutorService timeoutExecutor;
@@ -137,6 +163,7 @@ public class MqttBrokerConnection {
 
             // As soon as all subscriptions are performed, turn the connection future complete.
             CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenRun(() -> {
+                connection.publishOfflineMessages();
                 future.complete(true);
                 connection.connectionObservers
                         .forEach(o -> o.connectionStateChanged(connection.connectionState(), null));
@@ -443,6 +470,51 @@ public class MqttBrokerConnection {
         return keepAliveInterval;
     }
 
+    /**
+     * Set the maximum number of messages that are published at the same time, but not yet acknowledged by the broker.
+     * Further messages are queued until a message has been delivered. The default is {@value #DEFAULT_MAX_INFLIGHT}.
+     * The connection needs to be restarted for the new settings to take effect.
+     *
+     * @param maxInflight the maximum number of inflight messages
+     */
+    public void setMaxInflight(int maxInflight) {
+        if (maxInflight <= 0) {
+            throw new IllegalArgumentException("Max inflight cannot be <=0");
+        }
+        this.maxInflight = maxInflight;
+    }
+
+    /**
+     * Return the maximum number of inflight messages
+     */
+    public int getMaxInflight() {
+        return maxInflight;
+    }
+
+    /**
+     * Set the time in seconds for which messages that are published while the connection is lost are buffered. The
+     * buffered messages are sent as soon as the connection is established again. Only the latest message per topic is
+     * kept, a replaced message completes with false, just as a message that is not sent within the buffer time.
+     *
+     * The default is {@value #DEFAULT_OFFLINE_BUFFER_TIME}, which disables the buffer: A message that is published
+     * while the connection is lost fails right away.
+     *
+     * @param offlineBufferTime the time in seconds, for which messages are buffered, or 0
+     */
+    public void setOfflineBufferTime(int offlineBufferTime) {
+        if (offlineBufferTime < 0) {
+            throw new IllegalArgumentException("Offline buffer time cannot be <0");
+        }
+        this.offlineBufferTime = offlineBufferTime;
+    }
+
+    /**
+     * Return the time in seconds for which messages are buffered while the connection is lost
+     */
+    public int getOfflineBufferTime() {
+        return offlineBufferTime;
+    }
+
     /**
      * Return the ssl context provider.
      */
@@ -632,6 +704,7 @@ public class MqttBrokerConnection {
         }
 
         options.setKeepAliveInterval(keepAliveInterval);
+        options.setMaxInflight(maxInflight + INFLIGHT_HEADROOM);
         return options;
     }
 
@@ -698,7 +771,7 @@ public class MqttBrokerConnection {
             future.completeExceptionally(new MqttException(e));
             return future;
         }
-        MqttDefaultFilePersistence _dataStore = new MqttDefaultFilePersistence(persistencePath.toString());
+        MqttClientPersistence _dataStore = new MappedFilePersistence(persistencePath);
 
         // Create the client
         MqttAsyncClient _client;
@@ -772,6 +845,7 @@ public class MqttBrokerConnection {
             }
             dataStore = null;
         }
+        discardPublishes();
         connectionObservers.forEach(o -> o.connectionStateChanged(MqttConnectionState.DISCONNECTED, null));
         return v;
     }
@@ -854,17 +928,19 @@ public class MqttBrokerConnection {
      * @param listener A listener to be notified of success or failure of the delivery.
      */
     public void publish(String topic, byte[] payload, int qos, boolean retain, MqttActionCallback listener) {
-        MqttAsyncClient client_ = client;
-        if (client_ == null) {
+        if (client == null) {
             listener.onFailure(topic, new MqttException(0));
             return;
         }
-        try {
-            IMqttDeliveryToken deliveryToken = client_.publish(topic, payload, qos, retain, listener, actionCallback);
-            logger.debug("Publishing message {} to topic '{}'", deliveryToken.getMessageId(), topic);
-        } catch (org.eclipse.paho.client.mqttv3.MqttException e) {
-            listener.onFailure(topic, new MqttException(e));
-        }
+        publish(topic, payload, qos, retain).whenComplete((success, error) -> {
+            if (error != null) {
+                listener.onFailure(topic, error);
+            } else if (success) {
+                listener.onSuccess(topic);
+            } else {
+                listener.onFailure(topic, new MqttException(0));
+            }
+        });
     }
 
     /**
@@ -906,14 +982,150 @@ public class MqttBrokerConnection {
         if (client == null) {
             return CompletableFuture.completedFuture(false);
         }
-        // publish message asynchronously
-        CompletableFuture<Boolean> f = new CompletableFuture<Boolean>();
+        PublishRequest request = new PublishRequest(topic, payload, qos, retain);
+        if (client.isConnected() || offlineBufferTime == 0) {
+            pendingPublishes.add(request);
+            sendPublishes();
+        } else {
+            bufferOfflineMessage(request);
+        }
+        return request.future;
+    }
+
+    /**
+     * Sends the pending messages, as long as the inflight window is not exhausted.
+     * Only one thread sends at a time, a message that is delivered while sending will not recursively send more
+     * messages, but is picked up by the sending thread.
+     */
+    private void sendPublishes() {
+        do {
+            if (!sendingPublishes.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                while (inflightPublishes.get() < maxInflight) {
+                    PublishRequest request = pendingPublishes.poll();
+                    if (request == null) {
+                        break;
+                    }
+                    inflightPublishes.incrementAndGet();
+                    send(request);
+                }
+            } finally {
+                sendingPublishes.set(false);
+            }
+        } while (!pendingPublishes.isEmpty() && inflightPublishes.get() < maxInflight);
+    }
+
+    private void send(PublishRequest request) {
+        MqttAsyncClient client = this.client;
+        if (client == null) {
+            inflightPublishes.decrementAndGet();
+            request.future.complete(false);
+            return;
+        }
+        if (!client.isConnected() && offlineBufferTime > 0) {
+            inflightPublishes.decrementAndGet();
+            bufferOfflineMessage(request);
+            return;
+        }
+        request.future.whenComplete((success, error) -> {
+            inflightPublishes.decrementAndGet();
+            sendPublishes();
+        });
         try {
-            client.publish(topic, payload, qos, retain, f, actionCallback);
+            client.publish(request.topic, request.payload, request.qos, request.retain, request.future,
+                    actionCallback);
+            logger.trace("Publishing message to topic '{}'", request.topic);
         } catch (org.eclipse.paho.client.mqttv3.MqttException e) {
-            f.completeExceptionally(new MqttException(e));
+            request.future.completeExceptionally(new MqttException(e));
         }
-        return f;
+    }
+
+    /**
+     * Buffers a message while the connection is lost. Only the latest message for a topic is kept, a replaced message
+     * and a message that is not sent within the {@link #offlineBufferTime} complete with false.
+     */
+    private void bufferOfflineMessage(PublishRequest request) {
+        PublishRequest replaced;
+        synchronized (offlinePublishes) {
+            removeExpiredOfflineMessages();
+            replaced = offlinePublishes.remove(request.topic);
+            if (replaced == null && offlinePublishes.size() >= MAX_OFFLINE_MESSAGES) {
+                logger.debug("Dropping message to topic '{}', too many messages are buffered while offline",
+                        request.topic);
+                request.future.complete(false);
+                return;
+            }
+            request.expires = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(offlineBufferTime);
+            offlinePublishes.put(request.topic, request);
+        }
+        if (replaced != null) {
+            logger.debug("Replacing buffered message to topic '{}' by a newer one", request.topic);
+            replaced.future.complete(false);
+        }
+        // without an executor, expired messages are removed by the next message or when the connection is established
+        ScheduledExecutorService executor = timeoutExecutor;
+        if (executor != null) {
+            executor.schedule(() -> {
+                synchronized (offlinePublishes) {
+                    if (!offlinePublishes.remove(request.topic, request)) {
+                        return;
+                    }
+                }
+                logger.debug("Dropping message to topic '{}', the connection has not been established in time",
+                        request.topic);
+                request.future.complete(false);
+            }, offlineBufferTime, TimeUnit.SECONDS);
+        }
+    }
+
+    private void removeExpiredOfflineMessages() {
+        long now = System.currentTimeMillis();
+        synchronized (offlinePublishes) {
+            offlinePublishes.values().removeIf(request -> {
+                if (request.expires > now) {
+                    return false;
+                }
+                logger.debug("Dropping message to topic '{}', the connection has not been established in time",
+                        request.topic);
+                request.future.complete(false);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Sends the messages that have been buffered while the connection was lost.
+     */
+    protected void publishOfflineMessages() {
+        List<PublishRequest> requests;
+        synchronized (offlinePublishes) {
+            removeExpiredOfflineMessages();
+            requests = new ArrayList<>(offlinePublishes.values());
+            offlinePublishes.clear();
+        }
+        if (!requests.isEmpty()) {
+            logger.debug("Publishing {} messages that have been buffered while offline", requests.size());
+            pendingPublishes.addAll(requests);
+            sendPublishes();
+        }
+    }
+
+    /**
+     * Completes all pending and buffered messages with false, as the connection is stopped.
+     */
+    private void discardPublishes() {
+        PublishRequest request;
+        while ((request = pendingPublishes.poll()) != null) {
+            request.future.complete(false);
+        }
+        List<PublishRequest> requests;
+        synchronized (offlinePublishes) {
+            requests = new ArrayList<>(offlinePublishes.values());
+            offlinePublishes.clear();
+        }
+        requests.forEach(r -> r.future.complete(false));
     }
 
     /**
@@ -926,4 +1138,23 @@ public class MqttBrokerConnection {
             timeoutFuture.cancel(false);
         }
     }
+
+    /**
+     * A message that is published through this connection.
+     */
+    private static class PublishRequest {
+        final String topic;
+        final byte[] payload;
+        final int qos;
+        final boolean retain;
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        long expires;
+
+        PublishRequest(String topic, byte[] payload, int qos, boolean retain) {
+            this.topic = topic;
+            this.payload = payload;
+            this.qos = qos;
+            this.retain = retain;
+        }
+    }
 }
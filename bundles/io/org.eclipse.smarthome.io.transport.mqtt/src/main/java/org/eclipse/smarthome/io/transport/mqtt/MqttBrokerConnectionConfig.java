@@ -37,6 +37,10 @@ public class MqttBrokerConnectionConfig {
     public Boolean retainMessages = false;
     /** Keepalive in seconds */
     public @Nullable Integer keepAlive;
+    /** Maximum number of messages that are published, but not yet acknowledged */
+    public @Nullable Integer maxInflight;
+    /** Time in seconds for which messages are buffered while the connection is lost */
+    public @Nullable Integer offlineBufferTime;
     // Last will parameters
     public @Nullable String lwtTopic;
     public @Nullable String lwtMessage;
@@ -0,0 +1,437 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.paho.client.mqttv3.MqttClientPersistence;
+import org.eclipse.paho.client.mqttv3.MqttPersistable;
+import org.eclipse.paho.client.mqttv3.MqttPersistenceException;
+import org.eclipse.paho.client.mqttv3.persist.MqttPersistentData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link MqttClientPersistence} for the QoS 1 and 2 messages of a client, that keeps the messages in memory and
+ * appends every change to a memory-mapped log file. In contrast to the default file persistence of paho, which creates
+ * and deletes a file for every message, storing a message is only a memory copy.
+ *
+ * Every record of the log is protected by a checksum, so that a record that was not completely written before the
+ * process died is detected and ignored when the log is read again.
+ *
+ * The log is compacted, whenever it is full. There are two log files, which are used alternately: the current entries
+ * are written to the other file, and only when they are on disk, its header is written with the next generation.
+ * When the persistence is opened, the complete log with the highest generation is read, so a compaction that is
+ * interrupted leaves the previous log intact. Like the default file persistence of paho, a lock file prevents that
+ * the logs are opened by a second client with the same id.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MappedFilePersistence implements MqttClientPersistence {
+
+    private static final int INITIAL_SIZE = 64 * 1024;
+
+    /** the generation of the log and its checksum */
+    private static final int HEADER_SIZE = 8 + 8;
+
+    private static final byte END_OF_LOG = 0;
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+
+    /** type, checksum and the lengths of key, header and payload */
+    private static final int RECORD_OVERHEAD = 1 + 8 + 3 * 4;
+
+    private final Logger logger = LoggerFactory.getLogger(MappedFilePersistence.class);
+
+    private final Path directory;
+
+    private final Map<String, MqttPersistable> entries = new LinkedHashMap<>();
+    private @Nullable FileChannel lockChannel;
+    private @Nullable FileChannel channel;
+    private @Nullable MappedByteBuffer buffer;
+    private @Nullable Path activeLog;
+    private @Nullable Path inactiveLog;
+    private long generation;
+
+    /**
+     * Creates a new persistence.
+     *
+     * @param directory the directory in which the log files of the client are created
+     */
+    public MappedFilePersistence(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public synchronized void open(@Nullable String clientId, @Nullable String serverURI)
+            throws MqttPersistenceException {
+        if (lockChannel != null) {
+            throw new MqttPersistenceException(MqttPersistenceException.REASON_CODE_PERSISTENCE_IN_USE);
+        }
+        String name = toFileName(clientId + "-" + serverURI);
+        try {
+            lock(directory.resolve(name + ".lck"));
+
+            entries.clear();
+            generation = 0;
+            Path[] logs = { directory.resolve(name + ".0.log"), directory.resolve(name + ".1.log") };
+            MappedByteBuffer newest = null;
+            int active = 1;
+            for (int i = 0; i < logs.length; i++) {
+                MappedByteBuffer log = mapForReading(logs[i]);
+                long logGeneration = log != null ? readGeneration(log) : 0;
+                if (logGeneration > generation) {
+                    generation = logGeneration;
+                    newest = log;
+                    active = i;
+                }
+            }
+            activeLog = logs[active];
+            inactiveLog = logs[1 - active];
+            if (newest != null) {
+                readLog(newest);
+            }
+            compact(0);
+        } catch (IOException e) {
+            close();
+            throw new MqttPersistenceException(e);
+        } catch (MqttPersistenceException e) {
+            close();
+            throw e;
+        }
+        logger.debug("Opened MQTT persistence '{}' with {} stored messages", activeLog, entries.size());
+    }
+
+    @Override
+    public synchronized void close() throws MqttPersistenceException {
+        MappedByteBuffer buffer = this.buffer;
+        if (buffer != null) {
+            buffer.force();
+        }
+        this.buffer = null;
+        entries.clear();
+
+        // the lock is released last, when the log is closed
+        try (FileChannel lockChannel = this.lockChannel; FileChannel channel = this.channel) {
+            this.lockChannel = null;
+            this.channel = null;
+        } catch (IOException e) {
+            throw new MqttPersistenceException(e);
+        }
+    }
+
+    @Override
+    public synchronized void put(@Nullable String key, @Nullable MqttPersistable persistable)
+            throws MqttPersistenceException {
+        if (key == null || persistable == null) {
+            return;
+        }
+        MqttPersistable copy = copy(key, persistable);
+        entries.put(key, copy);
+        append(RECORD_PUT, key, copy);
+    }
+
+    @Override
+    public synchronized @Nullable MqttPersistable get(@Nullable String key) throws MqttPersistenceException {
+        checkOpen();
+        return entries.get(key);
+    }
+
+    @Override
+    public synchronized void remove(@Nullable String key) throws MqttPersistenceException {
+        if (key != null && entries.remove(key) != null) {
+            append(RECORD_REMOVE, key, null);
+        }
+    }
+
+    @Override
+    public synchronized Enumeration<String> keys() throws MqttPersistenceException {
+        checkOpen();
+        return Collections.enumeration(new ArrayList<>(entries.keySet()));
+    }
+
+    @Override
+    public synchronized void clear() throws MqttPersistenceException {
+        checkOpen();
+        entries.clear();
+        compact(0);
+    }
+
+    @Override
+    public synchronized boolean containsKey(@Nullable String key) throws MqttPersistenceException {
+        checkOpen();
+        return entries.containsKey(key);
+    }
+
+    private void lock(Path file) throws IOException, MqttPersistenceException {
+        FileChannel lockChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lockChannel = lockChannel;
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // the lock is held by another persistence of this process
+            lock = null;
+        }
+        if (lock == null) {
+            throw new MqttPersistenceException(MqttPersistenceException.REASON_CODE_PERSISTENCE_IN_USE);
+        }
+    }
+
+    private MappedByteBuffer checkOpen() throws MqttPersistenceException {
+        MappedByteBuffer buffer = this.buffer;
+        if (buffer == null) {
+            throw new MqttPersistenceException();
+        }
+        return buffer;
+    }
+
+    private void append(byte type, String key, @Nullable MqttPersistable persistable)
+            throws MqttPersistenceException {
+        MappedByteBuffer buffer = checkOpen();
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int size = recordSize(keyBytes, persistable);
+        // keep space for the end marker
+        if (buffer.remaining() < size + 1) {
+            // the entries are already up to date, so the compacted log contains the change
+            compact(size);
+            return;
+        }
+        writeRecord(buffer, type, keyBytes, persistable);
+        buffer.put(buffer.position(), END_OF_LOG);
+    }
+
+    /**
+     * Writes the current entries to the inactive log file, which becomes the active one. The file is enlarged if
+     * necessary.
+     *
+     * @param additionalSize the number of bytes that should be available after compacting
+     */
+    private void compact(int additionalSize) throws MqttPersistenceException {
+        Path target = this.inactiveLog;
+        if (target == null) {
+            throw new MqttPersistenceException();
+        }
+
+        int size = HEADER_SIZE + 1 + additionalSize;
+        Map<byte[], MqttPersistable> records = new LinkedHashMap<>();
+        for (Map.Entry<String, MqttPersistable> entry : entries.entrySet()) {
+            byte[] keyBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            records.put(keyBytes, entry.getValue());
+            size += recordSize(keyBytes, entry.getValue());
+        }
+
+        MappedByteBuffer current = this.buffer;
+        int capacity = current != null ? current.capacity() : INITIAL_SIZE;
+        while (capacity < size) {
+            capacity *= 2;
+        }
+
+        FileChannel channel = null;
+        MappedByteBuffer buffer;
+        try {
+            channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new MqttPersistenceException(e);
+        }
+
+        // the header is written after the records are on disk, so that an incomplete log is never read
+        buffer.putLong(0, 0);
+        buffer.position(HEADER_SIZE);
+        for (Map.Entry<byte[], MqttPersistable> record : records.entrySet()) {
+            writeRecord(buffer, RECORD_PUT, record.getKey(), record.getValue());
+        }
+        buffer.put(buffer.position(), END_OF_LOG);
+        buffer.force();
+        buffer.putLong(0, generation + 1);
+        buffer.putLong(8, checksum(generation + 1));
+        buffer.force();
+
+        generation++;
+        closeQuietly(this.channel);
+        this.channel = channel;
+        this.buffer = buffer;
+        this.inactiveLog = this.activeLog;
+        this.activeLog = target;
+    }
+
+    private void closeQuietly(@Nullable FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close a log file of the MQTT persistence", e);
+            }
+        }
+    }
+
+    private static @Nullable MappedByteBuffer mapForReading(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Returns the generation of a log, or 0 if its header is not valid.
+     */
+    private static long readGeneration(MappedByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE) {
+            return 0;
+        }
+        long generation = buffer.getLong(0);
+        return buffer.getLong(8) == checksum(generation) ? generation : 0;
+    }
+
+    private void readLog(MappedByteBuffer buffer) {
+        buffer.position(HEADER_SIZE);
+        try {
+            while (buffer.hasRemaining()) {
+                int start = buffer.position();
+                byte type = buffer.get();
+                if (type != RECORD_PUT && type != RECORD_REMOVE) {
+                    break;
+                }
+                long checksum = buffer.getLong();
+                byte @Nullable [] key = readBytes(buffer);
+                byte @Nullable [] header = readBytes(buffer);
+                byte @Nullable [] payload = readBytes(buffer);
+                if (key == null || checksum != checksum(key, header, payload)) {
+                    logger.debug("Ignoring incomplete record at position {} of the MQTT persistence", start);
+                    break;
+                }
+                String keyString = new String(key, StandardCharsets.UTF_8);
+                if (type == RECORD_PUT) {
+                    entries.put(keyString, new MqttPersistentData(keyString, header, 0, lengthOf(header), payload,
+                            0, lengthOf(payload)));
+                } else {
+                    entries.remove(keyString);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            logger.debug("Ignoring incomplete record at the end of the MQTT persistence");
+        }
+    }
+
+    private static byte @Nullable [] readBytes(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static void writeRecord(MappedByteBuffer buffer, byte type, byte[] key,
+            @Nullable MqttPersistable persistable) throws MqttPersistenceException {
+        // the stored entries are copies, so the arrays are used as a whole
+        byte @Nullable [] header = persistable != null ? persistable.getHeaderBytes() : null;
+        byte @Nullable [] payload = persistable != null ? persistable.getPayloadBytes() : null;
+        buffer.put(type);
+        buffer.putLong(checksum(key, header, payload));
+        writeBytes(buffer, key);
+        writeBytes(buffer, header);
+        writeBytes(buffer, payload);
+    }
+
+    private static void writeBytes(MappedByteBuffer buffer, byte @Nullable [] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static long checksum(byte @Nullable [] key, byte @Nullable [] header, byte @Nullable [] payload) {
+        CRC32 crc = new CRC32();
+        for (byte[] bytes : new byte[][] { key, header, payload }) {
+            if (bytes != null) {
+                crc.update(bytes.length);
+                crc.update(bytes);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static long checksum(long generation) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(0, generation));
+        return crc.getValue();
+    }
+
+    private static int recordSize(byte[] key, @Nullable MqttPersistable persistable) throws MqttPersistenceException {
+        int size = RECORD_OVERHEAD + key.length;
+        if (persistable != null) {
+            size += persistable.getHeaderLength() + persistable.getPayloadLength();
+        }
+        return size;
+    }
+
+    private static int lengthOf(byte @Nullable [] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    /**
+     * Copies the header and payload of a message, paho does not guarantee that the arrays are not reused.
+     */
+    private static MqttPersistable copy(String key, MqttPersistable persistable) throws MqttPersistenceException {
+        byte[] header = new byte[persistable.getHeaderLength()];
+        System.arraycopy(persistable.getHeaderBytes(), persistable.getHeaderOffset(), header, 0, header.length);
+        byte @Nullable [] payload = null;
+        if (persistable.getPayloadBytes() != null) {
+            payload = new byte[persistable.getPayloadLength()];
+            System.arraycopy(persistable.getPayloadBytes(), persistable.getPayloadOffset(), payload, 0,
+                    payload.length);
+        }
+        return new MqttPersistentData(key, header, 0, header.length, payload, 0, lengthOf(payload));
+    }
+
+    private static String toFileName(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (char c : name.toCharArray()) {
+            if (Character.isLetterOrDigit(c) || c == '-' || c == '_') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -104,6 +104,12 @@ public class MqttServiceImpl implements MqttService {
         if (config.keepAlive != null) {
             connection.setKeepAliveInterval(config.keepAlive.intValue());
         }
+        if (config.maxInflight != null) {
+            connection.setMaxInflight(config.maxInflight.intValue());
+        }
+        if (config.offlineBufferTime != null) {
+            connection.setOfflineBufferTime(config.offlineBufferTime.intValue());
+        }
 
         connection.setQos(config.qos.intValue());
         connection.setRetain(config.retainMessages);
@@ -149,8 +149,39 @@ public class UpnpIOServiceTest {
         assertThatEverythingIsEmpty();
     }
 
+    @Test
+    public void testParticipantsAreIndexedByUdn() {
+        upnpIoService.registerParticipant(upnpIoParticipant);
+        upnpIoService.registerParticipant(upnpIoParticipant2);
+        assertEquals(2, upnpIoService.participantsByUdn.size());
+        assertTrue(upnpIoService.participantsByUdn.get(UDN_1_STRING).contains(upnpIoParticipant));
+        assertTrue(upnpIoService.participantsByUdn.get(UDN_2_STRING).contains(upnpIoParticipant2));
+
+        upnpIoService.unregisterParticipant(upnpIoParticipant);
+        upnpIoService.unregisterParticipant(upnpIoParticipant2);
+        assertThatEverythingIsEmpty();
+    }
+
+    @Test
+    public void testPollingIntervalBacksOffForStableDevices() {
+        UpnpIOServiceImpl.PollingJob pollingJob = upnpIoService.new PollingJob(upnpIoParticipant, SERVICE_ID,
+                ACTION_ID, 60);
+        assertEquals(60000, pollingJob.getCurrentInterval());
+
+        pollingJob.pollCompleted(false);
+        assertEquals(120000, pollingJob.getCurrentInterval());
+        pollingJob.pollCompleted(false);
+        pollingJob.pollCompleted(false);
+        assertEquals(60000 * UpnpIOServiceImpl.MAX_BACKOFF_FACTOR, pollingJob.getCurrentInterval());
+        assertFalse(pollingJob.isDue(System.currentTimeMillis()));
+
+        pollingJob.pollCompleted(true);
+        assertEquals(60000, pollingJob.getCurrentInterval());
+    }
+
     private void assertThatEverythingIsEmpty() {
         assertTrue(upnpIoService.participants.isEmpty());
+        assertTrue(upnpIoService.participantsByUdn.isEmpty());
         assertTrue(upnpIoService.pollingJobs.keySet().isEmpty());
         assertTrue(upnpIoService.currentStates.keySet().isEmpty());
         assertTrue(upnpIoService.subscriptionCallbacks.keySet().isEmpty());
@@ -13,7 +13,9 @@
 package org.eclipse.smarthome.io.transport.upnp.internal;
 
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -22,6 +24,7 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.io.transport.upnp.UpnpIOParticipant;
@@ -63,6 +66,7 @@ import org.slf4j.LoggerFactory;
  * @author Andre Fuechsel - added methods to remove subscriptions
  * @author Ivan Iliev - made sure resubscribe is only done when subscription ended CancelReason was EXPIRED or
  *         RENEW_FAILED
+ * @author agent - shared polling job with adaptive intervals, participant index by UDN
  */
 @SuppressWarnings("rawtypes")
 @Component(immediate = true)
@@ -75,13 +79,22 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
     private final int DEFAULT_POLLING_INTERVAL = 60;
     private static final String POOL_NAME = "upnp-io";
 
+    // the interval in seconds in which the shared polling job checks for due polls
+    private static final int POLLING_TICK = 5;
+
+    // the polling interval of a device with a stable status grows up to this factor of the configured interval
+    static final int MAX_BACKOFF_FACTOR = 4;
+
     private UpnpService upnpService;
 
     final Set<UpnpIOParticipant> participants = new CopyOnWriteArraySet<>();
-    final Map<UpnpIOParticipant, ScheduledFuture> pollingJobs = new ConcurrentHashMap<UpnpIOParticipant, ScheduledFuture>();
+    final Map<String, Set<UpnpIOParticipant>> participantsByUdn = new ConcurrentHashMap<>();
+    final Map<UpnpIOParticipant, PollingJob> pollingJobs = new ConcurrentHashMap<>();
     final Map<UpnpIOParticipant, Boolean> currentStates = new ConcurrentHashMap<UpnpIOParticipant, Boolean>();
     final Map<Service, UpnpSubscriptionCallback> subscriptionCallbacks = new ConcurrentHashMap<Service, UpnpSubscriptionCallback>();
 
+    private ScheduledFuture<?> pollingFuture;
+
     public class UpnpSubscriptionCallback extends SubscriptionCallback {
 
         public UpnpSubscriptionCallback(Service service) {
@@ -130,13 +143,11 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
             logger.trace("A GENA subscription '{}' for device '{}' is established", serviceId,
                     deviceRoot.getIdentity().getUdn());
 
-            for (UpnpIOParticipant participant : participants) {
-                if (Objects.equals(getDevice(participant), deviceRoot)) {
-                    try {
-                        participant.onServiceSubscribed(serviceId, true);
-                    } catch (Exception e) {
-                        logger.error("Participant threw an exception onServiceSubscribed", e);
-                    }
+            for (UpnpIOParticipant participant : getParticipants(deviceRoot)) {
+                try {
+                    participant.onServiceSubscribed(serviceId, true);
+                } catch (Exception e) {
+                    logger.error("Participant threw an exception onServiceSubscribed", e);
                 }
             }
         }
@@ -150,19 +161,26 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
 
             logger.trace("Receiving a GENA subscription '{}' response for device '{}'", serviceId,
                     deviceRoot.getIdentity().getUdn());
-            for (UpnpIOParticipant participant : participants) {
-                if (Objects.equals(getDevice(participant), deviceRoot)) {
-                    for (String stateVariable : values.keySet()) {
-                        StateVariableValue value = values.get(stateVariable);
-                        if (value.getValue() != null) {
-                            try {
-                                participant.onValueReceived(stateVariable, value.getValue().toString(), serviceId);
-                            } catch (Exception e) {
-                                logger.error("Participant threw an exception onValueReceived", e);
-                            }
+            Set<UpnpIOParticipant> deviceParticipants = getParticipants(deviceRoot);
+            for (UpnpIOParticipant participant : deviceParticipants) {
+                // the device is obviously alive, so there is no need to poll it soon
+                PollingJob pollingJob = pollingJobs.get(participant);
+                if (pollingJob != null) {
+                    pollingJob.eventReceived();
+                }
+            }
+            Iterator<UpnpIOParticipant> iterator = deviceParticipants.iterator();
+            if (iterator.hasNext()) {
+                UpnpIOParticipant participant = iterator.next();
+                for (String stateVariable : values.keySet()) {
+                    StateVariableValue value = values.get(stateVariable);
+                    if (value.getValue() != null) {
+                        try {
+                            participant.onValueReceived(stateVariable, value.getValue().toString(), serviceId);
+                        } catch (Exception e) {
+                            logger.error("Participant threw an exception onValueReceived", e);
                         }
                     }
-                    break;
                 }
             }
         }
@@ -182,13 +200,11 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
             logger.debug("A GENA subscription '{}' for device '{}' failed", serviceId,
                     deviceRoot.getIdentity().getUdn());
 
-            for (UpnpIOParticipant participant : participants) {
-                if (Objects.equals(getDevice(participant), deviceRoot)) {
-                    try {
-                        participant.onServiceSubscribed(serviceId, false);
-                    } catch (Exception e2) {
-                        logger.error("Participant threw an exception onServiceSubscribed", e2);
-                    }
+            for (UpnpIOParticipant participant : getParticipants(deviceRoot)) {
+                try {
+                    participant.onServiceSubscribed(serviceId, false);
+                } catch (Exception e2) {
+                    logger.error("Participant threw an exception onServiceSubscribed", e2);
                 }
             }
         }
@@ -203,6 +219,7 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
     public void deactivate() {
         logger.debug("Stopping UPnP IO service...");
         upnpService.getRegistry().removeListener(this);
+        stopPolling();
     }
 
     @Reference
@@ -218,6 +235,12 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
         return upnpService.getRegistry().getDevice(new UDN(participant.getUDN()), true);
     }
 
+    private Set<UpnpIOParticipant> getParticipants(Device device) {
+        Set<UpnpIOParticipant> deviceParticipants = participantsByUdn
+                .get(device.getIdentity().getUdn().getIdentifierString());
+        return deviceParticipants != null ? deviceParticipants : Collections.emptySet();
+    }
+
     @Override
     public void addSubscription(UpnpIOParticipant participant, String serviceID, int duration) {
         if (participant != null && serviceID != null) {
@@ -362,8 +385,9 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
 
     @Override
     public void registerParticipant(UpnpIOParticipant participant) {
-        if (participant != null) {
-            participants.add(participant);
+        if (participant != null && participants.add(participant)) {
+            participantsByUdn.computeIfAbsent(participant.getUDN(), udn -> new CopyOnWriteArraySet<>())
+                    .add(participant);
         }
     }
 
@@ -371,9 +395,13 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
     public void unregisterParticipant(UpnpIOParticipant participant) {
         if (participant != null) {
             stopPollingForParticipant(participant);
-            pollingJobs.remove(participant);
             currentStates.remove(participant);
-            participants.remove(participant);
+            if (participants.remove(participant)) {
+                participantsByUdn.computeIfPresent(participant.getUDN(), (udn, deviceParticipants) -> {
+                    deviceParticipants.remove(participant);
+                    return deviceParticipants.isEmpty() ? null : deviceParticipants;
+                });
+            }
         }
     }
 
@@ -406,37 +434,78 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
      * @param status true, if device is reachable, false otherwise
      */
     private void informParticipants(RemoteDevice device, boolean status) {
-        for (UpnpIOParticipant participant : participants) {
-            if (participant.getUDN().equals(device.getIdentity().getUdn().getIdentifierString())) {
-                setDeviceStatus(participant, status);
-            }
+        for (UpnpIOParticipant participant : getParticipants(device)) {
+            setDeviceStatus(participant, status);
         }
     }
 
-    private void setDeviceStatus(UpnpIOParticipant participant, boolean newStatus) {
+    private boolean setDeviceStatus(UpnpIOParticipant participant, boolean newStatus) {
         if (!Objects.equals(currentStates.get(participant), newStatus)) {
             currentStates.put(participant, newStatus);
             logger.debug("Device '{}' reachability status changed to '{}'", participant.getUDN(), newStatus);
             participant.onStatusChanged(newStatus);
+            return true;
         }
+        return false;
     }
 
-    private class UPNPPollingRunnable implements Runnable {
+    /**
+     * Holds the polling state of a single participant. The polls of all participants are run by a single shared job,
+     * which starts the polls that are due. A device which has sent a GENA event recently is not polled, as it is
+     * obviously reachable. The polling interval of a device doubles with every poll that does not change its status,
+     * up to {@link #MAX_BACKOFF_FACTOR} times the configured interval, and is reset as soon as the status changes.
+     */
+    class PollingJob implements Runnable {
 
         private final UpnpIOParticipant participant;
         private final String serviceID;
         private final String actionID;
+        private final long interval;
+
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile long currentInterval;
+        private volatile long nextPoll;
 
-        public UPNPPollingRunnable(UpnpIOParticipant participant, String serviceID, String actionID) {
+        PollingJob(UpnpIOParticipant participant, String serviceID, String actionID, int interval) {
             this.participant = participant;
             this.serviceID = serviceID;
             this.actionID = actionID;
+            this.interval = TimeUnit.SECONDS.toMillis(interval);
+            this.currentInterval = this.interval;
+            this.nextPoll = System.currentTimeMillis();
+        }
+
+        boolean isDue(long now) {
+            return now >= nextPoll && !running.get();
+        }
+
+        long getCurrentInterval() {
+            return currentInterval;
+        }
+
+        void eventReceived() {
+            if (Boolean.TRUE.equals(currentStates.get(participant))) {
+                nextPoll = Math.max(nextPoll, System.currentTimeMillis() + currentInterval);
+            }
+        }
+
+        void pollCompleted(boolean statusChanged) {
+            if (statusChanged) {
+                currentInterval = interval;
+            } else {
+                currentInterval = Math.min(currentInterval * 2, interval * MAX_BACKOFF_FACTOR);
+            }
+            nextPoll = System.currentTimeMillis() + currentInterval;
         }
 
         @Override
         public void run() {
+            if (!running.compareAndSet(false, true)) {
+                return;
+            }
             // It is assumed that during addStatusListener() a check is made whether the participant is correctly
             // registered
+            boolean statusChanged = false;
             try {
                 Device device = getDevice(participant);
                 if (device != null) {
@@ -454,10 +523,10 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
                             if (anException != null
                                     && anException.getMessage().contains("Connection error or no response received")) {
                                 // The UDN is not reachable anymore
-                                setDeviceStatus(participant, false);
+                                statusChanged = setDeviceStatus(participant, false);
                             } else {
                                 // The UDN functions correctly
-                                setDeviceStatus(participant, true);
+                                statusChanged = setDeviceStatus(participant, true);
                             }
                         } else {
                             logger.debug("Could not find action '{}' for participant '{}'", actionID,
@@ -470,6 +539,18 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
                 }
             } catch (Exception e) {
                 logger.error("An exception occurred while polling an UPNP device: '{}'", e.getMessage(), e);
+            } finally {
+                pollCompleted(statusChanged);
+                running.set(false);
+            }
+        }
+    }
+
+    private void pollDueParticipants() {
+        long now = System.currentTimeMillis();
+        for (PollingJob pollingJob : pollingJobs.values()) {
+            if (pollingJob.isDue(now)) {
+                scheduler.execute(pollingJob);
             }
         }
     }
@@ -481,23 +562,35 @@ public class UpnpIOServiceImpl implements UpnpIOService, RegistryListener {
 
             int pollingInterval = interval == 0 ? DEFAULT_POLLING_INTERVAL : interval;
 
-            // remove the previous polling job, if any
-            stopPollingForParticipant(participant);
-
             currentStates.put(participant, true);
 
-            Runnable pollingRunnable = new UPNPPollingRunnable(participant, serviceID, actionID);
-            pollingJobs.put(participant,
-                    scheduler.scheduleWithFixedDelay(pollingRunnable, 0, pollingInterval, TimeUnit.SECONDS));
+            // replaces the previous polling job, if any
+            PollingJob pollingJob = new PollingJob(participant, serviceID, actionID, pollingInterval);
+            synchronized (this) {
+                // adding the job and starting the shared polling must not interleave with stopping it
+                pollingJobs.put(participant, pollingJob);
+                startPolling();
+            }
         }
     }
 
-    private void stopPollingForParticipant(UpnpIOParticipant participant) {
-        if (pollingJobs.containsKey(participant)) {
-            ScheduledFuture<?> pollingJob = pollingJobs.get(participant);
-            if (pollingJob != null) {
-                pollingJob.cancel(true);
-            }
+    private synchronized void startPolling() {
+        if (pollingFuture == null || pollingFuture.isDone()) {
+            pollingFuture = scheduler.scheduleWithFixedDelay(this::pollDueParticipants, 0, POLLING_TICK,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    private synchronized void stopPolling() {
+        if (pollingFuture != null) {
+            pollingFuture.cancel(true);
+            pollingFuture = null;
+        }
+    }
+
+    private synchronized void stopPollingForParticipant(UpnpIOParticipant participant) {
+        if (pollingJobs.remove(participant) != null && pollingJobs.isEmpty()) {
+            stopPolling();
         }
     }
 
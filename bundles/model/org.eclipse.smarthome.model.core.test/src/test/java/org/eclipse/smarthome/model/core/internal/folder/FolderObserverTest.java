@@ -12,6 +12,7 @@
  */
 package org.eclipse.smarthome.model.core.internal.folder;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
@@ -233,6 +234,50 @@ public class FolderObserverTest extends JavaOSGiTest {
         waitForAssert(() -> assertThat(modelRepo.fileContent, is(finalFileContent)));
     }
 
+    /**
+     * The following method reports repeated modification events for a file that has neither been written nor touched
+     * since it was loaded. The watch service produces such duplicates for a single write on some platforms.
+     * No further addOrRefreshModel() method invocation is expected
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testModification_duplicateEventsAreIgnored() throws Exception {
+        File file = new File(EXISTING_SUBDIR_PATH, "MockFileForDuplicateEvents.java");
+        FileUtils.writeStringToFile(file, INITIAL_FILE_CONTENT);
+
+        configProps.put(EXISTING_SUBDIR_NAME, "java");
+        folderObserver.activate(context);
+        assertThat(modelRepo.addOrRefreshModelCalls, is(1));
+
+        folderObserver.processWatchEvent(null, ENTRY_MODIFY, file.toPath());
+        folderObserver.processWatchEvent(null, ENTRY_MODIFY, file.toPath());
+
+        assertThat(modelRepo.addOrRefreshModelCalls, is(1));
+    }
+
+    /**
+     * The following method touches a file without changing its content, like an editor re-saving it does.
+     * addOrRefreshModel() method invocation is expected, so that the model gets reloaded
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testModification_touchReloadsUnchangedContent() throws Exception {
+        File file = new File(EXISTING_SUBDIR_PATH, "MockFileForTouch.java");
+        FileUtils.writeStringToFile(file, INITIAL_FILE_CONTENT);
+
+        configProps.put(EXISTING_SUBDIR_NAME, "java");
+        folderObserver.activate(context);
+        assertThat(modelRepo.addOrRefreshModelCalls, is(1));
+
+        file.setLastModified(file.lastModified() + 2000);
+        folderObserver.processWatchEvent(null, ENTRY_MODIFY, file.toPath());
+
+        waitForAssert(() -> assertThat(modelRepo.addOrRefreshModelCalls, is(2)));
+        assertThat(modelRepo.fileContent, is(INITIAL_FILE_CONTENT));
+    }
+
     /**
      * The following method creates a file in an existing directory. The file's extension is
      * in the configuration properties but there is no parser for it.
@@ -412,6 +457,7 @@ public class FolderObserverTest extends JavaOSGiTest {
     private static class ModelRepoDummy implements ModelRepository {
 
         public boolean isAddOrRefreshModelMethodCalled = false;
+        public volatile int addOrRefreshModelCalls;
         public boolean isRemoveModelMethodCalled = false;
         public String calledFileName;
 
@@ -421,6 +467,7 @@ public class FolderObserverTest extends JavaOSGiTest {
         public boolean addOrRefreshModel(String name, InputStream inputStream) {
             calledFileName = name;
             isAddOrRefreshModelMethodCalled = true;
+            addOrRefreshModelCalls++;
             try {
                 fileContent = IOUtils.toString(inputStream);
                 inputStream.close();
@@ -467,6 +514,7 @@ public class FolderObserverTest extends JavaOSGiTest {
 
         public void clean() {
             isAddOrRefreshModelMethodCalled = false;
+            addOrRefreshModelCalls = 0;
             isRemoveModelMethodCalled = false;
             calledFileName = null;
             fileContent = null;
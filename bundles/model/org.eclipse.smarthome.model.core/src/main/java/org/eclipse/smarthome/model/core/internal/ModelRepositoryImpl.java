@@ -89,52 +89,60 @@ public class ModelRepositoryImpl implements ModelRepository {
     public boolean addOrRefreshModel(String name, final InputStream originalInputStream) {
         Resource resource = null;
         try {
-            InputStream inputStream = null;
+            byte[] bytes = null;
             if (originalInputStream != null) {
-                byte[] bytes = IOUtils.toByteArray(originalInputStream);
-                String validationResult = validateModel(name, new ByteArrayInputStream(bytes));
-                if (validationResult != null) {
-                    logger.warn("Configuration model '{}' has errors, therefore ignoring it: {}", name,
-                            validationResult);
-                    removeModel(name);
-                    return false;
-                }
-                inputStream = new ByteArrayInputStream(bytes);
+                bytes = IOUtils.toByteArray(originalInputStream);
             }
-            resource = getResource(name);
-            if (resource == null) {
-                synchronized (resourceSet) {
-                    // try again to retrieve the resource as it might have been created by now
-                    resource = getResource(name);
+            synchronized (resourceSet) {
+                resource = getResource(name);
+                if (resource == null) {
+                    // seems to be a new file
+                    // don't use XMI as a default
+                    Resource.Factory.Registry.INSTANCE.getExtensionToFactoryMap().remove("*");
+                    resource = resourceSet.createResource(URI.createURI(name));
                     if (resource == null) {
-                        // seems to be a new file
-                        // don't use XMI as a default
-                        Resource.Factory.Registry.INSTANCE.getExtensionToFactoryMap().remove("*");
-                        resource = resourceSet.createResource(URI.createURI(name));
-                        if (resource != null) {
-                            logger.info("Loading model '{}'", name);
-                            Map<String, String> options = new HashMap<String, String>();
-                            options.put(XtextResource.OPTION_ENCODING, "UTF-8");
-                            if (inputStream == null) {
-                                logger.warn(
-                                        "Resource '{}' not found. You have to pass an inputStream to create the resource.",
-                                        name);
-                                return false;
-                            }
-                            resource.load(inputStream, options);
-                            notifyListeners(name, EventType.ADDED);
-                            return true;
-                        } else {
-                            logger.warn("Ignoring file '{}' as we do not have a parser for it.", name);
+                        logger.warn("Ignoring file '{}' as we do not have a parser for it.", name);
+                        return false;
+                    }
+                    if (bytes == null) {
+                        logger.warn("Resource '{}' not found. You have to pass an inputStream to create the resource.",
+                                name);
+                        resourceSet.getResources().remove(resource);
+                        resource = null;
+                        return false;
+                    }
+                    logger.info("Loading model '{}'", name);
+                    Map<String, String> options = new HashMap<String, String>();
+                    options.put(XtextResource.OPTION_ENCODING, "UTF-8");
+                    resource.load(new ByteArrayInputStream(bytes), options);
+                    // a new model can be validated in place, as nobody has seen it yet
+                    String validationResult = validateModel(name, resource);
+                    if (validationResult != null) {
+                        logger.warn("Configuration model '{}' has errors, therefore ignoring it: {}", name,
+                                validationResult);
+                        resourceSet.getResources().remove(resource);
+                        resource = null;
+                        return false;
+                    }
+                    notifyListeners(name, EventType.ADDED);
+                    return true;
+                } else {
+                    if (bytes != null) {
+                        // validate on a separate resource, so that the listeners can still access the old content
+                        // of the model while it gets removed in case of errors
+                        String validationResult = validateModel(name, new ByteArrayInputStream(bytes));
+                        if (validationResult != null) {
+                            logger.warn("Configuration model '{}' has errors, therefore ignoring it: {}", name,
+                                    validationResult);
+                            removeModel(name);
+                            resource = null;
+                            return false;
                         }
                     }
-                }
-            } else {
-                synchronized (resourceSet) {
                     resource.unload();
                     logger.info("Refreshing model '{}'", name);
-                    if (inputStream != null) {
-                        resource.load(inputStream, Collections.EMPTY_MAP);
+                    if (bytes != null) {
+                        resource.load(new ByteArrayInputStream(bytes), Collections.EMPTY_MAP);
                     } else {
                         resource.load(Collections.EMPTY_MAP);
                     }
@@ -236,6 +244,27 @@ public class ModelRepositoryImpl implements ModelRepository {
         return resourceSet.getResource(URI.createURI(name), false);
     }
 
+    /**
+     * Validates the given model on a separate resource, in order to keep the original one intact in case its content
+     * needs to be removed because of syntactical errors.
+     *
+     * @param name the name of the model
+     * @param inputStream the content of the model
+     * @return error messages as a String if any syntactical error were found, <code>null</code> otherwise
+     * @throws IOException if there was an error with the given {@link InputStream}, loading the resource from there
+     * @see #validateModel(String, Resource)
+     */
+    private String validateModel(String name, InputStream inputStream) throws IOException {
+        // use another resource for validation in order to keep the original one for emergency-removal in case of errors
+        Resource resource = resourceSet.createResource(URI.createURI("tmp_" + name));
+        try {
+            resource.load(inputStream, Collections.EMPTY_MAP);
+            return validateModel(name, resource);
+        } finally {
+            resourceSet.getResources().remove(resource);
+        }
+    }
+
     /**
      * Validates the given model.
      *
@@ -249,51 +278,42 @@ public class ModelRepositoryImpl implements ModelRepository {
      * return value.
      * </ol>
      * <p>
-     * Validation will be done on a separate resource, in order to keep the original one intact in case its content
-     * needs to be removed because of syntactical errors.
+     * The resource is expected to be loaded already, so that every model only needs to be parsed once. It is up to the
+     * caller to remove the resource again in case syntactical errors are reported.
      *
-     * @param name
-     * @param inputStream
+     * @param name the name of the model
+     * @param resource the loaded resource of the model
      * @return error messages as a String if any syntactical error were found, <code>null</code> otherwise
-     * @throws IOException if there was an error with the given {@link InputStream}, loading the resource from there
      */
-    private String validateModel(String name, InputStream inputStream) throws IOException {
-        // use another resource for validation in order to keep the original one for emergency-removal in case of errors
-        Resource resource = resourceSet.createResource(URI.createURI("tmp_" + name));
-        try {
-            resource.load(inputStream, Collections.EMPTY_MAP);
-            StringBuilder criticalErrors = new StringBuilder();
-            List<String> warnings = new LinkedList<>();
+    private String validateModel(String name, Resource resource) {
+        StringBuilder criticalErrors = new StringBuilder();
+        List<String> warnings = new LinkedList<>();
 
-            if (resource != null && !resource.getContents().isEmpty()) {
-                // Check for syntactical errors
-                for (Diagnostic diagnostic : resource.getErrors()) {
-                    criticalErrors
-                            .append(MessageFormat.format("[{0},{1}]: {2}\n", Integer.toString(diagnostic.getLine()),
-                                    Integer.toString(diagnostic.getColumn()), diagnostic.getMessage()));
-                }
-                if (criticalErrors.length() > 0) {
-                    return criticalErrors.toString();
-                }
+        if (!resource.getContents().isEmpty()) {
+            // Check for syntactical errors
+            for (Diagnostic diagnostic : resource.getErrors()) {
+                criticalErrors.append(MessageFormat.format("[{0},{1}]: {2}\n", Integer.toString(diagnostic.getLine()),
+                        Integer.toString(diagnostic.getColumn()), diagnostic.getMessage()));
+            }
+            if (criticalErrors.length() > 0) {
+                return criticalErrors.toString();
+            }
 
-                // Check for validation errors, but log them only
-                try {
-                    org.eclipse.emf.common.util.Diagnostic diagnostic = Diagnostician.INSTANCE
-                            .validate(resource.getContents().get(0));
-                    for (org.eclipse.emf.common.util.Diagnostic d : diagnostic.getChildren()) {
-                        warnings.add(d.getMessage());
-                    }
-                    if (warnings.size() > 0) {
-                        logger.info("Validation issues found in configuration model '{}', using it anyway:\n{}", name,
-                                StringUtils.join(warnings, "\n"));
-                    }
-                } catch (NullPointerException e) {
-                    // see https://github.com/eclipse/smarthome/issues/3335
-                    logger.debug("Validation of '{}' skipped due to internal errors.", name);
+            // Check for validation errors, but log them only
+            try {
+                org.eclipse.emf.common.util.Diagnostic diagnostic = Diagnostician.INSTANCE
+                        .validate(resource.getContents().get(0));
+                for (org.eclipse.emf.common.util.Diagnostic d : diagnostic.getChildren()) {
+                    warnings.add(d.getMessage());
+                }
+                if (warnings.size() > 0) {
+                    logger.info("Validation issues found in configuration model '{}', using it anyway:\n{}", name,
+                            StringUtils.join(warnings, "\n"));
                 }
+            } catch (NullPointerException e) {
+                // see https://github.com/eclipse/smarthome/issues/3335
+                logger.debug("Validation of '{}' skipped due to internal errors.", name);
             }
-        } finally {
-            resourceSet.getResources().remove(resource);
         }
         return null;
     }
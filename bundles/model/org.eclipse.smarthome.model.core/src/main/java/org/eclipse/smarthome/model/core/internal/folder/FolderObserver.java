@@ -14,13 +14,16 @@ package org.eclipse.smarthome.model.core.internal.folder;
 
 import static java.nio.file.StandardWatchEventKinds.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -29,6 +32,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -78,6 +82,9 @@ public class FolderObserver extends AbstractWatchService {
     private final Set<File> ignoredFiles = new HashSet<>();
     private final Map<String, File> nameFileMap = new HashMap<>();
 
+    /* file -> modification time and content hash of the file when it was last passed to the model repository */
+    private final Map<File, LoadedFile> loadedFiles = new HashMap<>();
+
     @Reference
     public void setModelRepository(ModelRepository modelRepo) {
         this.modelRepo = modelRepo;
@@ -140,6 +147,7 @@ public class FolderObserver extends AbstractWatchService {
         this.folderFileExtMap.clear();
         this.parsers.clear();
         this.nameFileMap.clear();
+        this.loadedFiles.clear();
     }
 
     private void processIgnoredFiles(String extension) {
@@ -169,6 +177,8 @@ public class FolderObserver extends AbstractWatchService {
     }
 
     private void addModelsToRepo() {
+        /* model type -> number of loaded files and accumulated loading time in ms */
+        Map<String, long[]> loadingTimes = new TreeMap<>();
         if (MapUtils.isNotEmpty(this.folderFileExtMap)) {
             Iterator<String> iterator = this.folderFileExtMap.keySet().iterator();
             while (iterator.hasNext()) {
@@ -183,13 +193,22 @@ public class FolderObserver extends AbstractWatchService {
                         for (File file : files) {
                             // we omit parsing of hidden files possibly created by editors or operating systems
                             if (!file.isHidden()) {
+                                long start = System.currentTimeMillis();
                                 checkFile(modelRepo, file, ENTRY_CREATE);
+                                long[] timing = loadingTimes.computeIfAbsent(getExtension(file.getName()),
+                                        ext -> new long[2]);
+                                timing[0]++;
+                                timing[1] += System.currentTimeMillis() - start;
                             }
                         }
                     }
                 }
             }
         }
+        for (Entry<String, long[]> timing : loadingTimes.entrySet()) {
+            logger.info("Loaded {} model(s) of type '{}' in {} ms", timing.getValue()[0], timing.getKey(),
+                    timing.getValue()[1]);
+        }
     }
 
     private void deleteModelsFromRepo() {
@@ -234,9 +253,19 @@ public class FolderObserver extends AbstractWatchService {
                 synchronized (FolderObserver.class) {
                     if ((kind == ENTRY_CREATE || kind == ENTRY_MODIFY)) {
                         if (parsers.contains(getExtension(file.getName()))) {
-                            try (FileInputStream inputStream = FileUtils.openInputStream(file)) {
+                            try {
+                                long lastModified = file.lastModified();
+                                byte[] content = FileUtils.readFileToByteArray(file);
+                                LoadedFile loadedFile = new LoadedFile(lastModified, computeContentHash(content));
+                                if (kind == ENTRY_MODIFY && loadedFile.equals(loadedFiles.get(file))) {
+                                    // the watch service often reports a single write as several modifications
+                                    logger.debug("Ignoring repeated modification event for unchanged file '{}'",
+                                            file.getAbsolutePath());
+                                    return;
+                                }
                                 nameFileMap.put(file.getName(), file);
-                                modelRepo.addOrRefreshModel(file.getName(), inputStream);
+                                modelRepo.addOrRefreshModel(file.getName(), new ByteArrayInputStream(content));
+                                loadedFiles.put(file, loadedFile);
                             } catch (IOException e) {
                                 logger.warn("Error while opening file during update: {}", file.getAbsolutePath());
                             }
@@ -246,6 +275,7 @@ public class FolderObserver extends AbstractWatchService {
                     } else if (kind == ENTRY_DELETE) {
                         modelRepo.removeModel(file.getName());
                         nameFileMap.remove(file.getName());
+                        loadedFiles.remove(file);
                     }
                 }
             } catch (Exception e) {
@@ -296,6 +326,15 @@ public class FolderObserver extends AbstractWatchService {
         return filename.substring(filename.lastIndexOf(".") + 1);
     }
 
+    private byte[] computeContentHash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256, so this should never happen
+            return content;
+        }
+    }
+
     @Override
     protected void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path) {
         File toCheck = getFileByFileExtMap(folderFileExtMap, path.getFileName().toString());
@@ -303,4 +342,34 @@ public class FolderObserver extends AbstractWatchService {
             checkFile(modelRepo, toCheck, kind);
         }
     }
+
+    /**
+     * The state of a file at the time it was passed to the model repository. A modification event for a file whose
+     * modification time and content are both unchanged is a duplicate of an event that has already been processed.
+     * Touching or saving a file with unchanged content updates the modification time and thus still refreshes the
+     * model.
+     */
+    private static class LoadedFile {
+        private final long lastModified;
+        private final byte[] contentHash;
+
+        LoadedFile(long lastModified, byte[] contentHash) {
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(lastModified) + Arrays.hashCode(contentHash);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof LoadedFile)) {
+                return false;
+            }
+            LoadedFile other = (LoadedFile) obj;
+            return lastModified == other.lastModified && Arrays.equals(contentHash, other.contentHash);
+        }
+    }
 }
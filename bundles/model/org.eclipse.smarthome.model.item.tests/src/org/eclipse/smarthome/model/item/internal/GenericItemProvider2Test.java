@@ -262,6 +262,21 @@ public class GenericItemProvider2Test extends JavaOSGiTest {
         assertNull(metadata3);
     }
 
+    @Test
+    public void testMetadataUpdateOfSingleItem() {
+        modelRepository.addOrRefreshModel(TESTMODEL_NAME,
+                new ByteArrayInputStream("Switch s1 { meta=\"foo\" }\nSwitch s2 { meta=\"foo\" }".getBytes()));
+        Metadata unchanged = metadataRegistry.get(new MetadataKey("meta", "s1"));
+        assertNotNull(unchanged);
+
+        modelRepository.addOrRefreshModel(TESTMODEL_NAME,
+                new ByteArrayInputStream("Switch s1 { meta=\"foo\" }\nSwitch s2 { meta=\"bar\" }".getBytes()));
+        assertSame(unchanged, metadataRegistry.get(new MetadataKey("meta", "s1")));
+        Metadata changed = metadataRegistry.get(new MetadataKey("meta", "s2"));
+        assertNotNull(changed);
+        assertEquals("bar", changed.getValue());
+    }
+
     @Test
     public void testTagUpdate() {
         modelRepository.addOrRefreshModel(TESTMODEL_NAME, new ByteArrayInputStream("Switch s [foo]".getBytes()));
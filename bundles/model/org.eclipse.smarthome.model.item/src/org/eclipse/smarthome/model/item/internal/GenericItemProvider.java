@@ -81,6 +81,12 @@ public class GenericItemProvider extends AbstractProvider<Item>
 
     private final Map<String, Collection<Item>> itemsMap = new ConcurrentHashMap<>();
 
+    /* model name -> item name -> structural fingerprint of the item definition */
+    private final Map<String, Map<String, List<Object>>> itemDefinitionsMap = new ConcurrentHashMap<>();
+
+    /* model name -> item name -> structural fingerprint of the binding configuration of the item */
+    private final Map<String, Map<String, List<Object>>> bindingDefinitionsMap = new ConcurrentHashMap<>();
+
     private final Collection<ItemFactory> itemFactorys = new ArrayList<ItemFactory>();
 
     private final Map<String, StateDescriptionFragment> stateDescriptionFragments = new ConcurrentHashMap<>();
@@ -185,6 +191,24 @@ public class GenericItemProvider extends AbstractProvider<Item>
     }
 
     private Collection<Item> getItemsFromModel(String modelName) {
+        return getItemsFromModel(modelName, Collections.emptyMap(), Collections.emptyMap(), new HashMap<>(),
+                new HashMap<>());
+    }
+
+    /**
+     * Reads the items of a model. Items whose definition did not change compared to the given old definitions are
+     * not created again, but the old instances are reused.
+     *
+     * @param modelName the name of the model
+     * @param oldItems the items which have been read from the model before
+     * @param oldDefinitions the fingerprints of the item definitions of the old items
+     * @param newDefinitions is filled with the fingerprints of the current item definitions
+     * @param newBindings is filled with the fingerprints of the current binding configurations
+     * @return the items of the model
+     */
+    private Collection<Item> getItemsFromModel(String modelName, Map<String, Item> oldItems,
+            Map<String, List<Object>> oldDefinitions, Map<String, List<Object>> newDefinitions,
+            Map<String, List<Object>> newBindings) {
         logger.debug("Read items from model '{}'", modelName);
 
         List<Item> items = new ArrayList<Item>();
@@ -192,6 +216,17 @@ public class GenericItemProvider extends AbstractProvider<Item>
             ItemModel model = (ItemModel) modelRepository.getModel(modelName);
             if (model != null) {
                 for (ModelItem modelItem : model.getItems()) {
+                    List<Object> bindingDefinition = getBindingDefinition(modelItem);
+                    List<Object> itemDefinition = getItemDefinition(modelItem, bindingDefinition);
+                    newBindings.put(modelItem.getName(), bindingDefinition);
+                    newDefinitions.put(modelItem.getName(), itemDefinition);
+
+                    Item oldItem = oldItems.get(modelItem.getName());
+                    if (oldItem != null && itemDefinition.equals(oldDefinitions.get(modelItem.getName()))) {
+                        items.add(oldItem);
+                        continue;
+                    }
+
                     Item item = createItemFromModelItem(modelItem);
                     if (item != null) {
                         for (String groupName : modelItem.getGroups()) {
@@ -206,7 +241,53 @@ public class GenericItemProvider extends AbstractProvider<Item>
         return items;
     }
 
+    /**
+     * Creates a structural fingerprint of everything that makes up the binding configuration of a model item, i.e.
+     * its name, its type and its bindings.
+     */
+    private List<Object> getBindingDefinition(ModelItem modelItem) {
+        List<Object> bindings = new ArrayList<>(modelItem.getBindings().size());
+        for (ModelBinding binding : modelItem.getBindings()) {
+            List<Object> properties = new ArrayList<>(binding.getProperties().size() * 2);
+            binding.getProperties().forEach(p -> {
+                properties.add(p.getKey());
+                properties.add(p.getValue());
+            });
+            bindings.add(Arrays.asList(binding.getType(), binding.getConfiguration(), properties));
+        }
+        return Arrays.asList(modelItem.getName(), modelItem.getType(), bindings);
+    }
+
+    /**
+     * Creates a structural fingerprint of the complete definition of a model item.
+     */
+    private List<Object> getItemDefinition(ModelItem modelItem, List<Object> bindingDefinition) {
+        Object function = null;
+        List<String> args = Collections.emptyList();
+        if (modelItem instanceof ModelGroupItem) {
+            ModelGroupItem modelGroupItem = (ModelGroupItem) modelItem;
+            function = modelGroupItem.getFunction();
+            args = new ArrayList<>(modelGroupItem.getArgs());
+        }
+        return Arrays.asList(modelItem.eClass().getName(), function, args, modelItem.getLabel(),
+                modelItem.getIcon(), new ArrayList<>(modelItem.getGroups()), new ArrayList<>(modelItem.getTags()),
+                bindingDefinition);
+    }
+
     private void processBindingConfigsFromModel(String modelName, EventType type) {
+        processBindingConfigsFromModel(modelName, type, null);
+    }
+
+    /**
+     * Passes the binding configurations of all items of a model to the binding config readers.
+     *
+     * @param modelName the name of the model
+     * @param type the type of the model change
+     * @param changedItems the names of the items whose binding configuration has changed or null, if all items should
+     *            be considered as changed. Metadata is only updated for changed items.
+     */
+    private void processBindingConfigsFromModel(String modelName, EventType type,
+            @Nullable Collection<String> changedItems) {
         logger.debug("Processing binding configs for items from model '{}'", modelName);
 
         if (modelRepository != null) {
@@ -223,10 +304,13 @@ public class GenericItemProvider extends AbstractProvider<Item>
             // create items and read new binding configuration
             if (!EventType.REMOVED.equals(type)) {
                 for (ModelItem modelItem : model.getItems()) {
-                    genericMetaDataProvider.removeMetadata(modelItem.getName());
+                    boolean updateMetadata = changedItems == null || changedItems.contains(modelItem.getName());
+                    if (updateMetadata) {
+                        genericMetaDataProvider.removeMetadata(modelItem.getName());
+                    }
                     Item item = createItemFromModelItem(modelItem);
                     if (item != null) {
-                        internalDispatchBindings(modelName, item, modelItem.getBindings());
+                        internalDispatchBindings(null, modelName, item, modelItem.getBindings(), updateMetadata);
                     }
                 }
             }
@@ -362,12 +446,13 @@ public class GenericItemProvider extends AbstractProvider<Item>
         }
     }
 
-    private void internalDispatchBindings(String modelName, Item item, EList<ModelBinding> bindings) {
-        internalDispatchBindings(null, modelName, item, bindings);
+    private void internalDispatchBindings(BindingConfigReader reader, String modelName, Item item,
+            EList<ModelBinding> bindings) {
+        internalDispatchBindings(reader, modelName, item, bindings, true);
     }
 
     private void internalDispatchBindings(BindingConfigReader reader, String modelName, Item item,
-            EList<ModelBinding> bindings) {
+            EList<ModelBinding> bindings, boolean updateMetadata) {
         for (ModelBinding binding : bindings) {
             String bindingType = binding.getType();
             String config = binding.getConfiguration();
@@ -404,7 +489,7 @@ public class GenericItemProvider extends AbstractProvider<Item>
                     logger.error("Binding configuration of type '{}' of item '{}' could not be parsed correctly.",
                             bindingType, item.getName(), e);
                 }
-            } else {
+            } else if (updateMetadata) {
                 genericMetaDataProvider.addMetadata(bindingType, item.getName(), config, configuration.getProperties());
             }
         }
@@ -417,19 +502,40 @@ public class GenericItemProvider extends AbstractProvider<Item>
                 case ADDED:
                 case MODIFIED:
                     Map<String, Item> oldItems = toItemMap(itemsMap.get(modelName));
-                    Map<String, Item> newItems = toItemMap(getItemsFromModel(modelName));
+                    Map<String, List<Object>> oldDefinitions = itemDefinitionsMap.getOrDefault(modelName,
+                            Collections.emptyMap());
+                    Map<String, List<Object>> oldBindings = bindingDefinitionsMap.getOrDefault(modelName,
+                            Collections.emptyMap());
+                    Map<String, List<Object>> newDefinitions = new HashMap<>();
+                    Map<String, List<Object>> newBindings = new HashMap<>();
+                    Map<String, Item> newItems = toItemMap(
+                            getItemsFromModel(modelName, oldItems, oldDefinitions, newDefinitions, newBindings));
                     itemsMap.put(modelName, newItems.values());
+                    itemDefinitionsMap.put(modelName, newDefinitions);
+                    bindingDefinitionsMap.put(modelName, newBindings);
                     for (Item newItem : newItems.values()) {
                         if (oldItems.containsKey(newItem.getName())) {
                             Item oldItem = oldItems.get(newItem.getName());
-                            if (hasItemChanged(oldItem, newItem)) {
+                            // unchanged items are reused, so there is nothing to compare for them
+                            if (oldItem != newItem && hasItemChanged(oldItem, newItem)) {
                                 notifyListenersAboutUpdatedElement(oldItem, newItem);
                             }
                         } else {
                             notifyListenersAboutAddedElement(newItem);
                         }
                     }
-                    processBindingConfigsFromModel(modelName, type);
+                    if (EventType.ADDED.equals(type) || oldItems.isEmpty()) {
+                        processBindingConfigsFromModel(modelName, type);
+                    } else if (!newBindings.equals(oldBindings)) {
+                        // only touch the metadata of items whose binding configuration has actually changed
+                        List<String> changedItems = new ArrayList<>();
+                        newBindings.forEach((itemName, binding) -> {
+                            if (!binding.equals(oldBindings.get(itemName))) {
+                                changedItems.add(itemName);
+                            }
+                        });
+                        processBindingConfigsFromModel(modelName, type, changedItems);
+                    }
                     for (Item oldItem : oldItems.values()) {
                         if (!newItems.containsKey(oldItem.getName())) {
                             notifyAndCleanup(oldItem);
@@ -440,6 +546,8 @@ public class GenericItemProvider extends AbstractProvider<Item>
                     processBindingConfigsFromModel(modelName, type);
                     Collection<Item> itemsFromModel = getItemsFromModel(modelName);
                     itemsMap.remove(modelName);
+                    itemDefinitionsMap.remove(modelName);
+                    bindingDefinitionsMap.remove(modelName);
                     for (Item item : itemsFromModel) {
                         notifyAndCleanup(item);
                     }
@@ -12,10 +12,9 @@
  */
 package org.eclipse.smarthome.model.item.internal;
 
-import static java.util.stream.Collectors.toSet;
-
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -28,7 +27,6 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.registry.AbstractProvider;
 import org.eclipse.smarthome.core.items.Metadata;
 import org.eclipse.smarthome.core.items.MetadataKey;
-import org.eclipse.smarthome.core.items.MetadataPredicates;
 import org.eclipse.smarthome.core.items.MetadataProvider;
 import org.osgi.service.component.annotations.Component;
 
@@ -45,7 +43,8 @@ import org.osgi.service.component.annotations.Component;
 @Component(service = { MetadataProvider.class, GenericMetadataProvider.class })
 public class GenericMetadataProvider extends AbstractProvider<Metadata> implements MetadataProvider {
 
-    private final Set<Metadata> metadata = new HashSet<>();
+    /* item name -> metadata of that item, so that the metadata of an item can be removed without a full scan */
+    private final Map<String, Set<Metadata>> metadata = new HashMap<>();
     private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
 
     /**
@@ -61,7 +60,7 @@ public class GenericMetadataProvider extends AbstractProvider<Metadata> implemen
         Metadata md = new Metadata(key, value, configuration);
         try {
             lock.writeLock().lock();
-            metadata.add(md);
+            metadata.computeIfAbsent(itemName, k -> new HashSet<>()).add(md);
         } finally {
             lock.writeLock().unlock();
         }
@@ -77,11 +76,13 @@ public class GenericMetadataProvider extends AbstractProvider<Metadata> implemen
         Set<Metadata> toBeRemoved;
         try {
             lock.writeLock().lock();
-            toBeRemoved = metadata.stream().filter(MetadataPredicates.ofItem(itemName)).collect(toSet());
-            metadata.removeAll(toBeRemoved);
+            toBeRemoved = metadata.remove(itemName);
         } finally {
             lock.writeLock().unlock();
         }
+        if (toBeRemoved == null) {
+            return;
+        }
         for (Metadata m : toBeRemoved) {
             notifyListenersAboutRemovedElement(m);
         }
@@ -91,7 +92,9 @@ public class GenericMetadataProvider extends AbstractProvider<Metadata> implemen
     public Collection<Metadata> getAll() {
         try {
             lock.readLock().lock();
-            return Collections.unmodifiableSet(new HashSet<>(metadata));
+            Set<Metadata> all = new HashSet<>();
+            metadata.values().forEach(all::addAll);
+            return Collections.unmodifiableSet(all);
         } finally {
             lock.readLock().unlock();
         }
@@ -20,6 +20,8 @@ import static org.mockito.Mockito.*;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
 
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
@@ -27,11 +29,13 @@ import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.io.IOUtils;
 import org.eclipse.smarthome.ui.icon.IconProvider;
 import org.eclipse.smarthome.ui.icon.IconSet.Format;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -66,6 +70,10 @@ public class IconServletTest {
             return new String(outputStream.toByteArray());
         }
 
+        public byte[] getBytes() {
+            return outputStream.toByteArray();
+        }
+
         public void reset() {
             outputStream.reset();
         }
@@ -151,4 +159,102 @@ public class IconServletTest {
         verify(response).sendError(404);
     }
 
+    @Test
+    public void testIconIsCached() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/y-34.png");
+
+        when(response.getOutputStream()).thenReturn(responseOutputStream);
+
+        when(provider1.hasIcon("y", "classic", Format.PNG)).thenReturn(0);
+        when(provider1.getIcon("y", "classic", "34", Format.PNG))
+                .thenReturn(new ByteArrayInputStream("provider 1 icon: y classic 34 png".getBytes()));
+
+        servlet.addIconProvider(provider1);
+        servlet.doGet(request, response);
+        responseOutputStream.reset();
+        servlet.doGet(request, response);
+
+        assertEquals("provider 1 icon: y classic 34 png", responseOutputStream.getOutput());
+        verify(provider1, times(1)).getIcon("y", "classic", "34", Format.PNG);
+    }
+
+    @Test
+    public void testETag() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/y-34.png");
+
+        when(response.getOutputStream()).thenReturn(responseOutputStream);
+
+        when(provider1.hasIcon("y", "classic", Format.PNG)).thenReturn(0);
+        when(provider1.getIcon("y", "classic", "34", Format.PNG))
+                .thenReturn(new ByteArrayInputStream("provider 1 icon: y classic 34 png".getBytes()));
+
+        servlet.addIconProvider(provider1);
+        servlet.doGet(request, response);
+
+        ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        verify(response).setHeader(eq("ETag"), etag.capture());
+
+        responseOutputStream.reset();
+        when(request.getHeader("If-None-Match")).thenReturn(etag.getValue());
+        servlet.doGet(request, response);
+
+        assertEquals("", responseOutputStream.getOutput());
+        verify(response).setStatus(304);
+    }
+
+    @Test
+    public void testIfModifiedSince() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/y-34.png");
+
+        when(response.getOutputStream()).thenReturn(responseOutputStream);
+
+        when(provider1.hasIcon("y", "classic", Format.PNG)).thenReturn(0);
+        when(provider1.getIcon("y", "classic", "34", Format.PNG))
+                .thenReturn(new ByteArrayInputStream("provider 1 icon: y classic 34 png".getBytes()));
+
+        servlet.addIconProvider(provider1);
+        servlet.doGet(request, response);
+
+        verify(response).setHeader("Cache-Control", "no-cache");
+        ArgumentCaptor<Long> lastModified = ArgumentCaptor.forClass(Long.class);
+        verify(response).setDateHeader(eq("Last-Modified"), lastModified.capture());
+
+        // a copy from before the modification is sent again
+        responseOutputStream.reset();
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(lastModified.getValue() - 1000);
+        servlet.doGet(request, response);
+
+        assertEquals("provider 1 icon: y classic 34 png", responseOutputStream.getOutput());
+        verify(response, never()).setStatus(304);
+
+        responseOutputStream.reset();
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(lastModified.getValue());
+        servlet.doGet(request, response);
+
+        assertEquals("", responseOutputStream.getOutput());
+        verify(response).setStatus(304);
+    }
+
+    @Test
+    public void testGzippedSvg() throws ServletException, IOException {
+        String svg = "<svg>" + String.join("", Collections.nCopies(100, "<path d=\"M0 0\"/>")) + "</svg>";
+
+        when(request.getRequestURI()).thenReturn("/x");
+        when(request.getParameter(PARAM_FORMAT)).thenReturn("svg");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+
+        when(response.getOutputStream()).thenReturn(responseOutputStream);
+
+        when(provider1.hasIcon("x", "classic", Format.SVG)).thenReturn(0);
+        when(provider1.getIcon("x", "classic", null, Format.SVG))
+                .thenReturn(new ByteArrayInputStream(svg.getBytes()));
+
+        servlet.addIconProvider(provider1);
+        servlet.doGet(request, response);
+
+        verify(response).setHeader("Content-Encoding", "gzip");
+        assertEquals(svg,
+                IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(responseOutputStream.getBytes()))));
+    }
+
 }
@@ -12,15 +12,23 @@
  */
 package org.eclipse.smarthome.ui.icon.internal;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.ServletException;
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -44,7 +52,13 @@ import org.slf4j.LoggerFactory;
 /**
  * Registers a servlet that serves icons through {@link IconProvider}s.
  *
+ * The resolved icons are kept in memory for a short time, so that the many icon requests of a page load do not all
+ * have to go through the icon providers. Clients have to revalidate their copy on every use, so that a changed icon is
+ * shown right away, which is answered through the ETag or the modification date of the icon without sending it again.
+ * SVG icons are additionally served gzip compressed, if the client accepts it.
+ *
  * @author Kai Kreuzer - Initial contribution
+ * @author agent - Cache icons in memory and support ETags and gzip compression
  */
 @Component
 public class IconServlet extends SmartHomeServlet {
@@ -58,7 +72,23 @@ public class IconServlet extends SmartHomeServlet {
     static final String PARAM_FORMAT = "format";
     static final String PARAM_STATE = "state";
 
-    private long startupTime;
+    /** The maximum number of icons that are kept in memory */
+    private static final int CACHE_SIZE = 500;
+
+    /** Time in ms for which a resolved icon is served from memory, so that changed custom icons are picked up */
+    private static final long CACHE_TIME = 60 * 1000;
+
+    private static final String GZIP = "gzip";
+
+    private final Map<IconKey, CachedIcon> iconCache = Collections
+            .synchronizedMap(new LinkedHashMap<IconKey, CachedIcon>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Entry<IconKey, CachedIcon> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
 
     protected HttpService httpService;
 
@@ -78,16 +108,17 @@ public class IconServlet extends SmartHomeServlet {
     @Reference(cardinality = ReferenceCardinality.AT_LEAST_ONE, policy = ReferencePolicy.DYNAMIC)
     public void addIconProvider(IconProvider iconProvider) {
         this.iconProvider.add(iconProvider);
+        iconCache.clear();
     }
 
     public void removeIconProvider(IconProvider iconProvider) {
         this.iconProvider.remove(iconProvider);
+        iconCache.clear();
     }
 
     @Activate
     protected void activate(Map<String, Object> config) {
         super.activate(SERVLET_NAME);
-        startupTime = System.currentTimeMillis();
 
         modified(config);
     }
@@ -95,6 +126,7 @@ public class IconServlet extends SmartHomeServlet {
     @Deactivate
     protected void deactivate() {
         super.deactivate(SERVLET_NAME);
+        iconCache.clear();
     }
 
     @Modified
@@ -103,24 +135,58 @@ public class IconServlet extends SmartHomeServlet {
         if (iconSetId instanceof String) {
             defaultIconSetId = (String) iconSetId;
         }
+        iconCache.clear();
     }
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        if (req.getDateHeader("If-Modified-Since") > startupTime) {
-            resp.setStatus(304);
-            return;
-        }
+        String ifNoneMatch = req.getHeader("If-None-Match");
 
         String category = getCategory(req);
         Format format = getFormat(req);
         String state = getState(req);
         String iconSetId = getIconSetId(req);
 
-        IconProvider topProvider = getIconProvider(category, iconSetId, format);
-        if (topProvider == null) {
-            logger.debug("Requested icon category {} provided by no icon provider;", category);
-            resp.sendError(404);
+        IconKey key = new IconKey(category, state, format, iconSetId);
+        CachedIcon icon = iconCache.get(key);
+        if (icon == null || !icon.isValid()) {
+            IconProvider topProvider = getIconProvider(category, iconSetId, format);
+            if (topProvider == null) {
+                logger.debug("Requested icon category {} provided by no icon provider;", category);
+                resp.sendError(404);
+                return;
+            }
+
+            try (InputStream is = topProvider.getIcon(category, iconSetId, state, format)) {
+                if (is == null) {
+                    logger.debug("Icon provider did not deliver an icon for category {};", category);
+                    resp.sendError(404);
+                    return;
+                }
+                icon = new CachedIcon(IOUtils.toByteArray(is), format, icon);
+            } catch (IOException e) {
+                logger.error("Failed reading the icon byte stream: {}", e.getMessage());
+                resp.sendError(500, e.getMessage());
+                return;
+            }
+            iconCache.put(key, icon);
+        }
+
+        boolean gzip = icon.gzippedContent != null && acceptsGzip(req);
+        String etag = gzip ? icon.gzippedEtag : icon.etag;
+
+        resp.setHeader("ETag", etag);
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.setDateHeader("Last-Modified", icon.lastModified);
+        if (icon.gzippedContent != null) {
+            resp.setHeader("Vary", "Accept-Encoding");
+        }
+
+        // the modification date is only considered, if the client does not know the ETag
+        boolean notModified = ifNoneMatch != null ? matchesEtag(ifNoneMatch, etag)
+                : req.getDateHeader("If-Modified-Since") >= icon.lastModified;
+        if (notModified) {
+            resp.setStatus(304);
             return;
         }
 
@@ -129,10 +195,13 @@ public class IconServlet extends SmartHomeServlet {
         } else {
             resp.setContentType("image/png");
         }
-        resp.setDateHeader("Last-Modified", new Date().getTime());
-        ServletOutputStream os = resp.getOutputStream();
-        try (InputStream is = topProvider.getIcon(category, iconSetId, state, format)) {
-            IOUtils.copy(is, os);
+        byte[] content = gzip ? icon.gzippedContent : icon.content;
+        if (gzip) {
+            resp.setHeader("Content-Encoding", GZIP);
+        }
+        resp.setContentLength(content.length);
+        try {
+            resp.getOutputStream().write(content);
             resp.flushBuffer();
         } catch (IOException e) {
             logger.error("Failed sending the icon byte stream as a response: {}", e.getMessage());
@@ -140,6 +209,31 @@ public class IconServlet extends SmartHomeServlet {
         }
     }
 
+    private boolean acceptsGzip(HttpServletRequest req) {
+        String acceptEncoding = req.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                // an explicit quality of 0 means that the encoding is not acceptable
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmedTag = tag.trim();
+            if (trimmedTag.equals("*") || trimmedTag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String getCategory(HttpServletRequest req) {
         String category = StringUtils.substringAfterLast(req.getRequestURI(), "/");
         category = StringUtils.substringBeforeLast(category, ".");
@@ -198,4 +292,92 @@ public class IconServlet extends SmartHomeServlet {
         }
         return topProvider;
     }
+
+    private static class IconKey {
+        private final String category;
+        private final String state;
+        private final Format format;
+        private final String iconSetId;
+
+        IconKey(String category, String state, Format format, String iconSetId) {
+            this.category = category;
+            this.state = state;
+            this.format = format;
+            this.iconSetId = iconSetId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, state, format, iconSetId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof IconKey)) {
+                return false;
+            }
+            IconKey other = (IconKey) obj;
+            return Objects.equals(category, other.category) && Objects.equals(state, other.state)
+                    && format == other.format && Objects.equals(iconSetId, other.iconSetId);
+        }
+    }
+
+    private static class CachedIcon {
+        private final byte[] content;
+        private final String etag;
+        private final byte[] gzippedContent;
+        private final String gzippedEtag;
+        private final long lastModified;
+        private final long created = System.currentTimeMillis();
+
+        /**
+         * @param content the content of the icon
+         * @param format the format of the icon, only SVG icons are compressed
+         * @param previous the expired entry of the same icon or null, used to keep the modification date of an
+         *            unchanged icon
+         */
+        CachedIcon(byte[] content, Format format, CachedIcon previous) throws IOException {
+            this.content = content;
+            String hash = hash(content);
+            this.etag = "\"" + hash + "\"";
+            if (format == Format.SVG) {
+                byte[] gzipped = gzip(content);
+                this.gzippedContent = gzipped.length < content.length ? gzipped : null;
+            } else {
+                this.gzippedContent = null;
+            }
+            this.gzippedEtag = "\"" + hash + "-" + GZIP + "\"";
+            if (previous != null && previous.etag.equals(etag)) {
+                this.lastModified = previous.lastModified;
+            } else {
+                // HTTP dates have a resolution of seconds
+                this.lastModified = created / 1000 * 1000;
+            }
+        }
+
+        boolean isValid() {
+            return System.currentTimeMillis() - created < CACHE_TIME;
+        }
+
+        private static String hash(byte[] content) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform has to support SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static byte[] gzip(byte[] content) throws IOException {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(content.length / 2);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
+                gzip.write(content);
+            }
+            return bos.toByteArray();
+        }
+    }
 }
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.internal.chart.defaultchartprovider;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.awt.image.BufferedImage;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.i18n.TimeZoneProvider;
+import org.eclipse.smarthome.core.items.ItemNotFoundException;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
+import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.eclipse.smarthome.ui.items.ItemUIRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caching of rendered charts by the {@link DefaultChartProvider}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DefaultChartProviderTest extends JavaTest {
+
+    private static final String SERVICE_ID = "test";
+    private static final String ITEM_NAME = "Switch";
+    private static final int HEIGHT = 50;
+    private static final int WIDTH = 100;
+
+    private final Date endTime = new Date();
+    private final Date startTime = new Date(endTime.getTime() - 24 * 60 * 60 * 1000);
+
+    private DefaultChartProvider provider;
+    private QueryablePersistenceService persistenceService;
+    private SwitchItem item;
+
+    @Before
+    public void setUp() throws ItemNotFoundException {
+        item = new SwitchItem(ITEM_NAME);
+        item.setState(OnOffType.OFF);
+
+        ItemUIRegistry itemUIRegistry = mock(ItemUIRegistry.class);
+        when(itemUIRegistry.getItem(ITEM_NAME)).thenReturn(item);
+
+        persistenceService = mock(QueryablePersistenceService.class);
+        when(persistenceService.getId()).thenReturn(SERVICE_ID);
+        when(persistenceService.query(any(FilterCriteria.class))).thenReturn(Collections.emptyList());
+
+        PersistenceServiceRegistry persistenceServiceRegistry = mock(PersistenceServiceRegistry.class);
+        when(persistenceServiceRegistry.get(SERVICE_ID)).thenReturn(persistenceService);
+
+        TimeZoneProvider timeZoneProvider = mock(TimeZoneProvider.class);
+        when(timeZoneProvider.getTimeZone()).thenReturn(ZoneId.systemDefault());
+
+        provider = new DefaultChartProvider();
+        provider.setItemUIRegistry(itemUIRegistry);
+        provider.setPersistenceServiceRegistry(persistenceServiceRegistry);
+        provider.setTimeZoneProvider(timeZoneProvider);
+        provider.activate();
+    }
+
+    @Test
+    public void testChartIsReused() throws ItemNotFoundException {
+        BufferedImage image = createChart(WIDTH);
+
+        assertThat(createChart(WIDTH), is(sameInstance(image)));
+        // the value at the start time and the values within the period are only queried once
+        verify(persistenceService, times(2)).query(any(FilterCriteria.class));
+    }
+
+    @Test
+    public void testChartIsRenderedAgainAfterAStateChange() throws ItemNotFoundException {
+        BufferedImage image = createChart(WIDTH);
+
+        item.setState(OnOffType.ON);
+
+        assertThat(createChart(WIDTH), is(not(sameInstance(image))));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedChartIsEvicted() throws ItemNotFoundException {
+        BufferedImage first = createChart(WIDTH);
+        BufferedImage second = createChart(WIDTH + 1);
+
+        // the first chart is used again, so that the second one is the eldest when 15 more charts are rendered
+        assertThat(createChart(WIDTH), is(sameInstance(first)));
+        for (int i = 2; i < 17; i++) {
+            createChart(WIDTH + i);
+        }
+
+        assertThat(createChart(WIDTH), is(sameInstance(first)));
+        assertThat(createChart(WIDTH + 1), is(not(sameInstance(second))));
+    }
+
+    @Test
+    public void testConcurrentChartOfAnotherTimeRangeIsRenderedOnItsOwn() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(persistenceService.query(any(FilterCriteria.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Collections.emptyList();
+        });
+        Date earlierStartTime = new Date(startTime.getTime() - 60 * 60 * 1000);
+        Date earlierEndTime = new Date(endTime.getTime() - 60 * 60 * 1000);
+
+        CompletableFuture<BufferedImage> first = CompletableFuture
+                .supplyAsync(() -> createChart(startTime, endTime, WIDTH));
+        waitForAssert(() -> verify(persistenceService).query(any(FilterCriteria.class)));
+        // the second chart has the same length, but starts an hour earlier
+        CompletableFuture<BufferedImage> second = CompletableFuture
+                .supplyAsync(() -> createChart(earlierStartTime, earlierEndTime, WIDTH));
+        waitForAssert(() -> verify(persistenceService, times(2)).query(any(FilterCriteria.class)));
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS), is(not(sameInstance(first.get(5, TimeUnit.SECONDS)))));
+    }
+
+    private BufferedImage createChart(int width) throws ItemNotFoundException {
+        return provider.createChart(SERVICE_ID, null, startTime, endTime, HEIGHT, width, ITEM_NAME, null, null,
+                null);
+    }
+
+    private BufferedImage createChart(Date startTime, Date endTime, int width) {
+        try {
+            return provider.createChart(SERVICE_ID, null, startTime, endTime, HEIGHT, width, ITEM_NAME, null, null,
+                    null);
+        } catch (ItemNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.internal.chart.defaultchartprovider;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link LttbDownsampler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class LttbDownsamplerTest {
+
+    private final List<Date> xData = new ArrayList<>();
+    private final List<Number> yData = new ArrayList<>();
+
+    @Test
+    public void testSmallSeriesIsKept() {
+        createSeries(10, -1);
+
+        assertThat(LttbDownsampler.downsample(xData, yData, 20), is(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }));
+    }
+
+    @Test
+    public void testSeriesIsReducedToThreshold() {
+        createSeries(1000, -1);
+
+        int[] indices = LttbDownsampler.downsample(xData, yData, 100);
+
+        assertThat(indices.length, is(100));
+        assertThat(indices[0], is(0));
+        assertThat(indices[99], is(999));
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(indices[i] > indices[i - 1]);
+        }
+    }
+
+    @Test
+    public void testPeakIsKept() {
+        createSeries(1000, 500);
+
+        int[] indices = LttbDownsampler.downsample(xData, yData, 50);
+
+        boolean peakFound = false;
+        for (int index : indices) {
+            peakFound |= index == 500;
+        }
+        assertTrue(peakFound);
+    }
+
+    private void createSeries(int size, int peak) {
+        for (int i = 0; i < size; i++) {
+            xData.add(new Date(1000L * i));
+            yData.add(i == peak ? 100 : i % 2);
+        }
+    }
+
+}
@@ -118,6 +118,24 @@ public class ItemUIRegistryImplTest {
         assertEquals("Label [20]", label);
     }
 
+    @Test
+    public void getLabel_labelWithIntegerValueRenderedRepeatedly() {
+        String testLabel = "Label [%d]";
+
+        when(widget.getLabel()).thenReturn(testLabel);
+        when(item.getState()).thenReturn(new DecimalType(20));
+        when(item.getStateAs(DecimalType.class)).thenReturn(new DecimalType(20));
+        assertEquals("Label [20]", uiRegistry.getLabel(widget));
+
+        when(item.getState()).thenReturn(UnDefType.UNDEF);
+        when(item.getStateAs(DecimalType.class)).thenReturn(null);
+        assertEquals("Label [-]", uiRegistry.getLabel(widget));
+
+        when(item.getState()).thenReturn(new DecimalType(21));
+        when(item.getStateAs(DecimalType.class)).thenReturn(new DecimalType(21));
+        assertEquals("Label [21]", uiRegistry.getLabel(widget));
+    }
+
     @Test
     public void getLabel_labelWithIntegerValueAndWidth() {
         String testLabel = "Label [%3d]";
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.internal.proxy;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the sharing of snapshots by the {@link SnapshotCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SnapshotCacheTest extends JavaTest {
+
+    private static final URI SNAPSHOT_URI = URI.create("http://camera/snapshot.jpg");
+    private static final byte[] BODY = { 1, 2, 3 };
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Response.Listener> upstreamListeners = new CopyOnWriteArrayList<>();
+
+    private HttpClient httpClient;
+    private Request upstreamRequest;
+    private SnapshotCache cache;
+
+    @Before
+    public void setUp() {
+        httpClient = mock(HttpClient.class);
+        upstreamRequest = mock(Request.class);
+        when(httpClient.newRequest(any(URI.class))).thenReturn(upstreamRequest);
+        when(upstreamRequest.timeout(anyLong(), any(TimeUnit.class))).thenReturn(upstreamRequest);
+        doAnswer(invocation -> upstreamListeners.add(invocation.getArgument(0))).when(upstreamRequest)
+                .send(any(Response.CompleteListener.class));
+
+        cache = new SnapshotCache(mock(ProxyServletService.class), httpClient);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSnapshotIsShared() throws Exception {
+        HttpServletResponse response1 = mockResponse();
+        HttpServletResponse response2 = mockResponse();
+
+        CompletableFuture<Boolean> first = sendSnapshot(response1);
+        waitForAssert(() -> assertThat(upstreamListeners.size(), is(1)));
+        CompletableFuture<Boolean> second = sendSnapshot(response2);
+        respond(HttpServletResponse.SC_OK, "image/jpeg");
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        verify(httpClient, times(1)).newRequest(SNAPSHOT_URI);
+        verify(response1.getOutputStream()).write(BODY);
+        verify(response2.getOutputStream()).write(BODY);
+    }
+
+    @Test
+    public void testExpiredSnapshotIsFetchedAgain() throws Exception {
+        CompletableFuture<Boolean> first = sendSnapshot(mockResponse());
+        waitForAssert(() -> assertThat(upstreamListeners.size(), is(1)));
+        respond(HttpServletResponse.SC_OK, "image/jpeg");
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+
+        Thread.sleep(1100);
+
+        sendSnapshot(mockResponse());
+        waitForAssert(() -> assertThat(upstreamListeners.size(), is(2)));
+    }
+
+    @Test
+    public void testErrorIsNotCached() throws Exception {
+        CompletableFuture<Boolean> first = sendSnapshot(mockResponse());
+        waitForAssert(() -> assertThat(upstreamListeners.size(), is(1)));
+        respond(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "text/plain");
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+
+        sendSnapshot(mockResponse());
+        waitForAssert(() -> assertThat(upstreamListeners.size(), is(2)));
+    }
+
+    @Test
+    public void testMultipartContentIsProxied() throws Exception {
+        CompletableFuture<Boolean> first = sendSnapshot(mockResponse());
+        waitForAssert(() -> assertThat(upstreamListeners.size(), is(1)));
+        respond(HttpServletResponse.SC_OK, "multipart/x-mixed-replace; boundary=frame");
+        assertFalse(first.get(5, TimeUnit.SECONDS));
+
+        // the URI is remembered, so it is proxied right away
+        assertFalse(cache.sendSnapshot(SNAPSHOT_URI, mockResponse()));
+        verify(httpClient, times(1)).newRequest(SNAPSHOT_URI);
+    }
+
+    private CompletableFuture<Boolean> sendSnapshot(HttpServletResponse response) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.sendSnapshot(SNAPSHOT_URI, response);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Lets the camera answer the last upstream request.
+     */
+    private void respond(int status, String contentType) {
+        Response.Listener listener = upstreamListeners.get(upstreamListeners.size() - 1);
+        Response response = mock(Response.class);
+        HttpFields headers = new HttpFields();
+        headers.put(HttpHeader.CONTENT_TYPE, contentType);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getStatus()).thenReturn(status);
+        when(response.abort(any(Throwable.class))).thenAnswer(invocation -> {
+            listener.onComplete(new Result(upstreamRequest, response, invocation.getArgument(0)));
+            return true;
+        });
+
+        listener.onHeaders(response);
+        if (!contentType.startsWith("multipart/")) {
+            listener.onContent(response, ByteBuffer.wrap(BODY));
+            listener.onComplete(new Result(upstreamRequest, response));
+        }
+    }
+
+    private HttpServletResponse mockResponse() throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        return response;
+    }
+
+}
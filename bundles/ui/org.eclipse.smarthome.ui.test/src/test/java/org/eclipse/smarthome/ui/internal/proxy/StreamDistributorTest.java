@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.internal.proxy;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests the sharing of upstream connections by the {@link StreamDistributor}.
+ *
+ * @author agent - Initial contribution
+ */
+public class StreamDistributorTest extends JavaTest {
+
+    private static final URI STREAM_URI = URI.create("http://camera/video");
+    private static final byte[] CHUNK1 = { 1, 2, 3 };
+    private static final byte[] CHUNK2 = { 4, 5, 6 };
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private HttpClient httpClient;
+    private Request upstreamRequest;
+    private StreamDistributor distributor;
+
+    @Before
+    public void setUp() {
+        httpClient = mock(HttpClient.class);
+        upstreamRequest = mock(Request.class);
+        when(httpClient.newRequest(any(URI.class))).thenReturn(upstreamRequest);
+        when(upstreamRequest.timeout(anyLong(), any(TimeUnit.class))).thenReturn(upstreamRequest);
+        when(upstreamRequest.onResponseHeaders(any())).thenReturn(upstreamRequest);
+        when(upstreamRequest.onResponseContent(any())).thenReturn(upstreamRequest);
+
+        distributor = new StreamDistributor(mock(ProxyServletService.class), httpClient);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testMultipartStreamIsShared() throws Exception {
+        HttpServletResponse response1 = mockResponse();
+        HttpServletResponse response2 = mockResponse();
+
+        CompletableFuture<Void> client1 = stream(response1);
+        waitForAssert(() -> verify(upstreamRequest).send(any(Response.CompleteListener.class)));
+        Response upstreamResponse = mockUpstreamResponse("multipart/x-mixed-replace; boundary=frame");
+        headersListener().onHeaders(upstreamResponse);
+        contentListener().onContent(upstreamResponse, ByteBuffer.wrap(CHUNK1));
+        waitForAssert(() -> verify(response1.getOutputStream()).write(CHUNK1));
+
+        // the second client joins in the middle of the stream
+        CompletableFuture<Void> client2 = stream(response2);
+        waitForAssert(() -> verify(response2).setStatus(HttpServletResponse.SC_OK));
+        contentListener().onContent(upstreamResponse, ByteBuffer.wrap(CHUNK2));
+        waitForAssert(() -> verify(response1.getOutputStream()).write(CHUNK2));
+        waitForAssert(() -> verify(response2.getOutputStream()).write(CHUNK2));
+        verify(httpClient, times(1)).newRequest(STREAM_URI);
+
+        // both clients are released when the upstream server closes the stream
+        completeListener().onComplete(new Result(upstreamRequest, upstreamResponse));
+        client1.get(5, TimeUnit.SECONDS);
+        client2.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testOtherStreamIsNotJoinedAfterItsContentStarted() throws Exception {
+        stream(mockResponse());
+        waitForAssert(() -> verify(upstreamRequest).send(any(Response.CompleteListener.class)));
+        Response upstreamResponse = mockUpstreamResponse("video/mp4");
+        headersListener().onHeaders(upstreamResponse);
+        contentListener().onContent(upstreamResponse, ByteBuffer.wrap(CHUNK1));
+
+        stream(mockResponse());
+        waitForAssert(() -> verify(httpClient, times(2)).newRequest(STREAM_URI));
+    }
+
+    @Test
+    public void testStreamIsClosedWithTheLastClient() throws Exception {
+        HttpServletResponse response = mockResponse();
+        doThrow(new IOException("Connection closed")).when(response.getOutputStream()).write(any(byte[].class));
+
+        CompletableFuture<Void> client = stream(response);
+        waitForAssert(() -> verify(upstreamRequest).send(any(Response.CompleteListener.class)));
+        Response upstreamResponse = mockUpstreamResponse("multipart/x-mixed-replace; boundary=frame");
+        headersListener().onHeaders(upstreamResponse);
+        contentListener().onContent(upstreamResponse, ByteBuffer.wrap(CHUNK1));
+
+        client.get(5, TimeUnit.SECONDS);
+        verify(upstreamRequest).abort(any(Throwable.class));
+
+        // the next client opens a new connection
+        stream(mockResponse());
+        waitForAssert(() -> verify(httpClient, times(2)).newRequest(STREAM_URI));
+    }
+
+    @Test
+    public void testAsyncClientSharesTheStream() throws Exception {
+        HttpServletResponse response1 = mockResponse();
+        HttpServletResponse response2 = mockResponse();
+        AsyncContext asyncContext = mockAsyncContext(response2);
+
+        CompletableFuture<Void> client1 = stream(response1);
+        waitForAssert(() -> verify(upstreamRequest).send(any(Response.CompleteListener.class)));
+        distributor.stream(STREAM_URI, asyncContext);
+        Response upstreamResponse = mockUpstreamResponse("multipart/x-mixed-replace; boundary=frame");
+        headersListener().onHeaders(upstreamResponse);
+
+        // the asynchronous client is written to by the thread that receives the content
+        contentListener().onContent(upstreamResponse, ByteBuffer.wrap(CHUNK1));
+        verify(response2).setStatus(HttpServletResponse.SC_OK);
+        verify(response2.getOutputStream()).write(CHUNK1);
+        verify(response2.getOutputStream()).flush();
+        waitForAssert(() -> verify(response1.getOutputStream()).write(CHUNK1));
+        verify(httpClient, times(1)).newRequest(STREAM_URI);
+
+        completeListener().onComplete(new Result(upstreamRequest, upstreamResponse));
+        verify(asyncContext).complete();
+        client1.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testAsyncClientIsCompletedWhenTheConnectionCloses() throws Exception {
+        HttpServletResponse response = mockResponse();
+        doThrow(new IOException("Connection closed")).when(response.getOutputStream()).write(any(byte[].class));
+        AsyncContext asyncContext = mockAsyncContext(response);
+
+        distributor.stream(STREAM_URI, asyncContext);
+        Response upstreamResponse = mockUpstreamResponse("multipart/x-mixed-replace; boundary=frame");
+        headersListener().onHeaders(upstreamResponse);
+        contentListener().onContent(upstreamResponse, ByteBuffer.wrap(CHUNK1));
+
+        verify(asyncContext).complete();
+        verify(upstreamRequest).abort(any(Throwable.class));
+    }
+
+    private CompletableFuture<Void> stream(HttpServletResponse response) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                distributor.stream(STREAM_URI, response);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    private Response.HeadersListener headersListener() {
+        ArgumentCaptor<Response.HeadersListener> captor = ArgumentCaptor.forClass(Response.HeadersListener.class);
+        verify(upstreamRequest, atLeastOnce()).onResponseHeaders(captor.capture());
+        return captor.getValue();
+    }
+
+    private Response.ContentListener contentListener() {
+        ArgumentCaptor<Response.ContentListener> captor = ArgumentCaptor.forClass(Response.ContentListener.class);
+        verify(upstreamRequest, atLeastOnce()).onResponseContent(captor.capture());
+        return captor.getValue();
+    }
+
+    private Response.CompleteListener completeListener() {
+        ArgumentCaptor<Response.CompleteListener> captor = ArgumentCaptor.forClass(Response.CompleteListener.class);
+        verify(upstreamRequest, atLeastOnce()).send(captor.capture());
+        return captor.getValue();
+    }
+
+    private Response mockUpstreamResponse(String contentType) {
+        Response response = mock(Response.class);
+        HttpFields headers = new HttpFields();
+        headers.put(HttpHeader.CONTENT_TYPE, contentType);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getStatus()).thenReturn(HttpServletResponse.SC_OK);
+        return response;
+    }
+
+    /**
+     * Mocks an asynchronous request, whose client can always take more content.
+     */
+    private AsyncContext mockAsyncContext(HttpServletResponse response) throws IOException {
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(asyncContext.getResponse()).thenReturn(response);
+        ServletOutputStream outputStream = response.getOutputStream();
+        when(outputStream.isReady()).thenReturn(true);
+        doAnswer(invocation -> {
+            ((WriteListener) invocation.getArgument(0)).onWritePossible();
+            return null;
+        }).when(outputStream).setWriteListener(any(WriteListener.class));
+        return asyncContext;
+    }
+
+    private HttpServletResponse mockResponse() throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        return response;
+    }
+
+}
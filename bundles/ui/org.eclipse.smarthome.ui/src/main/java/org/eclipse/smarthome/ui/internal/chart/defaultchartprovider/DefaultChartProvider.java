@@ -20,11 +20,19 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
@@ -64,6 +72,7 @@ import org.slf4j.LoggerFactory;
  * @author Chris Jackson - Initial contribution
  * @author Holger Reichert - Support for themes, DPI, legend hiding
  * @author Christoph Weitkamp - Consider default persistence service
+ * @author agent - Cache rendered charts and downsample dense series
  */
 @Component(immediate = true)
 public class DefaultChartProvider implements ChartProvider {
@@ -83,6 +92,25 @@ public class DefaultChartProvider implements ChartProvider {
 
     public static final int DPI_DEFAULT = 96;
 
+    // Maximum time in milliseconds for which a rendered chart is reused
+    private static final long MAX_CACHE_TIME = 15 * 60 * 1000;
+    private static final int MAX_CACHED_CHARTS = 16;
+    // Maximum time in seconds a request waits for the same chart being rendered by another request
+    private static final long MAX_RENDER_WAIT = 30;
+
+    private final Map<String, CachedChart> chartCache = Collections
+            .synchronizedMap(new LinkedHashMap<String, CachedChart>(MAX_CACHED_CHARTS, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Entry<String, CachedChart> eldest) {
+                    return size() > MAX_CACHED_CHARTS;
+                }
+            });
+
+    // charts that are currently rendered, so that concurrent requests for the same chart share the persistence queries
+    private final Map<String, PendingChart> pendingCharts = new ConcurrentHashMap<>();
+
     @Reference
     public void setItemUIRegistry(ItemUIRegistry itemUIRegistry) {
         this.itemUIRegistry = itemUIRegistry;
@@ -145,6 +173,97 @@ public class DefaultChartProvider implements ChartProvider {
                         .findFirst() //
                         .orElseThrow(() -> new IllegalArgumentException("No Persistence service found."));
 
+        List<Item> chartItems = getChartItems(items, groups);
+        List<State> itemStates = chartItems.stream().map(Item::getState).collect(Collectors.toList());
+
+        // The chart is identified by everything but its exact time range, which moves with every request
+        String key = String.join("|", persistenceService.getId(), String.valueOf(theme), String.valueOf(height),
+                String.valueOf(width), String.valueOf(items), String.valueOf(groups), String.valueOf(dpiValue),
+                String.valueOf(legend), String.valueOf(endTime.getTime() - startTime.getTime()));
+
+        // A rendered chart is reused as long as its time range differs by less than a pixel and none of its items
+        // changed its state, i.e. as long as it would look the same
+        long tolerance = Math.min(MAX_CACHE_TIME, (endTime.getTime() - startTime.getTime()) / Math.max(width, 1));
+        CachedChart cachedChart = chartCache.get(key);
+        if (cachedChart != null && cachedChart.matches(startTime, endTime, itemStates, tolerance)) {
+            logger.debug("Returning cached chart for items '{}' and groups '{}'", items, groups);
+            return cachedChart.image;
+        }
+
+        // A chart of another time range with the same length is rendered on its own, without being shared
+        PendingChart rendering = new PendingChart(startTime, endTime, itemStates);
+        PendingChart pendingChart = pendingCharts.putIfAbsent(key, rendering);
+        if (pendingChart != null && pendingChart.matches(startTime, endTime, itemStates, tolerance)) {
+            return waitForChart(pendingChart.image);
+        }
+
+        try {
+            BufferedImage image = renderChart(persistenceService, theme, startTime, endTime, height, width,
+                    chartItems, dpiValue, legend);
+            chartCache.put(key, new CachedChart(image, startTime, endTime, itemStates));
+            rendering.image.complete(image);
+            return image;
+        } catch (RuntimeException e) {
+            rendering.image.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingCharts.remove(key, rendering);
+        }
+    }
+
+    private BufferedImage waitForChart(CompletableFuture<BufferedImage> pendingChart) {
+        try {
+            return pendingChart.get(MAX_RENDER_WAIT, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out while waiting for the chart to be rendered.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the chart to be rendered.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Resolves the items and the members of the groups, whose data should be shown in the chart.
+     *
+     * @param items comma separated list of item names, might be null
+     * @param groups comma separated list of group names, might be null
+     * @return the items to show in the chart
+     * @throws ItemNotFoundException if an item or a group does not exist or a group is not a group item
+     */
+    private List<Item> getChartItems(String items, String groups) throws ItemNotFoundException {
+        List<Item> chartItems = new ArrayList<>();
+
+        // Loop through all the items
+        if (items != null) {
+            String[] itemNames = items.split(",");
+            for (String itemName : itemNames) {
+                chartItems.add(itemUIRegistry.getItem(itemName));
+            }
+        }
+
+        // Loop through all the groups and add each item from each group
+        if (groups != null) {
+            String[] groupNames = groups.split(",");
+            for (String groupName : groupNames) {
+                Item item = itemUIRegistry.getItem(groupName);
+                if (item instanceof GroupItem) {
+                    chartItems.addAll(((GroupItem) item).getMembers());
+                } else {
+                    throw new ItemNotFoundException("Item '" + item.getName() + "' defined in groups is not a group.");
+                }
+            }
+        }
+        return chartItems;
+    }
+
+    private BufferedImage renderChart(QueryablePersistenceService persistenceService, String theme, Date startTime,
+            Date endTime, int height, int width, List<Item> chartItems, Integer dpiValue, Boolean legend) {
         int seriesCounter = 0;
 
         // get theme
@@ -197,33 +316,9 @@ public class DefaultChartProvider implements ChartProvider {
         chart.getStyleManager().setLegendFont(chartTheme.getLegendFont(dpi));
         chart.getStyleManager().setLegendSeriesLineLength(chartTheme.getLegendSeriesLineLength(dpi));
 
-        // Loop through all the items
-        if (items != null) {
-            String[] itemNames = items.split(",");
-            for (String itemName : itemNames) {
-                Item item = itemUIRegistry.getItem(itemName);
-                if (addItem(chart, persistenceService, startTime, endTime, item, seriesCounter, chartTheme, dpi)) {
-                    seriesCounter++;
-                }
-            }
-        }
-
-        // Loop through all the groups and add each item from each group
-        if (groups != null) {
-            String[] groupNames = groups.split(",");
-            for (String groupName : groupNames) {
-                Item item = itemUIRegistry.getItem(groupName);
-                if (item instanceof GroupItem) {
-                    GroupItem groupItem = (GroupItem) item;
-                    for (Item member : groupItem.getMembers()) {
-                        if (addItem(chart, persistenceService, startTime, endTime, member, seriesCounter, chartTheme,
-                                dpi)) {
-                            seriesCounter++;
-                        }
-                    }
-                } else {
-                    throw new ItemNotFoundException("Item '" + item.getName() + "' defined in groups is not a group.");
-                }
+        for (Item item : chartItems) {
+            if (addItem(chart, persistenceService, startTime, endTime, item, seriesCounter, chartTheme, dpi)) {
+                seriesCounter++;
             }
         }
 
@@ -382,6 +477,22 @@ public class DefaultChartProvider implements ChartProvider {
             yData.add(yData.iterator().next());
         }
 
+        // There is no point in plotting more values than the chart has pixels. Binary states are left alone, because
+        // the downsampling would drop the replicated values and turn their steps into diagonal lines again.
+        boolean binary = state instanceof OnOffType || state instanceof OpenClosedType;
+        if (!binary && xData.size() > chart.getWidth()) {
+            int[] indices = LttbDownsampler.downsample(xData, yData, chart.getWidth());
+            List<Date> sampledXData = new ArrayList<>(indices.length);
+            List<Number> sampledYData = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                sampledXData.add(xData.get(index));
+                sampledYData.add(yData.get(index));
+            }
+            logger.trace("Downsampled {} values of item '{}' to {}", xData.size(), item.getName(), indices.length);
+            xData = sampledXData;
+            yData = sampledYData;
+        }
+
         Series series = chart.addSeries(label, xData, yData);
         float lineWidth = (float) chartTheme.getLineWidth(dpi);
         series.setLineStyle(new BasicStroke(lineWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_MITER));
@@ -434,4 +545,46 @@ public class DefaultChartProvider implements ChartProvider {
         return chartTheme;
     }
 
+    /**
+     * A rendered chart together with the data it has been rendered from.
+     */
+    private static class CachedChart {
+        private final BufferedImage image;
+        private final long startTime;
+        private final long endTime;
+        private final long created = System.currentTimeMillis();
+        private final List<State> itemStates;
+
+        CachedChart(BufferedImage image, Date startTime, Date endTime, List<State> itemStates) {
+            this.image = image;
+            this.startTime = startTime.getTime();
+            this.endTime = endTime.getTime();
+            this.itemStates = itemStates;
+        }
+
+        boolean matches(Date startTime, Date endTime, List<State> itemStates, long tolerance) {
+            return Math.abs(startTime.getTime() - this.startTime) <= tolerance
+                    && Math.abs(endTime.getTime() - this.endTime) <= tolerance
+                    && System.currentTimeMillis() - created <= tolerance && this.itemStates.equals(itemStates);
+        }
+    }
+
+    private static class PendingChart {
+        private final CompletableFuture<BufferedImage> image = new CompletableFuture<>();
+        private final long startTime;
+        private final long endTime;
+        private final List<State> itemStates;
+
+        PendingChart(Date startTime, Date endTime, List<State> itemStates) {
+            this.startTime = startTime.getTime();
+            this.endTime = endTime.getTime();
+            this.itemStates = itemStates;
+        }
+
+        boolean matches(Date startTime, Date endTime, List<State> itemStates, long tolerance) {
+            return Math.abs(startTime.getTime() - this.startTime) <= tolerance
+                    && Math.abs(endTime.getTime() - this.endTime) <= tolerance && this.itemStates.equals(itemStates);
+        }
+    }
+
 }
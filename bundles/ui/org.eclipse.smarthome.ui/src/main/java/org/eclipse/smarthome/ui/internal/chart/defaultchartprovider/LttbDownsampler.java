@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.internal.chart.defaultchartprovider;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Reduces a time series to a given number of points with the largest-triangle-three-buckets algorithm (S. Steinarsson,
+ * Downsampling Time Series for Visual Representation, 2013), which keeps the visual shape of the series. A chart
+ * cannot show more points than it is wide anyway, but plotting them all takes time for long periods.
+ *
+ * @author agent - Initial contribution
+ */
+class LttbDownsampler {
+
+    private LttbDownsampler() {
+        // only static methods
+    }
+
+    /**
+     * Selects the points of a time series that should be plotted.
+     *
+     * @param xData the timestamps of the series
+     * @param yData the values of the series, of the same size as the timestamps
+     * @param threshold the maximum number of points to select
+     * @return the ascending indices of the selected points
+     */
+    static int[] downsample(List<Date> xData, List<Number> yData, int threshold) {
+        int size = xData.size();
+        if (threshold < 3 || size <= threshold) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        // relative timestamps, so that the areas do not lose precision
+        long origin = xData.get(0).getTime();
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = xData.get(i).getTime() - origin;
+            y[i] = yData.get(i).doubleValue();
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledCount = 0;
+
+        // the first and the last point are always kept, the others are split into equally sized buckets
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        sampled[sampledCount++] = a;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // the average of the next bucket is the third point of the triangle
+            int avgStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int avgLength = avgEnd - avgStart;
+            if (avgLength > 0) {
+                avgX /= avgLength;
+                avgY /= avgLength;
+            } else {
+                avgX = x[size - 1];
+                avgY = y[size - 1];
+            }
+
+            // select the point of the current bucket that forms the largest triangle with the previously selected one
+            int rangeStart = (int) Math.floor(i * bucketSize) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled[sampledCount++] = next;
+            a = next;
+        }
+
+        sampled[sampledCount++] = size - 1;
+        return sampled;
+    }
+
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -122,6 +123,12 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
 
     private static final Pattern LABEL_PATTERN = Pattern.compile(".*?\\[.*? (.*?)\\]");
 
+    /*
+     * Format patterns are taken from sitemap widget labels and item labels, which users can edit at any time. The
+     * limit keeps patterns that are no longer used from piling up; once it is reached, the cache starts over.
+     */
+    private static final int MAX_COMPILED_FORMAT_PATTERNS = 1000;
+
     protected Set<ItemUIProvider> itemUIProviders = new HashSet<ItemUIProvider>();
 
     protected ItemRegistry itemRegistry;
@@ -130,6 +137,8 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
 
     private final Map<Widget, Widget> defaultWidgets = Collections.synchronizedMap(new WeakHashMap<Widget, Widget>());
 
+    private final Map<String, CompiledFormatPattern> compiledFormatPatterns = new ConcurrentHashMap<>();
+
     public ItemUIRegistryImpl() {
     }
 
@@ -355,7 +364,7 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
 
                     // for fraction digits in state we dont want to risk format exceptions,
                     // so treat everything as floats:
-                    formatPattern = formatPattern.replaceAll("\\%d", "%.0f");
+                    formatPattern = compileFormatPattern(formatPattern).floatPattern;
                 }
             }
         } catch (ItemNotFoundException e) {
@@ -367,7 +376,7 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
                 label = label.substring(0, label.indexOf("[")).trim();
             } else {
                 if (state == null || state instanceof UnDefType) {
-                    formatPattern = formatUndefined(formatPattern);
+                    formatPattern = compileFormatPattern(formatPattern).getUndefinedValue();
                 } else if (state instanceof Type) {
                     // if the channel contains options, we build a label with the mapped option value
                     if (stateDescription != null && stateDescription.getOptions() != null) {
@@ -395,7 +404,7 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
                         // sanity convert current state to the item state description unit in case it was updated in the
                         // meantime. The item state is still in the "original" unit while the state description will
                         // display the new unit:
-                        Unit<?> patternUnit = UnitUtils.parseUnit(formatPattern);
+                        Unit<?> patternUnit = compileFormatPattern(formatPattern).unit;
                         if (patternUnit != null && !quantityState.getUnit().equals(patternUnit)) {
                             quantityState = quantityState.toUnit(patternUnit);
                         }
@@ -427,7 +436,8 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
     }
 
     private QuantityType<?> convertStateToWidgetUnit(QuantityType<?> quantityState, @NonNull Widget w) {
-        Unit<?> widgetUnit = UnitUtils.parseUnit(getFormatPattern(w.getLabel()));
+        String widgetPattern = getFormatPattern(w.getLabel());
+        Unit<?> widgetUnit = widgetPattern != null ? compileFormatPattern(widgetPattern).unit : null;
         if (widgetUnit != null && !widgetUnit.equals(quantityState.getUnit())) {
             return quantityState.toUnit(widgetUnit);
         }
@@ -501,8 +511,9 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
     private String transform(String label, String labelMappedOption) {
         String ret = label;
         if (getFormatPattern(label) != null) {
-            Matcher matcher = EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(label);
-            if (matcher.find()) {
+            // a transformation requires at least "(...):" within the label, so skip the regex if there is none
+            Matcher matcher = label.contains("):") ? EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(label) : null;
+            if (matcher != null && matcher.find()) {
                 String type = matcher.group(1);
                 String pattern = matcher.group(2);
                 String value = matcher.group(3);
@@ -538,12 +549,9 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
     private String fillFormatPattern(String formatPattern, Type state) throws IllegalArgumentException {
         String ret = formatPattern;
         if (ret != null && state != null) {
-            Matcher matcher = EXTRACT_TRANSFORMFUNCTION_PATTERN_WITHOUT_SQUARE_BRACKETS.matcher(ret);
-            if (matcher.find()) {
-                String type = matcher.group(1);
-                String pattern = matcher.group(2);
-                String value = matcher.group(3);
-                ret = type + "(" + pattern + "):" + state.format(value);
+            CompiledFormatPattern compiledPattern = compileFormatPattern(formatPattern);
+            if (compiledPattern.transformationPrefix != null) {
+                ret = compiledPattern.transformationPrefix + state.format(compiledPattern.transformationValueFormat);
             } else {
                 ret = state.format(formatPattern);
             }
@@ -551,6 +559,67 @@ public class ItemUIRegistryImpl implements ItemUIRegistry {
         return ret;
     }
 
+    /**
+     * Returns the compiled form of the given format pattern, i.e. all parts of the pattern that do not depend on the
+     * current state are resolved once and then taken from the cache. As the cache is keyed by the pattern itself,
+     * changed labels or state descriptions simply result in a different entry.
+     *
+     * @param formatPattern the format pattern (the part of a label within the square brackets)
+     * @return the compiled format pattern
+     */
+    private CompiledFormatPattern compileFormatPattern(String formatPattern) {
+        CompiledFormatPattern compiledPattern = compiledFormatPatterns.get(formatPattern);
+        if (compiledPattern == null) {
+            compiledPattern = new CompiledFormatPattern(formatPattern);
+            if (compiledFormatPatterns.size() >= MAX_COMPILED_FORMAT_PATTERNS) {
+                compiledFormatPatterns.clear();
+            }
+            compiledFormatPatterns.put(formatPattern, compiledPattern);
+        }
+        return compiledPattern;
+    }
+
+    /**
+     * The state independent parts of a format pattern, resolved once.
+     */
+    private class CompiledFormatPattern {
+        private final String formatPattern;
+        /* the pattern with %d replaced by %.0f */
+        private final String floatPattern;
+        /* the pattern as displayed for an undefined state, resolved on first use */
+        private volatile @Nullable String undefinedValue;
+        /* the unit defined in the pattern, if any */
+        private final @Nullable Unit<?> unit;
+        /* the "TYPE(function):" prefix of a transformation, if any */
+        private final @Nullable String transformationPrefix;
+        /* the format which is applied to the state before it is passed into the transformation */
+        private final @Nullable String transformationValueFormat;
+
+        private CompiledFormatPattern(String formatPattern) {
+            this.formatPattern = formatPattern;
+            floatPattern = formatPattern.contains("%d") ? formatPattern.replaceAll("\\%d", "%.0f") : formatPattern;
+            unit = UnitUtils.parseUnit(formatPattern);
+
+            Matcher matcher = EXTRACT_TRANSFORMFUNCTION_PATTERN_WITHOUT_SQUARE_BRACKETS.matcher(formatPattern);
+            if (matcher.find()) {
+                transformationPrefix = matcher.group(1) + "(" + matcher.group(2) + "):";
+                transformationValueFormat = matcher.group(3);
+            } else {
+                transformationPrefix = null;
+                transformationValueFormat = null;
+            }
+        }
+
+        private String getUndefinedValue() {
+            String value = undefinedValue;
+            if (value == null) {
+                value = formatUndefined(formatPattern);
+                undefinedValue = value;
+            }
+            return value;
+        }
+    }
+
     @Override
     public String getCategory(Widget w) {
         String widgetTypeName = w.eClass().getInstanceTypeName()
@@ -12,9 +12,11 @@
  */
 package org.eclipse.smarthome.ui.internal.proxy;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -27,6 +29,7 @@ import org.eclipse.jetty.util.ssl.SslContextFactory;
  * servlets. It depends on Servlet API 3.0 or later.
  *
  * @author John Cocula - new version that uses Jetty proxy classes
+ * @author agent - Serve images and videos from shared snapshots and streams
  */
 public class AsyncProxyServlet extends org.eclipse.jetty.proxy.AsyncProxyServlet {
 
@@ -52,19 +55,24 @@ public class AsyncProxyServlet extends org.eclipse.jetty.proxy.AsyncProxyServlet
         return new HttpClient(new SslContextFactory());
     }
 
+    /**
+     * Serve images from the shared snapshot cache and videos from a shared stream, only content that cannot be shared
+     * is proxied directly. Videos are streamed asynchronously, so that they do not occupy a thread while being watched.
+     */
     @Override
-    protected void sendProxyRequest(HttpServletRequest clientRequest, HttpServletResponse proxyResponse,
-            Request proxyRequest) {
-        if (service.proxyingVideoWidget(clientRequest)) {
-            // We disable the timeout for video
-            proxyRequest.timeout(0, TimeUnit.MILLISECONDS);
-
-            // We request the browser to not cache the video
-            proxyResponse.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
-            proxyResponse.setHeader("Pragma", "no-cache");
-            proxyResponse.setHeader("Expires", "0");
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        URI uri = service.uriFromRequest(request);
+        if (uri != null && "GET".equals(request.getMethod())) {
+            if (service.proxyingVideoWidget(request)) {
+                service.getStreamDistributor().stream(uri, request.startAsync());
+                return;
+            }
+            if (service.getSnapshotCache().sendSnapshot(uri, response)) {
+                return;
+            }
         }
-        super.sendProxyRequest(clientRequest, proxyResponse, proxyRequest);
+        super.service(request, response);
     }
 
     /**
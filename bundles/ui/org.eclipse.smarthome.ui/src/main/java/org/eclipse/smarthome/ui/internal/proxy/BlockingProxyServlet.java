@@ -41,6 +41,7 @@ import org.slf4j.LoggerFactory;
  * @author Kai Kreuzer - Initial contribution and API
  * @author Svilen Valkanov - Replaced Apache HttpClient with Jetty
  * @author John Cocula - refactored to support alternate implementation
+ * @author agent - Serve images and videos from shared snapshots and streams
  */
 public class BlockingProxyServlet extends HttpServlet {
 
@@ -79,7 +80,9 @@ public class BlockingProxyServlet extends HttpServlet {
 
         if (uri == null) {
             service.sendError(request, response);
-        } else {
+        } else if (service.proxyingVideoWidget(request)) {
+            service.getStreamDistributor().stream(uri, response);
+        } else if (!service.getSnapshotCache().sendSnapshot(uri, response)) {
             Request httpRequest = httpClient.newRequest(uri);
 
             service.maybeAppendAuthHeader(uri, httpRequest);
@@ -17,8 +17,12 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.Servlet;
 import javax.servlet.ServletException;
@@ -27,10 +31,14 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.util.B64Code;
 import org.eclipse.jetty.util.StringUtil;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.model.core.ModelRepository;
@@ -72,8 +80,13 @@ import org.slf4j.LoggerFactory;
  *
  * This servlet also supports data streams, such as a webcam video stream etc.
  *
+ * Images are fetched only once for all clients that request them at about the same time and MJPEG streams are
+ * distributed to all their clients from a single upstream connection, so that cameras are not overloaded by many
+ * clients.
+ *
  * @author Kai Kreuzer - Initial contribution and API
  * @author John Cocula - added optional Image/Video item= support; refactored to allow use of later spec servlet
+ * @author agent - Share snapshots and streams between clients
  */
 @Component(immediate = true, property = { "service.pid=org.eclipse.smarthome.proxy" })
 public class ProxyServletService extends HttpServlet {
@@ -86,12 +99,21 @@ public class ProxyServletService extends HttpServlet {
     public static final String ATTR_URI = ProxyServletService.class.getName() + ".URI";
     public static final String ATTR_SERVLET_EXCEPTION = ProxyServletService.class.getName() + ".ProxyServletException";
 
+    /** Headers of the upstream response that are not passed to the client */
+    private static final Set<HttpHeader> HOP_BY_HOP_HEADERS = Collections
+            .unmodifiableSet(new HashSet<>(Arrays.asList(HttpHeader.CONNECTION, HttpHeader.KEEP_ALIVE,
+                    HttpHeader.TRANSFER_ENCODING, HttpHeader.CONTENT_LENGTH, HttpHeader.CONTENT_ENCODING)));
+
     private final Logger logger = LoggerFactory.getLogger(ProxyServletService.class);
 
     private static final long serialVersionUID = -4716754591953017793L;
 
     private Servlet impl;
 
+    private final HttpClient httpClient = new HttpClient(new SslContextFactory());
+    private final SnapshotCache snapshotCache = new SnapshotCache(this, httpClient);
+    private final StreamDistributor streamDistributor = new StreamDistributor(this, httpClient);
+
     protected HttpService httpService;
     protected ItemUIRegistry itemUIRegistry;
     protected ModelRepository modelRepository;
@@ -165,6 +187,11 @@ public class ProxyServletService extends HttpServlet {
 
     @Activate
     protected void activate(Map<String, Object> config) {
+        try {
+            httpClient.start();
+        } catch (Exception e) {
+            logger.warn("Cannot start HttpClient!", e);
+        }
         try {
             Servlet servlet = getImpl();
 
@@ -184,6 +211,19 @@ public class ProxyServletService extends HttpServlet {
         } catch (IllegalArgumentException e) {
             // ignore, had not been registered before
         }
+        try {
+            httpClient.stop();
+        } catch (Exception e) {
+            logger.debug("Cannot stop HttpClient: {}", e.getMessage());
+        }
+    }
+
+    SnapshotCache getSnapshotCache() {
+        return snapshotCache;
+    }
+
+    StreamDistributor getStreamDistributor() {
+        return streamDistributor;
     }
 
     /**
@@ -323,6 +363,21 @@ public class ProxyServletService extends HttpServlet {
         }
     }
 
+    /**
+     * Copy the headers of an upstream response to the client response, except for the ones that only concern the
+     * upstream connection.
+     *
+     * @param headers the headers of the upstream response
+     * @param response the response to the client
+     */
+    void copyResponseHeaders(HttpFields headers, HttpServletResponse response) {
+        for (HttpField header : headers) {
+            if (!HOP_BY_HOP_HEADERS.contains(header.getHeader())) {
+                response.addHeader(header.getName(), header.getValue());
+            }
+        }
+    }
+
     /**
      * Determine if the request is relative to a video widget.
      *
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.internal.proxy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.BufferingResponseListener;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SnapshotCache} fetches the content of image widgets for the proxy servlets. Concurrent requests for the
+ * same URI share a single upstream request and a successful response is served from memory for a short time, so that
+ * a camera is not queried by every client that refreshes its snapshot.
+ *
+ * Content that is too large or a multipart stream (e.g. MJPEG) is not cached and has to be proxied as before. Its URI
+ * is remembered for {@link #UNCACHEABLE_TIME}, so that it is not fetched twice for every request.
+ *
+ * @author agent - Initial contribution
+ */
+class SnapshotCache {
+
+    /** Time in ms for which a fetched snapshot is served to other clients */
+    private static final long CACHE_TIME = 1000;
+
+    /** Maximum size in bytes of a snapshot that is kept in memory */
+    private static final int MAX_SNAPSHOT_SIZE = 4 * 1024 * 1024;
+
+    /** Maximum number of snapshots that are kept in memory */
+    private static final int MAX_SNAPSHOTS = 16;
+
+    /** Time in ms for which the content of an URI is proxied without trying to cache it again */
+    private static final long UNCACHEABLE_TIME = 10 * 60 * 1000;
+
+    /** Maximum number of URIs that are remembered to be uncacheable */
+    private static final int MAX_UNCACHEABLE_URIS = 100;
+
+    /** Timeout for HTTP requests in ms */
+    private static final int TIMEOUT = 15000;
+
+    private final Logger logger = LoggerFactory.getLogger(SnapshotCache.class);
+
+    private final ProxyServletService service;
+    private final HttpClient httpClient;
+
+    private final Map<URI, Snapshot> snapshots = new ConcurrentHashMap<>();
+    // the time until which the content of an URI is not tried to be cached
+    private final Map<URI, Long> uncacheableUris = new ConcurrentHashMap<>();
+
+    SnapshotCache(ProxyServletService service, HttpClient httpClient) {
+        this.service = service;
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Sends the content of the given URI to the client, either from the cache or from a (shared) upstream request.
+     *
+     * @param uri the URI to proxy
+     * @param response the response to send the content to
+     * @return false, if the content cannot be cached and has to be proxied instead
+     * @throws IOException if the response cannot be written
+     */
+    boolean sendSnapshot(URI uri, HttpServletResponse response) throws IOException {
+        Long uncacheableUntil = uncacheableUris.get(uri);
+        if (uncacheableUntil != null) {
+            if (System.currentTimeMillis() < uncacheableUntil) {
+                return false;
+            }
+            uncacheableUris.remove(uri, uncacheableUntil);
+        }
+
+        // expired snapshots are not kept in memory until their URI is requested again
+        snapshots.values().removeIf(cached -> !cached.isValid());
+        if (snapshots.size() >= MAX_SNAPSHOTS) {
+            snapshots.clear();
+        }
+
+        Snapshot snapshot = snapshots.compute(uri, (key, existing) -> existing != null && existing.isValid() ? existing
+                : fetch(key));
+        try {
+            SnapshotContent content = snapshot.content.get();
+            if (content.status != HttpServletResponse.SC_OK) {
+                // only share errors with the concurrent requests
+                snapshots.remove(uri, snapshot);
+            }
+            response.setStatus(content.status);
+            service.copyResponseHeaders(content.headers, response);
+            response.setContentLength(content.body.length);
+            response.getOutputStream().write(content.body);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return true;
+        } catch (ExecutionException e) {
+            snapshots.remove(uri, snapshot);
+            Throwable cause = e.getCause();
+            if (cause instanceof UncacheableContentException) {
+                logger.debug("Content of '{}' cannot be cached, it will be proxied", uri);
+                if (uncacheableUris.size() >= MAX_UNCACHEABLE_URIS) {
+                    uncacheableUris.clear();
+                }
+                uncacheableUris.put(uri, System.currentTimeMillis() + UNCACHEABLE_TIME);
+                return false;
+            } else if (cause instanceof TimeoutException) {
+                logger.warn("Proxy servlet failed to fetch content due to a timeout");
+                response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+            } else {
+                logger.warn("Proxy servlet failed to fetch content: {}", cause.getMessage());
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, cause.getMessage());
+            }
+            return true;
+        }
+    }
+
+    private Snapshot fetch(URI uri) {
+        Snapshot snapshot = new Snapshot();
+
+        Request request = httpClient.newRequest(uri).timeout(TIMEOUT, TimeUnit.MILLISECONDS);
+        service.maybeAppendAuthHeader(uri, request);
+        request.send(new BufferingResponseListener(MAX_SNAPSHOT_SIZE) {
+            @Override
+            public void onHeaders(Response response) {
+                String contentType = response.getHeaders().get(HttpHeader.CONTENT_TYPE);
+                if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) {
+                    response.abort(new UncacheableContentException());
+                    return;
+                }
+                if (response.getHeaders().getLongField(HttpHeader.CONTENT_LENGTH.asString()) > MAX_SNAPSHOT_SIZE) {
+                    response.abort(new UncacheableContentException());
+                    return;
+                }
+                super.onHeaders(response);
+            }
+
+            @Override
+            public void onComplete(Result result) {
+                if (result.isFailed()) {
+                    snapshot.content.completeExceptionally(result.getFailure());
+                } else {
+                    Response response = result.getResponse();
+                    snapshot.completed = System.currentTimeMillis();
+                    snapshot.content.complete(
+                            new SnapshotContent(response.getStatus(), response.getHeaders(), getContent()));
+                }
+            }
+        });
+        return snapshot;
+    }
+
+    private static class Snapshot {
+        private final CompletableFuture<SnapshotContent> content = new CompletableFuture<>();
+        private volatile long completed;
+
+        /**
+         * A snapshot is valid while it is fetched and for {@link SnapshotCache#CACHE_TIME} afterwards.
+         */
+        boolean isValid() {
+            return !content.isDone()
+                    || !content.isCompletedExceptionally() && System.currentTimeMillis() - completed < CACHE_TIME;
+        }
+    }
+
+    private static class SnapshotContent {
+        private final int status;
+        private final HttpFields headers;
+        private final byte[] body;
+
+        SnapshotContent(int status, HttpFields headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private static class UncacheableContentException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UncacheableContentException() {
+            super("Content cannot be cached");
+        }
+    }
+
+}
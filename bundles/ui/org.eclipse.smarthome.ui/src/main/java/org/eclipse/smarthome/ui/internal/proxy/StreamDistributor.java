@@ -0,0 +1,464 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.internal.proxy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link StreamDistributor} proxies the streams of video widgets. All clients that watch the same MJPEG stream
+ * share a single upstream connection, which is closed when the last client leaves.
+ *
+ * Streams of other content types cannot be joined in the middle, so they are only shared by clients that connected
+ * before any content has been received.
+ *
+ * Clients of the blocking proxy servlet are served by their request thread. Clients of the asynchronous proxy servlet
+ * are served with non-blocking writes, so that watching a stream does not occupy a thread of the HTTP server.
+ *
+ * @author agent - Initial contribution
+ */
+class StreamDistributor {
+
+    /** Timeout in ms for receiving the response headers of the upstream server */
+    private static final int TIMEOUT = 15000;
+
+    /** Maximum number of bytes queued for a client, before it is considered too slow and disconnected */
+    private static final long MAX_QUEUED_BYTES = 2 * 1024 * 1024;
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private static final String THREADPOOL_NAME = "proxy";
+
+    private final Logger logger = LoggerFactory.getLogger(StreamDistributor.class);
+
+    private final ProxyServletService service;
+    private final HttpClient httpClient;
+
+    private final Map<URI, SharedStream> streams = new ConcurrentHashMap<>();
+
+    StreamDistributor(ProxyServletService service, HttpClient httpClient) {
+        this.service = service;
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Streams the content of the given URI to the client. This method blocks until the client or the upstream server
+     * closes the connection.
+     *
+     * @param uri the URI to proxy
+     * @param response the response to stream the content to
+     * @throws IOException if the response cannot be written
+     */
+    void stream(URI uri, HttpServletResponse response) throws IOException {
+        Subscriber subscriber = new Subscriber();
+        SharedStream stream = subscribe(uri, subscriber);
+
+        try {
+            Response upstreamResponse = stream.headers.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            sendHeaders(upstreamResponse, response);
+
+            ServletOutputStream outputStream = response.getOutputStream();
+            response.flushBuffer();
+            byte[] chunk;
+            while ((chunk = subscriber.take()) != END_OF_STREAM) {
+                outputStream.write(chunk);
+                if (subscriber.isEmpty()) {
+                    outputStream.flush();
+                }
+            }
+        } catch (TimeoutException e) {
+            logger.warn("Proxy servlet failed to stream content due to a timeout");
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+        } catch (ExecutionException e) {
+            logger.warn("Proxy servlet failed to stream content: {}", e.getCause().getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // the client has closed the connection
+            logger.debug("Stopped streaming '{}' to a client: {}", uri, e.getMessage());
+        } finally {
+            stream.unsubscribe(subscriber);
+        }
+    }
+
+    /**
+     * Streams the content of the given URI to the client of an asynchronous request. This method returns right away,
+     * the content is written with non-blocking I/O and the request is completed when the client or the upstream server
+     * closes the connection.
+     *
+     * @param uri the URI to proxy
+     * @param asyncContext the started asynchronous request
+     */
+    void stream(URI uri, AsyncContext asyncContext) {
+        asyncContext.setTimeout(0);
+        new AsyncClient(uri, asyncContext).start();
+    }
+
+    private SharedStream subscribe(URI uri, Subscriber subscriber) {
+        SharedStream stream = streams.compute(uri,
+                (key, existing) -> existing != null && existing.subscribe(subscriber) ? existing
+                        : new SharedStream(key, subscriber));
+        stream.start();
+        return stream;
+    }
+
+    private void sendHeaders(Response upstreamResponse, HttpServletResponse response) {
+        response.setStatus(upstreamResponse.getStatus());
+        service.copyResponseHeaders(upstreamResponse.getHeaders(), response);
+
+        // We request the browser to not cache the video
+        response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+        response.setHeader("Pragma", "no-cache");
+        response.setHeader("Expires", "0");
+    }
+
+    /**
+     * A client of the asynchronous proxy servlet, which is written to whenever content is queued and the connection to
+     * the client can take it.
+     */
+    private class AsyncClient implements WriteListener, AsyncListener {
+        private final URI uri;
+        private final AsyncContext asyncContext;
+        private final HttpServletResponse response;
+        private final Subscriber subscriber = new Subscriber(this::write);
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private SharedStream stream;
+        private volatile ServletOutputStream outputStream;
+        private boolean flushNeeded;
+
+        AsyncClient(URI uri, AsyncContext asyncContext) {
+            this.uri = uri;
+            this.asyncContext = asyncContext;
+            this.response = (HttpServletResponse) asyncContext.getResponse();
+        }
+
+        void start() {
+            stream = subscribe(uri, subscriber);
+            asyncContext.addListener(this);
+
+            ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREADPOOL_NAME);
+            ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+                logger.warn("Proxy servlet failed to stream content due to a timeout");
+                sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, null);
+            }, TIMEOUT, TimeUnit.MILLISECONDS);
+
+            stream.headers.whenComplete((upstreamResponse, failure) -> {
+                if (!timeout.cancel(false) || finished.get()) {
+                    return;
+                }
+                if (failure != null) {
+                    logger.warn("Proxy servlet failed to stream content: {}", failure.getMessage());
+                    sendError(HttpServletResponse.SC_BAD_REQUEST, failure.getMessage());
+                    return;
+                }
+                try {
+                    sendHeaders(upstreamResponse, response);
+                    outputStream = response.getOutputStream();
+                    // the container calls onWritePossible as soon as the client can take content
+                    outputStream.setWriteListener(this);
+                } catch (IOException | RuntimeException e) {
+                    logger.debug("Stopped streaming '{}' to a client: {}", uri, e.getMessage());
+                    finish();
+                }
+            });
+        }
+
+        @Override
+        public void onWritePossible() {
+            write();
+        }
+
+        /**
+         * Writes the queued content until the connection cannot take more. Called by the container when the client
+         * can take content, and by the upstream connection when content is queued. Only one thread writes at a time,
+         * if another thread queued content or the client became ready meanwhile, the writing thread continues.
+         */
+        private void write() {
+            ServletOutputStream outputStream = this.outputStream;
+            if (outputStream == null) {
+                // the headers have not been sent yet, the content is written once they are
+                return;
+            }
+            do {
+                if (!writing.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    writeQueuedContent(outputStream);
+                } catch (IOException | RuntimeException e) {
+                    // the client has closed the connection
+                    logger.debug("Stopped streaming '{}' to a client: {}", uri, e.getMessage());
+                    finish();
+                    return;
+                } finally {
+                    writing.set(false);
+                }
+            } while (!finished.get() && !subscriber.isEmpty() && outputStream.isReady());
+        }
+
+        private void writeQueuedContent(ServletOutputStream outputStream) throws IOException {
+            while (!finished.get() && outputStream.isReady()) {
+                byte[] chunk = subscriber.poll();
+                if (chunk == null) {
+                    if (!flushNeeded) {
+                        return;
+                    }
+                    flushNeeded = false;
+                    outputStream.flush();
+                } else if (chunk == END_OF_STREAM) {
+                    finish();
+                } else {
+                    outputStream.write(chunk);
+                    flushNeeded = true;
+                }
+            }
+        }
+
+        private void sendError(int status, String message) {
+            if (finished.get()) {
+                return;
+            }
+            try {
+                if (message != null) {
+                    response.sendError(status, message);
+                } else {
+                    response.sendError(status);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Failed to send error to client of stream '{}': {}", uri, e.getMessage());
+            }
+            finish();
+        }
+
+        private void finish() {
+            if (finished.compareAndSet(false, true)) {
+                stream.unsubscribe(subscriber);
+                asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.debug("Stopped streaming '{}' to a client: {}", uri, t.getMessage());
+            finish();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (finished.compareAndSet(false, true)) {
+                stream.unsubscribe(subscriber);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onError(event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * A single upstream connection, whose content is distributed to all subscribed clients.
+     */
+    private class SharedStream {
+        private final URI uri;
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final CompletableFuture<Response> headers = new CompletableFuture<>();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile Request request;
+        private boolean shareable = true;
+        private boolean contentReceived;
+        private boolean closed;
+
+        SharedStream(URI uri, Subscriber subscriber) {
+            this.uri = uri;
+            subscribers.add(subscriber);
+        }
+
+        void start() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            logger.debug("Opening stream '{}'", uri);
+            Request request = httpClient.newRequest(uri).timeout(0, TimeUnit.MILLISECONDS);
+            service.maybeAppendAuthHeader(uri, request);
+            this.request = request;
+            request.onResponseHeaders(response -> {
+                String contentType = response.getHeaders().get(HttpHeader.CONTENT_TYPE);
+                synchronized (this) {
+                    shareable = contentType != null && contentType.toLowerCase().startsWith("multipart/");
+                }
+                headers.complete(response);
+            }).onResponseContent((response, buffer) -> {
+                byte[] chunk = new byte[buffer.remaining()];
+                buffer.get(chunk);
+                distribute(chunk);
+            }).send(result -> close(result.getFailure()));
+        }
+
+        synchronized boolean subscribe(Subscriber subscriber) {
+            if (closed || (contentReceived && !shareable)) {
+                return false;
+            }
+            subscribers.add(subscriber);
+            return true;
+        }
+
+        void unsubscribe(Subscriber subscriber) {
+            Request request;
+            synchronized (this) {
+                subscribers.remove(subscriber);
+                if (!subscribers.isEmpty() || closed) {
+                    return;
+                }
+                closed = true;
+                request = this.request;
+            }
+            // not removed while holding the lock, the map holds its own lock while subscribing
+            streams.remove(uri, this);
+            logger.debug("Closing stream '{}', no more clients", uri);
+            if (request != null) {
+                request.abort(new IOException("No more clients"));
+            }
+        }
+
+        private void distribute(byte[] chunk) {
+            List<Subscriber> receivers;
+            synchronized (this) {
+                contentReceived = true;
+                receivers = new ArrayList<>(subscribers);
+                for (Subscriber subscriber : receivers) {
+                    if (!subscriber.offer(chunk)) {
+                        logger.debug("Client of stream '{}' is too slow, disconnecting it", uri);
+                        subscribers.remove(subscriber);
+                    }
+                }
+            }
+            // not notified while holding the lock, a client might unsubscribe right away
+            receivers.forEach(Subscriber::notifyListener);
+        }
+
+        private void close(Throwable failure) {
+            List<Subscriber> receivers;
+            synchronized (this) {
+                closed = true;
+                receivers = new ArrayList<>(subscribers);
+                for (Subscriber subscriber : receivers) {
+                    subscriber.end();
+                }
+            }
+            receivers.forEach(Subscriber::notifyListener);
+            streams.remove(uri, this);
+            headers.completeExceptionally(failure != null ? failure : new IOException("Stream has been closed"));
+        }
+    }
+
+    /**
+     * The content of a stream that still needs to be sent to a client.
+     */
+    private static class Subscriber {
+        private final BlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+        private final AtomicLong queuedBytes = new AtomicLong();
+        private final Runnable contentListener;
+
+        Subscriber() {
+            this(() -> {
+            });
+        }
+
+        /**
+         * @param contentListener called after content or the end of the stream has been queued
+         */
+        Subscriber(Runnable contentListener) {
+            this.contentListener = contentListener;
+        }
+
+        boolean offer(byte[] chunk) {
+            if (queuedBytes.addAndGet(chunk.length) > MAX_QUEUED_BYTES) {
+                queue.clear();
+                end();
+                return false;
+            }
+            queue.offer(chunk);
+            return true;
+        }
+
+        void end() {
+            queue.offer(END_OF_STREAM);
+        }
+
+        void notifyListener() {
+            contentListener.run();
+        }
+
+        byte[] take() throws InterruptedException {
+            byte[] chunk = queue.take();
+            queuedBytes.addAndGet(-chunk.length);
+            return chunk;
+        }
+
+        byte[] poll() {
+            byte[] chunk = queue.poll();
+            if (chunk != null) {
+                queuedBytes.addAndGet(-chunk.length);
+            }
+            return chunk;
+        }
+
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+    }
+
+}
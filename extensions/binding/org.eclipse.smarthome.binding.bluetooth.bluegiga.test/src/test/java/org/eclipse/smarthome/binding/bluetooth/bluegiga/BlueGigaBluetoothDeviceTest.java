@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.bluetooth.bluegiga;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.eclipse.smarthome.binding.bluetooth.BluetoothAddress;
+import org.eclipse.smarthome.binding.bluetooth.BluetoothDeviceListener;
+import org.eclipse.smarthome.binding.bluetooth.bluegiga.handler.BlueGigaBridgeHandler;
+import org.eclipse.smarthome.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaScanResponseEvent;
+import org.eclipse.smarthome.binding.bluetooth.bluegiga.internal.enumeration.BluetoothAddressType;
+import org.eclipse.smarthome.binding.bluetooth.notification.BluetoothScanNotification;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests the handling of repeated advertisements by the {@link BlueGigaBluetoothDevice}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BlueGigaBluetoothDeviceTest {
+
+    private static final String ADDRESS = "00:07:80:12:34:56";
+
+    private BlueGigaBluetoothDevice device;
+    private BluetoothDeviceListener listener;
+
+    @Before
+    public void setUp() {
+        device = new BlueGigaBluetoothDevice(mock(BlueGigaBridgeHandler.class), new BluetoothAddress(ADDRESS),
+                BluetoothAddressType.GAP_ADDRESS_TYPE_PUBLIC);
+        listener = mock(BluetoothDeviceListener.class);
+        device.addListener(listener);
+    }
+
+    @Test
+    public void testDuplicateAdvertisementStillNotifiesTheRssi() {
+        device.bluegigaEventReceived(scanResponse(-56, 'A'));
+        assertThat(device.getName(), is("A"));
+
+        // the payload of a duplicate is not parsed again
+        device.setName("X");
+        device.bluegigaEventReceived(scanResponse(-60, 'A'));
+        assertThat(device.getName(), is("X"));
+        assertThat(device.getRssi(), is(-60));
+
+        ArgumentCaptor<BluetoothScanNotification> captor = ArgumentCaptor.forClass(BluetoothScanNotification.class);
+        verify(listener, times(2)).onScanRecordReceived(captor.capture());
+        List<BluetoothScanNotification> notifications = captor.getAllValues();
+        assertThat(notifications.get(0).getRssi(), is(-56));
+        assertThat(notifications.get(1).getRssi(), is(-60));
+    }
+
+    @Test
+    public void testChangedAdvertisementIsParsed() {
+        device.bluegigaEventReceived(scanResponse(-56, 'A'));
+        device.bluegigaEventReceived(scanResponse(-56, 'B'));
+
+        assertThat(device.getName(), is("B"));
+        verify(listener, times(2)).onScanRecordReceived(any());
+    }
+
+    @Test
+    public void testAdvertisementOfOtherDeviceIsIgnored() {
+        int[] frame = frame(-56, 'A');
+        frame[6] = 0x57;
+        device.bluegigaEventReceived(new BlueGigaScanResponseEvent(frame));
+
+        verify(listener, never()).onScanRecordReceived(any());
+    }
+
+    private BlueGigaScanResponseEvent scanResponse(int rssi, char name) {
+        return new BlueGigaScanResponseEvent(frame(rssi, name));
+    }
+
+    /**
+     * Creates a connectable advertisement of {@link #ADDRESS} which contains a short name of one character.
+     */
+    private int[] frame(int rssi, char name) {
+        return new int[] { 0x80, 0x0E, 0x06, 0x00, rssi & 0xFF, 0x00, 0x56, 0x34, 0x12, 0x80, 0x07, 0x00, 0x00, 0xFF,
+                0x03, 0x02, 0x08, name };
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.bluetooth.bluegiga.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.smarthome.binding.bluetooth.bluegiga.internal.command.gap.BlueGigaScanResponseEvent;
+import org.eclipse.smarthome.binding.bluetooth.bluegiga.internal.enumeration.ScanResponseType;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the decoding of the serial stream by the {@link BlueGigaSerialHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BlueGigaSerialHandlerTest extends JavaTest {
+
+    // gap scan response event from 00:07:80:12:34:56 with rssi -56 and flags as advertisement data
+    private static final byte[] SCAN_RESPONSE = { (byte) 0x80, 0x0D, 0x06, 0x00, (byte) 0xC8, 0x00, 0x56, 0x34,
+            0x12, (byte) 0x80, 0x07, 0x00, 0x00, (byte) 0xFF, 0x02, 0x01, 0x06 };
+
+    private final List<BlueGigaResponse> events = new CopyOnWriteArrayList<>();
+    private BlueGigaSerialHandler handler;
+    private volatile boolean listening;
+
+    @After
+    public void tearDown() {
+        if (handler != null) {
+            handler.close(1000);
+        }
+    }
+
+    @Test
+    public void testFramesInOneChunk() {
+        byte[] data = new byte[SCAN_RESPONSE.length * 2];
+        System.arraycopy(SCAN_RESPONSE, 0, data, 0, SCAN_RESPONSE.length);
+        System.arraycopy(SCAN_RESPONSE, 0, data, SCAN_RESPONSE.length, SCAN_RESPONSE.length);
+
+        startHandler(new ByteArrayInputStream(data));
+
+        waitForAssert(() -> assertThat(events.size(), is(2)));
+        BlueGigaScanResponseEvent event = (BlueGigaScanResponseEvent) events.get(0);
+        assertThat(event.getSender(), is("00:07:80:12:34:56"));
+        assertThat(event.getRssi(), is(-56));
+        assertThat(event.getPacketType(), is(ScanResponseType.CONNECTABLE_ADVERTISEMENT));
+        assertThat(event.getData(), is(new int[] { 0x01, 0x06 }));
+    }
+
+    @Test
+    public void testFrameSplitAcrossChunks() {
+        // deliver at most five bytes per read
+        InputStream inputStream = new FilterInputStream(new ByteArrayInputStream(SCAN_RESPONSE)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 5));
+            }
+        };
+
+        startHandler(inputStream);
+
+        waitForAssert(() -> assertThat(events.size(), is(1)));
+        assertThat(events.get(0), is(instanceOf(BlueGigaScanResponseEvent.class)));
+    }
+
+    private void startHandler(InputStream inputStream) {
+        // hold the data back until the listener is registered
+        InputStream gatedStream = new FilterInputStream(inputStream) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return listening ? super.read(b, off, len) : -1;
+            }
+        };
+        handler = new BlueGigaSerialHandler(gatedStream, new ByteArrayOutputStream());
+        handler.addEventListener(events::add);
+        listening = true;
+    }
+
+}
@@ -12,7 +12,10 @@
  */
 package org.eclipse.smarthome.binding.bluetooth.bluegiga;
 
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.smarthome.binding.bluetooth.BluetoothAddress;
@@ -46,8 +49,12 @@ import org.slf4j.LoggerFactory;
  * An extended {@link BluetoothDevice} class to handle BlueGiga specific information
  *
  * @author Chris Jackson - Initial contribution
+ * @author agent - Suppress repeated advertisements
  */
 public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGigaEventListener {
+    // Time in milliseconds during which an unchanged advertisement is not processed again
+    private static final long DUPLICATE_ADVERTISEMENT_WINDOW = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(BlueGigaBluetoothDevice.class);
 
     // BlueGiga needs to know the address type when connecting
@@ -56,6 +63,11 @@ public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGiga
     // Used to correlate the scans so we get as much information as possible before calling the device "discovered"
     private final Set<ScanResponseType> scanResponses = new HashSet<ScanResponseType>();
 
+    // The last processed payload of each packet type, when it has been processed and the manufacturer data it contained
+    private final Map<ScanResponseType, int[]> lastScanData = new EnumMap<>(ScanResponseType.class);
+    private final Map<ScanResponseType, Long> lastScanTime = new EnumMap<>(ScanResponseType.class);
+    private final Map<ScanResponseType, byte[]> lastManufacturerData = new EnumMap<>(ScanResponseType.class);
+
     // The dongle handler
     private final BlueGigaBridgeHandler bgHandler;
 
@@ -169,13 +181,47 @@ public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGiga
         return true;
     }
 
+    /**
+     * Checks whether the same payload of the same packet type has already been processed within the last
+     * {@link #DUPLICATE_ADVERTISEMENT_WINDOW} milliseconds.
+     *
+     * @param scanEvent the received scan response
+     * @return true, if the scan response does not need to be processed
+     */
+    private synchronized boolean isDuplicateAdvertisement(BlueGigaScanResponseEvent scanEvent) {
+        ScanResponseType type = scanEvent.getPacketType();
+        if (type == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Long lastTime = lastScanTime.get(type);
+        if (lastTime != null && now - lastTime < DUPLICATE_ADVERTISEMENT_WINDOW
+                && Arrays.equals(lastScanData.get(type), scanEvent.getData())) {
+            return true;
+        }
+        lastScanData.put(type, scanEvent.getData());
+        lastScanTime.put(type, now);
+        return false;
+    }
+
+    private synchronized byte[] getLastManufacturerData(ScanResponseType type) {
+        return type != null ? lastManufacturerData.get(type) : null;
+    }
+
+    private synchronized void setLastManufacturerData(ScanResponseType type, byte[] manufacturerData) {
+        if (type != null) {
+            lastManufacturerData.put(type, manufacturerData);
+        }
+    }
+
     @Override
     public void bluegigaEventReceived(BlueGigaResponse event) {
         if (event instanceof BlueGigaScanResponseEvent) {
             BlueGigaScanResponseEvent scanEvent = (BlueGigaScanResponseEvent) event;
 
-            // Check if this is addressed to this device
-            if (!address.equals(new BluetoothAddress(scanEvent.getSender()))) {
+            // Check if this is addressed to this device - every device receives every advertisement, so this
+            // compares the plain strings instead of creating a new address
+            if (!address.toString().equals(scanEvent.getSender())) {
                 return;
             }
 
@@ -185,8 +231,13 @@ public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGiga
 
             byte[] manufacturerData = null;
 
-            // If the packet contains data, then process it and add anything relevant to the device...
-            if (scanEvent.getData() != null) {
+            // Beacons repeat the same payload several times per second - its records have already been applied to
+            // the device, so only the listeners are notified again
+            boolean duplicate = isDuplicateAdvertisement(scanEvent);
+            if (duplicate) {
+                manufacturerData = getLastManufacturerData(scanEvent.getPacketType());
+            } else if (scanEvent.getData() != null) {
+                // If the packet contains data, then process it and add anything relevant to the device...
                 EirPacket eir = new EirPacket(scanEvent.getData());
                 for (EirDataType record : eir.getRecords().keySet()) {
                     switch (record) {
@@ -227,6 +278,9 @@ public class BlueGigaBluetoothDevice extends BluetoothDevice implements BlueGiga
                     }
                 }
             }
+            if (!duplicate) {
+                setLastManufacturerData(scanEvent.getPacketType(), manufacturerData);
+            }
 
             if (connectionState == ConnectionState.DISCOVERING) {
                 // We want to wait for an advertisement and a scan response before we call this discovered.
@@ -338,8 +338,7 @@ public class BlueGigaBridgeHandler extends BaseBridgeHandler
             BlueGigaBluetoothDevice device;
             if (devices.get(sender) == null) {
                 logger.debug("BlueGiga adding new device to adaptor {}: {}", address, sender);
-                device = new BlueGigaBluetoothDevice(this, new BluetoothAddress(scanEvent.getSender()),
-                        scanEvent.getAddressType());
+                device = new BlueGigaBluetoothDevice(this, sender, scanEvent.getAddressType());
                 devices.put(sender, device);
                 deviceDiscovered(device);
             }
@@ -39,11 +39,13 @@ import org.slf4j.LoggerFactory;
  * queuing of of data, and conversion of packets from the serial stream into command and response classes.
  *
  * @author Chris Jackson - Initial contribution and API
+ * @author agent - Read the serial stream in chunks and notify event listeners in a single task
  *
  */
 public class BlueGigaSerialHandler {
 
     private static final int BLE_MAX_LENGTH = 64;
+    private static final int READ_BUFFER_SIZE = 256;
     private static final int TRANSACTION_TIMEOUT_PERIOD = 50;
 
     private final Logger logger = LoggerFactory.getLogger(BlueGigaSerialHandler.class);
@@ -89,56 +91,66 @@ public class BlueGigaSerialHandler {
             public void run() {
                 int exceptionCnt = 0;
                 logger.trace("BlueGiga BLE thread started");
+                byte[] readBuffer = new byte[READ_BUFFER_SIZE];
                 int[] inputBuffer = new int[BLE_MAX_LENGTH];
                 int inputCount = 0;
                 int inputLength = 0;
 
                 while (!close) {
                     try {
-                        int val = inputStream.read();
-                        if (val == -1) {
+                        // read whatever is available instead of a single byte, so that a burst of advertisements
+                        // does not cost a read call per byte
+                        int len = inputStream.read(readBuffer);
+                        if (len == -1) {
                             continue;
                         }
 
-                        inputBuffer[inputCount++] = val;
-
-                        if (inputCount < 4) {
-                            // The BGAPI protocol has no packet framing, and no error detection, so we do a few
-                            // sanity checks on the header to try and allow resyncronisation should there be an
-                            // error.
-                            // Byte 0: Check technology type is bluetooth and high length is 0
-                            // Byte 1: Check length is less than 64 bytes
-                            // Byte 2: Check class ID is less than 8
-                            // Byte 3: Check command ID is less than 16
-                            if ((val & framecheckParams[inputCount]) != 0) {
-                                logger.debug("BlueGiga framing error byte {} = {}", inputCount, val);
-                                inputCount = 0;
-                                continue;
-                            }
-                        } else if (inputCount == 4) {
-                            // Process the header to get the length
-                            inputLength = inputBuffer[1] + (inputBuffer[0] & 0x02 << 8) + 4;
-                            if (inputLength > 64) {
-                                logger.error("BLE length larger than 64 bytes ({})", inputLength);
-                            }
-                        }
-                        if (inputCount == inputLength) {
-                            // End of packet reached - process
-                            BlueGigaResponse responsePacket = BlueGigaResponsePackets.getPacket(inputBuffer);
-
-                            logger.trace("BLE RX: {}", printHex(inputBuffer, inputLength));
-                            logger.trace("BLE RX: {}", responsePacket);
-                            if (responsePacket != null) {
-                                if (responsePacket.isEvent()) {
-                                    notifyEventListeners(responsePacket);
-                                } else {
-                                    notifyTransactionComplete(responsePacket);
+                        for (int i = 0; i < len; i++) {
+                            int val = readBuffer[i] & 0xFF;
+
+                            inputBuffer[inputCount++] = val;
+
+                            if (inputCount < 4) {
+                                // The BGAPI protocol has no packet framing, and no error detection, so we do a few
+                                // sanity checks on the header to try and allow resyncronisation should there be an
+                                // error.
+                                // Byte 0: Check technology type is bluetooth and high length is 0
+                                // Byte 1: Check length is less than 64 bytes
+                                // Byte 2: Check class ID is less than 8
+                                // Byte 3: Check command ID is less than 16
+                                if ((val & framecheckParams[inputCount]) != 0) {
+                                    logger.debug("BlueGiga framing error byte {} = {}", inputCount, val);
+                                    inputCount = 0;
+                                    continue;
+                                }
+                            } else if (inputCount == 4) {
+                                // Process the header to get the length
+                                inputLength = inputBuffer[1] + (inputBuffer[0] & 0x02 << 8) + 4;
+                                if (inputLength > BLE_MAX_LENGTH) {
+                                    logger.error("BLE length larger than 64 bytes ({})", inputLength);
+                                    inputCount = 0;
+                                    continue;
                                 }
                             }
+                            if (inputCount == inputLength) {
+                                // End of packet reached - process
+                                BlueGigaResponse responsePacket = BlueGigaResponsePackets.getPacket(inputBuffer);
 
-                            inputCount = 0;
-                        }
+                                if (logger.isTraceEnabled()) {
+                                    logger.trace("BLE RX: {}", printHex(inputBuffer, inputLength));
+                                    logger.trace("BLE RX: {}", responsePacket);
+                                }
+                                if (responsePacket != null) {
+                                    if (responsePacket.isEvent()) {
+                                        notifyEventListeners(responsePacket);
+                                    } else {
+                                        notifyTransactionComplete(responsePacket);
+                                    }
+                                }
 
+                                inputCount = 0;
+                            }
+                        }
                     } catch (final IOException e) {
                         logger.error("BlueGiga BLE IOException: ", e);
 
@@ -183,7 +195,7 @@ public class BlueGigaSerialHandler {
      */
     public void close(long timeout) {
         close = true;
-        executor.shutdownNow();
+        // the executor is a shared pool of the ThreadPoolManager, so it must not be shut down here
         if (timerTask != null) {
             timerTask.cancel();
             timerTask = null;
@@ -426,12 +438,17 @@ public class BlueGigaSerialHandler {
      * @return true if the response was processed
      */
     private void notifyEventListeners(final BlueGigaResponse response) {
-        synchronized (this) {
-            // Notify the listeners
+        // A single task per event instead of one per listener - every device is a listener and most events are
+        // advertisements, which only concern a single one of them
+        executor.submit(() -> {
             for (final BlueGigaEventListener listener : eventListeners) {
-                executor.submit(() -> listener.bluegigaEventReceived(response));
+                try {
+                    listener.bluegigaEventReceived(response);
+                } catch (RuntimeException e) {
+                    logger.warn("Event listener {} failed to process {}", listener, response, e);
+                }
             }
-        }
+        });
     }
 
     public void addEventListener(BlueGigaEventListener listener) {
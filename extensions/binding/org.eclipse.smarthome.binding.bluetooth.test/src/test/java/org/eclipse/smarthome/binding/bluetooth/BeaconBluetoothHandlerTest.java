@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.bluetooth;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.eclipse.smarthome.binding.bluetooth.notification.BluetoothScanNotification;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the smoothing and the rate limiting of the rssi by the {@link BeaconBluetoothHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BeaconBluetoothHandlerTest extends JavaTest {
+
+    private BeaconBluetoothHandler handler;
+    private ThingHandlerCallback callback;
+    private ChannelUID rssiChannelUID;
+
+    @Before
+    public void setUp() {
+        Thing thing = ThingBuilder.create(BluetoothBindingConstants.THING_TYPE_BEACON, "beacon").build();
+        rssiChannelUID = new ChannelUID(thing.getUID(), BluetoothBindingConstants.CHANNEL_TYPE_RSSI);
+
+        callback = mock(ThingHandlerCallback.class);
+        handler = new BeaconBluetoothHandler(thing);
+        handler.setCallback(callback);
+
+        handler.device = mock(BluetoothDevice.class);
+        when(handler.device.getRssi()).thenReturn(-70);
+    }
+
+    @After
+    public void tearDown() {
+        handler.dispose();
+    }
+
+    @Test
+    public void testRssiIsSmoothedAndUpdatedOncePerInterval() {
+        handler.onScanRecordReceived(scanNotification(-50));
+        waitForAssert(() -> verify(callback).stateUpdated(rssiChannelUID, new DecimalType(-50)));
+
+        // both values arrive within the update interval: -50 + 0.3 * (-60 + 50) = -53, -53 + 0.3 * (-70 + 53) = -58.1
+        handler.onScanRecordReceived(scanNotification(-60));
+        handler.onScanRecordReceived(scanNotification(-70));
+        waitForAssert(() -> verify(callback).stateUpdated(rssiChannelUID, new DecimalType(-58)));
+
+        verify(callback, times(2)).stateUpdated(eq(rssiChannelUID), any(State.class));
+    }
+
+    private BluetoothScanNotification scanNotification(int rssi) {
+        BluetoothScanNotification notification = new BluetoothScanNotification();
+        notification.setRssi(rssi);
+        return notification;
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.bluetooth.discovery.internal;
+
+import static org.mockito.Mockito.*;
+
+import org.eclipse.smarthome.binding.bluetooth.BluetoothAdapter;
+import org.eclipse.smarthome.binding.bluetooth.BluetoothAddress;
+import org.eclipse.smarthome.binding.bluetooth.BluetoothBindingConstants;
+import org.eclipse.smarthome.binding.bluetooth.BluetoothDevice;
+import org.eclipse.smarthome.binding.bluetooth.BluetoothDiscoveryListener;
+import org.eclipse.smarthome.binding.bluetooth.discovery.BluetoothDiscoveryParticipant;
+import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests that the {@link BluetoothDiscoveryService} asks the participant that matched a device first.
+ *
+ * @author agent - Initial contribution
+ */
+public class BluetoothDiscoveryServiceTest {
+
+    private static final ThingUID ADAPTER_UID = new ThingUID("bluetooth", "adapter", "1");
+
+    private BluetoothDiscoveryParticipant otherParticipant;
+    private BluetoothDiscoveryParticipant matchingParticipant;
+    private BluetoothDevice device;
+    private BluetoothDiscoveryListener discoveryListener;
+
+    @Before
+    public void setUp() {
+        otherParticipant = mock(BluetoothDiscoveryParticipant.class);
+        matchingParticipant = mock(BluetoothDiscoveryParticipant.class);
+        when(matchingParticipant.createResult(any())).thenReturn(DiscoveryResultBuilder
+                .create(new ThingUID(BluetoothBindingConstants.THING_TYPE_BEACON, ADAPTER_UID, "device")).build());
+
+        device = mock(BluetoothDevice.class);
+        when(device.getAddress()).thenReturn(new BluetoothAddress("12:34:56:78:9A:BC"));
+
+        BluetoothAdapter adapter = mock(BluetoothAdapter.class);
+        when(adapter.getUID()).thenReturn(ADAPTER_UID);
+
+        BluetoothDiscoveryService discoveryService = new BluetoothDiscoveryService();
+        discoveryService.addBluetoothDiscoveryParticipant(otherParticipant);
+        discoveryService.addBluetoothDiscoveryParticipant(matchingParticipant);
+        discoveryService.addBluetoothAdapter(adapter);
+
+        ArgumentCaptor<BluetoothDiscoveryListener> captor = ArgumentCaptor.forClass(BluetoothDiscoveryListener.class);
+        verify(adapter).addDiscoveryListener(captor.capture());
+        discoveryListener = captor.getValue();
+    }
+
+    @Test
+    public void testMatchingParticipantIsAskedFirst() {
+        discoveryListener.deviceDiscovered(device);
+        verify(otherParticipant, times(1)).createResult(device);
+        verify(matchingParticipant, times(1)).createResult(device);
+
+        discoveryListener.deviceDiscovered(device);
+        verify(otherParticipant, times(1)).createResult(device);
+        verify(matchingParticipant, times(2)).createResult(device);
+    }
+
+    @Test
+    public void testAllParticipantsAreAskedIfTheMatchingOneNoLongerMatches() {
+        discoveryListener.deviceDiscovered(device);
+
+        when(matchingParticipant.createResult(any())).thenReturn(null);
+        discoveryListener.deviceDiscovered(device);
+        verify(otherParticipant, times(2)).createResult(device);
+        verify(matchingParticipant, times(2)).createResult(device);
+
+        // no participant is remembered anymore
+        discoveryListener.deviceDiscovered(device);
+        verify(otherParticipant, times(3)).createResult(device);
+        verify(matchingParticipant, times(3)).createResult(device);
+    }
+
+}
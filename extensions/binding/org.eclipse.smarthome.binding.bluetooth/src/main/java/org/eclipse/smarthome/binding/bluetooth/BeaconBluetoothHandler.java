@@ -12,9 +12,12 @@
  */
 package org.eclipse.smarthome.binding.bluetooth;
 
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.binding.bluetooth.notification.BluetoothConnectionStatusNotification;
 import org.eclipse.smarthome.binding.bluetooth.notification.BluetoothScanNotification;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -34,10 +37,17 @@ import org.eclipse.smarthome.core.types.UnDefType;
  * used as a base implementation for more specific thing handlers.
  *
  * @author Kai Kreuzer - Initial contribution and API
+ * @author agent - Smooth the rssi and limit its update rate
  */
 @NonNullByDefault
 public class BeaconBluetoothHandler extends BaseThingHandler implements BluetoothDeviceListener {
 
+    // Minimum time in milliseconds between two updates of the rssi channel
+    private static final long RSSI_UPDATE_INTERVAL = 1000;
+
+    // Weight of a newly received rssi value in the moving average
+    private static final double RSSI_SMOOTHING_FACTOR = 0.3;
+
     @NonNullByDefault({} /* non-null if initialized */)
     protected BluetoothAdapter adapter;
 
@@ -49,6 +59,10 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
 
     protected final ReentrantLock deviceLock;
 
+    private volatile double smoothedRssi = Double.NaN;
+    private long lastRssiUpdate;
+    private @Nullable ScheduledFuture<?> rssiUpdateJob;
+
     public BeaconBluetoothHandler(Thing thing) {
         super(thing);
         deviceLock = new ReentrantLock();
@@ -91,6 +105,14 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
 
     @Override
     public void dispose() {
+        synchronized (this) {
+            ScheduledFuture<?> job = rssiUpdateJob;
+            if (job != null) {
+                job.cancel(false);
+                rssiUpdateJob = null;
+            }
+            smoothedRssi = Double.NaN;
+        }
         try {
             deviceLock.lock();
             if (device != null) {
@@ -116,9 +138,12 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
         if (device != null) {
             Integer rssi = device.getRssi();
             if (rssi != null && rssi != 0) {
-                updateState(BluetoothBindingConstants.CHANNEL_TYPE_RSSI, new DecimalType(rssi));
+                double smoothed = smoothedRssi;
+                updateState(BluetoothBindingConstants.CHANNEL_TYPE_RSSI,
+                        new DecimalType(Double.isNaN(smoothed) ? rssi : Math.round(smoothed)));
                 updateStatusBasedOnRssi(true);
             } else {
+                smoothedRssi = Double.NaN;
                 updateState(BluetoothBindingConstants.CHANNEL_TYPE_RSSI, UnDefType.NULL);
                 updateStatusBasedOnRssi(false);
             }
@@ -144,7 +169,31 @@ public class BeaconBluetoothHandler extends BaseThingHandler implements Bluetoot
         int rssi = scanNotification.getRssi();
         if (rssi != Integer.MIN_VALUE) {
             device.setRssi(rssi);
-            updateRSSI();
+            scheduleRssiUpdate(rssi);
+        }
+    }
+
+    /**
+     * Adds a received rssi value to the moving average and schedules an update of the rssi channel. Beacons advertise
+     * several times per second, so all values received within {@link #RSSI_UPDATE_INTERVAL} result in a single update.
+     *
+     * @param rssi the received rssi value
+     */
+    private synchronized void scheduleRssiUpdate(int rssi) {
+        if (Double.isNaN(smoothedRssi)) {
+            smoothedRssi = rssi;
+        } else {
+            smoothedRssi += RSSI_SMOOTHING_FACTOR * (rssi - smoothedRssi);
+        }
+        if (rssiUpdateJob == null) {
+            long delay = Math.max(0, lastRssiUpdate + RSSI_UPDATE_INTERVAL - System.currentTimeMillis());
+            rssiUpdateJob = scheduler.schedule(() -> {
+                synchronized (this) {
+                    rssiUpdateJob = null;
+                    lastRssiUpdate = System.currentTimeMillis();
+                }
+                updateRSSI();
+            }, delay, TimeUnit.MILLISECONDS);
         }
     }
 
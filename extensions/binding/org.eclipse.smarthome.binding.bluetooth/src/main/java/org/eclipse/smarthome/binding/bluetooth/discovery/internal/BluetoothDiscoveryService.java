@@ -19,6 +19,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.smarthome.binding.bluetooth.BluetoothAdapter;
+import org.eclipse.smarthome.binding.bluetooth.BluetoothAddress;
 import org.eclipse.smarthome.binding.bluetooth.BluetoothBindingConstants;
 import org.eclipse.smarthome.binding.bluetooth.BluetoothCompanyIdentifiers;
 import org.eclipse.smarthome.binding.bluetooth.BluetoothDevice;
@@ -47,6 +48,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Chris Jackson - Initial Contribution
  * @author Kai Kreuzer - Introduced BluetoothAdapters and BluetoothDiscoveryParticipants
+ * @author agent - Remember the participant that matched a device
  *
  */
 @Component(immediate = true, service = DiscoveryService.class, configurationPid = "discovery.bluetooth")
@@ -56,10 +58,19 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
 
     private static final int SEARCH_TIME = 15;
 
+    /**
+     * Maximum number of remembered participants. Devices with random private addresses show up with a new address
+     * every few minutes, so the map is dropped once it is full. The participants are simply asked in order again then.
+     */
+    private static final int MAX_MATCHED_PARTICIPANTS = 1000;
+
     private final Set<BluetoothAdapter> adapters = new CopyOnWriteArraySet<>();
     private final Set<BluetoothDiscoveryParticipant> participants = new CopyOnWriteArraySet<>();
     private final Map<UID, BluetoothDiscoveryListener> registeredListeners = new ConcurrentHashMap<>();
 
+    // the participant that created the last result for a device, it is asked first the next time the device is seen
+    private final Map<BluetoothAddress, BluetoothDiscoveryParticipant> matchedParticipants = new ConcurrentHashMap<>();
+
     private final Set<ThingTypeUID> supportedThingTypes = new CopyOnWriteArraySet<>();
 
     public BluetoothDiscoveryService() {
@@ -85,6 +96,7 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
     @Deactivate
     public void deactivate() {
         logger.debug("Deactivating Bluetooth discovery service");
+        matchedParticipants.clear();
     }
 
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
@@ -116,6 +128,7 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
     protected void removeBluetoothDiscoveryParticipant(BluetoothDiscoveryParticipant participant) {
         supportedThingTypes.removeAll(participant.getSupportedThingTypeUIDs());
         this.participants.remove(participant);
+        matchedParticipants.values().removeIf(p -> p == participant);
     }
 
     @Override
@@ -139,17 +152,21 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
     }
 
     private void deviceDiscovered(BluetoothAdapter adapter, BluetoothDevice device) {
+        BluetoothDiscoveryParticipant matchedParticipant = matchedParticipants.get(device.getAddress());
+        if (matchedParticipant != null && createResult(matchedParticipant, device)) {
+            return;
+        }
+
         for (BluetoothDiscoveryParticipant participant : participants) {
-            try {
-                DiscoveryResult result = participant.createResult(device);
-                if (result != null) {
-                    thingDiscovered(result);
-                    return;
+            if (participant != matchedParticipant && createResult(participant, device)) {
+                if (matchedParticipants.size() >= MAX_MATCHED_PARTICIPANTS) {
+                    matchedParticipants.clear();
                 }
-            } catch (Exception e) {
-                logger.error("Participant '{}' threw an exception", participant.getClass().getName(), e);
+                matchedParticipants.put(device.getAddress(), participant);
+                return;
             }
         }
+        matchedParticipants.remove(device.getAddress());
 
         // We did not find a thing type for this device, so let's treat it as a generic one
         String label = device.getName();
@@ -178,4 +195,17 @@ public class BluetoothDiscoveryService extends AbstractDiscoveryService {
                 .withBridge(adapter.getUID()).withLabel(label).build();
         thingDiscovered(discoveryResult);
     }
+
+    private boolean createResult(BluetoothDiscoveryParticipant participant, BluetoothDevice device) {
+        try {
+            DiscoveryResult result = participant.createResult(device);
+            if (result != null) {
+                thingDiscovered(result);
+                return true;
+            }
+        } catch (Exception e) {
+            logger.error("Participant '{}' threw an exception", participant.getClass().getName(), e);
+        }
+        return false;
+    }
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.digitalstrom.internal.lib.manager.impl;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.GeneralLibConstance;
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.config.Config;
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.event.EventListener;
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.event.constants.EventNames;
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.event.types.EventItem;
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.manager.ConnectionManager;
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.manager.SceneManager;
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.serverconnection.DsAPI;
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.serverconnection.HttpTransport;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Tests the synchronization of the device structure by the {@link DeviceStatusManagerImpl}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceStatusManagerImplTest extends JavaTest {
+
+    private static final int POLLING_FREQUENCY = 10;
+
+    private final Config config = new Config();
+
+    private DsAPI digitalSTROMClient;
+    private HttpTransport httpTransport;
+    private DeviceStatusManagerImpl deviceStatusManager;
+
+    @Before
+    public void setUp() {
+        config.setPollingFrequency(POLLING_FREQUENCY);
+
+        digitalSTROMClient = mock(DsAPI.class);
+        when(digitalSTROMClient.query2(any(), eq(DeviceStatusManagerImpl.GET_DETAILD_DEVICES)))
+                .thenAnswer(invocation -> createDetailedDevices());
+        when(digitalSTROMClient.query2(any(), eq(DeviceStatusManagerImpl.LAST_CALL_SCENE_QUERY)))
+                .thenReturn(new JsonObject());
+        httpTransport = mock(HttpTransport.class);
+
+        ConnectionManager connectionManager = mock(ConnectionManager.class);
+        when(connectionManager.getConfig()).thenReturn(config);
+        when(connectionManager.getDigitalSTROMAPI()).thenReturn(digitalSTROMClient);
+        when(connectionManager.getHttpTransport()).thenReturn(httpTransport);
+
+        SceneManager sceneManager = mock(SceneManager.class);
+        when(sceneManager.scenesGenerated()).thenReturn(true);
+
+        deviceStatusManager = new DeviceStatusManagerImpl(connectionManager, null, sceneManager, null,
+                mock(EventListener.class));
+    }
+
+    @After
+    public void tearDown() {
+        deviceStatusManager.stop();
+    }
+
+    @Test
+    public void structureIsNotSynchronizedOnEveryPoll() {
+        deviceStatusManager.start();
+
+        waitForAssert(() -> verify(httpTransport, atLeast(10)).getRequestCount());
+        verify(digitalSTROMClient, times(1)).query2(any(), eq(DeviceStatusManagerImpl.GET_DETAILD_DEVICES));
+    }
+
+    @Test
+    public void structureIsSynchronizedOnModelReadyEvent() {
+        deviceStatusManager.start();
+        waitForAssert(() -> verify(httpTransport, atLeast(2)).getRequestCount());
+
+        EventItem modelReady = mock(EventItem.class);
+        when(modelReady.getName()).thenReturn(EventNames.MODEL_READY);
+        deviceStatusManager.handleEvent(modelReady);
+
+        waitForAssert(() -> verify(digitalSTROMClient, times(2)).query2(any(),
+                eq(DeviceStatusManagerImpl.GET_DETAILD_DEVICES)));
+    }
+
+    @Test
+    public void structureIsSynchronizedAfterTheSyncInterval() {
+        config.setStructureSyncInterval(5 * POLLING_FREQUENCY);
+
+        deviceStatusManager.start();
+
+        waitForAssert(() -> verify(digitalSTROMClient, atLeast(3)).query2(any(),
+                eq(DeviceStatusManagerImpl.GET_DETAILD_DEVICES)));
+    }
+
+    /**
+     * Returns the answer of the digitalSTROM-Server to the query of the detailed devices, with a single device.
+     */
+    private JsonObject createDetailedDevices() {
+        JsonObject device = new JsonObject();
+        device.addProperty("dSID", "302ed89f43f00e4000001234");
+        device.addProperty("name", "Light");
+        device.addProperty("present", true);
+
+        JsonObject zone = new JsonObject();
+        zone.add("302ed89f43f00e4000001234", device);
+        JsonObject result = new JsonObject();
+        result.add(GeneralLibConstance.QUERY_BROADCAST_ZONE_STRING, zone);
+        return result;
+    }
+
+}
@@ -269,6 +269,12 @@ public class BridgeHandler extends BaseBridgeHandler
             numberExc.add("\"Total power update interval\" ("
                     + thingConfig.get(DigitalSTROMBindingConstants.TOTAL_POWER_UPDATE_INTERVAL) + ")");
         }
+        // optional, things created before the parameter existed keep the default
+        if (thingConfig.get(DigitalSTROMBindingConstants.STRUCTURE_SYNC_INTERVAL) instanceof BigDecimal) {
+            config.setStructureSyncInterval(
+                    ((BigDecimal) thingConfig.get(DigitalSTROMBindingConstants.STRUCTURE_SYNC_INTERVAL)).intValue()
+                            * 1000);
+        }
         if (thingConfig.get(DigitalSTROMBindingConstants.SENSOR_WAIT_TIME) instanceof BigDecimal) {
             config.setSensorReadingWaitTime(
                     ((BigDecimal) thingConfig.get(DigitalSTROMBindingConstants.SENSOR_WAIT_TIME)).intValue() * 1000);
@@ -109,6 +109,13 @@ public class Config {
     public static final int DEFAULT_TOTAL_POWER_UPDATE_INTERVAL = 30000;
     private int totalPowerUpdateInterval = DEFAULT_TOTAL_POWER_UPDATE_INTERVAL;
 
+    /**
+     * The default interval to synchronize the full device structure with the digitalSTROM-Server. In between, the
+     * structure is only synchronized if the digitalSTROM-Server reports a change of its model.
+     */
+    public static final int DEFAULT_STRUCTURE_SYNC_INTERVAL = 300000;
+    private int structureSyncInterval = DEFAULT_STRUCTURE_SYNC_INTERVAL;
+
     /**
      * Default time to wait between another {@link SensorJob} can be executed on a circuit.
      */
@@ -460,6 +467,25 @@ public class Config {
         this.totalPowerUpdateInterval = totalPowerUpdateInterval;
     }
 
+    /**
+     * Returns the interval to synchronize the full device structure with the digitalSTROM-Server.
+     *
+     * @return the structure synchronization interval in milliseconds
+     */
+    public int getStructureSyncInterval() {
+        return structureSyncInterval;
+    }
+
+    /**
+     * Sets the interval in milliseconds to synchronize the full device structure with the digitalSTROM-Server. An
+     * interval up to the polling frequency synchronizes the structure on every poll.
+     *
+     * @param structureSyncInterval in milliseconds
+     */
+    public void setStructureSyncInterval(int structureSyncInterval) {
+        this.structureSyncInterval = structureSyncInterval;
+    }
+
     /**
      * Returns the time in milliseconds to wait between another {@link SensorJob} can be executed on a circuit.
      *
@@ -598,6 +624,7 @@ public class Config {
         setPollingFrequency(config.getPollingFrequency());
         setSensordataRefreshInterval(config.getSensordataRefreshInterval());
         setTotalPowerUpdateInterval(config.getTotalPowerUpdateInterval());
+        setStructureSyncInterval(config.getStructureSyncInterval());
         setSensorReadingWaitTime(config.getSensorReadingWaitTime());
         setMediumPriorityFactor(config.getMediumPriorityFactor());
         setLowPriorityFactor(config.getLowPriorityFactor());
@@ -614,7 +641,8 @@ public class Config {
                 + ", sensordataReadTimeout=" + sensordataReadTimeout + ", trustCertPath=" + trustCertPath
                 + ", trashDeviceDeleteTime=" + trashDeviceDeleteTime + ", binCheckTime=" + binCheckTime
                 + ", pollingFrequency=" + pollingFrequency + ", sensordataRefreshInterval=" + sensordataRefreshInterval
-                + ", totalPowerUpdateInterval=" + totalPowerUpdateInterval + ", sensorReadingWaitTime="
+                + ", totalPowerUpdateInterval=" + totalPowerUpdateInterval + ", structureSyncInterval="
+                + structureSyncInterval + ", sensorReadingWaitTime="
                 + sensorReadingWaitTime + ", mediumPriorityFactor=" + mediumPriorityFactor + ", lowPriorityFactor="
                 + lowPriorityFactor + ", eventListenerRefreshinterval=" + eventListenerRefreshinterval
                 + ", standbyActivePower=" + standbyActivePower + "]";
@@ -59,6 +59,7 @@ import org.eclipse.smarthome.binding.digitalstrom.internal.lib.structure.devices
 import org.eclipse.smarthome.binding.digitalstrom.internal.lib.structure.devices.deviceparameters.constants.OutputModeEnum;
 import org.eclipse.smarthome.binding.digitalstrom.internal.lib.structure.devices.deviceparameters.constants.SensorEnum;
 import org.eclipse.smarthome.binding.digitalstrom.internal.lib.structure.devices.deviceparameters.impl.DSID;
+import org.eclipse.smarthome.binding.digitalstrom.internal.lib.structure.devices.deviceparameters.impl.DeviceSensorValue;
 import org.eclipse.smarthome.binding.digitalstrom.internal.lib.structure.devices.deviceparameters.impl.DeviceStateUpdateImpl;
 import org.eclipse.smarthome.binding.digitalstrom.internal.lib.structure.devices.impl.DeviceImpl;
 import org.eclipse.smarthome.binding.digitalstrom.internal.lib.structure.scene.InternalScene;
@@ -76,6 +77,7 @@ import com.google.gson.JsonObject;
  *
  * @author Michael Ochel - Initial contribution
  * @author Matthias Siegele - Initial contribution
+ * @author agent - Synchronize the structure on model events and at a lower rate
  */
 public class DeviceStatusManagerImpl implements DeviceStatusManager {
 
@@ -85,7 +87,9 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
      * Contains all supported event-types.
      */
     public static final List<String> SUPPORTED_EVENTS = Arrays.asList(EventNames.DEVICE_SENSOR_VALUE,
-            EventNames.DEVICE_BINARY_INPUT_EVENT);
+            EventNames.DEVICE_BINARY_INPUT_EVENT, EventNames.MODEL_READY);
+
+    private static final long STATISTICS_INTERVAL = TimeUnit.HOURS.toMillis(1);
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(Config.THREADPOOL_NAME);
     private ScheduledFuture<?> pollingScheduler;
@@ -117,6 +121,9 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
     private long lastBinCheck = 0;
     private ManagerStates state = ManagerStates.STOPPED;
 
+    // set by a model event of the digitalSTROM-Server, to synchronize the structure with the next poll
+    private volatile boolean structureChanged = false;
+
     private int tempConsumption = 0;
     private int tempEnergyMeter = 0;
     private int tempEnergyMeterWs = 0;
@@ -233,6 +240,11 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
     private class PollingRunnable implements Runnable {
         private boolean devicesLoaded = false;
         private long nextSensorUpdate = 0;
+        private long nextStructureSync = 0;
+
+        private long statisticsStart = 0;
+        private long statisticsRequestCount = 0;
+        private int structureSyncs = 0;
 
         @Override
         public void run() {
@@ -244,15 +256,41 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
                     stateChanged(ManagerStates.INITIALIZING);
                 }
             }
-            HashMap<DSID, Device> tempDeviceMap;
-            if (strucMan.getDeviceMap() != null) {
-                tempDeviceMap = (HashMap<DSID, Device>) strucMan.getDeviceMap();
+            if (!devicesLoaded || structureChanged || nextStructureSync <= System.currentTimeMillis()) {
+                structureChanged = false;
+                nextStructureSync = System.currentTimeMillis() + config.getStructureSyncInterval();
+                structureSyncs++;
+                synchronizeStructure();
             } else {
-                tempDeviceMap = new HashMap<DSID, Device>();
+                // the structure is up to date, only send the pending commands of the known devices
+                for (Device eshDevice : strucMan.getDeviceMap().values()) {
+                    if (eshDevice.isPresent()) {
+                        handleDeviceStateUpdates(eshDevice);
+                    }
+                }
+                updateCircuitsAndMeterData();
             }
+            logRequestStatistics();
+        }
 
-            List<Device> currentDeviceList = getDetailedDevices();
+        private void logRequestStatistics() {
+            long now = System.currentTimeMillis();
+            long requestCount = connMan.getHttpTransport().getRequestCount();
+            if (statisticsStart == 0) {
+                statisticsStart = now;
+                statisticsRequestCount = requestCount;
+            } else if (now - statisticsStart >= STATISTICS_INTERVAL) {
+                logger.debug(
+                        "{} HTTP requests to the digitalSTROM-Server within {} minutes, {} full structure synchronizations",
+                        requestCount - statisticsRequestCount, TimeUnit.MILLISECONDS.toMinutes(now - statisticsStart),
+                        structureSyncs);
+                statisticsStart = now;
+                statisticsRequestCount = requestCount;
+                structureSyncs = 0;
+            }
+        }
 
+        private void updateCircuitsAndMeterData() {
             // update the current total power consumption
             if (nextSensorUpdate <= System.currentTimeMillis()) {
                 // check circuits
@@ -272,6 +310,47 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
                 getMeterData();
                 nextSensorUpdate = System.currentTimeMillis() + config.getTotalPowerUpdateInterval();
             }
+        }
+
+        private void handleDeviceStateUpdates(Device eshDevice) {
+            while (!eshDevice.isDeviceUpToDate()) {
+                DeviceStateUpdate deviceStateUpdate = eshDevice.getNextDeviceUpdateState();
+                if (deviceStateUpdate != null) {
+                    switch (deviceStateUpdate.getType()) {
+                        case DeviceStateUpdate.OUTPUT:
+                        case DeviceStateUpdate.SLAT_ANGLE_INCREASE:
+                        case DeviceStateUpdate.SLAT_ANGLE_DECREASE:
+                            filterCommand(deviceStateUpdate, eshDevice);
+                            break;
+                        case DeviceStateUpdate.UPDATE_SCENE_CONFIG:
+                        case DeviceStateUpdate.UPDATE_SCENE_OUTPUT:
+                            updateSceneData(eshDevice, deviceStateUpdate);
+                            break;
+                        case DeviceStateUpdate.UPDATE_OUTPUT_VALUE:
+                            if (deviceStateUpdate.getValueAsInteger() > -1) {
+                                readOutputValue(eshDevice);
+                            } else {
+                                removeSensorJob(eshDevice, deviceStateUpdate);
+                            }
+                            break;
+                        default:
+                            sendComandsToDSS(eshDevice, deviceStateUpdate);
+                    }
+                }
+            }
+        }
+
+        private void synchronizeStructure() {
+            HashMap<DSID, Device> tempDeviceMap;
+            if (strucMan.getDeviceMap() != null) {
+                tempDeviceMap = (HashMap<DSID, Device>) strucMan.getDeviceMap();
+            } else {
+                tempDeviceMap = new HashMap<DSID, Device>();
+            }
+
+            List<Device> currentDeviceList = getDetailedDevices();
+
+            updateCircuitsAndMeterData();
 
             while (!currentDeviceList.isEmpty()) {
                 Device currentDevice = currentDeviceList.remove(0);
@@ -283,31 +362,7 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
 
                     if (eshDevice.isPresent()) {
                         // check device state updates
-                        while (!eshDevice.isDeviceUpToDate()) {
-                            DeviceStateUpdate deviceStateUpdate = eshDevice.getNextDeviceUpdateState();
-                            if (deviceStateUpdate != null) {
-                                switch (deviceStateUpdate.getType()) {
-                                    case DeviceStateUpdate.OUTPUT:
-                                    case DeviceStateUpdate.SLAT_ANGLE_INCREASE:
-                                    case DeviceStateUpdate.SLAT_ANGLE_DECREASE:
-                                        filterCommand(deviceStateUpdate, eshDevice);
-                                        break;
-                                    case DeviceStateUpdate.UPDATE_SCENE_CONFIG:
-                                    case DeviceStateUpdate.UPDATE_SCENE_OUTPUT:
-                                        updateSceneData(eshDevice, deviceStateUpdate);
-                                        break;
-                                    case DeviceStateUpdate.UPDATE_OUTPUT_VALUE:
-                                        if (deviceStateUpdate.getValueAsInteger() > -1) {
-                                            readOutputValue(eshDevice);
-                                        } else {
-                                            removeSensorJob(eshDevice, deviceStateUpdate);
-                                        }
-                                        break;
-                                    default:
-                                        sendComandsToDSS(eshDevice, deviceStateUpdate);
-                                }
-                            }
-                        }
+                        handleDeviceStateUpdates(eshDevice);
                     }
 
                 } else {
@@ -1281,6 +1336,11 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
 
     @Override
     public void handleEvent(EventItem eventItem) {
+        if (EventNames.MODEL_READY.equals(eventItem.getName())) {
+            logger.debug("The model of the digitalSTROM-Server has changed, synchronize the structure");
+            structureChanged = true;
+            return;
+        }
         if (EventNames.DEVICE_SENSOR_VALUE.equals(eventItem.getName())
                 || EventNames.DEVICE_BINARY_INPUT_EVENT.equals(eventItem.getName())) {
             logger.debug("Detect {} eventItem = {}", eventItem.getName(), eventItem.toString());
@@ -1288,6 +1348,11 @@ public class DeviceStatusManagerImpl implements DeviceStatusManager {
             if (dev != null) {
                 if (EventNames.DEVICE_SENSOR_VALUE.equals(eventItem.getName())) {
                     dev.setDeviceSensorByEvent(eventItem);
+                    // the event carries the current value, so a queued reading of the sensor would only repeat it
+                    SensorEnum sensorType = new DeviceSensorValue(eventItem.getProperties()).getSensorType();
+                    if (sensorType != null && SensorEnum.isPowerSensor(sensorType) && sensorJobExecutor != null) {
+                        sensorJobExecutor.removeSensorJob(dev, DeviceConsumptionSensorJob.getID(dev, sensorType));
+                    }
                 } else {
                     DeviceBinarayInputEnum binaryInputType = DeviceBinarayInputEnum.getdeviceBinarayInput(
                             Short.parseShort(eventItem.getProperties().get(EventResponseEnum.INPUT_TYPE)));
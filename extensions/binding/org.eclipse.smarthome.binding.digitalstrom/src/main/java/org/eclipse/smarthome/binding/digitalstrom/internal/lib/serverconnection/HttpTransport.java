@@ -17,6 +17,7 @@ package org.eclipse.smarthome.binding.digitalstrom.internal.lib.serverconnection
  *
  * @author Michael Ochel - Initial contribution
  * @author Matthias Siegele - Initial contribution
+ * @author agent - Added request counter
  */
 public interface HttpTransport {
 
@@ -39,6 +40,16 @@ public interface HttpTransport {
      */
     String execute(String request, int connectTimeout, int readTimeout);
 
+    /**
+     * Returns the number of HTTP requests sent to the digitalSTROM-Server since this {@link HttpTransport} has been
+     * created. Implementations which do not count their requests return 0.
+     *
+     * @return number of requests
+     */
+    default long getRequestCount() {
+        return 0;
+    }
+
     /**
      * Executes a digitalSTROM test request and returns the HTTP-Code.
      *
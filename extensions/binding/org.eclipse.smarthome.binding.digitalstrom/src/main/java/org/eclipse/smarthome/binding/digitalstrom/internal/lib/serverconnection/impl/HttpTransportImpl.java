@@ -31,6 +31,7 @@ import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
@@ -73,6 +74,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Michael Ochel - Initial contribution
  * @author Matthias Siegele - Initial contribution
+ * @author agent - Added request counter
  */
 public class HttpTransportImpl implements HttpTransport {
 
@@ -239,6 +241,12 @@ public class HttpTransportImpl implements HttpTransport {
     }
 
     private short loginCounter = 0;
+    private final AtomicLong requestCounter = new AtomicLong();
+
+    @Override
+    public long getRequestCount() {
+        return requestCounter.get();
+    }
 
     @Override
     public String execute(String request, int connectTimeout, int readTimeout) {
@@ -252,6 +260,7 @@ public class HttpTransportImpl implements HttpTransport {
             String correctedRequest = checkSessionToken(request);
             connection = getConnection(correctedRequest, connectTimeout, readTimeout);
             if (connection != null) {
+                requestCounter.incrementAndGet();
                 connection.connect();
                 final int responseCode = connection.getResponseCode();
                 if (responseCode != HttpURLConnection.HTTP_FORBIDDEN) {
@@ -377,6 +386,7 @@ public class HttpTransportImpl implements HttpTransport {
         try {
             HttpsURLConnection connection = getConnection(testRequest, connectTimeout, readTimeout);
             if (connection != null) {
+                requestCounter.incrementAndGet();
                 connection.connect();
                 if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
                     if (IOUtils.toString(connection.getInputStream()).contains("Authentication failed")) {
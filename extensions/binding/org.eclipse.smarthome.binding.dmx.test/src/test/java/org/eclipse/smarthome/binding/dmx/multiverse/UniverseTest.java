@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.dmx.multiverse;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.eclipse.smarthome.binding.dmx.internal.multiverse.BaseDmxChannel;
+import org.eclipse.smarthome.binding.dmx.internal.multiverse.DmxChannel;
+import org.eclipse.smarthome.binding.dmx.internal.multiverse.Universe;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests cases for Universe
+ *
+ * @author agent - Initial contribution
+ */
+public class UniverseTest {
+
+    Universe universe;
+    DmxChannel dmxChannel;
+    long currentTime;
+
+    @Before
+    public void setup() {
+        universe = new Universe(1);
+        dmxChannel = universe.registerChannel(new BaseDmxChannel(1, 5), Mockito.mock(Thing.class));
+        currentTime = System.currentTimeMillis();
+    }
+
+    @Test
+    public void copyBufferWritesChannelValuesAtOffset() {
+        dmxChannel.setValue(200);
+        universe.calculateBuffer(currentTime);
+
+        byte[] target = new byte[Universe.MAX_UNIVERSE_SIZE + 18];
+        int length = universe.copyBuffer(target, 18);
+
+        assertThat(length, is(universe.getBufferSize()));
+        assertThat(target[18 + 4] & 0xFF, is(200));
+        assertThat(target[18 + 3] & 0xFF, is(0));
+    }
+
+    @Test
+    public void idleChannelKeepsBufferValue() {
+        dmxChannel.setValue(100);
+        universe.calculateBuffer(currentTime);
+        assertThat(dmxChannel.isIdle(), is(true));
+        assertThat(universe.getBuffer()[4] & 0xFF, is(100));
+
+        universe.calculateBuffer(currentTime + 50);
+        assertThat(universe.getBuffer()[4] & 0xFF, is(100));
+
+        dmxChannel.setValue(50);
+        assertThat(dmxChannel.isIdle(), is(false));
+        universe.calculateBuffer(currentTime + 100);
+        assertThat(universe.getBuffer()[4] & 0xFF, is(50));
+    }
+
+    @Test
+    public void valueChangedBackWithinRefreshTimeIsWrittenToBuffer() {
+        dmxChannel.setValue(100);
+        universe.calculateBuffer(currentTime);
+
+        // the state updates of the channel are limited by the refresh time, the buffer must not be
+        dmxChannel.setValue(50);
+        universe.calculateBuffer(currentTime + 100);
+        assertThat(universe.getBuffer()[4] & 0xFF, is(50));
+
+        dmxChannel.setValue(100);
+        assertThat(dmxChannel.isIdle(), is(false));
+        universe.calculateBuffer(currentTime + 200);
+        assertThat(universe.getBuffer()[4] & 0xFF, is(100));
+    }
+
+}
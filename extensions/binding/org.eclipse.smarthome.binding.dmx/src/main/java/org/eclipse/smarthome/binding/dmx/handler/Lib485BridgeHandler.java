@@ -37,6 +37,7 @@ import org.slf4j.LoggerFactory;
  * an Lib485 instance
  *
  * @author Jan N. Klug - Initial contribution
+ * @author agent - Reuse output buffer
  */
 
 public class Lib485BridgeHandler extends DmxBridgeHandler {
@@ -47,6 +48,7 @@ public class Lib485BridgeHandler extends DmxBridgeHandler {
 
     private final Logger logger = LoggerFactory.getLogger(Lib485BridgeHandler.class);
     private final Map<IpNode, Socket> receiverNodes = new HashMap<IpNode, Socket>();
+    private final byte[] outputBuffer = new byte[Universe.MAX_UNIVERSE_SIZE];
 
     public Lib485BridgeHandler(Bridge lib485Bridge) {
         super(lib485Bridge);
@@ -102,11 +104,12 @@ public class Lib485BridgeHandler extends DmxBridgeHandler {
         if (getThing().getStatus() == ThingStatus.ONLINE) {
             long now = System.currentTimeMillis();
             universe.calculateBuffer(now);
+            int length = universe.copyBuffer(outputBuffer, 0);
             for (IpNode receiverNode : receiverNodes.keySet()) {
                 Socket socket = receiverNodes.get(receiverNode);
                 if (socket.isConnected()) {
                     try {
-                        socket.getOutputStream().write(universe.getBuffer());
+                        socket.getOutputStream().write(outputBuffer, 0, length);
                     } catch (IOException e) {
                         logger.debug("Could not send to {} in {}: {}", receiverNode, this.thing.getUID(),
                                 e.getMessage());
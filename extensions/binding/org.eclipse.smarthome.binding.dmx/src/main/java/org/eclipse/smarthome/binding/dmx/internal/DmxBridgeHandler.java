@@ -46,10 +46,12 @@ import org.slf4j.LoggerFactory;
  * for DMX Bridges
  *
  * @author Jan N. Klug - Initial contribution
+ * @author agent - Added send jitter statistics
  */
 
 public abstract class DmxBridgeHandler extends BaseBridgeHandler {
     public static final int DEFAULT_REFRESH_RATE = 20;
+    private static final int JITTER_REPORT_FRAMES = 1000;
 
     private final Logger logger = LoggerFactory.getLogger(DmxBridgeHandler.class);
 
@@ -59,6 +61,12 @@ public abstract class DmxBridgeHandler extends BaseBridgeHandler {
     private boolean isMuted = false;
     private int refreshTime = 1000 / DEFAULT_REFRESH_RATE;
 
+    // deviation of the frame intervals from the refresh time, in microseconds
+    private long lastFrameNanos = 0;
+    private long maxJitter = 0;
+    private long jitterSum = 0;
+    private int jitterFrames = 0;
+
     public DmxBridgeHandler(Bridge dmxBridge) {
         super(dmxBridge);
     }
@@ -156,7 +164,9 @@ public abstract class DmxBridgeHandler extends BaseBridgeHandler {
             uninstallScheduler();
         }
         if (refreshTime > 0) {
+            lastFrameNanos = 0;
             senderJob = scheduler.scheduleAtFixedRate(() -> {
+                measureJitter();
                 logger.trace("runnable packet sender for universe {} called, state {}/{}", universe.getUniverseId(),
                         getThing().getStatus(), isMuted);
                 if (!isMuted) {
@@ -171,6 +181,26 @@ public abstract class DmxBridgeHandler extends BaseBridgeHandler {
         }
     }
 
+    /**
+     * measure the deviation of the current frame from its scheduled time and report it periodically
+     */
+    private void measureJitter() {
+        long now = System.nanoTime();
+        if (lastFrameNanos != 0) {
+            long jitter = Math.abs((now - lastFrameNanos) / 1000 - refreshTime * 1000L);
+            maxJitter = Math.max(maxJitter, jitter);
+            jitterSum += jitter;
+            if (++jitterFrames >= JITTER_REPORT_FRAMES) {
+                logger.debug("frame jitter in bridge {}: average {} us, maximum {} us over {} frames",
+                        this.thing.getUID(), jitterSum / jitterFrames, maxJitter, jitterFrames);
+                maxJitter = 0;
+                jitterSum = 0;
+                jitterFrames = 0;
+            }
+        }
+        lastFrameNanos = now;
+    }
+
     /**
      * uninstall the sending and updating scheduler
      */
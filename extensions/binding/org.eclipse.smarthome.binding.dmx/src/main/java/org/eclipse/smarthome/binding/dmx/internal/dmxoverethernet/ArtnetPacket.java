@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
  * The {@link ArtnetPacket} is a ArtNet packet template
  *
  * @author Jan N. Klug - Initial contribution
+ * @author agent - Added payload offset
  */
 public class ArtnetPacket extends DmxOverEthernetPacket {
     public static final int ARTNET_MAX_PACKET_LEN = 530;
@@ -92,7 +93,7 @@ public class ArtnetPacket extends DmxOverEthernetPacket {
 
     @Override
     public void setPayload(byte[] payload) {
-        System.arraycopy(payload, 0, rawPacket, 18, payloadSize);
+        System.arraycopy(payload, 0, rawPacket, getPayloadOffset(), payloadSize);
     }
 
     @Override
@@ -103,9 +104,14 @@ public class ArtnetPacket extends DmxOverEthernetPacket {
         setPayload(payload);
     }
 
+    @Override
+    protected int getPayloadOffset() {
+        return 18;
+    }
+
     @Override
     public int getPacketLength() {
-        return (18 + this.payloadSize);
+        return (getPayloadOffset() + this.payloadSize);
     }
 
 }
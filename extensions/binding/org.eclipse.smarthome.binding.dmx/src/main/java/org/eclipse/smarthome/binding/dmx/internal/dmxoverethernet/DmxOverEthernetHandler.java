@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
  * for DMX over Ethernet Bridges (ArtNet, sACN)
  *
  * @author Jan N. Klug - Initial contribution
+ * @author agent - Reuse datagram packet for sending
  */
 
 public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
@@ -46,6 +47,7 @@ public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
     private long lastSend = 0;
     private int repeatCounter = 0;
     private int sequenceNo = 0;
+    private DatagramPacket sendPacket = null;
 
     @Override
     protected void openConnection() {
@@ -101,10 +103,16 @@ public abstract class DmxOverEthernetHandler extends DmxBridgeHandler {
                 repeatCounter++;
             }
             if (needsSending) {
-                packetTemplate.setPayload(universe.getBuffer(), universe.getBufferSize());
+                packetTemplate.setPayload(universe);
                 packetTemplate.setSequence(sequenceNo);
-                DatagramPacket sendPacket = new DatagramPacket(packetTemplate.getRawPacket(),
-                        packetTemplate.getPacketLength());
+                // the packet is sent from the raw packet array of the template, so it only needs a new length
+                DatagramPacket sendPacket = this.sendPacket;
+                if (sendPacket == null || sendPacket.getData() != packetTemplate.getRawPacket()) {
+                    sendPacket = new DatagramPacket(packetTemplate.getRawPacket(), packetTemplate.getPacketLength());
+                    this.sendPacket = sendPacket;
+                } else {
+                    sendPacket.setLength(packetTemplate.getPacketLength());
+                }
                 for (IpNode receiverNode : receiverNodes) {
                     sendPacket.setAddress(receiverNode.getAddress());
                     sendPacket.setPort(receiverNode.getPort());
@@ -12,11 +12,14 @@
  */
 package org.eclipse.smarthome.binding.dmx.internal.dmxoverethernet;
 
+import org.eclipse.smarthome.binding.dmx.internal.multiverse.Universe;
+
 /**
  * The {@link DmxOverEthernetPacket} is an abstract class for
  * DMX over Ethernet packets (ArtNet, sACN)
  *
  * @author Jan N. Klug - Initial contribution
+ * @author agent - Copy payload directly from universe
  */
 public abstract class DmxOverEthernetPacket {
 
@@ -60,6 +63,26 @@ public abstract class DmxOverEthernetPacket {
      */
     public abstract void setPayload(byte[] payload, int payloadSize);
 
+    /**
+     * set payload data directly from the universe buffer, without an intermediate copy
+     *
+     * @param universe the universe containing the DMX channel data
+     */
+    public void setPayload(Universe universe) {
+        int bufferSize = universe.getBufferSize();
+        if (bufferSize != this.payloadSize) {
+            setPayloadSize(bufferSize);
+        }
+        universe.copyBuffer(rawPacket, getPayloadOffset());
+    }
+
+    /**
+     * get the position of the DMX channel data in the raw packet
+     *
+     * @return offset of the payload
+     */
+    protected abstract int getPayloadOffset();
+
     /**
      * get packet for transmission
      *
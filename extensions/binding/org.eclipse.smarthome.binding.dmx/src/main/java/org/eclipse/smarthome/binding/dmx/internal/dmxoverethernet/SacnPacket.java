@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
  * sent to the bridge.
  *
  * @author Jan N. Klug - Initial contribution
+ * @author agent - Added payload offset
  */
 public class SacnPacket extends DmxOverEthernetPacket {
     public static final int SACN_MAX_PACKET_LEN = 638;
@@ -166,7 +167,7 @@ public class SacnPacket extends DmxOverEthernetPacket {
 
     @Override
     public void setPayload(byte[] payload) {
-        System.arraycopy(payload, 0, rawPacket, 126, payloadSize);
+        System.arraycopy(payload, 0, rawPacket, getPayloadOffset(), payloadSize);
     }
 
     @Override
@@ -177,9 +178,14 @@ public class SacnPacket extends DmxOverEthernetPacket {
         setPayload(payload);
     }
 
+    @Override
+    protected int getPayloadOffset() {
+        return 126;
+    }
+
     @Override
     public int getPacketLength() {
-        return (126 + this.payloadSize);
+        return (getPayloadOffset() + this.payloadSize);
     }
 
 }
@@ -36,6 +36,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Jan N. Klug - Initial contribution
  * @author Davy Vanherbergen - Initial contribution
+ * @author agent - Added idle check
  */
 public class DmxChannel extends BaseDmxChannel {
     public static final int MIN_VALUE = 0;
@@ -46,6 +47,7 @@ public class DmxChannel extends BaseDmxChannel {
     private int value = MIN_VALUE;
     private int suspendedValue = MIN_VALUE;
     private int lastStateValue = -1;
+    private int lastCalculatedValue = -1;
 
     private boolean isSuspended = false;
     private int refreshTime = 0;
@@ -244,6 +246,17 @@ public class DmxChannel extends BaseDmxChannel {
         logger.trace("switching to next action {} on channel {}", actions.get(0), this);
     }
 
+    /**
+     * Check if the value of this channel can change in the next calculation, i.e. if an action is running or a value
+     * change has not been propagated yet. A value is propagated once it has been returned by the last calculation and
+     * sent to the listeners, whose updates are limited by the refresh time.
+     *
+     * @return true if neither an action is running nor a value change is pending
+     */
+    public synchronized boolean isIdle() {
+        return !hasRunningActions() && lastCalculatedValue == value && lastStateValue == value;
+    }
+
     /**
      * Get the new value for this channel as determined by active actions or the
      * current value.
@@ -298,6 +311,7 @@ public class DmxChannel extends BaseDmxChannel {
             lastStateTimestamp = calculationTime;
         }
 
+        lastCalculatedValue = value;
         return value;
     }
 
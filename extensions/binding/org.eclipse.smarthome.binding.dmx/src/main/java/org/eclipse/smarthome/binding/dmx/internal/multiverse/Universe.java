@@ -13,6 +13,7 @@
 package org.eclipse.smarthome.binding.dmx.internal.multiverse;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
@@ -26,6 +27,7 @@ import org.slf4j.LoggerFactory;
  * bridges
  *
  * @author Jan N. Klug - Initial contribution
+ * @author agent - Skip idle channels and copy buffer without allocation
  */
 public class Universe {
     public static final int MIN_UNIVERSE_SIZE = 32;
@@ -46,6 +48,11 @@ public class Universe {
 
     private final List<DmxChannel> channels = new ArrayList<DmxChannel>();
     private final List<Integer> applyCurve = new ArrayList<Integer>();
+    // channel id -> dim curve applied, for a fast lookup in the frame calculation
+    private final boolean[] applyCurveLookup = new boolean[MAX_UNIVERSE_SIZE + 1];
+
+    // all channels need to be recalculated, not only the ones with pending changes
+    private volatile boolean recalculateAll = true;
 
     /**
      * universe constructor
@@ -122,6 +129,7 @@ public class Universe {
                 if (channel.getChannelId() > bufferSize) {
                     bufferSize = channel.getChannelId();
                 }
+                recalculateAll = true;
             } finally {
                 universeLock.unlock();
             }
@@ -179,12 +187,18 @@ public class Universe {
     public void calculateBuffer(long time) {
         universeLock.lock();
         try {
+            boolean all = recalculateAll;
+            recalculateAll = false;
             for (DmxChannel channel : channels) {
+                if (!all && channel.isIdle()) {
+                    // neither an action is running nor a value change is pending, the buffer is up to date
+                    continue;
+                }
                 logger.trace("calculating new value for {}", channel);
                 int channelId = channel.getChannelId();
                 int vx = channel.getNewHiResValue(time);
                 int value;
-                if (applyCurve.contains(channelId)) {
+                if (applyCurveLookup[channelId]) {
                     value = cie1931Curve[vx];
                 } else {
                     value = vx >> 8;
@@ -217,15 +231,42 @@ public class Universe {
         return b;
     }
 
+    /**
+     * copy the universe buffer into the given array, without allocating a new one
+     *
+     * @param target the array to copy the channel values to
+     * @param offset the position of the first channel in the target array
+     * @return the number of copied channel values (the buffer size)
+     */
+    public int copyBuffer(byte[] target, int offset) {
+        universeLock.lock();
+        try {
+            for (int i = 0; i < bufferSize; i++) {
+                target[offset + i] = (byte) buffer[i];
+            }
+            return bufferSize;
+        } finally {
+            universeLock.unlock();
+        }
+    }
+
     /**
      * set list of channels that should use the LED dim curve
      *
      * @param listString
      */
     public void setDimCurveChannels(String listString) {
-        applyCurve.clear();
-        for (BaseDmxChannel channel : BaseDmxChannel.fromString(listString, universeId)) {
-            applyCurve.add(channel.getChannelId());
+        universeLock.lock();
+        try {
+            applyCurve.clear();
+            Arrays.fill(applyCurveLookup, false);
+            for (BaseDmxChannel channel : BaseDmxChannel.fromString(listString, universeId)) {
+                applyCurve.add(channel.getChannelId());
+                applyCurveLookup[channel.getChannelId()] = true;
+            }
+            recalculateAll = true;
+        } finally {
+            universeLock.unlock();
         }
         logger.debug("applying dim curve in universe {} to channels {}", universeId, applyCurve);
     }
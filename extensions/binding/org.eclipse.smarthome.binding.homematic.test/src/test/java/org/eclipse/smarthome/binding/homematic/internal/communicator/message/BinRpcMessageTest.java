@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests the encoding and decoding of BIN-RPC messages.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcMessageTest {
+
+    private static final String ENCODING = "ISO-8859-1";
+
+    @Test
+    public void multicallIsDecodedFromFragmentedStream() throws IOException {
+        Map<String, Object> call = new HashMap<>();
+        call.put("methodName", "event");
+        call.put("params", Arrays.asList("gateway", "NEQ0000001:1", "LEVEL", 0.5));
+        BinRpcMessage request = new BinRpcMessage("system.multicall", ENCODING);
+        request.addArg(Collections.singletonList(call));
+        byte[] data = request.createMessage();
+
+        BinRpcMessage message = new BinRpcMessage(new FragmentingInputStream(data, 3), true, ENCODING);
+
+        assertThat(message.getMethodName(), is("system.multicall"));
+        Object[] calls = (Object[]) message.getResponseData()[0];
+        assertThat(calls.length, is(1));
+        Map<?, ?> decodedCall = (Map<?, ?>) calls[0];
+        assertThat(decodedCall.get("methodName"), is("event"));
+        Object[] params = (Object[]) decodedCall.get("params");
+        assertThat(params[1], is("NEQ0000001:1"));
+        assertThat(params[3], is(0.5));
+    }
+
+    @Test
+    public void messageLengthIsReadFromHeader() throws IOException {
+        BinRpcMessage request = new BinRpcMessage("event", ENCODING);
+        request.addArg("gateway");
+        request.addArg(42);
+        byte[] data = request.createMessage();
+
+        assertThat(BinRpcMessage.getMessageLength(data), is(data.length));
+
+        BinRpcMessage message = new BinRpcMessage(new ByteArrayInputStream(data), true, ENCODING);
+        assertThat(message.getResponseData()[1], is(42));
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidSignatureIsRejected() throws IOException {
+        BinRpcMessage.getMessageLength(new byte[] { 'X', 'm', 'l', 0, 0, 0, 0, 8 });
+    }
+
+    @Test(expected = IOException.class)
+    public void negativeMessageLengthIsRejected() throws IOException {
+        BinRpcMessage.getMessageLength(new byte[] { 'B', 'i', 'n', 0, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0 });
+    }
+
+    @Test(expected = IOException.class)
+    public void overlongMessageIsRejected() throws IOException {
+        // Integer.MAX_VALUE would overflow with the length of the header
+        BinRpcMessage.getMessageLength(new byte[] { 'B', 'i', 'n', 0, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff });
+    }
+
+    /**
+     * Returns the data in small chunks, like a slow network connection.
+     */
+    private static class FragmentingInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+        private final int chunkSize;
+
+        FragmentingInputStream(byte[] data, int chunkSize) {
+            this.in = new ByteArrayInputStream(data);
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return in.read(b, off, Math.min(len, chunkSize));
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.smarthome.binding.homematic.internal.communicator.message.RpcRequest;
+import org.eclipse.smarthome.binding.homematic.internal.model.HmDatapointInfo;
+import org.junit.Test;
+
+/**
+ * Tests the handling of the method calls of a Homematic gateway.
+ *
+ * @author agent - Initial contribution
+ */
+public class RpcResponseHandlerTest {
+
+    private final List<List<RpcEvent>> batches = new ArrayList<>();
+    private final List<String> calls = new ArrayList<>();
+
+    private final RpcEventListener listener = new RpcEventListener() {
+        @Override
+        public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+            calls.add("event");
+        }
+
+        @Override
+        public void eventsReceived(List<RpcEvent> events) {
+            batches.add(events);
+            calls.add("events");
+        }
+
+        @Override
+        public void newDevices(List<String> adresses) {
+            calls.add("newDevices");
+        }
+
+        @Override
+        public void deleteDevices(List<String> addresses) {
+            calls.add("deleteDevices");
+        }
+    };
+
+    private final RpcResponseHandler<String> handler = new RpcResponseHandler<String>(listener) {
+        @Override
+        protected String getEmptyStringResult() {
+            return "";
+        }
+
+        @Override
+        protected String getEmptyArrayResult() {
+            return "[]";
+        }
+
+        @Override
+        protected String getEmptyEventListResult() {
+            return "[event]";
+        }
+
+        @Override
+        protected RpcRequest<String> createRpcRequest() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    public void multicallEventsAreDeliveredAsBatch() throws IOException {
+        Object[] multicall = new Object[] { event("NEQ0000001:1", "LEVEL", 0.5), event("NEQ0000001:2", "STATE", true),
+                call("newDevices", new Object[] { "gateway", new Object[0] }),
+                event("NEQ0000002:1", "STATE", false) };
+
+        handler.handleMethodCall("system.multicall", new Object[] { multicall });
+
+        assertThat(calls, is(Arrays.asList("events", "newDevices", "events")));
+        assertThat(batches.get(0).size(), is(2));
+        assertThat(batches.get(0).get(1).getDpInfo().getName(), is("STATE"));
+        assertThat(batches.get(0).get(1).getValue(), is(true));
+        assertThat(batches.get(1).get(0).getDpInfo().getAddress(), is("NEQ0000002"));
+    }
+
+    @Test
+    public void invalidMulticallEventsAreSkipped() throws IOException {
+        Object[] multicall = new Object[] { event("NEQ0000001:1", "LEVEL", 0.5),
+                call("event", new Object[] { "gateway" }), event("NEQ0000001:2", "STATE", true) };
+
+        handler.handleMethodCall("system.multicall", new Object[] { multicall });
+
+        assertThat(calls, is(Arrays.asList("events")));
+        assertThat(batches.get(0).size(), is(2));
+        assertThat(batches.get(0).get(0).getDpInfo().getName(), is("LEVEL"));
+        assertThat(batches.get(0).get(1).getDpInfo().getName(), is("STATE"));
+    }
+
+    private Map<String, Object> event(String address, String name, Object value) {
+        return call("event", new Object[] { "gateway", address, name, value });
+    }
+
+    private Map<String, Object> call(String methodName, Object[] params) {
+        Map<String, Object> call = new HashMap<>();
+        call.put("methodName", methodName);
+        call.put("params", params);
+        return call;
+    }
+
+}
@@ -39,6 +39,7 @@ import org.eclipse.smarthome.binding.homematic.internal.communicator.client.Unkn
 import org.eclipse.smarthome.binding.homematic.internal.communicator.client.XmlRpcClient;
 import org.eclipse.smarthome.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.eclipse.smarthome.binding.homematic.internal.communicator.server.BinRpcServer;
+import org.eclipse.smarthome.binding.homematic.internal.communicator.server.RpcEvent;
 import org.eclipse.smarthome.binding.homematic.internal.communicator.server.RpcEventListener;
 import org.eclipse.smarthome.binding.homematic.internal.communicator.server.RpcServer;
 import org.eclipse.smarthome.binding.homematic.internal.communicator.server.XmlRpcServer;
@@ -84,6 +85,7 @@ import org.slf4j.LoggerFactory;
  * The {@link AbstractHomematicGateway} is the main class for the communication with a Homematic gateway.
  *
  * @author Gerhard Riegler - Initial contribution
+ * @author agent - Handle batched events
  */
 public abstract class AbstractHomematicGateway implements RpcEventListener, HomematicGateway, VirtualGateway {
     private final Logger logger = LoggerFactory.getLogger(AbstractHomematicGateway.class);
@@ -722,10 +724,25 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
 
     @Override
     public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
-        String className = newValue == null ? "Unknown" : newValue.getClass().getSimpleName();
-        logger.debug("Received new ({}) value '{}' for '{}' from gateway with id '{}'", className, newValue, dpInfo,
-                id);
+        if (logger.isDebugEnabled()) {
+            String className = newValue == null ? "Unknown" : newValue.getClass().getSimpleName();
+            logger.debug("Received new ({}) value '{}' for '{}' from gateway with id '{}'", className, newValue,
+                    dpInfo, id);
+        }
+        handleEvent(dpInfo, newValue);
+    }
+
+    @Override
+    public void eventsReceived(List<RpcEvent> events) {
+        logger.debug("Received {} events from gateway with id '{}'", events.size(), id);
+        for (RpcEvent event : events) {
+            logger.trace("Received new value '{}' for '{}' from gateway with id '{}'", event.getValue(),
+                    event.getDpInfo(), id);
+            handleEvent(event.getDpInfo(), event.getValue());
+        }
+    }
 
+    private void handleEvent(HmDatapointInfo dpInfo, Object newValue) {
         if (echoEvents.remove(dpInfo)) {
             logger.debug("Echo event detected, ignoring '{}'", dpInfo);
         } else {
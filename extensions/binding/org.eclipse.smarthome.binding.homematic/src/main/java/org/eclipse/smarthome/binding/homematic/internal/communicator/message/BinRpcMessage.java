@@ -19,6 +19,7 @@ import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,7 +30,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +37,7 @@ import org.slf4j.LoggerFactory;
  * Handles BIN-RPC request and response messages to communicate with a Homematic gateway.
  *
  * @author Gerhard Riegler - Initial contribution
+ * @author agent - Decode from a ByteBuffer without intermediate copies
  */
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
@@ -46,8 +47,13 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         RESPONSE;
     }
 
+    private static final int HEADER_LENGTH = 8;
+    // the length is sent by the peer, larger messages are rejected instead of allocating a buffer of any size
+    private static final int MAX_MESSAGE_LENGTH = 32 * 1024 * 1024;
+
     private Object[] messageData;
     private byte binRpcData[];
+    private ByteBuffer buffer;
     private int offset;
 
     private String methodName;
@@ -74,39 +80,60 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
         this.encoding = encoding;
-        byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
+        byte header[] = new byte[HEADER_LENGTH];
+        int length = readFully(is, header, 0, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading signature");
         }
-        validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
+        validateBinXSignature(header);
+        length = readFully(is, header, 4, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading message length");
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
-        int currentLength;
-
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
-            offset += currentLength;
-        }
-        if (offset != datasize) {
-            throw new EOFException(
-                    "Only " + offset + " bytes received while reading message payload, expected " + datasize
-                            + " bytes");
+        int datasize = getMessageLength(header) - HEADER_LENGTH;
+
+        // the payload is read right behind the header, so that the message is decoded without further copies
+        byte message[] = new byte[HEADER_LENGTH + datasize];
+        System.arraycopy(header, 0, message, 0, HEADER_LENGTH);
+        length = readFully(is, message, HEADER_LENGTH, datasize);
+        if (length != datasize) {
+            throw new EOFException("Only " + length + " bytes received while reading message payload, expected "
+                    + datasize + " bytes");
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
         decodeMessage(message, methodHeader);
     }
 
-    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
+    private static int readFully(InputStream is, byte[] buffer, int offset, int length) throws IOException {
+        int read = 0;
+        int currentLength;
+        while (read < length && (currentLength = is.read(buffer, offset + read, length - read)) != -1) {
+            read += currentLength;
+        }
+        return read;
+    }
+
+    private static void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
         if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
             throw new UnsupportedEncodingException("No BinX signature");
         }
     }
 
+    /**
+     * Returns the total length of a BIN-RPC message, including the header, from the first eight bytes of the message.
+     *
+     * @param header the header of the message
+     * @return the length of the message
+     * @throws IOException if the header is not a valid BIN-RPC header or the message is too large
+     */
+    public static int getMessageLength(byte[] header) throws IOException {
+        validateBinXSignature(header);
+        int datasize = ByteBuffer.wrap(header, 4, 4).getInt();
+        if (datasize < 0 || datasize > MAX_MESSAGE_LENGTH - HEADER_LENGTH) {
+            throw new IOException("Invalid BIN-RPC message length " + datasize);
+        }
+        return HEADER_LENGTH + datasize;
+    }
+
     /**
      * Decodes a BIN-RPC message from the given byte array.
      */
@@ -121,6 +148,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
         binRpcData = message;
+        buffer = ByteBuffer.wrap(message);
 
         offset = 8;
 
@@ -136,6 +164,9 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     private void generateResponseData() throws IOException {
+        if (buffer == null || buffer.array() != binRpcData) {
+            buffer = ByteBuffer.wrap(binRpcData);
+        }
         offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
         List<Object> values = new ArrayList<Object>();
         while (offset < binRpcData.length) {
@@ -199,10 +230,9 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     // read rpc values
     private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
+        int value = buffer.getInt(offset);
         offset += 4;
-        return (new BigInteger(bi)).intValue();
+        return value;
     }
 
     private String readString() throws UnsupportedEncodingException {
@@ -215,7 +245,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         int type = readInt();
         switch (type) {
             case 1:
-                return new Integer(readInt());
+                return Integer.valueOf(readInt());
             case 2:
                 return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
@@ -35,8 +35,14 @@ import org.xml.sax.helpers.DefaultHandler;
  * Decodes a XML-RPC message from the Homematic server.
  *
  * @author Gerhard Riegler - Initial contribution
+ * @author agent - Reuse SAX parsers
  */
 public class XmlRpcResponse implements RpcResponse {
+    private static final SAXParserFactory PARSER_FACTORY = SAXParserFactory.newInstance();
+
+    // SAX parsers are not thread safe, but can be reused after a reset, so every thread keeps its own one
+    private static final ThreadLocal<SAXParser> PARSERS = new ThreadLocal<>();
+
     private String methodName;
     private Object[] responseData;
 
@@ -45,11 +51,25 @@ public class XmlRpcResponse implements RpcResponse {
      */
     public XmlRpcResponse(InputStream is, String encoding)
             throws SAXException, ParserConfigurationException, IOException {
-        SAXParserFactory factory = SAXParserFactory.newInstance();
-        SAXParser saxParser = factory.newSAXParser();
+        SAXParser saxParser = getParser();
         InputSource inputSource = new InputSource(is);
         inputSource.setEncoding(encoding);
-        saxParser.parse(inputSource, new XmlRpcHandler());
+        try {
+            saxParser.parse(inputSource, new XmlRpcHandler());
+        } finally {
+            saxParser.reset();
+        }
+    }
+
+    private static SAXParser getParser() throws ParserConfigurationException, SAXException {
+        SAXParser saxParser = PARSERS.get();
+        if (saxParser == null) {
+            synchronized (PARSER_FACTORY) {
+                saxParser = PARSER_FACTORY.newSAXParser();
+            }
+            PARSERS.set(saxParser);
+        }
+        return saxParser;
     }
 
     @Override
@@ -112,10 +132,10 @@ public class XmlRpcResponse implements RpcResponse {
                     break;
                 case "int":
                 case "i4":
-                    data.add(new Integer(currentValue));
+                    data.add(Integer.valueOf(currentValue));
                     break;
                 case "double":
-                    data.add(new Double(currentValue));
+                    data.add(Double.valueOf(currentValue));
                     break;
                 case "string":
                 case "name":
@@ -168,7 +188,7 @@ public class XmlRpcResponse implements RpcResponse {
 
         @Override
         public void characters(char[] ch, int start, int length) throws SAXException {
-            tagValue.append(new String(ch, start, length));
+            tagValue.append(ch, start, length);
         }
 
     }
@@ -14,40 +14,72 @@ package org.eclipse.smarthome.binding.homematic.internal.communicator.server;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.smarthome.binding.homematic.internal.common.HomematicConfig;
 import org.eclipse.smarthome.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.eclipse.smarthome.binding.homematic.internal.communicator.message.RpcRequest;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Waits for a message from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
+ * Waits for messages from the Homematic gateway and starts the BinRpcResponseHandler to handle them.
+ *
+ * All connections are served by a single selector thread, which reads the messages into buffers of their exact size.
+ * Complete messages are handled in the RPC thread pool, while the connection is not read any further, so that the
+ * messages of a connection are handled one after another in the order they were sent.
  *
  * @author Gerhard Riegler - Initial contribution
+ * @author agent - Non-blocking network service
  */
 public class BinRpcNetworkService implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
+
     private static final byte BIN_EMPTY_STRING[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 0, 3, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_ARRAY[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 1, 0, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_EVENT_LIST[] = { 'B', 'i', 'n', 1, 0, 0, 0, 21, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0,
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
+    private static final int HEADER_LENGTH = 8;
+
     private static final String RPC_POOL_NAME = "homematicRpc";
-    private ServerSocket serverSocket;
-    private boolean accept = true;
+    private ServerSocketChannel serverChannel;
+    private Selector selector;
+    private volatile boolean accept = true;
     private HomematicConfig config;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
 
+    // changes of the connections requested by the handler threads, applied by the selector thread
+    private final Queue<Runnable> pendingChanges = new ConcurrentLinkedQueue<>();
+
     /**
      * Creates the socket for listening to events from the Homematic gateway.
      */
     public BinRpcNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
         this.config = config;
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.socket()
+                    .bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
 
         this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
 
@@ -80,13 +112,57 @@ public class BinRpcNetworkService implements Runnable {
     public void run() {
         while (accept) {
             try {
-                Socket cs = serverSocket.accept();
-                BinRpcResponseHandler rpcHandler = new BinRpcResponseHandler(cs, rpcResponseHandler, config);
-                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(rpcHandler);
+                selector.select();
+                Runnable change;
+                while ((change = pendingChanges.poll()) != null) {
+                    change.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        acceptConnection();
+                    } else {
+                        handle((Connection) key.attachment());
+                    }
+                }
+            } catch (ClosedSelectorException ex) {
+                break;
             } catch (IOException ex) {
                 // ignore
             }
         }
+        closeAll();
+    }
+
+    /**
+     * Reads from or writes to a connection, a failure only closes this connection and not the selector thread.
+     */
+    private void handle(Connection connection) {
+        try {
+            if (connection.key.isReadable()) {
+                connection.read();
+            } else if (connection.key.isWritable()) {
+                connection.write();
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Closing connection from Homematic gateway after an unexpected error: {}", ex.getMessage(),
+                    ex);
+            connection.close();
+        }
+    }
+
+    private void acceptConnection() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(key, channel));
+        }
     }
 
     /**
@@ -95,10 +171,135 @@ public class BinRpcNetworkService implements Runnable {
     public void shutdown() {
         accept = false;
         try {
-            serverSocket.close();
+            serverChannel.close();
         } catch (IOException ioe) {
             // ignore
         }
+        selector.wakeup();
+    }
+
+    /**
+     * Closes all connections and the selector, called by the selector thread when it stops.
+     */
+    private void closeAll() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException | ClosedSelectorException ex) {
+            // ignore
+        }
+    }
+
+    /**
+     * A connection from the Homematic gateway, which reads one message at a time.
+     */
+    class Connection {
+        private final SelectionKey key;
+        private final SocketChannel channel;
+        private final long created;
+
+        private final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        private ByteBuffer message;
+        private ByteBuffer response;
+        private boolean closeAfterResponse;
+
+        Connection(SelectionKey key, SocketChannel channel) {
+            this.key = key;
+            this.channel = channel;
+            this.created = System.currentTimeMillis();
+        }
+
+        private void read() {
+            try {
+                if (message == null) {
+                    if (channel.read(header) < 0) {
+                        close();
+                        return;
+                    }
+                    if (header.hasRemaining()) {
+                        return;
+                    }
+                    // the payload is read right behind the header into an array of the exact message size
+                    byte[] data = new byte[BinRpcMessage.getMessageLength(header.array())];
+                    System.arraycopy(header.array(), 0, data, 0, HEADER_LENGTH);
+                    message = ByteBuffer.wrap(data);
+                    message.position(HEADER_LENGTH);
+                }
+                if (message.hasRemaining() && channel.read(message) < 0) {
+                    close();
+                    return;
+                }
+                if (!message.hasRemaining()) {
+                    byte[] data = message.array();
+                    message = null;
+                    header.clear();
+                    key.interestOps(0);
+                    ThreadPoolManager.getPool(RPC_POOL_NAME)
+                            .execute(new BinRpcResponseHandler(this, data, rpcResponseHandler, config));
+                }
+            } catch (IOException ex) {
+                logger.debug("Failed reading from Homematic gateway: {}", ex.getMessage());
+                close();
+            }
+        }
+
+        private void write() {
+            try {
+                channel.write(response);
+                if (!response.hasRemaining()) {
+                    response = null;
+                    if (closeAfterResponse) {
+                        close();
+                    } else {
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                }
+            } catch (IOException ex) {
+                logger.debug("Failed writing to Homematic gateway: {}", ex.getMessage());
+                close();
+            }
+        }
+
+        /**
+         * Sends the response to the last message and continues reading, if the connection has not been alive for
+         * too long. Called by the handler thread.
+         */
+        void respond(byte[] returnValue) {
+            boolean isMaxAliveReached = System.currentTimeMillis() - created > (config.getSocketMaxAlive() * 1000);
+            pendingChanges.add(() -> {
+                if (returnValue != null) {
+                    response = ByteBuffer.wrap(returnValue);
+                    closeAfterResponse = isMaxAliveReached;
+                    if (key.isValid()) {
+                        key.interestOps(SelectionKey.OP_WRITE);
+                    }
+                } else if (isMaxAliveReached) {
+                    close();
+                } else if (key.isValid()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            });
+            selector.wakeup();
+        }
+
+        /**
+         * Closes the connection. Called by the handler thread if the message could not be handled.
+         */
+        void abort() {
+            pendingChanges.add(this::close);
+            selector.wakeup();
+        }
+
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ioe) {
+                // ignore
+            }
+        }
     }
 
 }
@@ -13,8 +13,6 @@
 package org.eclipse.smarthome.binding.homematic.internal.communicator.server;
 
 import java.io.EOFException;
-import java.io.IOException;
-import java.net.Socket;
 
 import org.eclipse.smarthome.binding.homematic.internal.common.HomematicConfig;
 import org.eclipse.smarthome.binding.homematic.internal.communicator.message.BinRpcMessage;
@@ -22,53 +20,43 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Reads a BIN-RPC message from the socket and handles the method call.
+ * Decodes a BIN-RPC message received from the Homematic gateway and handles the method call.
  *
  * @author Gerhard Riegler - Initial contribution
+ * @author agent - Handle a single message read by the BinRpcNetworkService
  */
 public class BinRpcResponseHandler implements Runnable {
     private final Logger logger = LoggerFactory.getLogger(BinRpcResponseHandler.class);
 
-    private Socket socket;
+    private BinRpcNetworkService.Connection connection;
+    private byte[] data;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
     private HomematicConfig config;
-    private long created;
 
-    public BinRpcResponseHandler(Socket socket, RpcResponseHandler<byte[]> rpcResponseHandler, HomematicConfig config) {
-        this.socket = socket;
+    public BinRpcResponseHandler(BinRpcNetworkService.Connection connection, byte[] data,
+            RpcResponseHandler<byte[]> rpcResponseHandler, HomematicConfig config) {
+        this.connection = connection;
+        this.data = data;
         this.rpcResponseHandler = rpcResponseHandler;
         this.config = config;
-        this.created = System.currentTimeMillis();
     }
 
     /**
-     * Reads the event from the Homematic gateway and handles the method call.
+     * Decodes the event from the Homematic gateway and handles the method call.
      */
     @Override
     public void run() {
         try {
-            boolean isMaxAliveReached;
-            do {
-                BinRpcMessage message = new BinRpcMessage(socket.getInputStream(), true, config.getEncoding());
-                logger.trace("Event BinRpcMessage: {}", message);
-                byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
-                        message.getResponseData());
-                if (returnValue != null) {
-                    socket.getOutputStream().write(returnValue);
-                }
-                isMaxAliveReached = System.currentTimeMillis() - created > (config.getSocketMaxAlive() * 1000);
-            } while (!isMaxAliveReached);
-
+            BinRpcMessage message = new BinRpcMessage(data, true, config.getEncoding());
+            logger.trace("Event BinRpcMessage: {}", message);
+            byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
+                    message.getResponseData());
+            connection.respond(returnValue);
         } catch (EOFException eof) {
-            // ignore
+            connection.abort();
         } catch (Exception e) {
             logger.warn("{}", e.getMessage(), e);
-        } finally {
-            try {
-                socket.close();
-            } catch (IOException ioe) {
-                // ignore
-            }
+            connection.abort();
         }
     }
 }
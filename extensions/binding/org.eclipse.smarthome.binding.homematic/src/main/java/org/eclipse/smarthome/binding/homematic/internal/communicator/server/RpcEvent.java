@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.homematic.internal.communicator.server;
+
+import org.eclipse.smarthome.binding.homematic.internal.model.HmDatapointInfo;
+
+/**
+ * A single event received from a Homematic gateway.
+ *
+ * @author agent - Initial contribution
+ */
+public class RpcEvent {
+    private final HmDatapointInfo dpInfo;
+    private final Object value;
+
+    public RpcEvent(HmDatapointInfo dpInfo, Object value) {
+        this.dpInfo = dpInfo;
+        this.value = value;
+    }
+
+    /**
+     * Returns the info of the datapoint the event is for.
+     */
+    public HmDatapointInfo getDpInfo() {
+        return dpInfo;
+    }
+
+    /**
+     * Returns the new value of the datapoint.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return dpInfo + "=" + value;
+    }
+}
@@ -20,6 +20,7 @@ import org.eclipse.smarthome.binding.homematic.internal.model.HmDatapointInfo;
  * Methods called by the RpcServer when a event is received.
  *
  * @author Gerhard Riegler - Initial contribution
+ * @author agent - Added batched events
  */
 public interface RpcEventListener {
 
@@ -28,6 +29,16 @@ public interface RpcEventListener {
      */
     public void eventReceived(HmDatapointInfo dpInfo, Object newValue);
 
+    /**
+     * Called when multiple events are received at once from a Homematic gateway, e.g. within a multicall. The events
+     * are in the order in which the gateway sent them.
+     */
+    public default void eventsReceived(List<RpcEvent> events) {
+        for (RpcEvent event : events) {
+            eventReceived(event.getDpInfo(), event.getValue());
+        }
+    }
+
     /**
      * Called when new devices has been detected on the Homeamtic gateway.
      */
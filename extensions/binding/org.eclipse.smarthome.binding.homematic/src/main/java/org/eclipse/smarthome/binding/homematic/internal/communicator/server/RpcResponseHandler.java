@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
  * Common RPC response methods.
  *
  * @author Gerhard Riegler - Initial contribution
+ * @author agent - Deliver the events of a multicall as a batch
  */
 
 public abstract class RpcResponseHandler<T> {
@@ -60,14 +61,28 @@ public abstract class RpcResponseHandler<T> {
             msg.addArg(getListMethods());
             return msg.createMessage();
         } else if (RPC_METHODNAME_SYSTEM_MULTICALL.equals(methodName)) {
+            List<RpcEvent> events = new ArrayList<RpcEvent>();
             for (Object o : (Object[]) responseData[0]) {
                 Map<?, ?> call = (Map<?, ?>) o;
                 if (call != null) {
                     String method = ObjectUtils.toString(call.get("methodName"));
                     Object[] data = (Object[]) call.get("params");
-                    handleMethodCall(method, data);
+                    if (RPC_METHODNAME_EVENT.equals(method)) {
+                        try {
+                            events.add(parseEvent(data));
+                        } catch (IOException | RuntimeException e) {
+                            // a single malformed event must not discard the other events of the multicall
+                            logger.warn("Ignoring invalid event of a multicall from the Homematic gateway: {}",
+                                    e.getMessage(), e);
+                        }
+                    } else {
+                        // keep the order of the events and the other calls
+                        deliverEvents(events);
+                        handleMethodCall(method, data);
+                    }
                 }
             }
+            deliverEvents(events);
             return getEmptyEventListResult();
         } else if (RPC_METHODNAME_SET_CONFIG_READY.equals(methodName)) {
             return getEmptyEventListResult();
@@ -99,6 +114,22 @@ public abstract class RpcResponseHandler<T> {
         return getEmptyStringResult();
     }
 
+    private RpcEvent parseEvent(Object[] message) throws IOException {
+        EventParser eventParser = new EventParser();
+        HmDatapointInfo dpInfo = eventParser.parse(message);
+        return new RpcEvent(dpInfo, eventParser.getValue());
+    }
+
+    /**
+     * Populates the collected events of a multicall to the listener and clears the list.
+     */
+    private void deliverEvents(List<RpcEvent> events) {
+        if (!events.isEmpty()) {
+            listener.eventsReceived(new ArrayList<RpcEvent>(events));
+            events.clear();
+        }
+    }
+
     /**
      * Calls the listener when a devices has been detected.
      */
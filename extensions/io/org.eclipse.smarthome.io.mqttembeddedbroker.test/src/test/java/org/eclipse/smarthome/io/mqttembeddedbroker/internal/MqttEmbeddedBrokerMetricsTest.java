@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
+import org.eclipse.smarthome.io.transport.mqtt.MqttService;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Load tests of the embedded broker with many local clients, that check the metrics and the retained messages.
+ *
+ * @author agent - Initial contribution
+ */
+public class MqttEmbeddedBrokerMetricsTest extends JavaTest {
+
+    private static final int PORT = 12345;
+    private static final int DEVICES = 20;
+    private static final int MESSAGES_PER_DEVICE = 50;
+
+    public @Rule TemporaryFolder folder = new TemporaryFolder();
+
+    private @Mock MqttService service;
+
+    private final List<EmbeddedBrokerServiceImpl> brokers = new ArrayList<>();
+    private final List<MqttBrokerConnection> devices = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        for (MqttBrokerConnection device : devices) {
+            device.stop().get(5, TimeUnit.SECONDS);
+        }
+        for (EmbeddedBrokerServiceImpl broker : brokers) {
+            broker.deactivate();
+        }
+    }
+
+    private EmbeddedBrokerServiceImpl startBroker(String persistenceFile) throws IOException {
+        ServiceConfiguration config = new ServiceConfiguration();
+        config.port = PORT;
+        config.secure = false;
+        config.persistenceFile = persistenceFile;
+        config.threadPoolSize = 2;
+        config.connectionBacklog = 256;
+
+        EmbeddedBrokerServiceImpl broker = new EmbeddedBrokerServiceImpl();
+        broker.setMqttService(service);
+        broker.initialize(config);
+        brokers.add(broker);
+
+        MqttBrokerConnection connection = broker.getConnection();
+        waitForAssert(() -> assertThat(connection.connectionState(), is(MqttConnectionState.CONNECTED)));
+        return broker;
+    }
+
+    private MqttBrokerConnection startDevice(String clientId) {
+        MqttBrokerConnection device = new MqttBrokerConnection("127.0.0.1", PORT, false, clientId);
+        device.setPersistencePath(folder.getRoot().toPath());
+        devices.add(device);
+        device.start();
+        return device;
+    }
+
+    @Test
+    public void metricsOfManyClients() throws Exception {
+        EmbeddedBrokerServiceImpl broker = startBroker("");
+
+        AtomicInteger received = new AtomicInteger();
+        broker.getConnection().subscribe("tele/#", (topic, payload) -> received.incrementAndGet()).get(5,
+                TimeUnit.SECONDS);
+
+        for (int i = 0; i < DEVICES; i++) {
+            startDevice("device" + i);
+        }
+        for (MqttBrokerConnection device : devices) {
+            waitForAssert(() -> assertThat(device.connectionState(), is(MqttConnectionState.CONNECTED)));
+        }
+
+        // every device publishes its state again and again, like the tele messages of Tasmota
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int n = 0; n < MESSAGES_PER_DEVICE; n++) {
+            for (int i = 0; i < DEVICES; i++) {
+                futures.add(devices.get(i).publish("tele/device" + i + "/STATE", ("{\"n\":" + n + "}").getBytes(),
+                        1, true));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).get(30, TimeUnit.SECONDS);
+
+        int total = DEVICES * MESSAGES_PER_DEVICE;
+        waitForAssert(() -> assertThat(received.get(), is(total)));
+
+        BrokerMetricsDTO metrics = waitForAssert(() -> {
+            BrokerMetricsDTO m = broker.getMetrics();
+            assertThat(m.messagesIn, is((long) total));
+            assertTrue(m.messagesInPerSecond > 0);
+            return m;
+        });
+        assertThat(metrics.messagesOut, is((long) total));
+        assertTrue(metrics.messagesOutPerSecond > 0);
+        assertThat(metrics.connectedClients, is(DEVICES + 1));
+        assertThat(metrics.subscriptions, is(1));
+        assertThat(metrics.retainedMessages, is(DEVICES));
+        assertThat(metrics.clients.size(), is(DEVICES + 1));
+        for (BrokerClientMetricsDTO client : metrics.clients) {
+            assertTrue(client.connected);
+            assertThat(client.subscriptions, is(client.clientId.startsWith("device") ? 0 : 1));
+        }
+    }
+
+    @Test
+    public void retainedMessagesArePersisted() throws Exception {
+        String persistenceFile = folder.getRoot().toPath().resolve("retained.bin").toString();
+        EmbeddedBrokerServiceImpl broker = startBroker(persistenceFile);
+
+        MqttBrokerConnection connection = broker.getConnection();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(connection.publish("stat/device" + i + "/POWER", "ON".getBytes(), 1, true).get(5,
+                    TimeUnit.SECONDS));
+        }
+        waitForAssert(() -> assertThat(broker.getMetrics().retainedMessages, is(3)));
+        broker.stopEmbeddedServer();
+        assertNull(broker.getMetrics());
+
+        EmbeddedBrokerServiceImpl restartedBroker = startBroker(persistenceFile);
+        assertThat(restartedBroker.getMetrics().retainedMessages, is(3));
+
+        AtomicInteger received = new AtomicInteger();
+        restartedBroker.getConnection().subscribe("stat/#", (topic, payload) -> received.incrementAndGet());
+        waitForAssert(() -> assertThat(received.get(), is(3)));
+    }
+}
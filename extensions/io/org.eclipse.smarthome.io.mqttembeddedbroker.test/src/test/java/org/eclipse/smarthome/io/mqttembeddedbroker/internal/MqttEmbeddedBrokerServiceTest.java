@@ -22,8 +22,13 @@ import java.net.Socket;
 import java.security.GeneralSecurityException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.naming.ConfigurationException;
 import javax.net.ssl.SSLEngine;
@@ -145,4 +150,35 @@ public class MqttEmbeddedBrokerServiceTest {
         assertThat(c.connectionState(), is(MqttConnectionState.CONNECTED));
         verify(service).addBrokerConnection(anyString(), eq(c));
     }
+
+    @Test
+    public void publishManyMessages() throws InterruptedException, ExecutionException, TimeoutException {
+        ServiceConfiguration config = new ServiceConfiguration();
+        config.port = 12345;
+        config.secure = false;
+        config.persistenceFile = "";
+
+        subject.initialize(config);
+
+        MqttBrokerConnection c = subject.getConnection();
+        c.start();
+        // Wait for the connection, messages published before would be coalesced
+        for (int i = 0; i < 30 && c.connectionState() != MqttConnectionState.CONNECTED; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(c.connectionState(), is(MqttConnectionState.CONNECTED));
+
+        // More messages than the inflight window, they are queued by the connection instead of being rejected
+        int count = 5 * MqttBrokerConnection.DEFAULT_MAX_INFLIGHT;
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(c.publish("test/topic/" + (i % 50), ("message " + i).getBytes(), 1, false));
+        }
+        // All messages have to be delivered within a few seconds
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).get(10, TimeUnit.SECONDS);
+
+        for (CompletableFuture<Boolean> future : futures) {
+            assertThat(future.get(), is(true));
+        }
+    }
 }
@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.mqttembeddedbroker.internal;
+
+/**
+ * This is a data transfer object that is used to serialize the metrics of a client session of the embedded broker.
+ *
+ * @author agent - Initial contribution
+ */
+public class BrokerClientMetricsDTO {
+
+    public String clientId;
+    public boolean connected;
+    public boolean cleanSession;
+    public int subscriptions;
+
+    /** Number of messages that are queued for the client, e.g. while it is not connected */
+    public int queuedMessages;
+
+    /** Number of QoS 1 and 2 messages that have been sent to the client, but are not acknowledged yet */
+    public int inflightMessages;
+}
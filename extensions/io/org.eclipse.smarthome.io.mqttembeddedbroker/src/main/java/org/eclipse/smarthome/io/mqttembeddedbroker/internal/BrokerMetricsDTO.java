@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.mqttembeddedbroker.internal;
+
+import java.util.List;
+
+/**
+ * This is a data transfer object that is used to serialize the metrics of the embedded broker.
+ *
+ * @author agent - Initial contribution
+ */
+public class BrokerMetricsDTO {
+
+    /** Number of messages received from clients since the broker has been started */
+    public long messagesIn;
+
+    /** Number of messages delivered to subscribers since the broker has been started */
+    public long messagesOut;
+
+    /** Average number of received messages per second within the last seconds */
+    public double messagesInPerSecond;
+
+    /** Average number of delivered messages per second within the last seconds */
+    public double messagesOutPerSecond;
+
+    public int connectedClients;
+    public int subscriptions;
+    public int retainedMessages;
+
+    public List<BrokerClientMetricsDTO> clients;
+}
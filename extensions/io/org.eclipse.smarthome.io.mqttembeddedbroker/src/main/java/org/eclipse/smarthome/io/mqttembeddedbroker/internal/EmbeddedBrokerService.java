@@ -28,15 +28,11 @@ public interface EmbeddedBrokerService {
     /**
      * Starts the embedded broker.
      *
-     * @param port The broker port.
-     * @param secure Allow only secure connections if true or only plain connections otherwise.
-     * @param username Broker authentication user name.
-     * @param password Broker authentication password.
-     * @param persistence_filename The filename were persistent data should be stored.
+     * @param config The broker port, whether only secure connections are allowed, the authentication credentials, the
+     *            filename were persistent data should be stored and the tuning parameters.
      * @throws IOException If any error happens, like the port is already in use, this exception is thrown.
      */
-    void startEmbeddedServer(@Nullable Integer portParam, boolean secure, @Nullable String username,
-            @Nullable String password, String persistenceFilenameParam) throws IOException;
+    void startEmbeddedServer(ServiceConfiguration config) throws IOException;
 
     /**
      * Stops the embedded broker, if it is started.
@@ -48,4 +44,12 @@ public interface EmbeddedBrokerService {
      */
     @Nullable
     MqttBrokerConnection getConnection();
+
+    /**
+     * Returns the current metrics of the embedded broker, like message rates and the queued messages of clients.
+     *
+     * @return the metrics or null, if the broker is not started
+     */
+    @Nullable
+    BrokerMetricsDTO getMetrics();
 }
@@ -56,6 +56,7 @@ import io.moquette.spi.security.IAuthorizator;
  * TODO: wait for NetworkServerTls implementation to enable secure connections as well
  *
  * @author David Graeff - Initial contribution
+ * @author agent - Added tuning parameters, persistent retained messages and metrics
  */
 @Component(immediate = true, service = EmbeddedBrokerService.class, configurationPid = "org.eclipse.smarthome.mqttembeddedbroker", property = {
         org.osgi.framework.Constants.SERVICE_PID + "=org.eclipse.smarthome.mqttembeddedbroker",
@@ -105,7 +106,7 @@ public class EmbeddedBrokerServiceImpl implements EmbeddedBrokerService, Configu
 
     @SuppressWarnings("null")
     public void initialize(ServiceConfiguration config) throws IOException {
-        int port = config.port == null ? (config.port = config.secure ? 8883 : 1883) : config.port;
+        config.port = config.port == null ? (config.secure ? 8883 : 1883) : config.port;
 
         // Create MqttBrokerConnection
         connection = service.getBrokerConnection(Constants.CLIENTID);
@@ -123,7 +124,7 @@ public class EmbeddedBrokerServiceImpl implements EmbeddedBrokerService, Configu
         }
 
         // Start embedded server
-        startEmbeddedServer(port, config.secure, config.username, config.password, config.persistenceFile);
+        startEmbeddedServer(config);
     }
 
     @Deactivate
@@ -134,6 +135,7 @@ public class EmbeddedBrokerServiceImpl implements EmbeddedBrokerService, Configu
         MqttBrokerConnection connection = this.connection;
         if (connection == null) {
             if (server != null) {
+                metrics.resetServer();
                 server.stopServer();
             }
             server = null;
@@ -145,6 +147,7 @@ public class EmbeddedBrokerServiceImpl implements EmbeddedBrokerService, Configu
         try {
             connection.stop().thenRun(() -> {
                 if (server != null) {
+                    metrics.resetServer();
                     server.stopServer();
                     server = null;
                 }
@@ -168,9 +171,12 @@ public class EmbeddedBrokerServiceImpl implements EmbeddedBrokerService, Configu
     }
 
     @Override
-    public void startEmbeddedServer(@Nullable Integer portParam, boolean secure, @Nullable String username,
-            @Nullable String password, String persistenceFilenameParam) throws IOException {
-        String persistenceFilename = persistenceFilenameParam;
+    public void startEmbeddedServer(ServiceConfiguration config) throws IOException {
+        Integer portParam = config.port;
+        boolean secure = config.secure;
+        String username = config.username;
+        String password = config.password;
+        String persistenceFilename = config.persistenceFile;
         Server server = new Server();
         Properties properties = new Properties();
 
@@ -208,6 +214,15 @@ public class EmbeddedBrokerServiceImpl implements EmbeddedBrokerService, Configu
             }
             properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
         }
+        properties.put(BrokerConstants.STORAGE_CLASS_NAME, MqttEmbeddedBrokerStorage.class.getName());
+        properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, config.autosaveInterval.toString());
+
+        // Tuning
+        putIfSet(properties, BrokerConstants.BROKER_INTERCEPTOR_THREAD_POOL_SIZE, config.threadPoolSize);
+        putIfSet(properties, BrokerConstants.NETTY_SO_BACKLOG_PROPERTY_NAME, config.connectionBacklog);
+        putIfSet(properties, BrokerConstants.NETTY_TCP_NODELAY_PROPERTY_NAME, config.tcpNoDelay);
+        putIfSet(properties, BrokerConstants.NETTY_MAX_BYTES_PROPERTY_NAME, config.maxMessageSize);
+        putIfSet(properties, BrokerConstants.NETTY_CHANNEL_TIMEOUT_SECONDS_PROPERTY_NAME, config.connectTimeout);
 
         // We may provide ACL functionality at some point as well
         IAuthorizator authorizer = null;
@@ -228,14 +243,21 @@ public class EmbeddedBrokerServiceImpl implements EmbeddedBrokerService, Configu
         detectStart.startBrokerStartedDetection(port, s);
     }
 
+    private static void putIfSet(Properties properties, String key, @Nullable Object value) {
+        if (value != null) {
+            properties.put(key, value.toString());
+        }
+    }
+
     @Override
     public void stopEmbeddedServer() {
+        // the intercept handler can only be removed from a running server
+        metrics.resetServer();
         if (this.server != null) {
             server.stopServer();
             server = null;
         }
         detectStart.stopBrokerStartDetection();
-        metrics.resetServer();
     }
 
     /**
@@ -264,7 +286,7 @@ public class EmbeddedBrokerServiceImpl implements EmbeddedBrokerService, Configu
 
     /**
      * The callback from the detectStart.startBrokerStartedDetection() call within
-     * {@link #startEmbeddedServer(Integer, boolean, String, String, String)}.
+     * {@link #startEmbeddedServer(ServiceConfiguration)}.
      */
     @Override
     public void mqttEmbeddedBrokerStarted(boolean timeout) {
@@ -290,4 +312,9 @@ public class EmbeddedBrokerServiceImpl implements EmbeddedBrokerService, Configu
     public @Nullable MqttBrokerConnection getConnection() {
         return connection;
     }
+
+    @Override
+    public @Nullable BrokerMetricsDTO getMetrics() {
+        return metrics.getMetrics();
+    }
 }
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.mqttembeddedbroker.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console command extension to show the metrics of the embedded MQTT broker.
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+public class MqttEmbeddedBrokerConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_METRICS = "metrics";
+    private static final String SUBCMD_CLIENTS = "clients";
+
+    private EmbeddedBrokerService brokerService;
+
+    public MqttEmbeddedBrokerConsoleCommandExtension() {
+        super("mqttbroker", "Show the metrics of the embedded MQTT broker.");
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(new String[] {
+                buildCommandUsage(SUBCMD_METRICS, "shows the message rates, connected clients and retained messages"),
+                buildCommandUsage(SUBCMD_CLIENTS,
+                        "lists the client sessions with their subscriptions, queued and inflight messages") });
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 0) {
+            printUsage(console);
+            return;
+        }
+        BrokerMetricsDTO metrics = brokerService.getMetrics();
+        if (metrics == null) {
+            console.println("The embedded MQTT broker is not running.");
+            return;
+        }
+        switch (args[0]) {
+            case SUBCMD_METRICS:
+                console.println(String.format("Messages in:       %d (%.1f/s)", metrics.messagesIn,
+                        metrics.messagesInPerSecond));
+                console.println(String.format("Messages out:      %d (%.1f/s)", metrics.messagesOut,
+                        metrics.messagesOutPerSecond));
+                console.println("Connected clients: " + metrics.connectedClients);
+                console.println("Subscriptions:     " + metrics.subscriptions);
+                console.println("Retained messages: " + metrics.retainedMessages);
+                break;
+            case SUBCMD_CLIENTS:
+                console.println(String.format("%-32s %-9s %13s %6s %8s", "Client", "Connected", "Subscriptions",
+                        "Queued", "Inflight"));
+                for (BrokerClientMetricsDTO client : metrics.clients) {
+                    console.println(String.format("%-32s %-9s %13d %6d %8d", client.clientId, client.connected,
+                            client.subscriptions, client.queuedMessages, client.inflightMessages));
+                }
+                break;
+            default:
+                console.println("Unknown command '" + args[0] + "'");
+                printUsage(console);
+                break;
+        }
+    }
+
+    @Reference
+    protected void setEmbeddedBrokerService(EmbeddedBrokerService brokerService) {
+        this.brokerService = brokerService;
+    }
+
+    protected void unsetEmbeddedBrokerService(EmbeddedBrokerService brokerService) {
+        this.brokerService = null;
+    }
+
+}
@@ -12,11 +12,18 @@
  */
 package org.eclipse.smarthome.io.mqttembeddedbroker.internal;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
+import io.moquette.connections.IConnectionsManager;
 import io.moquette.interception.InterceptHandler;
 import io.moquette.interception.messages.InterceptAcknowledgedMessage;
 import io.moquette.interception.messages.InterceptConnectMessage;
@@ -25,15 +32,24 @@ import io.moquette.interception.messages.InterceptDisconnectMessage;
 import io.moquette.interception.messages.InterceptPublishMessage;
 import io.moquette.interception.messages.InterceptSubscribeMessage;
 import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+import io.moquette.persistence.PersistentSession;
 import io.moquette.server.Server;
+import io.moquette.spi.IMessagesStore;
+import io.moquette.spi.ISessionsStore;
+import io.moquette.spi.impl.ProtocolProcessor;
+import io.moquette.spi.impl.subscriptions.Subscription;
+import io.moquette.spi.impl.subscriptions.Topic;
 
 /**
- * Informs the given listener about connected clients and maybe other
- * server metrics in the future. You need to set the server with {@link #setServer(Server)}.
+ * Informs the given listener about connected clients and collects the metrics of the server, which are provided by
+ * {@link #getMetrics()}. You need to set the server with {@link #setServer(Server)}.
  *
- * Right now this is an adapter interface for Moquettes InterceptHandler.
+ * Right now this is an adapter interface for Moquettes InterceptHandler. The number of delivered messages is determined
+ * from the subscriptions that match a published message, because Moquette does not report delivered messages.
+ * Queued and inflight messages are only known for clients with a persistent session.
  *
  * @author David Graeff - Initial contribution
+ * @author agent - Added message rates and client metrics
  */
 @NonNullByDefault
 public class MqttEmbeddedBrokerMetrics implements InterceptHandler {
@@ -44,9 +60,19 @@ public class MqttEmbeddedBrokerMetrics implements InterceptHandler {
         void connectedClientIDs(Collection<String> clientIDs);
     }
 
+    /** Number of complete seconds over which the message rates are averaged */
+    static final int RATE_WINDOW = 10;
+
     private final BrokerMetricsListener listener;
     private @Nullable Server server;
 
+    private final RateCounter messagesIn = new RateCounter();
+    private final RateCounter messagesOut = new RateCounter();
+
+    // Moquette does not provide the subscriptions of clean sessions, so they are tracked here
+    private final Map<String, Set<Topic>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<String> cleanSessions = ConcurrentHashMap.newKeySet();
+
     public MqttEmbeddedBrokerMetrics(BrokerMetricsListener listener) {
         this.listener = listener;
     }
@@ -62,7 +88,10 @@ public class MqttEmbeddedBrokerMetrics implements InterceptHandler {
     }
 
     /**
-     * Set the Moquette server.
+     * Set the Moquette server. The existing subscriptions of persistent sessions are taken over from the server, later
+     * subscriptions are tracked from the subscribe and unsubscribe events. Moquette does not report the subscriptions
+     * of clean sessions, so those made before the server has been set are not counted until the client subscribes
+     * again.
      *
      * @param server Moquette server
      */
@@ -71,19 +100,114 @@ public class MqttEmbeddedBrokerMetrics implements InterceptHandler {
             this.server.removeInterceptHandler(this);
         }
         this.server = server;
+        subscriptions.clear();
+        cleanSessions.clear();
+        messagesIn.reset();
+        messagesOut.reset();
         server.addInterceptHandler(this);
+        for (Subscription subscription : server.getSubscriptions()) {
+            subscriptions.computeIfAbsent(subscription.getClientId(), clientId -> ConcurrentHashMap.newKeySet())
+                    .add(subscription.getTopicFilter());
+        }
+    }
+
+    /**
+     * Returns the current metrics of the server.
+     *
+     * @return the metrics or null, if no server is set
+     */
+    public @Nullable BrokerMetricsDTO getMetrics() {
+        Server server = this.server;
+        if (server == null) {
+            return null;
+        }
+        ProtocolProcessor processor = server.getProcessor();
+        ISessionsStore sessionsStore = processor.getSessionsStore();
+        IMessagesStore messagesStore = processor.getMessagesStore();
+        IConnectionsManager connections = server.getConnectionsManager();
+        long now = System.currentTimeMillis();
+
+        BrokerMetricsDTO metrics = new BrokerMetricsDTO();
+        metrics.messagesIn = messagesIn.getTotal();
+        metrics.messagesOut = messagesOut.getTotal();
+        metrics.messagesInPerSecond = messagesIn.getRate(now);
+        metrics.messagesOutPerSecond = messagesOut.getRate(now);
+        metrics.connectedClients = connections.countActiveConnections();
+        metrics.subscriptions = subscriptions.values().stream().mapToInt(Set::size).sum();
+        metrics.retainedMessages = messagesStore instanceof MqttEmbeddedBrokerRetainedStore
+                ? ((MqttEmbeddedBrokerRetainedStore) messagesStore).size()
+                : messagesStore.searchMatching(topic -> true).size();
+
+        // only persistent sessions are kept by the sessions store
+        Map<String, BrokerClientMetricsDTO> clients = new TreeMap<>();
+        for (PersistentSession session : sessionsStore.listAllSessions()) {
+            BrokerClientMetricsDTO client = createClientMetrics(session.clientID, connections);
+            client.cleanSession = session.cleanSession;
+            Queue<?> queue = sessionsStore.queue(session.clientID);
+            client.queuedMessages = queue != null ? queue.size() : 0;
+            client.inflightMessages = sessionsStore.getInflightMessagesNo(session.clientID);
+            clients.put(client.clientId, client);
+        }
+        for (String clientId : connections.getConnectedClientIds()) {
+            if (!clients.containsKey(clientId)) {
+                BrokerClientMetricsDTO client = createClientMetrics(clientId, connections);
+                client.cleanSession = true;
+                clients.put(clientId, client);
+            }
+        }
+        metrics.clients = new ArrayList<>(clients.values());
+        return metrics;
+    }
+
+    private BrokerClientMetricsDTO createClientMetrics(String clientId, IConnectionsManager connections) {
+        BrokerClientMetricsDTO client = new BrokerClientMetricsDTO();
+        client.clientId = clientId;
+        client.connected = connections.isConnected(clientId);
+        Set<Topic> topicFilters = subscriptions.get(clientId);
+        client.subscriptions = topicFilters != null ? topicFilters.size() : 0;
+        return client;
     }
 
     @Override
     public void onUnsubscribe(@Nullable InterceptUnsubscribeMessage msg) {
+        if (msg == null) {
+            return;
+        }
+        Set<Topic> topicFilters = subscriptions.get(msg.getClientID());
+        if (topicFilters != null) {
+            topicFilters.remove(new Topic(msg.getTopicFilter()));
+        }
     }
 
     @Override
     public void onSubscribe(@Nullable InterceptSubscribeMessage msg) {
+        if (msg == null) {
+            return;
+        }
+        subscriptions.computeIfAbsent(msg.getClientID(), clientId -> ConcurrentHashMap.newKeySet())
+                .add(new Topic(msg.getTopicFilter()));
     }
 
     @Override
     public void onPublish(@Nullable InterceptPublishMessage msg) {
+        if (msg == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        messagesIn.add(1, now);
+
+        Topic topic = new Topic(msg.getTopicName());
+        int receivers = 0;
+        for (Set<Topic> topicFilters : subscriptions.values()) {
+            for (Topic topicFilter : topicFilters) {
+                if (topic.match(topicFilter)) {
+                    receivers++;
+                }
+            }
+        }
+        if (receivers > 0) {
+            messagesOut.add(receivers, now);
+        }
     }
 
     @Override
@@ -92,6 +216,9 @@ public class MqttEmbeddedBrokerMetrics implements InterceptHandler {
 
     @Override
     public void onDisconnect(@Nullable InterceptDisconnectMessage msg) {
+        if (msg != null) {
+            removeCleanSession(msg.getClientID());
+        }
         Server server = this.server;
         if (server != null) {
             listener.connectedClientIDs(server.getConnectionsManager().getConnectedClientIds());
@@ -100,6 +227,9 @@ public class MqttEmbeddedBrokerMetrics implements InterceptHandler {
 
     @Override
     public void onConnectionLost(@Nullable InterceptConnectionLostMessage msg) {
+        if (msg != null) {
+            removeCleanSession(msg.getClientID());
+        }
         Server server = this.server;
         if (server != null) {
             listener.connectedClientIDs(server.getConnectionsManager().getConnectedClientIds());
@@ -108,20 +238,79 @@ public class MqttEmbeddedBrokerMetrics implements InterceptHandler {
 
     @Override
     public void onConnect(@Nullable InterceptConnectMessage msg) {
+        if (msg != null) {
+            if (msg.isCleanSession()) {
+                // the subscriptions of a previous session are discarded
+                subscriptions.remove(msg.getClientID());
+                cleanSessions.add(msg.getClientID());
+            } else {
+                cleanSessions.remove(msg.getClientID());
+            }
+        }
         Server server = this.server;
         if (server != null) {
             listener.connectedClientIDs(server.getConnectionsManager().getConnectedClientIds());
         }
     }
 
+    private void removeCleanSession(String clientId) {
+        if (cleanSessions.remove(clientId)) {
+            subscriptions.remove(clientId);
+        }
+    }
+
     @Override
     public Class<?>[] getInterceptedMessageTypes() {
         return new Class<?>[] { InterceptConnectMessage.class, InterceptConnectionLostMessage.class,
-                InterceptDisconnectMessage.class };
+                InterceptDisconnectMessage.class, InterceptPublishMessage.class, InterceptSubscribeMessage.class,
+                InterceptUnsubscribeMessage.class };
     }
 
     @Override
     public String getID() {
         return "collectmetrics";
     }
+
+    /**
+     * Counts events and provides their average rate over the last {@link #RATE_WINDOW} complete seconds.
+     */
+    private static class RateCounter {
+        private final long[] seconds = new long[RATE_WINDOW + 1];
+        private final long[] counts = new long[RATE_WINDOW + 1];
+        private long total;
+
+        synchronized void add(long count, long now) {
+            long second = now / 1000;
+            int index = (int) (second % seconds.length);
+            if (seconds[index] != second) {
+                seconds[index] = second;
+                counts[index] = 0;
+            }
+            counts[index] += count;
+            total += count;
+        }
+
+        synchronized long getTotal() {
+            return total;
+        }
+
+        synchronized double getRate(long now) {
+            long second = now / 1000;
+            long sum = 0;
+            for (int i = 0; i < seconds.length; i++) {
+                if (seconds[i] < second && seconds[i] >= second - RATE_WINDOW) {
+                    sum += counts[i];
+                }
+            }
+            return (double) sum / RATE_WINDOW;
+        }
+
+        synchronized void reset() {
+            for (int i = 0; i < seconds.length; i++) {
+                seconds[i] = 0;
+                counts[i] = 0;
+            }
+            total = 0;
+        }
+    }
 }
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.mqttembeddedbroker.internal;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.eclipse.smarthome.core.auth.Role;
+import org.eclipse.smarthome.io.rest.RESTResource;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * This is a REST resource that provides the metrics of the embedded MQTT broker.
+ *
+ * @author agent - Initial contribution
+ */
+@Path(MqttEmbeddedBrokerResource.PATH_MQTTBROKER)
+@Api(value = MqttEmbeddedBrokerResource.PATH_MQTTBROKER)
+@Component
+public class MqttEmbeddedBrokerResource implements RESTResource {
+
+    /** The URI path to this resource */
+    public static final String PATH_MQTTBROKER = "mqttbroker";
+
+    private EmbeddedBrokerService brokerService;
+
+    @Reference
+    protected void setEmbeddedBrokerService(EmbeddedBrokerService brokerService) {
+        this.brokerService = brokerService;
+    }
+
+    protected void unsetEmbeddedBrokerService(EmbeddedBrokerService brokerService) {
+        this.brokerService = null;
+    }
+
+    @GET
+    @RolesAllowed({ Role.ADMIN })
+    @Path("/metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Gets the metrics of the embedded MQTT broker.", response = BrokerMetricsDTO.class)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK", response = BrokerMetricsDTO.class),
+            @ApiResponse(code = 503, message = "The broker is not running") })
+    public Response getMetrics() {
+        BrokerMetricsDTO metrics = brokerService.getMetrics();
+        if (metrics == null) {
+            return Response.status(Status.SERVICE_UNAVAILABLE).build();
+        }
+        return Response.ok(metrics).build();
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.mqttembeddedbroker.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.moquette.spi.IMatchingCondition;
+import io.moquette.spi.IMessagesStore;
+import io.moquette.spi.impl.subscriptions.Topic;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.mqtt.MqttQoS;
+
+/**
+ * Stores the retained messages of the embedded broker. The messages are kept in memory and are written to a file by
+ * {@link #save()}, if a file is given. The file is read again by {@link #initStore()}, so that the retained messages
+ * (e.g. the last state of devices) survive a restart of the broker.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MqttEmbeddedBrokerRetainedStore implements IMessagesStore {
+
+    private static final int FILE_VERSION = 1;
+
+    private final Logger logger = LoggerFactory.getLogger(MqttEmbeddedBrokerRetainedStore.class);
+
+    private final @Nullable Path file;
+    private final Map<Topic, StoredMessage> retained = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    /**
+     * Creates a new store.
+     *
+     * @param file the file to store the retained messages in, or null to keep them in memory only
+     */
+    public MqttEmbeddedBrokerRetainedStore(@Nullable Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void initStore() {
+        Path file = this.file;
+        if (file == null) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                logger.warn("Ignoring retained messages in '{}', the file format is unknown", file);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String topic = in.readUTF();
+                MqttQoS qos = MqttQoS.valueOf(in.readByte());
+                String clientId = in.readUTF();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+
+                StoredMessage message = new StoredMessage(payload, qos, topic);
+                message.setClientID(clientId);
+                message.setRetained(true);
+                retained.put(new Topic(topic), message);
+            }
+            logger.debug("Restored {} retained messages from '{}'", count, file);
+        } catch (NoSuchFileException e) {
+            // nothing stored yet
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Failed to restore the retained messages from '{}': {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the retained messages to the file, if they have been changed since they were written the last time.
+     */
+    public void save() {
+        Path file = this.file;
+        if (file == null || !dirty.getAndSet(false)) {
+            return;
+        }
+        List<StoredMessage> messages = new ArrayList<>(retained.values());
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeInt(messages.size());
+                for (StoredMessage message : messages) {
+                    ByteBuf payload = message.getPayload();
+                    out.writeUTF(message.getTopic());
+                    out.writeByte(message.getQos().value());
+                    out.writeUTF(message.getClientID());
+                    out.writeInt(payload.readableBytes());
+                    payload.readBytes(out, payload.readableBytes());
+                    payload.release();
+                }
+            }
+            // never leave a partially written file behind
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Stored {} retained messages in '{}'", messages.size(), file);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.warn("Failed to store the retained messages in '{}': {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of retained messages.
+     */
+    public int size() {
+        return retained.size();
+    }
+
+    @Override
+    public Collection<StoredMessage> searchMatching(@Nullable IMatchingCondition condition) {
+        List<StoredMessage> result = new ArrayList<>();
+        for (Map.Entry<Topic, StoredMessage> entry : retained.entrySet()) {
+            if (condition == null || condition.match(entry.getKey())) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void cleanRetained(@Nullable Topic topic) {
+        if (topic != null && retained.remove(topic) != null) {
+            dirty.set(true);
+        }
+    }
+
+    @Override
+    public void storeRetained(@Nullable Topic topic, @Nullable StoredMessage message) {
+        if (topic == null || message == null) {
+            return;
+        }
+        if (message.getClientID() == null) {
+            throw new IllegalArgumentException("Message to be persisted must have a not null client ID");
+        }
+        retained.put(topic, message);
+        dirty.set(true);
+    }
+}
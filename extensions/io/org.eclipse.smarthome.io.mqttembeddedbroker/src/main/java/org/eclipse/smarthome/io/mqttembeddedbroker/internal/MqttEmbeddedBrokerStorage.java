@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.mqttembeddedbroker.internal;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.moquette.BrokerConstants;
+import io.moquette.persistence.MemoryStorageService;
+import io.moquette.server.config.IConfig;
+import io.moquette.spi.IMessagesStore;
+import io.moquette.spi.ISessionsStore;
+import io.moquette.spi.IStore;
+
+/**
+ * The storage of the embedded broker. The Moquette version we use only provides an in-memory storage, so the retained
+ * messages are kept by a {@link MqttEmbeddedBrokerRetainedStore}, which writes them to the configured persistence file
+ * every {@link BrokerConstants#AUTOSAVE_INTERVAL_PROPERTY_NAME} seconds and when the broker is stopped. Sessions are
+ * kept in memory.
+ *
+ * Moquette creates the storage by reflection, see {@link BrokerConstants#STORAGE_CLASS_NAME}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MqttEmbeddedBrokerStorage implements IStore {
+
+    /** Default interval in seconds, in which changed retained messages are written to the file */
+    public static final int DEFAULT_AUTOSAVE_INTERVAL = 30;
+
+    private final MemoryStorageService sessions;
+    private final MqttEmbeddedBrokerRetainedStore retained;
+    private final ScheduledExecutorService scheduler;
+    private final int autosaveInterval;
+    private @Nullable ScheduledFuture<?> autosave;
+
+    public MqttEmbeddedBrokerStorage(IConfig config, ScheduledExecutorService scheduler) {
+        this.sessions = new MemoryStorageService(config, scheduler);
+        this.scheduler = scheduler;
+
+        String file = config.getProperty(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, "");
+        this.retained = new MqttEmbeddedBrokerRetainedStore(file.isEmpty() ? null : Paths.get(file));
+        this.autosaveInterval = Integer.parseInt(config.getProperty(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME,
+                Integer.toString(DEFAULT_AUTOSAVE_INTERVAL)));
+    }
+
+    @Override
+    public void initStore() {
+        sessions.initStore();
+        retained.initStore();
+        if (autosaveInterval > 0) {
+            autosave = scheduler.scheduleWithFixedDelay(retained::save, autosaveInterval, autosaveInterval,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        ScheduledFuture<?> autosave = this.autosave;
+        if (autosave != null) {
+            autosave.cancel(false);
+            this.autosave = null;
+        }
+        retained.save();
+        sessions.close();
+    }
+
+    @Override
+    public IMessagesStore messagesStore() {
+        return retained;
+    }
+
+    @Override
+    public ISessionsStore sessionsStore() {
+        return sessions.sessionsStore();
+    }
+}
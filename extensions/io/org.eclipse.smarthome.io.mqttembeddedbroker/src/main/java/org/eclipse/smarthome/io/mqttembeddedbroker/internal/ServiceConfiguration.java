@@ -19,6 +19,7 @@ import org.eclipse.jdt.annotation.Nullable;
  * Configuration of the {@link EmbeddedBrokerServiceImpl}.
  *
  * @author David Graeff - Initial contribution
+ * @author agent - Added tuning parameters
  */
 @NonNullByDefault
 public class ServiceConfiguration {
@@ -28,4 +29,14 @@ public class ServiceConfiguration {
 
     public @Nullable String username;
     public @Nullable String password;
+
+    /** Interval in seconds in which retained messages are written to the persistence file */
+    public Integer autosaveInterval = MqttEmbeddedBrokerStorage.DEFAULT_AUTOSAVE_INTERVAL;
+
+    // Tuning parameters, Moquette defaults are used if not set
+    public @Nullable Integer threadPoolSize;
+    public @Nullable Integer connectionBacklog;
+    public @Nullable Boolean tcpNoDelay;
+    public @Nullable Integer maxMessageSize;
+    public @Nullable Integer connectTimeout;
 }
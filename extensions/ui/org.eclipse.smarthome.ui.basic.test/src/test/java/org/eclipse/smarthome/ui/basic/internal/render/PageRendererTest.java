@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.basic.internal.render;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the splitting of snippets at their %children% placeholder by the {@link PageRenderer}.
+ *
+ * @author agent - Initial contribution
+ */
+public class PageRendererTest {
+
+    private final PageRenderer renderer = new PageRenderer();
+
+    @Test
+    public void snippetIsSplitAtChildren() {
+        StringBuilder sb = new StringBuilder("<body>");
+
+        String post = renderer.splitAtChildren("<div>%children%</div>", sb, "frame");
+
+        assertThat(sb.toString(), is("<body><div>"));
+        assertThat(post, is("</div>"));
+    }
+
+    @Test
+    public void snippetWithoutChildrenIsAppended() {
+        StringBuilder sb = new StringBuilder();
+
+        String post = renderer.splitAtChildren("<div></div>", sb, "text");
+
+        assertThat(sb.toString(), is("<div></div>"));
+        assertThat(post, is(nullValue()));
+    }
+
+    @Test
+    public void codeAfterASecondChildrenPlaceholderIsIgnored() {
+        StringBuilder sb = new StringBuilder();
+
+        String post = renderer.splitAtChildren("<div>%children%</div>%children%<span/>", sb, "frame");
+
+        assertThat(sb.toString(), is("<div>"));
+        assertThat(post, is("</div>"));
+    }
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.basic.internal.render;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the replacement of placeholders by the {@link SnippetTemplate}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SnippetTemplateTest {
+
+    @Test
+    public void placeholdersAreReplaced() {
+        SnippetTemplate template = new SnippetTemplate("<div id=\"%id%\">%label%: %label%</div>", "id", "label");
+
+        assertThat(template.render("widget", "Light"), is("<div id=\"widget\">Light: Light</div>"));
+    }
+
+    @Test
+    public void placeholdersAtTheStartAndEndAreReplaced() {
+        SnippetTemplate template = new SnippetTemplate("%id%%label%", "id", "label");
+
+        assertThat(template.render("widget", "Light"), is("widgetLight"));
+    }
+
+    @Test
+    public void otherPlaceholdersAreKept() {
+        SnippetTemplate template = new SnippetTemplate("<div id=\"%id%\">%children%</div>", "id");
+
+        assertThat(template.render("widget"), is("<div id=\"widget\">%children%</div>"));
+    }
+
+    @Test
+    public void placeholderWithoutValueIsKept() {
+        SnippetTemplate template = new SnippetTemplate("<div id=\"%id%\">%label%</div>", "id", "label");
+
+        assertThat(template.render("widget", null), is("<div id=\"widget\">%label%</div>"));
+    }
+
+    @Test
+    public void percentSignsOutsideOfPlaceholdersAreKept() {
+        SnippetTemplate template = new SnippetTemplate("<div style=\"width: 100%\">%label% 50%</div>", "label");
+
+        assertThat(template.render("Light"), is("<div style=\"width: 100%\">Light 50%</div>"));
+    }
+
+    @Test
+    public void valuesAreInsertedLiterally() {
+        SnippetTemplate template = new SnippetTemplate("<div>%label%</div>", "label");
+
+        assertThat(template.render("$1 \\ %id%"), is("<div>$1 \\ %id%</div>"));
+    }
+
+    @Test
+    public void snippetIsAppended() {
+        SnippetTemplate template = new SnippetTemplate("<div>%label%</div>", "label");
+        StringBuilder sb = new StringBuilder("<body>");
+
+        template.appendTo(sb, "Light");
+
+        assertThat(sb.toString(), is("<body><div>Light</div>"));
+    }
+
+}
@@ -18,8 +18,8 @@ import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringEscapeUtils;
@@ -46,6 +46,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Kai Kreuzer - Initial contribution and API
  * @author Vlad Ivanov - BasicUI changes
+ * @author agent - Replace the common placeholders in a single pass
  *
  */
 public abstract class AbstractWidgetRenderer implements WidgetRenderer {
@@ -67,7 +68,14 @@ public abstract class AbstractWidgetRenderer implements WidgetRenderer {
     protected static final String SNIPPET_LOCATION = "snippets/";
 
     /* a local cache so we do not have to read the snippets over and over again from the bundle */
-    protected static final Map<String, String> SNIPPET_CACHE = new HashMap<String, String>();
+    protected static final Map<String, String> SNIPPET_CACHE = new ConcurrentHashMap<String, String>();
+
+    /* the placeholders that are replaced by preprocessSnippet, in the order of their values */
+    private static final String[] PREPROCESS_PLACEHOLDERS = { "widget_id", "icon_type", "item", "label", "value",
+            "has_value", "visibility_class", "state", "category" };
+
+    /* the cached snippets compiled for preprocessSnippet */
+    private static final Map<String, SnippetTemplate> PREPROCESS_TEMPLATES = new ConcurrentHashMap<>();
 
     protected void setItemUIRegistry(ItemUIRegistry itemUIRegistry) {
         this.itemUIRegistry = itemUIRegistry;
@@ -113,25 +121,19 @@ public abstract class AbstractWidgetRenderer implements WidgetRenderer {
      * @return
      */
     protected String preprocessSnippet(String originalSnippet, Widget w) {
-        String snippet = originalSnippet;
-        snippet = StringUtils.replace(snippet, "%widget_id%", itemUIRegistry.getWidgetId(w));
-        snippet = StringUtils.replace(snippet, "%icon_type%", config.getIconType());
-        snippet = StringUtils.replace(snippet, "%item%", w.getItem() != null ? w.getItem() : "");
+        SnippetTemplate template = PREPROCESS_TEMPLATES.get(originalSnippet);
+        if (template == null) {
+            // the snippet has already been modified by the renderer, so it is not worth caching
+            template = new SnippetTemplate(originalSnippet, PREPROCESS_PLACEHOLDERS);
+        }
+
         // Optimization: avoid calling 3 times itemUIRegistry.getLabel(w)
         String text = itemUIRegistry.getLabel(w);
-        snippet = StringUtils.replace(snippet, "%label%", getLabel(text));
-        snippet = StringUtils.replace(snippet, "%value%", getValue(text));
-        snippet = StringUtils.replace(snippet, "%has_value%", new Boolean(hasValue(text)).toString());
-        snippet = StringUtils.replace(snippet, "%visibility_class%",
-                itemUIRegistry.getVisiblity(w) ? "" : "mdl-form__row--hidden");
-
         String state = getState(w);
-        snippet = StringUtils.replace(snippet, "%state%", state == null ? "" : escapeURL(state));
-
-        String category = getCategory(w);
-        snippet = StringUtils.replace(snippet, "%category%", escapeURL(category));
-
-        return snippet;
+        return template.render(itemUIRegistry.getWidgetId(w), config.getIconType(),
+                w.getItem() != null ? w.getItem() : "", getLabel(text), getValue(text),
+                Boolean.toString(hasValue(text)), itemUIRegistry.getVisiblity(w) ? "" : "mdl-form__row--hidden",
+                state == null ? "" : escapeURL(state), escapeURL(getCategory(w)));
     }
 
     /**
@@ -141,7 +143,7 @@ public abstract class AbstractWidgetRenderer implements WidgetRenderer {
      * @return the html snippet to be used in the UI (including placeholders for variables)
      * @throws RenderException if snippet could not be read
      */
-    protected synchronized String getSnippet(String elementType) throws RenderException {
+    protected String getSnippet(String elementType) throws RenderException {
         String lowerTypeElementType = elementType.toLowerCase();
         String snippet = SNIPPET_CACHE.get(lowerTypeElementType);
         if (snippet == null) {
@@ -149,8 +151,14 @@ public abstract class AbstractWidgetRenderer implements WidgetRenderer {
             URL entry = WebAppActivator.getContext().getBundle().getEntry(snippetLocation);
             if (entry != null) {
                 try {
-                    snippet = IOUtils.toString(entry.openStream());
-                    SNIPPET_CACHE.put(lowerTypeElementType, snippet);
+                    // concurrent requests might load the same snippet, but only the first one is kept
+                    String loadedSnippet = IOUtils.toString(entry.openStream());
+                    PREPROCESS_TEMPLATES.computeIfAbsent(loadedSnippet,
+                            key -> new SnippetTemplate(key, PREPROCESS_PLACEHOLDERS));
+                    snippet = SNIPPET_CACHE.putIfAbsent(lowerTypeElementType, loadedSnippet);
+                    if (snippet == null) {
+                        snippet = loadedSnippet;
+                    }
                 } catch (IOException e) {
                     logger.warn("Cannot load snippet for element type '{}'", lowerTypeElementType, e);
                 }
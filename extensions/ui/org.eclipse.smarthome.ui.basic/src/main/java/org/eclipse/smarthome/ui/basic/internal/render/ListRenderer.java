@@ -56,7 +56,7 @@ public class ListRenderer extends AbstractWidgetRenderer {
     @Override
     public EList<Widget> renderWidget(Widget w, StringBuilder sb) throws RenderException {
         String snippet = getSnippet("list");
-        snippet = snippet.replaceAll("%label%", getLabel(w));
+        snippet = StringUtils.replace(snippet, "%label%", getLabel(w));
 
         String rowSnippet = getSnippet("list_row");
         String state = itemUIRegistry.getState(w).toString();
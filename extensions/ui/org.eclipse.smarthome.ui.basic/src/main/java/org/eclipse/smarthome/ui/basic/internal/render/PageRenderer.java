@@ -15,7 +15,9 @@ package org.eclipse.smarthome.ui.basic.internal.render;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.emf.common.util.EList;
@@ -50,13 +52,22 @@ import org.slf4j.LoggerFactory;
  *
  * @author Kai Kreuzer - Initial contribution and API
  * @author Vlad Ivanov - BasicUI changes
+ * @author agent - Render pages from precompiled snippets
  *
  */
 @Component(service = { PageRenderer.class })
 public class PageRenderer extends AbstractWidgetRenderer {
 
+    private static final String CHILDREN_PLACEHOLDER = "%children%";
+
+    private static final String[] PAGE_PLACEHOLDERS = { "main.offline-msg", "main.long-polling-mode-msg", "id",
+            "label", "servletname", "sitemap", "htmlclass", "icon_type", "theme" };
+
     private final Logger logger = LoggerFactory.getLogger(PageRenderer.class);
 
+    /* the compiled page snippets by snippet name, there is one for the "main" and one for the "layer" snippet */
+    private final Map<String, SnippetTemplate> pageTemplates = new ConcurrentHashMap<>();
+
     List<WidgetRenderer> widgetRenderers = new ArrayList<WidgetRenderer>();
 
     @Override
@@ -94,10 +105,16 @@ public class PageRenderer extends AbstractWidgetRenderer {
      */
     public StringBuilder processPage(String id, String sitemap, String label, EList<Widget> children, boolean async)
             throws RenderException {
-        String snippet = getSnippet(async ? "layer" : "main");
-        snippet = snippet.replaceAll("%main.offline-msg%", localizeText("@text/main.offline-msg"));
-        snippet = snippet.replaceAll("%main.long-polling-mode-msg%", localizeText("@text/main.long-polling-mode-msg"));
-        snippet = snippet.replaceAll("%id%", id);
+        String snippetName = async ? "layer" : "main";
+        SnippetTemplate template = pageTemplates.get(snippetName);
+        if (template == null) {
+            // concurrent requests might compile the same snippet, but only the first template is kept
+            SnippetTemplate compiledTemplate = new SnippetTemplate(getSnippet(snippetName), PAGE_PLACEHOLDERS);
+            template = pageTemplates.putIfAbsent(snippetName, compiledTemplate);
+            if (template == null) {
+                template = compiledTemplate;
+            }
+        }
 
         // if the label contains a value span, we remove this span as
         // the title of a page/layer cannot deal with this
@@ -108,29 +125,52 @@ public class PageRenderer extends AbstractWidgetRenderer {
         if (labelPlain.contains("[") && labelPlain.endsWith("]")) {
             labelPlain = labelPlain.replace("[", "").replace("]", "");
         }
-        snippet = StringUtils.replace(snippet, "%label%", escapeHtml(labelPlain));
-        snippet = StringUtils.replace(snippet, "%servletname%", WebAppServlet.SERVLET_NAME);
-        snippet = StringUtils.replace(snippet, "%sitemap%", sitemap);
-        snippet = StringUtils.replace(snippet, "%htmlclass%", config.getCssClassList());
-        snippet = StringUtils.replace(snippet, "%icon_type%", config.getIconType());
-        snippet = StringUtils.replace(snippet, "%theme%", config.getTheme());
-
-        String[] parts = snippet.split("%children%");
-
-        StringBuilder preChildren = new StringBuilder(parts[0]);
-        StringBuilder postChildren = new StringBuilder(parts[1]);
-
-        if (parts.length == 2) {
+        String snippet = template.render(localizeText("@text/main.offline-msg"),
+                localizeText("@text/main.long-polling-mode-msg"), id, escapeHtml(labelPlain),
+                WebAppServlet.SERVLET_NAME, sitemap, config.getCssClassList(), config.getIconType(),
+                config.getTheme());
+
+        StringBuilder preChildren = new StringBuilder(snippet.length() + 256 * children.size());
+        String postChildren = splitAtChildren(snippet, preChildren, snippetName);
+        if (postChildren != null) {
             processChildren(preChildren, postChildren, children);
-        } else if (parts.length > 2) {
-            logger.error("Snippet '{}' contains multiple %children% sections, but only one is allowed!",
-                    async ? "layer" : "main");
         }
-        return preChildren.append(postChildren);
+        return preChildren;
     }
 
-    private void processChildren(StringBuilder sb_pre, StringBuilder sb_post, EList<Widget> children)
-            throws RenderException {
+    /**
+     * Appends the part of a snippet before its %children% placeholder to a string builder.
+     *
+     * @param snippet the snippet to split
+     * @param sb the string builder to append the first part to
+     * @param snippetName the name of the snippet for logging
+     * @return the part after the placeholder or null, if the snippet does not contain a %children% placeholder. In
+     *         this case, the whole snippet has been appended.
+     */
+    String splitAtChildren(CharSequence snippet, StringBuilder sb, String snippetName) {
+        String content = snippet.toString();
+        int index = content.indexOf(CHILDREN_PLACEHOLDER);
+        if (index == -1) {
+            sb.append(content);
+            return null;
+        }
+        sb.append(content, 0, index);
+        int postIndex = index + CHILDREN_PLACEHOLDER.length();
+        int nextIndex = content.indexOf(CHILDREN_PLACEHOLDER, postIndex);
+        if (nextIndex != -1) {
+            // ignore all code starting from the second occurrence
+            logger.error("Snippet '{}' contains multiple %children% sections, but only one is allowed!", snippetName);
+            return content.substring(postIndex, nextIndex);
+        }
+        return content.substring(postIndex);
+    }
+
+    /**
+     * Renders the children widgets directly into the given string builder, followed by the given closing part of the
+     * parent.
+     */
+    private void processChildren(StringBuilder sb, String post, EList<Widget> children) throws RenderException {
+        String framePost = null;
         // put a single frame around all children widgets, if there are no explicit frames
         if (!children.isEmpty()) {
             EObject firstChild = children.get(0);
@@ -142,49 +182,33 @@ public class PageRenderer extends AbstractWidgetRenderer {
                 frameSnippet = StringUtils.replace(frameSnippet, "%label%", "");
                 frameSnippet = StringUtils.replace(frameSnippet, "%frame_class%", "mdl-form--no-label");
 
-                String[] parts = frameSnippet.split("%children%");
-                if (parts.length > 1) {
-                    sb_pre.append(parts[0]);
-                    sb_post.insert(0, parts[1]);
-                }
-                if (parts.length > 2) {
-                    logger.error("Snippet 'frame' contains multiple %children% sections, but only one is allowed!");
+                int length = sb.length();
+                framePost = splitAtChildren(frameSnippet, sb, "frame");
+                if (framePost == null) {
+                    // a frame without children is not rendered at all
+                    sb.setLength(length);
                 }
             }
         }
 
         for (Widget w : children) {
-            StringBuilder newPre = new StringBuilder();
-            StringBuilder newPost = new StringBuilder();
-            StringBuilder widgetSB = new StringBuilder();
-            EList<Widget> nextChildren = renderWidget(w, widgetSB);
+            int start = sb.length();
+            EList<Widget> nextChildren = renderWidget(w, sb);
             if (nextChildren != null) {
-                String[] parts = widgetSB.toString().split("%children%");
-                // no %children% placeholder found or at the end
-                if (parts.length == 1) {
-                    newPre.append(widgetSB);
-                }
-                // %children% section found
-                if (parts.length > 1) {
-                    newPre.append(parts[0]);
-                    newPost.insert(0, parts[1]);
-                }
-                // multiple %children% sections found -> log an error and ignore all code starting from the second
-                // occurance
-                if (parts.length > 2) {
-                    String widgetType = w.eClass().getInstanceTypeName()
-                            .substring(w.eClass().getInstanceTypeName().lastIndexOf(".") + 1);
-                    logger.error(
-                            "Snippet for widget '{}' contains multiple %children% sections, but only one is allowed!",
-                            widgetType);
-                }
-                processChildren(newPre, newPost, nextChildren);
-                sb_pre.append(newPre);
-                sb_pre.append(newPost);
-            } else {
-                sb_pre.append(widgetSB);
+                // the widget has been rendered in place, so split it at its %children% placeholder
+                String widgetSnippet = sb.substring(start);
+                sb.setLength(start);
+                String widgetType = w.eClass().getInstanceTypeName()
+                        .substring(w.eClass().getInstanceTypeName().lastIndexOf(".") + 1);
+                String widgetPost = splitAtChildren(widgetSnippet, sb, widgetType);
+                processChildren(sb, widgetPost != null ? widgetPost : "", nextChildren);
             }
         }
+
+        if (framePost != null) {
+            sb.append(framePost);
+        }
+        sb.append(post);
     }
 
     @Override
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.ui.basic.internal.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A snippet that has been split at a given set of placeholders, so that the placeholders can be replaced in a single
+ * pass without creating intermediate strings. Other placeholders of the snippet are kept, so that they can still be
+ * replaced afterwards.
+ *
+ * @author agent - Initial contribution
+ */
+class SnippetTemplate {
+
+    private final String[] placeholderNames;
+
+    // the text before the first, between and after the last placeholder
+    private final String[] literals;
+
+    // the index of the placeholder name for each placeholder in the snippet
+    private final int[] placeholders;
+
+    private final int literalLength;
+
+    /**
+     * Compiles a snippet into a template.
+     *
+     * @param snippet the snippet
+     * @param placeholderNames the names of the placeholders (without the surrounding '%') that are filled by the
+     *            template
+     */
+    SnippetTemplate(String snippet, String... placeholderNames) {
+        this.placeholderNames = placeholderNames;
+
+        List<String> literalList = new ArrayList<>();
+        List<Integer> placeholderList = new ArrayList<>();
+        int literalStart = 0;
+        int index = snippet.indexOf('%');
+        while (index != -1) {
+            int placeholder = findPlaceholder(snippet, index);
+            if (placeholder == -1) {
+                index = snippet.indexOf('%', index + 1);
+            } else {
+                literalList.add(snippet.substring(literalStart, index));
+                placeholderList.add(placeholder);
+                literalStart = index + placeholderNames[placeholder].length() + 2;
+                index = snippet.indexOf('%', literalStart);
+            }
+        }
+        literalList.add(snippet.substring(literalStart));
+
+        literals = literalList.toArray(new String[literalList.size()]);
+        placeholders = placeholderList.stream().mapToInt(Integer::intValue).toArray();
+        literalLength = snippet.length();
+    }
+
+    private int findPlaceholder(String snippet, int index) {
+        for (int i = 0; i < placeholderNames.length; i++) {
+            String name = placeholderNames[i];
+            int end = index + name.length() + 1;
+            if (end < snippet.length() && snippet.charAt(end) == '%' && snippet.startsWith(name, index + 1)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends the snippet with its placeholders replaced to the given string builder.
+     *
+     * @param sb the string builder to append the snippet to
+     * @param values the values for the placeholders, in the order of the placeholder names given at compilation. A
+     *            <code>null</code> value keeps the placeholder.
+     */
+    void appendTo(StringBuilder sb, String... values) {
+        sb.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            String value = values[placeholders[i]];
+            if (value != null) {
+                sb.append(value);
+            } else {
+                sb.append('%').append(placeholderNames[placeholders[i]]).append('%');
+            }
+            sb.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Returns the snippet with its placeholders replaced.
+     *
+     * @param values the values for the placeholders, in the order of the placeholder names given at compilation. A
+     *            <code>null</code> value keeps the placeholder.
+     * @return the rendered snippet
+     */
+    String render(String... values) {
+        StringBuilder sb = new StringBuilder(literalLength + 32 * placeholders.length);
+        appendTo(sb, values);
+        return sb.toString();
+    }
+
+}
@@ -114,9 +114,9 @@ public class SwitchRenderer extends AbstractWidgetRenderer {
 
         if (nbButtons == 0) {
             if (state.equals(OnOffType.ON)) {
-                snippet = snippet.replaceAll("%checked%", "checked=true");
+                snippet = StringUtils.replace(snippet, "%checked%", "checked=true");
             } else {
-                snippet = snippet.replaceAll("%checked%", "");
+                snippet = StringUtils.replace(snippet, "%checked%", "");
             }
         } else {
             StringBuilder buttons = new StringBuilder();